@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -39,6 +40,7 @@ import io.atlasmap.java.v2.JavaClass;
 import io.atlasmap.json.inspect.JsonInspectionService;
 import io.atlasmap.json.v2.JsonDocument;
 import io.atlasmap.v2.CollectionType;
+import io.atlasmap.v2.FieldStatus;
 import io.atlasmap.xml.inspect.XmlInspectionService;
 import io.atlasmap.xml.v2.XmlDocument;
 
@@ -280,20 +282,21 @@ public class GenerateInspectionsMojo extends AbstractAtlasMapMojo {
         List<URL> urls = artifacts == null ? Collections.emptyList() : resolveClasspath(artifacts);
 
         ClassLoader origTccl = Thread.currentThread().getContextClassLoader();
-        for (String className : classNames) {
-            Class<?> clazz = null;
-            JavaClass c = null;
-            // Not even this plugin will be available on this new URLClassLoader
-            try (URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), origTccl)) {
-                clazz = loader.loadClass(className);
-                ClassInspectionService classInspectionService = new ClassInspectionService();
-                classInspectionService.setConversionService(DefaultAtlasConversionService.getInstance());
-                c = classInspectionService.inspectClass(loader, clazz, collectionType, collectionClassName);
-            } catch (ClassNotFoundException | IOException e) {
-                throw new MojoExecutionException(e.getMessage(), e);
-            }
+        Map<String, JavaClass> inspected = null;
+        // Not even this plugin will be available on this new URLClassLoader
+        try (URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), origTccl)) {
+            ClassInspectionService classInspectionService = new ClassInspectionService();
+            classInspectionService.setConversionService(DefaultAtlasConversionService.getInstance());
+            inspected = classInspectionService.inspectClasses(loader, classNames, collectionType, collectionClassName);
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
 
-            writeToJsonFile(DEFAULT_OUTPUT_FILE_PREFIX + "-" + className, c);
+        for (Map.Entry<String, JavaClass> entry : inspected.entrySet()) {
+            if (entry.getValue().getStatus() == FieldStatus.NOT_FOUND) {
+                throw new MojoExecutionException(entry.getKey(), new ClassNotFoundException(entry.getKey()));
+            }
+            writeToJsonFile(DEFAULT_OUTPUT_FILE_PREFIX + "-" + entry.getKey(), entry.getValue());
         }
     }
 
@@ -36,6 +36,8 @@ import io.atlasmap.spi.AtlasSeparateStrategy;
 public interface AtlasContextFactory {
     /** property key for atlasmap core version. */
     static final String PROPERTY_ATLASMAP_CORE_VERSION = "atlasmap.core.version";
+    /** property key to enable the compiled mapping, see {@link io.atlasmap.spi.AtlasMappingCompiler}. */
+    static final String PROPERTY_ATLASMAP_COMPILED_MAPPING = "atlasmap.compiled.mapping";
     /** mapping definition format. */
     enum Format {
         /** ADM. */
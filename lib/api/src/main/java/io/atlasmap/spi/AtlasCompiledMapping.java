@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.spi;
+
+import io.atlasmap.api.AtlasException;
+
+/**
+ * The mapping definition compiled by {@link AtlasMappingCompiler}. It reads the source documents
+ * from the session and puts the target documents into the session as the interpreted mapping
+ * process does, but doesn't populate the {@link io.atlasmap.v2.Field} objects nor the audits.
+ */
+public interface AtlasCompiledMapping {
+
+    /**
+     * Processes the mappings. If it encounters something which has to be handled by the interpreted
+     * mapping process such as a null value or an unexpected type of object, it returns false without
+     * putting any target document into the session so that the caller could fall back to the interpreted one.
+     * @param session session
+     * @return true if processed, or false if it has to fall back to the interpreted mapping process
+     * @throws AtlasException unexpected error
+     */
+    boolean process(AtlasInternalSession session) throws AtlasException;
+
+}
@@ -18,6 +18,7 @@ package io.atlasmap.spi;
 import java.util.Optional;
 
 import io.atlasmap.api.AtlasConversionException;
+import io.atlasmap.v2.Field;
 import io.atlasmap.v2.FieldType;
 
 /**
@@ -79,6 +80,20 @@ public interface AtlasConversionService {
     Object convertType(Object sourceValue, String sourceFormat, FieldType targetType, String targetFormat)
             throws AtlasConversionException;
 
+    /**
+     * Converts the value of the source field into the {@link FieldType} of the target field and sets
+     * it into the target field. Implementations may keep numeric and boolean values in the primitive
+     * slots of {@link Field} to avoid boxing.
+     *
+     * @param sourceField source field
+     * @param targetField target field
+     * @throws AtlasConversionException conversion failed
+     */
+    default void convertFieldValue(Field sourceField, Field targetField) throws AtlasConversionException {
+        targetField.setValue(convertType(sourceField.getValue(), sourceField.getFormat(),
+                targetField.getFieldType(), targetField.getFormat()));
+    }
+
     /**
      * Perform type conversion with specifying target {@link Class} regardless of AtlasMap {@link FieldType}.
      * @see #convertType(Object, FieldType, FieldType)
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.spi;
+
+import java.util.Map;
+
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.v2.AtlasMapping;
+
+/**
+ * The interface to compile a mapping definition into {@link AtlasCompiledMapping} which executes
+ * the mappings without going through the interpreted mapping process. The implementations are
+ * discovered through {@link java.util.ServiceLoader} and invoked on the context initialization
+ * if it's enabled by the {@link io.atlasmap.api.AtlasContextFactory#PROPERTY_ATLASMAP_COMPILED_MAPPING}
+ * property.
+ */
+public interface AtlasMappingCompiler {
+
+    /**
+     * Compiles the mapping definition.
+     * @param mapping mapping definition
+     * @param sourceModules source modules keyed by document ID, which are already initialized
+     * @param targetModules target modules keyed by document ID, which are already initialized
+     * @return compiled mapping, or null if the mapping definition contains something this compiler doesn't support
+     * @throws AtlasException unexpected error
+     */
+    AtlasCompiledMapping compile(AtlasMapping mapping, Map<String, AtlasModule> sourceModules,
+            Map<String, AtlasModule> targetModules) throws AtlasException;
+
+}
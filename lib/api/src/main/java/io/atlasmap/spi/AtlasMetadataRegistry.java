@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.spi;
+
+import java.util.concurrent.Callable;
+
+import io.atlasmap.api.AtlasException;
+
+/**
+ * The registry of the metadata which is expensive to build and can be shared among the modules
+ * of all the {@link io.atlasmap.api.AtlasContext} created by the same
+ * {@link io.atlasmap.api.AtlasContextFactory}, such as parsed schemas and helpers bound to a class loader.
+ * Each entry is reference counted and dropped once the last borrower releases it.
+ */
+public interface AtlasMetadataRegistry {
+
+    /**
+     * Acquires the metadata and increments its reference count. The loader is invoked only
+     * if the metadata is not yet registered.
+     * @param <T> metadata type
+     * @param category category of the metadata, e.g. module name and metadata kind
+     * @param key key of the metadata in the category, it must implement equals() and hashCode()
+     * @param loader loader to build the metadata
+     * @return shared metadata
+     * @throws AtlasException failed to load the metadata
+     */
+    <T> T acquire(String category, Object key, Callable<T> loader) throws AtlasException;
+
+    /**
+     * Releases the metadata acquired by {@link #acquire(String, Object, Callable)}. The metadata is
+     * removed from the registry, and closed if it's {@link AutoCloseable}, once the reference count reaches zero.
+     * @param category category of the metadata
+     * @param key key of the metadata
+     */
+    void release(String category, Object key);
+
+    /**
+     * Gets the number of the metadata registered.
+     * @return the number of the metadata registered
+     */
+    int size();
+
+    /**
+     * Removes all the metadata from this registry regardless of the reference count.
+     */
+    void clear();
+
+}
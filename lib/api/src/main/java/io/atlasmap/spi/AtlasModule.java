@@ -172,6 +172,22 @@ public interface AtlasModule {
      */
     void setFieldActionService(AtlasFieldActionService atlasFieldActionService);
 
+    /**
+     * Gets the metadata registry shared among the contexts.
+     * @return metadata registry, or null if the metadata is not shared
+     */
+    default AtlasMetadataRegistry getMetadataRegistry() {
+        return null;
+    }
+
+    /**
+     * Sets the metadata registry shared among the contexts.
+     * @param registry metadata registry
+     */
+    default void setMetadataRegistry(AtlasMetadataRegistry registry) {
+        // no-op by default
+    }
+
     /**
      * Gets the collection helper.
      * @return collection helper
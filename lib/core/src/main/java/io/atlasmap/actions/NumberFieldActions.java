@@ -52,6 +52,11 @@ import io.atlasmap.v2.VolumeUnitType;
 public class NumberFieldActions implements AtlasFieldAction {
     private static final Logger LOG = LoggerFactory.getLogger(NumberFieldActions.class);
 
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int DIVIDE = 3;
+
     // 1D
     private static final double KILO_GRAMS_IN_A_POUND = 0.45359237;
     private static final double YARDS_IN_A_MILE = 1760.0;
@@ -193,9 +198,27 @@ public class NumberFieldActions implements AtlasFieldAction {
             return ((BigDecimal) input).abs();
         }
         if (requiresDoubleResult(input)) {
-            return Math.abs(input.doubleValue());
+            return absoluteValue(input.doubleValue());
         }
-        return Math.abs(input.longValue());
+        return absoluteValue(input.longValue());
+    }
+
+    /**
+     * Gets the absolute value of the primitive {@code long}.
+     * @param input source
+     * @return absolute value
+     */
+    public static long absoluteValue(long input) {
+        return Math.abs(input);
+    }
+
+    /**
+     * Gets the absolute value of the primitive {@code double}.
+     * @param input source
+     * @return absolute value
+     */
+    public static double absoluteValue(double input) {
+        return Math.abs(input);
     }
 
     /**
@@ -209,25 +232,7 @@ public class NumberFieldActions implements AtlasFieldAction {
         if (inputs == null) {
             return 0;
         }
-
-        Number sum = 0L;
-        for (Object entry : inputs) {
-            if (entry instanceof Number) {
-                if (sum instanceof BigDecimal) {
-                    sum = ((BigDecimal) sum).add(BigDecimal.valueOf(((Number) entry).doubleValue()));
-                } else if (entry instanceof BigDecimal) {
-                    sum = BigDecimal.valueOf(sum.doubleValue()).add((BigDecimal) entry);
-                } else if (requiresDoubleResult(sum) || requiresDoubleResult(entry)) {
-                    sum = sum.doubleValue() + ((Number) entry).doubleValue();
-                } else {
-                    sum = sum.longValue() + ((Number) entry).longValue();
-                }
-            } else {
-                warnIgnoringValue("Add", entry);
-            }
-        }
-
-        return sum;
+        return calculate("Add", inputs, 0L, ADD);
     }
 
     /**
@@ -252,7 +257,16 @@ public class NumberFieldActions implements AtlasFieldAction {
      */
     @AtlasActionProcessor
     public static Number ceiling(Ceiling action, Number input) {
-        return input == null ? 0L : (long)Math.ceil(input.doubleValue());
+        return input == null ? 0L : ceiling(input.doubleValue());
+    }
+
+    /**
+     * Gets the ceiling of the primitive {@code double}.
+     * @param input source
+     * @return ceiling
+     */
+    public static long ceiling(double input) {
+        return (long)Math.ceil(input);
     }
 
     /**
@@ -358,25 +372,7 @@ public class NumberFieldActions implements AtlasFieldAction {
         if (inputs == null) {
             return 0;
         }
-
-        Number quotient = null;
-        for (Object entry : inputs) {
-            if (entry instanceof Number) {
-                if (quotient == null) {
-                    quotient = (Number) entry;
-                } else if (quotient instanceof BigDecimal) {
-                    quotient = ((BigDecimal) quotient).divide(BigDecimal.valueOf(((Number) entry).doubleValue()));
-                } else if (entry instanceof BigDecimal) {
-                    quotient = BigDecimal.valueOf(quotient.doubleValue()).divide((BigDecimal) entry);
-                } else {
-                    quotient = quotient.doubleValue() / ((Number) entry).doubleValue();
-                }
-            } else {
-                warnIgnoringValue("Divide", entry);
-            }
-        }
-
-        return quotient;
+        return calculate("Divide", inputs, null, DIVIDE);
     }
 
     /**
@@ -387,7 +383,16 @@ public class NumberFieldActions implements AtlasFieldAction {
      */
     @AtlasActionProcessor
     public static Number floor(Floor floor, Number input) {
-        return input == null ? 0L : (long)Math.floor(input.doubleValue());
+        return input == null ? 0L : floor(input.doubleValue());
+    }
+
+    /**
+     * Gets the floor of the primitive {@code double}.
+     * @param input source
+     * @return floor
+     */
+    public static long floor(double input) {
+        return (long)Math.floor(input);
     }
 
     /**
@@ -457,25 +462,7 @@ public class NumberFieldActions implements AtlasFieldAction {
         if (inputs == null) {
             return 0;
         }
-
-        Number product = 1L;
-        for (Object entry : inputs) {
-            if (entry instanceof Number) {
-                if (product instanceof BigDecimal) {
-                    product = ((BigDecimal) product).multiply(BigDecimal.valueOf(((Number) entry).doubleValue()));
-                } else if (entry instanceof BigDecimal) {
-                    product = BigDecimal.valueOf(product.doubleValue()).multiply((BigDecimal) entry);
-                } else if (requiresDoubleResult(product) || requiresDoubleResult(entry)) {
-                    product = product.doubleValue() * ((Number) entry).doubleValue();
-                } else {
-                    product = product.longValue() * ((Number) entry).longValue();
-                }
-            } else {
-                warnIgnoringValue("Multiply", entry);
-            }
-        }
-
-        return product;
+        return calculate("Multiply", inputs, 1L, MULTIPLY);
     }
 
     /**
@@ -486,7 +473,16 @@ public class NumberFieldActions implements AtlasFieldAction {
      */
     @AtlasActionProcessor
     public static Number round(Round action, Number input) {
-        return input == null ? 0L : Math.round(input.doubleValue());
+        return input == null ? 0L : round(input.doubleValue());
+    }
+
+    /**
+     * Rounds the primitive {@code double}.
+     * @param input source
+     * @return rounded
+     */
+    public static long round(double input) {
+        return Math.round(input);
     }
 
     /**
@@ -500,27 +496,107 @@ public class NumberFieldActions implements AtlasFieldAction {
         if (inputs == null) {
             return 0;
         }
+        return calculate("Subtract", inputs, null, SUBTRACT);
+    }
 
-        Number difference = null;
+    /**
+     * Applies the arithmetic operation to the numbers from left to right. The intermediate result is held
+     * in primitive {@code long} or {@code double} and boxed only once at the end. It switches to
+     * {@code double} once a {@link Double} or {@link Float} appears, and to {@link BigDecimal} once
+     * a {@link BigDecimal} appears.
+     * @param action action name
+     * @param inputs numbers
+     * @param initial initial value, or null to start with the first number
+     * @param op operation
+     * @return calculated, or the first number as is if there's no other number to apply
+     */
+    private static Number calculate(String action, List<Number> inputs, Long initial, int op) {
+        Number first = initial;
+        boolean calculated = false;
+        long longResult = initial != null ? initial : 0L;
+        double doubleResult = 0.0;
+        boolean isDouble = false;
+        BigDecimal decimalResult = null;
         for (Object entry : inputs) {
-            if (entry instanceof Number) {
-                if (difference == null) {
-                    difference = (Number) entry;
-                } else if (difference instanceof BigDecimal) {
-                    difference = ((BigDecimal) difference).subtract(BigDecimal.valueOf(((Number) entry).doubleValue()));
-                } else if (entry instanceof BigDecimal) {
-                    difference = BigDecimal.valueOf(difference.doubleValue()).subtract((BigDecimal) entry);
-                } else if (requiresDoubleResult(difference) || requiresDoubleResult(entry)) {
-                    difference = difference.doubleValue() - ((Number) entry).doubleValue();
+            if (!(entry instanceof Number)) {
+                warnIgnoringValue(action, entry);
+                continue;
+            }
+            Number number = (Number) entry;
+            if (first == null) {
+                first = number;
+                if (number instanceof BigDecimal) {
+                    decimalResult = (BigDecimal) number;
+                } else if (requiresDoubleResult(number)) {
+                    doubleResult = number.doubleValue();
+                    isDouble = true;
                 } else {
-                    difference = difference.longValue() - ((Number) entry).longValue();
+                    longResult = number.longValue();
+                }
+                continue;
+            }
+            calculated = true;
+            if (decimalResult != null) {
+                decimalResult = calculate(decimalResult, BigDecimal.valueOf(number.doubleValue()), op);
+            } else if (number instanceof BigDecimal) {
+                decimalResult = calculate(BigDecimal.valueOf(isDouble ? doubleResult : (double) longResult),
+                    (BigDecimal) number, op);
+            } else if (isDouble || op == DIVIDE || requiresDoubleResult(number)) {
+                if (!isDouble) {
+                    doubleResult = longResult;
+                    isDouble = true;
                 }
+                doubleResult = calculate(doubleResult, number.doubleValue(), op);
             } else {
-                warnIgnoringValue("Subtract", entry);
+                longResult = calculate(longResult, number.longValue(), op);
             }
         }
+        if (!calculated && initial == null) {
+            return first;
+        }
+        if (decimalResult != null) {
+            return decimalResult;
+        }
+        return isDouble ? (Number) Double.valueOf(doubleResult) : (Number) Long.valueOf(longResult);
+    }
+
+    private static long calculate(long left, long right, int op) {
+        switch (op) {
+        case ADD:
+            return left + right;
+        case SUBTRACT:
+            return left - right;
+        case MULTIPLY:
+            return left * right;
+        default:
+            throw new IllegalArgumentException("Unsupported operation for long: " + op);
+        }
+    }
 
-        return difference;
+    private static double calculate(double left, double right, int op) {
+        switch (op) {
+        case ADD:
+            return left + right;
+        case SUBTRACT:
+            return left - right;
+        case MULTIPLY:
+            return left * right;
+        default:
+            return left / right;
+        }
+    }
+
+    private static BigDecimal calculate(BigDecimal left, BigDecimal right, int op) {
+        switch (op) {
+        case ADD:
+            return left.add(right);
+        case SUBTRACT:
+            return left.subtract(right);
+        case MULTIPLY:
+            return left.multiply(right);
+        default:
+            return left.divide(right);
+        }
     }
 
     private static Number doMultiply(Number input, double rate) {
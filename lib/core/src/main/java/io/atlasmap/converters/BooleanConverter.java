@@ -90,7 +90,16 @@ public class BooleanConverter implements AtlasConverter<Boolean> {
      */
     @AtlasConversionInfo(sourceType = FieldType.BOOLEAN, targetType = FieldType.DOUBLE)
     public Double toDouble(Boolean value) {
-        return value != null ? value ? 1.0d : 0.0d : null;
+        return value != null ? toDouble(value.booleanValue()) : null;
+    }
+
+    /**
+     * Converts to {@code double}.
+     * @param value value
+     * @return converted
+     */
+    public double toDouble(boolean value) {
+        return value ? 1.0d : 0.0d;
     }
 
     /**
@@ -110,7 +119,16 @@ public class BooleanConverter implements AtlasConverter<Boolean> {
      */
     @AtlasConversionInfo(sourceType = FieldType.BOOLEAN, targetType = FieldType.INTEGER)
     public Integer toInteger(Boolean value) {
-        return value != null ? (value ? 1 : 0) : null;
+        return value != null ? toInteger(value.booleanValue()) : null;
+    }
+
+    /**
+     * Converts to {@code int}.
+     * @param value value
+     * @return converted
+     */
+    public int toInteger(boolean value) {
+        return value ? 1 : 0;
     }
 
     /**
@@ -120,7 +138,16 @@ public class BooleanConverter implements AtlasConverter<Boolean> {
      */
     @AtlasConversionInfo(sourceType = FieldType.BOOLEAN, targetType = FieldType.LONG)
     public Long toLong(Boolean value) {
-        return value != null ? (value ? 1L : 0L) : null;
+        return value != null ? toLong(value.booleanValue()) : null;
+    }
+
+    /**
+     * Converts to {@code long}.
+     * @param value value
+     * @return converted
+     */
+    public long toLong(boolean value) {
+        return value ? 1L : 0L;
     }
 
     /**
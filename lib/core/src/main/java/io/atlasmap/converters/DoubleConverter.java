@@ -67,10 +67,16 @@ public class DoubleConverter implements AtlasConverter<Double> {
     @AtlasConversionInfo(sourceType = FieldType.DOUBLE, targetType = FieldType.BOOLEAN, concerns = {
             AtlasConversionConcern.CONVENTION })
     public Boolean toBoolean(Double value) {
-        if (value == null) {
-            return null;
-        }
-        return value == 0.0 ? Boolean.FALSE : Boolean.TRUE;
+        return value != null ? toBoolean(value.doubleValue()) : null;
+    }
+
+    /**
+     * Converts to {@code boolean}.
+     * @param value value
+     * @return converted
+     */
+    public boolean toBoolean(double value) {
+        return value != 0.0;
     }
 
     /**
@@ -171,14 +177,21 @@ public class DoubleConverter implements AtlasConverter<Double> {
     @AtlasConversionInfo(sourceType = FieldType.DOUBLE, targetType = FieldType.INTEGER,
             concerns = {AtlasConversionConcern.RANGE, AtlasConversionConcern.FRACTIONAL_PART})
     public Integer toInteger(Double value) throws AtlasConversionException {
-        if (value == null) {
-            return null;
-        }
+        return value != null ? toInteger(value.doubleValue()) : null;
+    }
+
+    /**
+     * Converts to {@code int}.
+     * @param value value
+     * @return converted
+     * @throws AtlasConversionException out of range
+     */
+    public int toInteger(double value) throws AtlasConversionException {
         if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
             throw new AtlasConversionException(String.format(
                     "Double %s is greater than Integer.MAX_VALUE or less than Integer.MIN_VALUE", value));
         }
-        return value.intValue();
+        return (int) value;
     }
 
     /**
@@ -246,14 +259,21 @@ public class DoubleConverter implements AtlasConverter<Double> {
      */
     @AtlasConversionInfo(sourceType = FieldType.DOUBLE, targetType = FieldType.LONG, concerns = AtlasConversionConcern.RANGE)
     public Long toLong(Double value) throws AtlasConversionException {
-        if (value == null) {
-            return null;
-        }
+        return value != null ? toLong(value.doubleValue()) : null;
+    }
+
+    /**
+     * Converts to {@code long}.
+     * @param value value
+     * @return converted
+     * @throws AtlasConversionException out of range
+     */
+    public long toLong(double value) throws AtlasConversionException {
         if (value < Long.MIN_VALUE || value > Long.MAX_VALUE) {
             throw new AtlasConversionException(String.format(
                     "Double %s is greater than Long.MAX_VALUE or less than Long.MIN_VALUE", value));
         }
-        return value.longValue();
+        return (long) value;
     }
 
     /**
@@ -66,10 +66,16 @@ public class IntegerConverter implements AtlasConverter<Integer> {
     @AtlasConversionInfo(sourceType = FieldType.INTEGER, targetType = FieldType.BOOLEAN, concerns = {
             AtlasConversionConcern.CONVENTION })
     public Boolean toBoolean(Integer value) {
-        if (value == null) {
-            return null;
-        }
-        return value == 0 ? Boolean.FALSE : Boolean.TRUE;
+        return value != null ? toBoolean(value.intValue()) : null;
+    }
+
+    /**
+     * Converts to {@code boolean}.
+     * @param value value
+     * @return converted
+     */
+    public boolean toBoolean(int value) {
+        return value != 0;
     }
 
     /**
@@ -129,7 +135,16 @@ public class IntegerConverter implements AtlasConverter<Integer> {
      */
     @AtlasConversionInfo(sourceType = FieldType.INTEGER, targetType = FieldType.DOUBLE)
     public Double toDouble(Integer value) {
-        return value != null ? value.doubleValue() : null;
+        return value != null ? toDouble(value.intValue()) : null;
+    }
+
+    /**
+     * Converts to {@code double}.
+     * @param value value
+     * @return converted
+     */
+    public double toDouble(int value) {
+        return value;
     }
 
     /**
@@ -189,7 +204,16 @@ public class IntegerConverter implements AtlasConverter<Integer> {
      */
     @AtlasConversionInfo(sourceType = FieldType.INTEGER, targetType = FieldType.LONG)
     public Long toLong(Integer value) {
-        return value != null ? value.longValue() : null;
+        return value != null ? toLong(value.intValue()) : null;
+    }
+
+    /**
+     * Converts to {@code long}.
+     * @param value value
+     * @return converted
+     */
+    public long toLong(int value) {
+        return value;
     }
 
     /**
@@ -66,10 +66,16 @@ public class LongConverter implements AtlasConverter<Long> {
     @AtlasConversionInfo(sourceType = FieldType.LONG, targetType = FieldType.BOOLEAN,
             concerns = AtlasConversionConcern.CONVENTION)
     public Boolean toBoolean(Long value) {
-        if (value == null) {
-            return null;
-        }
-        return value == 0L ? Boolean.FALSE : Boolean.TRUE;
+        return value != null ? toBoolean(value.longValue()) : null;
+    }
+
+    /**
+     * Converts to {@code boolean}.
+     * @param value value
+     * @return converted
+     */
+    public boolean toBoolean(long value) {
+        return value != 0L;
     }
 
     /**
@@ -132,10 +138,16 @@ public class LongConverter implements AtlasConverter<Long> {
      */
     @AtlasConversionInfo(sourceType = FieldType.LONG, targetType = FieldType.DOUBLE)
     public Double toDouble(Long value) {
-        if (value == null) {
-            return null;
-        }
-        return value.doubleValue();
+        return value != null ? toDouble(value.longValue()) : null;
+    }
+
+    /**
+     * Converts to {@code double}.
+     * @param value value
+     * @return converted
+     */
+    public double toDouble(long value) {
+        return value;
     }
 
     /**
@@ -159,14 +171,21 @@ public class LongConverter implements AtlasConverter<Long> {
      */
     @AtlasConversionInfo(sourceType = FieldType.LONG, targetType = FieldType.INTEGER, concerns = AtlasConversionConcern.RANGE)
     public Integer toInteger(Long value) throws AtlasConversionException {
-        if (value == null) {
-            return null;
-        }
+        return value != null ? toInteger(value.longValue()) : null;
+    }
+
+    /**
+     * Converts to {@code int}.
+     * @param value value
+     * @return converted
+     * @throws AtlasConversionException out of range
+     */
+    public int toInteger(long value) throws AtlasConversionException {
         if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
             throw new AtlasConversionException(
                     String.format("Long %s is greater than Integer.MAX_VALUE  or less than Integer.MIN_VALUE", value));
         }
-        return value.intValue();
+        return (int) value;
     }
 
     /**
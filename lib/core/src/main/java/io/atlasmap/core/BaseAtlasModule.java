@@ -15,10 +15,14 @@
  */
 package io.atlasmap.core;
 
+import java.lang.ref.Cleaner;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.management.openmbean.TabularData;
 
@@ -32,9 +36,11 @@ import io.atlasmap.spi.AtlasCollectionHelper;
 import io.atlasmap.spi.AtlasConversionService;
 import io.atlasmap.spi.AtlasFieldActionService;
 import io.atlasmap.spi.AtlasInternalSession;
+import io.atlasmap.spi.AtlasMetadataRegistry;
 import io.atlasmap.spi.AtlasModule;
 import io.atlasmap.spi.AtlasModuleDetail;
 import io.atlasmap.spi.AtlasModuleMode;
+import io.atlasmap.v2.AtlasModelFactory;
 import io.atlasmap.v2.AuditStatus;
 import io.atlasmap.v2.DataSource;
 import io.atlasmap.v2.DataSourceMetadata;
@@ -51,6 +57,7 @@ import io.atlasmap.v2.SimpleField;
  */
 public abstract class BaseAtlasModule implements AtlasModule, AtlasModuleMXBean {
     private static final Logger LOG = LoggerFactory.getLogger(BaseAtlasModule.class);
+    private static final Cleaner METADATA_CLEANER = Cleaner.create();
 
     private boolean automaticallyProcessOutputFieldActions = true;
     private AtlasConversionService atlasConversionService = null;
@@ -59,6 +66,9 @@ public abstract class BaseAtlasModule implements AtlasModule, AtlasModuleMXBean
     private ClassLoader classLoader;
     private DataSource dataSource;
     private DataSourceMetadata dataSourceMetadata;
+    private AtlasMetadataRegistry metadataRegistry;
+    private MetadataLease metadataLease;
+    private Cleaner.Cleanable metadataCleanable;
 
     @Override
     public void init() throws AtlasException {
@@ -67,7 +77,67 @@ public abstract class BaseAtlasModule implements AtlasModule, AtlasModuleMXBean
 
     @Override
     public void destroy() throws AtlasException {
-        // no-op now
+        releaseMetadata();
+    }
+
+    @Override
+    public AtlasMetadataRegistry getMetadataRegistry() {
+        return this.metadataRegistry;
+    }
+
+    @Override
+    public void setMetadataRegistry(AtlasMetadataRegistry registry) {
+        this.metadataRegistry = registry;
+    }
+
+    /**
+     * Acquires the metadata from the shared {@link AtlasMetadataRegistry}, or just loads it if
+     * no registry is set. The acquired metadata is released when this module is destroyed, or
+     * when this module is garbage collected without being destroyed.
+     * @param <T> metadata type
+     * @param category category of the metadata
+     * @param key key of the metadata
+     * @param loader loader to build the metadata
+     * @return metadata
+     * @throws AtlasException failed to load the metadata
+     */
+    protected <T> T acquireMetadata(String category, Object key, Callable<T> loader) throws AtlasException {
+        if (this.metadataRegistry == null) {
+            try {
+                return loader.call();
+            } catch (AtlasException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AtlasException(e);
+            }
+        }
+        T answer = this.metadataRegistry.acquire(category, key, loader);
+        MetadataLease lease;
+        synchronized (this) {
+            if (this.metadataLease == null) {
+                // the lease must not refer to this module, otherwise it's never garbage collected
+                this.metadataLease = new MetadataLease();
+                this.metadataCleanable = METADATA_CLEANER.register(this, this.metadataLease);
+            }
+            lease = this.metadataLease;
+        }
+        lease.add(this.metadataRegistry, category, key);
+        return answer;
+    }
+
+    /**
+     * Releases all the metadata acquired by {@link #acquireMetadata(String, Object, Callable)}.
+     */
+    protected void releaseMetadata() {
+        Cleaner.Cleanable cleanable;
+        synchronized (this) {
+            cleanable = this.metadataCleanable;
+            this.metadataLease = null;
+            this.metadataCleanable = null;
+        }
+        if (cleanable != null) {
+            cleanable.clean();
+        }
     }
 
     @Override
@@ -91,14 +161,12 @@ public abstract class BaseAtlasModule implements AtlasModule, AtlasModuleMXBean
     public void populateTargetField(AtlasInternalSession session) throws AtlasException {
         Field sourceField = session.head().getSourceField();
         Field targetField = session.head().getTargetField();
-        Object targetValue = null;
         if (targetField.getFieldType() == null
                 || (sourceField.getFieldType() != null && sourceField.getFieldType().equals(targetField.getFieldType()))) {
-            targetValue = sourceField.getValue();
-        } else if (sourceField.getValue() != null) {
+            AtlasModelFactory.copyValue(sourceField, targetField);
+        } else if (sourceField.getPrimitiveValueType() != null || sourceField.getValue() != null) {
             try {
-                targetValue = getConversionService().convertType(sourceField.getValue(), sourceField.getFormat(),
-                        targetField.getFieldType(), targetField.getFormat());
+                getConversionService().convertFieldValue(sourceField, targetField);
             } catch (AtlasConversionException e) {
                 AtlasUtil.addAudit(session, targetField,
                         String.format("Unable to auto-convert for sT=%s tT=%s tF=%s msg=%s", sourceField.getFieldType(),
@@ -106,8 +174,9 @@ public abstract class BaseAtlasModule implements AtlasModule, AtlasModuleMXBean
                         AuditStatus.ERROR, null);
                 return;
             }
+        } else {
+            targetField.setValue(null);
         }
-        targetField.setValue(targetValue);
 
         LookupTable lookupTable = session.head().getLookupTable();
         if (lookupTable != null) {
@@ -445,4 +514,24 @@ public abstract class BaseAtlasModule implements AtlasModule, AtlasModuleMXBean
         LOG.warn("Statistics is not yet implemented");
     }
 
+    /**
+     * The metadata acquired by a module, released either by {@link #releaseMetadata()} or
+     * by the {@link Cleaner} once the module becomes unreachable.
+     */
+    private static final class MetadataLease implements Runnable {
+        private final List<Map.Entry<AtlasMetadataRegistry, Map.Entry<String, Object>>> entries = new ArrayList<>();
+
+        synchronized void add(AtlasMetadataRegistry registry, String category, Object key) {
+            entries.add(new SimpleImmutableEntry<>(registry, new SimpleImmutableEntry<>(category, key)));
+        }
+
+        @Override
+        public synchronized void run() {
+            for (Map.Entry<AtlasMetadataRegistry, Map.Entry<String, Object>> entry : entries) {
+                entry.getKey().release(entry.getValue().getKey(), entry.getValue().getValue());
+            }
+            entries.clear();
+        }
+    }
+
 }
@@ -28,8 +28,11 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import javax.management.ObjectName;
@@ -44,6 +47,8 @@ import io.atlasmap.api.AtlasConversionException;
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.api.AtlasSession;
 import io.atlasmap.mxbean.AtlasContextMXBean;
+import io.atlasmap.spi.AtlasCompiledMapping;
+import io.atlasmap.spi.AtlasMappingCompiler;
 import io.atlasmap.spi.AtlasModule;
 import io.atlasmap.spi.AtlasModuleInfo;
 import io.atlasmap.spi.AtlasModuleInfoRegistry;
@@ -73,6 +78,7 @@ import io.atlasmap.v2.Mappings;
 import io.atlasmap.v2.PropertyField;
 import io.atlasmap.v2.SimpleField;
 import io.atlasmap.v2.Validation;
+import io.atlasmap.v2.ValidationStatus;
 import io.atlasmap.v2.Validations;
 
 /**
@@ -81,6 +87,13 @@ import io.atlasmap.v2.Validations;
  */
 public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
 
+    /**
+     * The session property to pass the {@link Validations} obtained with {@link #processValidation(AtlasSession)}
+     * beforehand, which are reused instead of validating the mapping again when the session is processed.
+     * This is for the caller which processes the same mapping with many sessions.
+     */
+    public static final String SESSION_PROPERTY_VALIDATIONS = "Atlas.Validations";
+
     private static final Logger LOG = LoggerFactory.getLogger(DefaultAtlasContext.class);
     private ObjectName jmxObjectName;
     private final UUID uuid;
@@ -91,7 +104,10 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
     private Map<String, AtlasModule> targetModules = new HashMap<>();
     private Map<String, LookupTable> lookupTables = new HashMap<>();
     private Map<DataSourceKey, DataSourceMetadata> dataSourceMetadataMap;
-    private boolean initialized;
+    private AtlasCompiledMapping compiledMapping;
+    private List<Validation> compiledMappingValidations = new ArrayList<>();
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private volatile boolean initialized;
 
     /**
      * A constructor.
@@ -225,6 +241,7 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
                 module.setClassLoader(factory.getClassLoader());
                 module.setConversionService(factory.getConversionService());
                 module.setFieldActionService(factory.getFieldActionService());
+                module.setMetadataRegistry(factory.getMetadataRegistry());
                 module.setDataSource(ds);
                 if (ds.getDataSourceType() == DataSourceType.SOURCE) {
                     getSourceModules().put(docId, module);
@@ -246,9 +263,102 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
                         moduleInfo.toString()), t);
             }
         }
+        compiledMapping = null;
+        compiledMappingValidations.clear();
+        Map<String, String> properties = factory.getProperties();
+        if (properties != null
+                && Boolean.parseBoolean(properties.get(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING))) {
+            compiledMapping = compileMapping();
+        }
+        factory.addContext(this);
         initialized = true;
     }
 
+    /**
+     * Compiles the mapping definition with {@link AtlasMappingCompiler} discovered through {@link ServiceLoader}.
+     * The mapping definition which has any validation error is not compiled so that those are reported
+     * by the interpreted mapping process. Other validation notices are kept and added to the session
+     * validations and audits every time the compiled mapping is processed.
+     * @return compiled mapping, or null if the mapping definition is not supported by any compiler
+     */
+    protected AtlasCompiledMapping compileMapping() {
+        try {
+            DefaultAtlasSession session = (DefaultAtlasSession) doCreateSession();
+            doProcessValidation(session);
+            List<Validation> validations = session.getValidations().getValidation();
+            if (validations.stream().anyMatch(v -> v.getStatus() == ValidationStatus.ERROR)) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Not compiling mapping '{}' which has validation errors", getMappingName());
+                }
+                return null;
+            }
+            if (session.getMapping().getMappings() == null
+                    || session.getMapping().getMappings().getMapping().isEmpty()) {
+                return null;
+            }
+            for (AtlasMappingCompiler compiler : ServiceLoader.load(AtlasMappingCompiler.class, factory.getClassLoader())) {
+                AtlasCompiledMapping answer = compiler.compile(getMapping(), getSourceModules(), getTargetModules());
+                if (answer != null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Mapping '{}' is compiled by {}", getMappingName(), compiler.getClass().getName());
+                    }
+                    compiledMappingValidations.addAll(validations);
+                    return answer;
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to compile mapping '{}', falling back to the interpreted mapping process: {}",
+                    getMappingName(), e.getMessage());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Destroys the modules so that the metadata they borrowed from the
+     * {@link io.atlasmap.spi.AtlasMetadataRegistry} shared among the contexts is released.
+     * The modules are initialized again when the next session is created or processed.
+     * It waits for the ongoing {@link #process(AtlasSession)} to complete.
+     */
+    public void destroy() {
+        lifecycleLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                doDestroy();
+            }
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+    }
+
+    private void doDestroy() {
+        List<AtlasModule> modules = new ArrayList<>();
+        if (sourceModules != null) {
+            modules.addAll(sourceModules.values());
+            sourceModules.clear();
+        }
+        if (targetModules != null) {
+            modules.addAll(targetModules.values());
+            targetModules.clear();
+        }
+        for (AtlasModule module : modules) {
+            try {
+                module.destroy();
+            } catch (Exception e) {
+                LOG.warn("Failed to destroy module '{}': {}", module.getDocId(), e.getMessage());
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("", e);
+                }
+            }
+        }
+        compiledMapping = null;
+        compiledMappingValidations.clear();
+        factory.removeContext(this);
+        initialized = false;
+    }
+
     /**
      * Registers the JMX objects.
      * @param context context
@@ -315,6 +425,18 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
         }
 
         DefaultAtlasSession session = (DefaultAtlasSession) userSession;
+        lifecycleLock.readLock().lock();
+        try {
+            if (!initialized) {
+                init();
+            }
+            doProcess(session);
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+    }
+
+    private void doProcess(DefaultAtlasSession session) throws AtlasException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Begin process {}", (session == null ? null : session.toString()));
         }
@@ -323,8 +445,24 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
         session.getAudits().getAudit().clear();
         session.getValidations().getValidation().clear();
 
+        if (compiledMapping != null && compiledMapping.process(session)) {
+            session.getValidations().getValidation().addAll(compiledMappingValidations);
+            for (Validation v : compiledMappingValidations) {
+                AtlasUtil.addAudit(session, v);
+            }
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("End process {} with compiled mapping", session);
+            }
+            return;
+        }
+
         // TODO https://github.com/atlasmap/atlasmap/issues/863 - Add an option to enable/disable runtime validation
-        processValidation(session);
+        Object validated = session.getProperties().get(SESSION_PROPERTY_VALIDATIONS);
+        if (validated instanceof Validations) {
+            session.getValidations().getValidation().addAll(((Validations) validated).getValidation());
+        } else {
+            doProcessValidation(session);
+        }
         for (Validation v : session.getValidations().getValidation()) {
             AtlasUtil.addAudit(session, v);
         }
@@ -901,6 +1039,18 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
         }
 
         DefaultAtlasSession session = (DefaultAtlasSession) userSession;
+        lifecycleLock.readLock().lock();
+        try {
+            if (!initialized) {
+                init();
+            }
+            doProcessValidation(session);
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+    }
+
+    private void doProcessValidation(DefaultAtlasSession session) throws AtlasException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Begin processValidation {}", session);
         }
@@ -1013,6 +1163,14 @@ public class DefaultAtlasContext implements AtlasContext, AtlasContextMXBean {
         this.lookupTables = lookupTables;
     }
 
+    /**
+     * Gets the compiled mapping.
+     * @return compiled mapping, or null if the mapping is processed by the interpreted mapping process
+     */
+    public AtlasCompiledMapping getCompiledMapping() {
+        return compiledMapping;
+    }
+
     /**
      * Sets the JMX name.
      * @param jmxObjectName name
@@ -23,6 +23,7 @@ import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.WeakHashMap;
 
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
@@ -43,6 +45,7 @@ import io.atlasmap.api.AtlasException;
 import io.atlasmap.api.AtlasValidationService;
 import io.atlasmap.mxbean.AtlasContextFactoryMXBean;
 import io.atlasmap.spi.AtlasCombineStrategy;
+import io.atlasmap.spi.AtlasMetadataRegistry;
 import io.atlasmap.spi.AtlasModule;
 import io.atlasmap.spi.AtlasModuleDetail;
 import io.atlasmap.spi.AtlasModuleInfo;
@@ -71,8 +74,11 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
     private AtlasSeparateStrategy atlasSeparateStrategy = null;
     private AtlasValidationService atlasValidationService = null;
     private AtlasModuleInfoRegistry moduleInfoRegistry;
+    private AtlasMetadataRegistry metadataRegistry;
     private Map<String, String> properties = null;
     private CompoundClassLoader classLoader = null;
+    private final Set<DefaultAtlasContext> contexts = Collections.synchronizedSet(
+        Collections.newSetFromMap(new WeakHashMap<>()));
 
     private DefaultAtlasContextFactory() {
     }
@@ -103,6 +109,15 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
         return factory;
     }
 
+    /**
+     * Creates a new {@link DefaultAtlasContextFactory} apart from the singleton, which has its own
+     * {@link AtlasMetadataRegistry}. The caller is responsible for {@link #init()} and {@link #destroy()}.
+     * @return the new factory
+     */
+    public static DefaultAtlasContextFactory newInstance() {
+        return new DefaultAtlasContextFactory();
+    }
+
     @Override
     public synchronized void init() {
         CompoundClassLoader cl = new DefaultAtlasCompoundClassLoader();
@@ -142,6 +157,7 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
         this.atlasValidationService = new DefaultAtlasValidationService();
         registerFactoryJmx(this);
         this.moduleInfoRegistry = new DefaultAtlasModuleInfoRegistry(this);
+        this.metadataRegistry = new DefaultAtlasMetadataRegistry();
         loadModules("moduleClass", AtlasModule.class);
         this.initialized = true;
 
@@ -169,6 +185,7 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
             return;
         }
 
+        destroyContexts();
         unloadModules();
 
         try {
@@ -192,11 +209,52 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
         this.atlasSeparateStrategy = null;
         this.atlasValidationService = null;
         this.moduleInfoRegistry = null;
+        if (this.metadataRegistry != null) {
+            this.metadataRegistry.clear();
+            this.metadataRegistry = null;
+        }
         this.classLoader = null;
         this.threadName = null;
         this.initialized = false;
     }
 
+    /**
+     * Destroys the contexts which are initialized with this factory so that the metadata
+     * their modules borrowed from the {@link AtlasMetadataRegistry} is released.
+     */
+    protected void destroyContexts() {
+        List<DefaultAtlasContext> initialized;
+        synchronized (this.contexts) {
+            initialized = new ArrayList<>(this.contexts);
+        }
+        for (DefaultAtlasContext context : initialized) {
+            context.destroy();
+        }
+    }
+
+    /**
+     * Tracks the context which modules borrow the metadata from the {@link AtlasMetadataRegistry}.
+     * @param context context
+     */
+    void addContext(DefaultAtlasContext context) {
+        this.contexts.add(context);
+    }
+
+    /**
+     * Stops tracking the destroyed context.
+     * @param context context
+     */
+    void removeContext(DefaultAtlasContext context) {
+        this.contexts.remove(context);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The context should be destroyed via {@link DefaultAtlasContext#destroy()} once it's no longer used,
+     * otherwise the metadata its modules acquired from the {@link AtlasMetadataRegistry} is released only
+     * when the modules are garbage collected.
+     */
     @Override
     public DefaultAtlasContext createContext(File atlasMappingFile) throws AtlasException {
         if (atlasMappingFile == null) {
@@ -206,6 +264,10 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
         return createContext(atlasMappingFile.toURI());
     }
 
+    /**
+     * {@inheritDoc}
+     * @see #createContext(File)
+     */
     @Override
     public DefaultAtlasContext createContext(URI atlasMappingUri) throws AtlasException {
         if (atlasMappingUri == null) {
@@ -217,6 +279,7 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
 
     /**
      * Creates {@link io.atlasmap.api.AtlasContext} from the {@link AtlasMapping} mapping definition.
+     * @see #createContext(File)
      * @param mapping mapping definition
      * @return context
      * @throws AtlasException unexpected error
@@ -226,6 +289,10 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
         return context;
     }
 
+    /**
+     * {@inheritDoc}
+     * @see #createContext(File)
+     */
     @Override
     public DefaultAtlasContext createContext(Format format, InputStream stream) throws AtlasException {
         DefaultAtlasContext context = new DefaultAtlasContext(this, format, stream);
@@ -290,6 +357,23 @@ public class DefaultAtlasContextFactory implements AtlasContextFactory, AtlasCon
         this.moduleInfoRegistry = registry;
     }
 
+    /**
+     * Gets the {@link AtlasMetadataRegistry} shared among the modules of all the contexts
+     * created by this factory.
+     * @return registry
+     */
+    public AtlasMetadataRegistry getMetadataRegistry() {
+        return this.metadataRegistry;
+    }
+
+    /**
+     * Sets the {@link AtlasMetadataRegistry}.
+     * @param registry registry
+     */
+    public void setMetadataRegistry(AtlasMetadataRegistry registry) {
+        this.metadataRegistry = registry;
+    }
+
     @Override
     public DefaultAtlasConversionService getConversionService() {
         return this.atlasConversionService;
@@ -17,6 +17,9 @@ package io.atlasmap.core;
 
 import static java.util.Objects.hash;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -25,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -32,14 +36,20 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.atlasmap.api.AtlasConversionException;
+import io.atlasmap.converters.BooleanConverter;
+import io.atlasmap.converters.DoubleConverter;
+import io.atlasmap.converters.IntegerConverter;
+import io.atlasmap.converters.LongConverter;
 import io.atlasmap.spi.AtlasConversionInfo;
 import io.atlasmap.spi.AtlasConversionService;
 import io.atlasmap.spi.AtlasConverter;
+import io.atlasmap.v2.Field;
 import io.atlasmap.v2.FieldType;
 
 /**
@@ -57,11 +67,24 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
             Arrays.asList("java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Double",
                     "java.lang.Float", "java.lang.Integer", "java.lang.Long", "java.lang.Short", "java.lang.String")));
 
+    private static final Map<Class<?>, Class<?>> BOX_UNBOX_CLASSES = createBoxUnboxClasses();
+    private static final Set<String> PRIMITIVE_SLOT_CLASSNAMES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("java.lang.Boolean", "java.lang.Double", "java.lang.Integer", "java.lang.Long")));
+    private static final int MAX_RESOLVED_CONVERTERS = 1024;
+
     private static volatile DefaultAtlasConversionService instance = null;
     private static final Object SINGLETON_LOCK = new Object();
 
     private Map<ConverterKey, ConverterMethodHolder> converterMethods = null;
     private Map<ConverterKey, ConverterMethodHolder> customConverterMethods = null;
+    /** Resolved converters, only found ones are kept and it stops growing at {@link #MAX_RESOLVED_CONVERTERS}. */
+    private final Map<ResolvedConverterKey, ConverterMethodHolder> resolvedConverters = new ConcurrentHashMap<>();
+    /** true if a custom converter overrides a conversion between the primitive slot types of {@link Field} */
+    private boolean primitiveSlotConvertersOverridden;
+    private final BooleanConverter booleanConverter = new BooleanConverter();
+    private final DoubleConverter doubleConverter = new DoubleConverter();
+    private final IntegerConverter integerConverter = new IntegerConverter();
+    private final LongConverter longConverter = new LongConverter();
 
     // Used as the lookup key in the converter methods map
     private class ConverterKey {
@@ -88,10 +111,37 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
         }
     }
 
-    // used to hold converter and method for future reflection use
+    // Used as the lookup key in the resolved converters map
+    private static final class ResolvedConverterKey {
+        private final Class<?> sourceClass;
+        private final Class<?> targetClass;
+
+        ResolvedConverterKey(Class<?> sourceClass, Class<?> targetClass) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof ResolvedConverterKey) {
+                ResolvedConverterKey k = (ResolvedConverterKey) obj;
+                return sourceClass == k.sourceClass && targetClass == k.targetClass;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sourceClass.hashCode() + targetClass.hashCode();
+        }
+    }
+
+    // used to hold converter and method for future use, the method is invoked through
+    // a method handle, or through the reflection if it's not accessible
     private class ConverterMethodHolder {
         private AtlasConverter<?> converter;
         private Method method;
+        private MethodHandle handle;
         private boolean staticMethod;
         private boolean containsFormat;
 
@@ -101,6 +151,39 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
             this.method = method;
             this.staticMethod = staticMethod;
             this.containsFormat = containsFormat;
+            try {
+                MethodHandle h = MethodHandles.publicLookup().unreflect(method);
+                if (!staticMethod) {
+                    h = h.bindTo(converter);
+                }
+                this.handle = h.asType(MethodType.genericMethodType(containsFormat ? 3 : 1));
+            } catch (IllegalAccessException | RuntimeException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Falling back to reflection for converter method '{}': {}", method, e.getMessage());
+                }
+            }
+        }
+
+        public Object invoke(Object sourceValue, String sourceFormat, String targetFormat)
+                throws AtlasConversionException {
+            try {
+                if (handle != null) {
+                    return containsFormat ? handle.invokeExact(sourceValue, (Object) sourceFormat, (Object) targetFormat)
+                            : handle.invokeExact(sourceValue);
+                }
+                Object target = staticMethod ? null : converter;
+                if (containsFormat) {
+                    return method.invoke(target, sourceValue, sourceFormat, targetFormat);
+                }
+                return method.invoke(target, sourceValue);
+            } catch (Error e) {
+                throw e;
+            } catch (InvocationTargetException e) {
+                throw new AtlasConversionException("Invoking type convertor failed", e);
+            } catch (Throwable t) {
+                throw new AtlasConversionException("Invoking type convertor failed",
+                        handle != null ? new InvocationTargetException(t) : t);
+            }
         }
 
         public AtlasConverter<?> getConverter() {
@@ -188,6 +271,9 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
         if (!methodsLoadMap.isEmpty()) {
             customConverterMethods = Collections.unmodifiableMap(customMethodsLoadMap);
         }
+        primitiveSlotConvertersOverridden = customMethodsLoadMap.keySet().stream().anyMatch(
+                k -> PRIMITIVE_SLOT_CLASSNAMES.contains(k.sourceClassName)
+                    && PRIMITIVE_SLOT_CLASSNAMES.contains(k.targetClassName));
     }
 
     private void loadConverterMethod(AtlasConverter<?> atlasConverter,
@@ -245,49 +331,8 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
 
     @Override
     public Object copyPrimitive(Object sourceValue) {
-
-        if (sourceValue == null) {
-            return null;
-        }
-
-        Class<?> clazz = sourceValue.getClass();
-        if (clazz == null) {
-            return clazz;
-        } else if (boolean.class.getName().equals(clazz.getName())) {
-            return Boolean.valueOf((boolean) sourceValue);
-        } else if (Boolean.class.getName().equals(clazz.getName())) {
-            return Boolean.valueOf((Boolean) sourceValue);
-        } else if (byte.class.getName().equals(clazz.getName())) {
-            return Byte.valueOf((byte) sourceValue);
-        } else if (Byte.class.getName().equals(clazz.getName())) {
-            return Byte.valueOf((Byte) sourceValue);
-        } else if (char.class.getName().equals(clazz.getName())) {
-            return Character.valueOf((char) sourceValue);
-        } else if (Character.class.getName().equals(clazz.getName())) {
-            return Character.valueOf((Character) sourceValue);
-        } else if (double.class.getName().equals(clazz.getName())) {
-            return Double.valueOf((double) sourceValue);
-        } else if (Double.class.getName().equals(clazz.getName())) {
-            return Double.valueOf((Double) sourceValue);
-        } else if (float.class.getName().equals(clazz.getName())) {
-            return Float.valueOf((float) sourceValue);
-        } else if (Float.class.getName().equals(clazz.getName())) {
-            return Float.valueOf((Float) sourceValue);
-        } else if (int.class.getName().equals(clazz.getName())) {
-            return Integer.valueOf((int) sourceValue);
-        } else if (Integer.class.getName().equals(clazz.getName())) {
-            return Integer.valueOf((Integer) sourceValue);
-        } else if (long.class.getName().equals(clazz.getName())) {
-            return Long.valueOf((long) sourceValue);
-        } else if (Long.class.getName().equals(clazz.getName())) {
-            return Long.valueOf((Long) sourceValue);
-        } else if (short.class.getName().equals(clazz.getName())) {
-            return Short.valueOf((short) sourceValue);
-        } else if (Short.class.getName().equals(clazz.getName())) {
-            return Short.valueOf((Short) sourceValue);
-        }
-
-        // can't count on java copy
+        // The boxed primitives are immutable, so the same instance is returned rather than re-boxing
+        // the value, which would allocate a new instance for every value out of the box cache range.
         return sourceValue;
     }
 
@@ -318,21 +363,13 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
             throw new AtlasConversionException("AutoConversion requires sourceValue and targetType to be specified");
         }
 
-        if (targetType.isInstance(sourceValue)) {
+        if (targetType.isInstance(sourceValue) || isBoxedInstance(targetType, sourceValue)) {
             return sourceValue;
         }
 
         ConverterMethodHolder methodHolder = getConverter(sourceValue, targetType);
         if (methodHolder != null) {
-            try {
-                Object target = methodHolder.staticMethod ? null : methodHolder.converter;
-                if (methodHolder.containsFormat) {
-                    return methodHolder.method.invoke(target, sourceValue, sourceFormat, targetFormat);
-                }
-                return methodHolder.method.invoke(target, sourceValue);
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new AtlasConversionException("Invoking type convertor failed", e);
-            }
+            return methodHolder.invoke(sourceValue, sourceFormat, targetFormat);
         }
         throw new AtlasConversionException("Type Conversion is not supported for sT="
                 + sourceValue.getClass().getCanonicalName() + " tT=" + targetType.getCanonicalName());
@@ -343,7 +380,96 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
         return targetType.isInstance(sourceValue) || getConverter(sourceValue, targetType) != null;
     }
 
+    /**
+     * Converts the value of the source field into the field type of the target field. The numeric
+     * and boolean values held in the primitive slots of {@link Field} are converted by the primitive
+     * overloads of the built-in converters and stored into the target slots without being boxed,
+     * unless a custom converter is registered for those types.
+     */
+    @Override
+    public void convertFieldValue(Field sourceField, Field targetField) throws AtlasConversionException {
+        FieldType sourceType = sourceField.getPrimitiveValueType();
+        if (sourceType == null || primitiveSlotConvertersOverridden
+                || !convertPrimitiveValue(sourceField, sourceType, targetField)) {
+            AtlasConversionService.super.convertFieldValue(sourceField, targetField);
+        }
+    }
+
+    private boolean convertPrimitiveValue(Field sourceField, FieldType sourceType, Field targetField)
+            throws AtlasConversionException {
+        FieldType targetType = targetField.getFieldType();
+        if (targetType != FieldType.LONG && targetType != FieldType.INTEGER && targetType != FieldType.DOUBLE
+                && targetType != FieldType.BOOLEAN) {
+            return false;
+        }
+        switch (sourceType) {
+        case LONG:
+            long l = sourceField.getLongValue();
+            if (targetType == FieldType.LONG) {
+                targetField.setLongValue(l);
+            } else if (targetType == FieldType.INTEGER) {
+                targetField.setIntegerValue(longConverter.toInteger(l));
+            } else if (targetType == FieldType.DOUBLE) {
+                targetField.setDoubleValue(longConverter.toDouble(l));
+            } else {
+                targetField.setBooleanValue(longConverter.toBoolean(l));
+            }
+            return true;
+        case INTEGER:
+            int i = (int) sourceField.getLongValue();
+            if (targetType == FieldType.LONG) {
+                targetField.setLongValue(integerConverter.toLong(i));
+            } else if (targetType == FieldType.INTEGER) {
+                targetField.setIntegerValue(i);
+            } else if (targetType == FieldType.DOUBLE) {
+                targetField.setDoubleValue(integerConverter.toDouble(i));
+            } else {
+                targetField.setBooleanValue(integerConverter.toBoolean(i));
+            }
+            return true;
+        case DOUBLE:
+            double d = sourceField.getDoubleValue();
+            if (targetType == FieldType.LONG) {
+                targetField.setLongValue(doubleConverter.toLong(d));
+            } else if (targetType == FieldType.INTEGER) {
+                targetField.setIntegerValue(doubleConverter.toInteger(d));
+            } else if (targetType == FieldType.DOUBLE) {
+                targetField.setDoubleValue(d);
+            } else {
+                targetField.setBooleanValue(doubleConverter.toBoolean(d));
+            }
+            return true;
+        case BOOLEAN:
+            boolean b = sourceField.getBooleanValue();
+            if (targetType == FieldType.LONG) {
+                targetField.setLongValue(booleanConverter.toLong(b));
+            } else if (targetType == FieldType.INTEGER) {
+                targetField.setIntegerValue(booleanConverter.toInteger(b));
+            } else if (targetType == FieldType.DOUBLE) {
+                targetField.setDoubleValue(booleanConverter.toDouble(b));
+            } else {
+                targetField.setBooleanValue(b);
+            }
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isBoxedInstance(Class<?> primitiveType, Object value) {
+        if (!primitiveType.isPrimitive()) {
+            return false;
+        }
+        Class<?> boxed = BOX_UNBOX_CLASSES.get(primitiveType);
+        return boxed != null && boxed.isInstance(value);
+    }
+
     private ConverterMethodHolder getConverter(Object sourceValue, Class<?> targetType) {
+        ResolvedConverterKey resolvedKey = new ResolvedConverterKey(sourceValue.getClass(), targetType);
+        ConverterMethodHolder resolved = resolvedConverters.get(resolvedKey);
+        if (resolved != null) {
+            return resolved;
+        }
         Class<?> boxedSourceClass = sourceValue.getClass();
         if (sourceValue.getClass().isPrimitive()) {
             boxedSourceClass = boxOrUnboxPrimitive(boxedSourceClass);
@@ -361,6 +487,9 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
             // try the inbuilt defaults
             methodHolder = converterMethods.get(converterKey);
         }
+        if (methodHolder != null && resolvedConverters.size() < MAX_RESOLVED_CONVERTERS) {
+            resolvedConverters.put(resolvedKey, methodHolder);
+        }
         return methodHolder;
     }
 
@@ -411,38 +540,10 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
     public Class<?> boxOrUnboxPrimitive(Class<?> clazz) {
         if (clazz == null) {
             return clazz;
-        } else if (boolean.class.getName().equals(clazz.getName())) {
-            return Boolean.class;
-        } else if (Boolean.class.getName().equals(clazz.getName())) {
-            return boolean.class;
-        } else if (byte.class.getName().equals(clazz.getName())) {
-            return Byte.class;
-        } else if (Byte.class.getName().equals(clazz.getName())) {
-            return byte.class;
-        } else if (char.class.getName().equals(clazz.getName())) {
-            return Character.class;
-        } else if (Character.class.getName().equals(clazz.getName())) {
-            return char.class;
-        } else if (double.class.getName().equals(clazz.getName())) {
-            return Double.class;
-        } else if (Double.class.getName().equals(clazz.getName())) {
-            return double.class;
-        } else if (float.class.getName().equals(clazz.getName())) {
-            return Float.class;
-        } else if (Float.class.getName().equals(clazz.getName())) {
-            return float.class;
-        } else if (int.class.getName().equals(clazz.getName())) {
-            return Integer.class;
-        } else if (Integer.class.getName().equals(clazz.getName())) {
-            return int.class;
-        } else if (long.class.getName().equals(clazz.getName())) {
-            return Long.class;
-        } else if (Long.class.getName().equals(clazz.getName())) {
-            return long.class;
-        } else if (short.class.getName().equals(clazz.getName())) {
-            return Short.class;
-        } else if (Short.class.getName().equals(clazz.getName())) {
-            return short.class;
+        }
+        Class<?> answer = BOX_UNBOX_CLASSES.get(clazz);
+        if (answer != null) {
+            return answer;
         }
         return clazz;
     }
@@ -605,4 +706,17 @@ public class DefaultAtlasConversionService implements AtlasConversionService {
 
         return Boolean.FALSE;
     }
+
+    private static Map<Class<?>, Class<?>> createBoxUnboxClasses() {
+        Map<Class<?>, Class<?>> answer = new HashMap<>();
+        Class<?>[][] pairs = {{boolean.class, Boolean.class}, {byte.class, Byte.class}, {char.class, Character.class},
+            {double.class, Double.class}, {float.class, Float.class}, {int.class, Integer.class},
+            {long.class, Long.class}, {short.class, Short.class}};
+        for (Class<?>[] pair : pairs) {
+            answer.put(pair[0], pair[1]);
+            answer.put(pair[1], pair[0]);
+        }
+        return Collections.unmodifiableMap(answer);
+    }
+
 }
@@ -38,6 +38,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.atlasmap.actions.NumberFieldActions;
 import io.atlasmap.api.AtlasConversionException;
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.spi.ActionProcessor;
@@ -47,6 +48,7 @@ import io.atlasmap.spi.AtlasFieldAction;
 import io.atlasmap.spi.AtlasFieldActionInfo;
 import io.atlasmap.spi.AtlasFieldActionService;
 import io.atlasmap.spi.AtlasInternalSession;
+import io.atlasmap.v2.AbsoluteValue;
 import io.atlasmap.v2.Action;
 import io.atlasmap.v2.ActionDetail;
 import io.atlasmap.v2.ActionParameter;
@@ -54,13 +56,16 @@ import io.atlasmap.v2.ActionParameters;
 import io.atlasmap.v2.ActionResolver;
 import io.atlasmap.v2.AtlasModelFactory;
 import io.atlasmap.v2.AuditStatus;
+import io.atlasmap.v2.Ceiling;
 import io.atlasmap.v2.CollectionType;
 import io.atlasmap.v2.CustomAction;
 import io.atlasmap.v2.Expression;
 import io.atlasmap.v2.Field;
 import io.atlasmap.v2.FieldGroup;
 import io.atlasmap.v2.FieldType;
+import io.atlasmap.v2.Floor;
 import io.atlasmap.v2.Multiplicity;
+import io.atlasmap.v2.Round;
 import io.atlasmap.v2.SimpleField;
 
 /**
@@ -749,6 +754,11 @@ public class DefaultAtlasFieldActionService implements AtlasFieldActionService {
             return processActionForEachCollectionItem(action, processor, sourceType, (FieldGroup)field);
         }
         
+        if (field.getPrimitiveValueType() != null && processPrimitiveAction(action, detail, field)) {
+            field.setFieldType(detail.getTargetType());
+            return field;
+        }
+
         Object value = field.getValue();
         if (value != null && !isAssignableFieldType(detail.getSourceType(), sourceType)) {
             value = getConversionService().convertType(value, sourceType, detail.getSourceType());
@@ -759,6 +769,34 @@ public class DefaultAtlasFieldActionService implements AtlasFieldActionService {
         return field;
     }
 
+    /**
+     * Applies the built-in numeric action through the primitive overloads of {@link NumberFieldActions}
+     * when the value is held in the primitive slots of the field, so that it's not boxed.
+     * @return true if it's processed, or false if it needs to go through the action processor
+     */
+    private boolean processPrimitiveAction(Action action, ActionDetail detail, Field field) {
+        FieldType type = field.getPrimitiveValueType();
+        if (type == FieldType.BOOLEAN || !NumberFieldActions.class.getName().equals(detail.getClassName())) {
+            return false;
+        }
+        if (action instanceof AbsoluteValue) {
+            if (type == FieldType.DOUBLE) {
+                field.setDoubleValue(NumberFieldActions.absoluteValue(field.getDoubleValue()));
+            } else {
+                field.setLongValue(NumberFieldActions.absoluteValue(field.getLongValue()));
+            }
+        } else if (action instanceof Ceiling) {
+            field.setLongValue(NumberFieldActions.ceiling(field.getDoubleValue()));
+        } else if (action instanceof Floor) {
+            field.setLongValue(NumberFieldActions.floor(field.getDoubleValue()));
+        } else if (action instanceof Round) {
+            field.setLongValue(NumberFieldActions.round(field.getDoubleValue()));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
     private Field processManyToOne(Action action, ActionProcessor processor, FieldType sourceType, Field field)
     throws AtlasException {
         ActionDetail detail = processor.getActionDetail();
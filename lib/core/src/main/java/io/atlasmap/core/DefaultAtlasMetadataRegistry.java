@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.core;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.spi.AtlasMetadataRegistry;
+
+/**
+ * The default implementation of {@link AtlasMetadataRegistry}. {@link DefaultAtlasContextFactory} holds
+ * one instance and hands it over to the modules of all the contexts it creates, so that the metadata
+ * is built once per distinct key rather than once per context. The loader runs under the lock of
+ * the individual entry, so that loading one entry doesn't block acquiring the others.
+ */
+public class DefaultAtlasMetadataRegistry implements AtlasMetadataRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultAtlasMetadataRegistry.class);
+
+    private final Map<MetadataKey, MetadataEntry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T acquire(String category, Object key, Callable<T> loader) throws AtlasException {
+        MetadataKey metadataKey = new MetadataKey(category, key);
+        while (true) {
+            MetadataEntry entry = entries.computeIfAbsent(metadataKey, k -> new MetadataEntry());
+            synchronized (entry) {
+                if (entry.removed) {
+                    // released by the last borrower in the meantime, retry with a new entry
+                    continue;
+                }
+                if (!entry.loaded) {
+                    try {
+                        entry.value = loader.call();
+                    } catch (Exception e) {
+                        entry.removed = true;
+                        entries.remove(metadataKey, entry);
+                        throw e instanceof AtlasException ? (AtlasException) e
+                            : new AtlasException(String.format("Failed to load metadata %s", metadataKey), e);
+                    }
+                    entry.loaded = true;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Loaded shared metadata {}", metadataKey);
+                    }
+                }
+                entry.count++;
+                return (T) entry.value;
+            }
+        }
+    }
+
+    @Override
+    public void release(String category, Object key) {
+        MetadataKey metadataKey = new MetadataKey(category, key);
+        MetadataEntry entry = entries.get(metadataKey);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.removed || --entry.count > 0) {
+                return;
+            }
+            entry.removed = true;
+            entries.remove(metadataKey, entry);
+            close(metadataKey, entry.value);
+        }
+    }
+
+    /**
+     * Gets the reference count of the metadata.
+     * @param category category of the metadata
+     * @param key key of the metadata
+     * @return reference count, or 0 if it's not registered
+     */
+    public int getReferenceCount(String category, Object key) {
+        MetadataEntry entry = entries.get(new MetadataKey(category, key));
+        if (entry == null) {
+            return 0;
+        }
+        synchronized (entry) {
+            return entry.removed ? 0 : entry.count;
+        }
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void clear() {
+        for (Map.Entry<MetadataKey, MetadataEntry> e : entries.entrySet()) {
+            MetadataEntry entry = e.getValue();
+            synchronized (entry) {
+                if (entry.removed) {
+                    continue;
+                }
+                entry.removed = true;
+                entries.remove(e.getKey(), entry);
+                close(e.getKey(), entry.value);
+            }
+        }
+    }
+
+    private void close(MetadataKey key, Object value) {
+        if (!(value instanceof AutoCloseable)) {
+            return;
+        }
+        try {
+            ((AutoCloseable) value).close();
+        } catch (Exception e) {
+            LOG.warn("Failed to close metadata {}: {}", key, e.getMessage());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("", e);
+            }
+        }
+    }
+
+    private static final class MetadataKey {
+        private final String category;
+        private final Object key;
+
+        private MetadataKey(String category, Object key) {
+            this.category = category;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof MetadataKey)) {
+                return false;
+            }
+            MetadataKey other = (MetadataKey) obj;
+            return Objects.equals(category, other.category) && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, key);
+        }
+
+        @Override
+        public String toString() {
+            return category + ":" + key;
+        }
+    }
+
+    private static final class MetadataEntry {
+        private Object value;
+        private int count;
+        private boolean loaded;
+        private boolean removed;
+    }
+
+}
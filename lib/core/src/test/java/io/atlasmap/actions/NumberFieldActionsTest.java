@@ -70,6 +70,49 @@ public class NumberFieldActionsTest {
         assertEquals(10L, NumberFieldActions.add(new Add(), Arrays.asList(null, 1, 2, 3, null, 4, null)));
     }
 
+    @Test
+    public void testCalculateLong() {
+        assertEquals(Long.MAX_VALUE, NumberFieldActions.add(new Add(), Arrays.asList(Long.MAX_VALUE - 1, 1)));
+        assertEquals(5L, NumberFieldActions.subtract(new Subtract(), Arrays.asList(10L, 3, (short) 2)));
+        assertEquals(24L, NumberFieldActions.multiply(new Multiply(), Arrays.asList(2, new AtomicLong(3L), (byte) 4)));
+        assertEquals(0L, NumberFieldActions.add(new Add(), Arrays.asList()));
+    }
+
+    @Test
+    public void testCalculateDouble() {
+        assertEquals(6.5, NumberFieldActions.add(new Add(), Arrays.asList(1, 2L, 3.5)));
+        assertEquals(0.5, NumberFieldActions.subtract(new Subtract(), Arrays.asList(1.5, 1)));
+        assertEquals(5.0, NumberFieldActions.multiply(new Multiply(), Arrays.asList(2, 2.5f)));
+        assertEquals(3.5, NumberFieldActions.divide(new Divide(), Arrays.asList(7, 2)));
+        assertEquals(1.75, NumberFieldActions.divide(new Divide(), Arrays.asList(7L, 2, 2)));
+    }
+
+    @Test
+    public void testCalculateBigDecimal() {
+        assertEquals(new BigDecimal("6.5"), NumberFieldActions.add(new Add(), Arrays.asList(1, 2.5, BigDecimal.valueOf(3))));
+        assertEquals(new BigDecimal("3.0"), NumberFieldActions.subtract(new Subtract(), Arrays.asList(BigDecimal.valueOf(5), 2)));
+        assertEquals(new BigDecimal("7.500"), NumberFieldActions.multiply(new Multiply(), Arrays.asList(3L, new BigDecimal("2.50"))));
+        assertEquals(new BigDecimal("2.5"), NumberFieldActions.divide(new Divide(), Arrays.asList(BigDecimal.valueOf(5), 2)));
+    }
+
+    @Test
+    public void testCalculateSingleValue() {
+        assertEquals(5, NumberFieldActions.subtract(new Subtract(), Arrays.asList(5)));
+        assertEquals(4.5, NumberFieldActions.divide(new Divide(), Arrays.asList(null, 4.5, null)));
+        assertEquals(BigDecimal.ONE, NumberFieldActions.subtract(new Subtract(), Arrays.asList(BigDecimal.ONE)));
+        assertEquals(5L, NumberFieldActions.add(new Add(), Arrays.asList(5)));
+        assertEquals(5L, NumberFieldActions.multiply(new Multiply(), Arrays.asList(5)));
+    }
+
+    @Test
+    public void testPrimitiveOverloads() {
+        assertEquals(3L, NumberFieldActions.absoluteValue(-3L));
+        assertEquals(3.5, NumberFieldActions.absoluteValue(-3.5));
+        assertEquals(2L, NumberFieldActions.ceiling(1.1));
+        assertEquals(1L, NumberFieldActions.floor(1.9));
+        assertEquals(2L, NumberFieldActions.round(1.5));
+    }
+
     @Test
     public void testAverage() {
         assertEquals(2.5, NumberFieldActions.average(new Average(), Arrays.asList(1.0, 2.0, 3.0, 4.0)));
@@ -57,6 +57,8 @@ import io.atlasmap.v2.LookupTable;
 import io.atlasmap.v2.Mapping;
 import io.atlasmap.v2.MappingType;
 import io.atlasmap.v2.Mappings;
+import io.atlasmap.v2.Validation;
+import io.atlasmap.v2.ValidationStatus;
 import io.atlasmap.v2.Validations;
 
 public class DefaultAtlasContextTest extends BaseDefaultAtlasContextTest {
@@ -106,6 +108,25 @@ public class DefaultAtlasContextTest extends BaseDefaultAtlasContextTest {
         assertFalse(session.hasWarns(), printAudit(session));
     }
 
+    @Test
+    public void testProcessWithGivenValidations() throws AtlasException {
+        Mapping m = (Mapping) AtlasModelFactory.createMapping(MappingType.MAP);
+        mapping.getMappings().getMapping().add(m);
+        populateSourceField(m, FieldType.STRING, "foo");
+        prepareTargetField(m, "/target");
+        recreateSession();
+        Validations validations = new Validations();
+        Validation validation = new Validation();
+        validation.setStatus(ValidationStatus.ERROR);
+        validation.setMessage("given validation error");
+        validations.getValidation().add(validation);
+        session.getProperties().put(DefaultAtlasContext.SESSION_PROPERTY_VALIDATIONS, validations);
+        context.process(session);
+        assertTrue(session.hasErrors(), printAudit(session));
+        assertEquals("given validation error", session.getAudits().getAudit().get(0).getMessage());
+        assertNull(writer.targets.get("/target"));
+    }
+
     @Test
     public void testCombineNonStringFields() throws AtlasException {
         Mapping m = (Mapping) AtlasModelFactory.createMapping(MappingType.COMBINE);
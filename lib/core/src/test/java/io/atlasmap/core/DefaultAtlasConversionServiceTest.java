@@ -48,7 +48,9 @@ import io.atlasmap.converters.StringConverter;
 import io.atlasmap.spi.AtlasConversionService;
 import io.atlasmap.spi.AtlasConverter;
 import io.atlasmap.v2.AtlasMapping;
+import io.atlasmap.v2.Field;
 import io.atlasmap.v2.FieldType;
+import io.atlasmap.v2.SimpleField;
 
 public class DefaultAtlasConversionServiceTest {
 
@@ -799,4 +801,50 @@ public class DefaultAtlasConversionServiceTest {
         });
     }
 
+    @Test
+    public void testConvertTypeToPrimitiveClass() throws AtlasConversionException {
+        assertEquals(5, service.convertType(5, null, int.class, null));
+        assertEquals(5L, service.convertType(5, null, long.class, null));
+        assertThrows(AtlasConversionException.class, () -> service.convertType(5, null, void.class, null));
+        assertThrows(AtlasConversionException.class, () -> service.convertType(Long.MAX_VALUE, null, Integer.class, null));
+    }
+
+    @Test
+    public void testConvertFieldValuePrimitive() throws AtlasConversionException {
+        Field source = new SimpleField();
+        source.setLongValue(5L);
+        Field target = new SimpleField();
+        target.setFieldType(FieldType.INTEGER);
+        service.convertFieldValue(source, target);
+        assertEquals(FieldType.INTEGER, target.getPrimitiveValueType());
+        assertEquals(5, target.getValue());
+
+        source.setDoubleValue(2.0);
+        target.setFieldType(FieldType.LONG);
+        service.convertFieldValue(source, target);
+        assertEquals(FieldType.LONG, target.getPrimitiveValueType());
+        assertEquals(2L, target.getValue());
+
+        source.setBooleanValue(true);
+        target.setFieldType(FieldType.DOUBLE);
+        service.convertFieldValue(source, target);
+        assertEquals(FieldType.DOUBLE, target.getPrimitiveValueType());
+        assertEquals(1.0, target.getValue());
+
+        source.setIntegerValue(0);
+        target.setFieldType(FieldType.BOOLEAN);
+        service.convertFieldValue(source, target);
+        assertEquals(Boolean.FALSE, target.getValue());
+
+        source.setLongValue(Long.MAX_VALUE);
+        target.setFieldType(FieldType.INTEGER);
+        assertThrows(AtlasConversionException.class, () -> service.convertFieldValue(source, target));
+
+        source.setLongValue(5L);
+        target.setFieldType(FieldType.STRING);
+        service.convertFieldValue(source, target);
+        assertNull(target.getPrimitiveValueType());
+        assertEquals("5", target.getValue());
+    }
+
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.atlasmap.api.AtlasException;
+
+public class DefaultAtlasMetadataRegistryTest {
+
+    private DefaultAtlasMetadataRegistry registry = new DefaultAtlasMetadataRegistry();
+
+    @Test
+    public void testAcquireAndRelease() throws Exception {
+        AtomicInteger loaded = new AtomicInteger();
+        Object first = registry.acquire("test", "key", () -> new Object[] {loaded.incrementAndGet()});
+        Object second = registry.acquire("test", "key", () -> new Object[] {loaded.incrementAndGet()});
+        assertSame(first, second);
+        assertEquals(1, loaded.get());
+        assertEquals(2, registry.getReferenceCount("test", "key"));
+        assertNotSame(first, registry.acquire("other", "key", () -> new Object()));
+        assertEquals(2, registry.size());
+
+        registry.release("test", "key");
+        assertEquals(1, registry.getReferenceCount("test", "key"));
+        registry.release("test", "key");
+        assertEquals(0, registry.getReferenceCount("test", "key"));
+        assertEquals(1, registry.size());
+
+        assertNotSame(first, registry.acquire("test", "key", () -> new Object[] {loaded.incrementAndGet()}));
+        assertEquals(2, loaded.get());
+    }
+
+    @Test
+    public void testCloseOnRelease() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        AutoCloseable metadata = () -> closed.set(true);
+        registry.acquire("test", "closeable", () -> metadata);
+        registry.release("test", "closeable");
+        assertTrue(closed.get());
+
+        closed.set(false);
+        registry.acquire("test", "closeable", () -> metadata);
+        registry.clear();
+        assertTrue(closed.get());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testLoadFailure() throws Exception {
+        assertThrows(AtlasException.class, () -> registry.acquire("test", "failure", () -> {
+            throw new IllegalStateException("failure");
+        }));
+        assertEquals(0, registry.size());
+        assertEquals("loaded", registry.acquire("test", "failure", () -> "loaded"));
+    }
+
+    @Test
+    public void testModuleRelease() throws Exception {
+        PropertyModule module = new PropertyModule(new DefaultAtlasPropertyStrategy());
+        module.setMetadataRegistry(registry);
+        module.acquireMetadata("test", "destroyed", () -> "metadata");
+        module.acquireMetadata("test", "destroyed", () -> "metadata");
+        assertEquals(2, registry.getReferenceCount("test", "destroyed"));
+        module.releaseMetadata();
+        assertEquals(0, registry.getReferenceCount("test", "destroyed"));
+        module.releaseMetadata();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testModuleReleaseOnGarbageCollection() throws Exception {
+        acquireByUnreachableModule();
+        for (int i = 0; i < 100 && registry.getReferenceCount("test", "collected") > 0; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertEquals(0, registry.getReferenceCount("test", "collected"));
+    }
+
+    private void acquireByUnreachableModule() throws Exception {
+        PropertyModule module = new PropertyModule(new DefaultAtlasPropertyStrategy());
+        module.setMetadataRegistry(registry);
+        module.acquireMetadata("test", "collected", () -> "metadata");
+        assertEquals(1, registry.getReferenceCount("test", "collected"));
+    }
+
+}
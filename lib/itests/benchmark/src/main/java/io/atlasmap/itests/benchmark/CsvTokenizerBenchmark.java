@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.itests.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.atlasmap.csv.core.CsvTokenizer;
+
+/**
+ * Measures records/second of reading the mapped columns out of a CSV document, comparing the Commons CSV
+ * parser with {@link CsvTokenizer} on narrow and wide records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(CsvTokenizerBenchmark.RECORDS)
+public class CsvTokenizerBenchmark {
+
+    /** The number of records in the input. */
+    public static final int RECORDS = 10000;
+
+    @Param({ "8", "256" })
+    private int columns;
+
+    @Param({ "2" })
+    private int mappedColumns;
+
+    private final CSVFormat format = CSVFormat.DEFAULT.withFirstRecordAsHeader();
+    private String data;
+    private String[] mappedNames;
+    private int[] mappedIndexes;
+
+    /**
+     * Creates the input with a header record, and picks the mapped columns spread across the record.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder buf = new StringBuilder();
+        for (int c = 0; c < columns; c++) {
+            buf.append(c == 0 ? "" : ",").append("column").append(c);
+        }
+        buf.append("\r\n");
+        for (int r = 0; r < RECORDS; r++) {
+            for (int c = 0; c < columns; c++) {
+                buf.append(c == 0 ? "" : ",");
+                if (c % 4 == 3) {
+                    buf.append("\"quoted, value").append(r).append('"');
+                } else {
+                    buf.append("value").append(r).append('-').append(c);
+                }
+            }
+            buf.append("\r\n");
+        }
+        data = buf.toString();
+        mappedNames = new String[mappedColumns];
+        mappedIndexes = new int[mappedColumns];
+        for (int i = 0; i < mappedColumns; i++) {
+            mappedIndexes[i] = (int) ((long) i * (columns - 1) / Math.max(1, mappedColumns - 1));
+            mappedNames[i] = "column" + mappedIndexes[i];
+        }
+    }
+
+    /**
+     * Reads the mapped columns by name with the Commons CSV parser.
+     * @param bh blackhole
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public void commonsCsv(Blackhole bh) throws Exception {
+        try (CSVParser parser = format.parse(new StringReader(data))) {
+            for (CSVRecord record : parser) {
+                for (String name : mappedNames) {
+                    bh.consume(record.get(name));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the mapped columns by the index resolved from the header record with {@link CsvTokenizer}.
+     * @param bh blackhole
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public void simpleTokenizer(Blackhole bh) throws Exception {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(data), format);
+        tokenizer.next();
+        for (int i = 0; i < mappedIndexes.length; i++) {
+            if (!mappedNames[i].equals(tokenizer.get(mappedIndexes[i]))) {
+                throw new IllegalStateException("Unexpected header " + tokenizer.get(mappedIndexes[i]));
+            }
+        }
+        while (tokenizer.next()) {
+            for (int index : mappedIndexes) {
+                bh.consume(tokenizer.get(index));
+            }
+        }
+    }
+
+}
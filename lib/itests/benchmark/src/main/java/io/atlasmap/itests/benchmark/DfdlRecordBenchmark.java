@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.itests.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.daffodil.japi.DataProcessor;
+import org.apache.daffodil.japi.ParseResult;
+import org.apache.daffodil.japi.infoset.W3CDOMInfosetOutputter;
+import org.apache.daffodil.japi.io.InputSourceDataInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+import io.atlasmap.dfdl.core.DfdlDataProcessorCache;
+import io.atlasmap.dfdl.core.DfdlRecordProcessor;
+import io.atlasmap.dfdl.core.DfdlSchemaResolver;
+import io.atlasmap.dfdl.core.schema.CsvDfdlSchemaGenerator;
+
+/**
+ * Measures records/second of parsing DFDL data generated by {@link io.atlasmap.dfdl.core.DfdlSchemaGenerator},
+ * comparing whole document parsing with the record mode of {@link DfdlRecordProcessor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@OperationsPerInvocation(DfdlRecordBenchmark.RECORDS)
+public class DfdlRecordBenchmark {
+
+    /** The number of records in the input. */
+    public static final int RECORDS = 10000;
+
+    @Param({ CsvDfdlSchemaGenerator.NAME })
+    private String generator;
+
+    @Param({ "8", "64" })
+    private int columns;
+
+    private DataProcessor fileProcessor;
+    private DfdlRecordProcessor recordProcessor;
+    private byte[] data;
+
+    /**
+     * Compiles DFDL schemas and creates the input.
+     * @throws Exception unexpected error
+     */
+    @Setup
+    public void setup() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < columns; i++) {
+            header.append(i == 0 ? "" : ",").append("column").append(i);
+        }
+        options.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), header.toString());
+        DfdlSchemaResolver resolver = new DfdlSchemaResolver(getClass().getClassLoader());
+        fileProcessor = DfdlDataProcessorCache.getInstance().getDataProcessor(
+            generator, resolver.resolve(generator, options), options);
+        options.put(CsvDfdlSchemaGenerator.Options.RECORD_ROOT.value(), "true");
+        recordProcessor = new DfdlRecordProcessor(DfdlDataProcessorCache.getInstance().getDataProcessor(
+            generator, resolver.resolve(generator, options), options));
+
+        StringBuilder buf = new StringBuilder();
+        for (int r = 0; r < RECORDS; r++) {
+            for (int c = 0; c < columns; c++) {
+                buf.append(c == 0 ? "" : ",").append("value").append(r).append('-').append(c);
+            }
+            buf.append('\n');
+        }
+        data = buf.toString().getBytes();
+    }
+
+    /**
+     * Parses the whole document into a single DOM.
+     * @param bh blackhole
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public void parseDocument(Blackhole bh) throws Exception {
+        W3CDOMInfosetOutputter output = new W3CDOMInfosetOutputter();
+        ParseResult result = fileProcessor.parse(new InputSourceDataInputStream(data), output);
+        if (result.isError()) {
+            throw new IllegalStateException(result.getDiagnostics().toString());
+        }
+        bh.consume(output.getResult());
+    }
+
+    /**
+     * Parses one record at a time in the caller thread.
+     * @param bh blackhole
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public void parseRecords(Blackhole bh) throws Exception {
+        recordProcessor.process(new ByteArrayInputStream(data), (index, record) -> consume(bh, record));
+    }
+
+    /**
+     * Parses one record at a time and dispatches them to 4 workers.
+     * @param bh blackhole
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public void parseRecordsParallel(Blackhole bh) throws Exception {
+        recordProcessor.process(new ByteArrayInputStream(data), 4, (index, record) -> consume(bh, record));
+    }
+
+    private static void consume(Blackhole bh, Document record) {
+        bh.consume(record.getDocumentElement().getFirstChild().getTextContent());
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.itests.benchmark;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.atlasmap.api.AtlasContextFactory;
+import io.atlasmap.api.AtlasSession;
+import io.atlasmap.core.DefaultAtlasContext;
+import io.atlasmap.core.DefaultAtlasContextFactory;
+import io.atlasmap.java.test.SourceContact;
+import io.atlasmap.java.test.SourceFlatPrimitiveClass;
+import io.atlasmap.java.test.SourceOrder;
+import io.atlasmap.java.test.TargetOrder;
+
+/**
+ * Measures mappings/second of a POJO-to-POJO mapping between the classes in
+ * {@code atlas-java-test-model}, comparing the interpreted mapping process with the compiled mapping
+ * enabled by {@link AtlasContextFactory#PROPERTY_ATLASMAP_COMPILED_MAPPING}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JavaMappingBenchmark {
+
+    private DefaultAtlasContext interpreted;
+    private DefaultAtlasContext compiled;
+    private SourceFlatPrimitiveClass sourceFlat;
+    private SourceOrder sourceOrder;
+
+    /**
+     * Creates the contexts and the source Documents.
+     * @throws Exception unexpected error
+     */
+    @Setup
+    public void setup() throws Exception {
+        DefaultAtlasContextFactory factory = DefaultAtlasContextFactory.getInstance();
+        interpreted = factory.createContext(AtlasContextFactory.Format.JSON, getMappingStream());
+        interpreted.createSession();
+        factory.getProperties().put(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING, "true");
+        compiled = factory.createContext(AtlasContextFactory.Format.JSON, getMappingStream());
+        compiled.createSession();
+        factory.getProperties().remove(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING);
+        if (compiled.getCompiledMapping() == null) {
+            throw new IllegalStateException("The mapping is not compiled");
+        }
+
+        sourceFlat = new SourceFlatPrimitiveClass();
+        sourceFlat.setIntField(123);
+        sourceFlat.setDoubleField(4.5d);
+        sourceFlat.setBoxedIntField(678);
+        sourceOrder = new SourceOrder();
+        sourceOrder.setOrderId(9);
+        SourceContact contact = new SourceContact();
+        contact.setFirstName("Ozzie");
+        sourceOrder.setContact(contact);
+    }
+
+    /**
+     * Processes the mapping with the interpreted mapping process.
+     * @return target Document
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public Object interpreted() throws Exception {
+        return process(interpreted);
+    }
+
+    /**
+     * Processes the mapping with the compiled mapping.
+     * @return target Document
+     * @throws Exception unexpected error
+     */
+    @Benchmark
+    public Object compiled() throws Exception {
+        return process(compiled);
+    }
+
+    private InputStream getMappingStream() {
+        return getClass().getClassLoader().getResourceAsStream("mappings/atlasmapping-compiled-java.json");
+    }
+
+    private Object process(DefaultAtlasContext context) throws Exception {
+        AtlasSession session = context.createSession();
+        session.setSourceDocument(SourceFlatPrimitiveClass.class.getName(), sourceFlat);
+        session.setSourceDocument(SourceOrder.class.getName(), sourceOrder);
+        context.process(session);
+        if (session.hasErrors()) {
+            throw new IllegalStateException(session.getAudits().getAudit().toString());
+        }
+        return session.getTargetDocument(TargetOrder.class.getName());
+    }
+
+}
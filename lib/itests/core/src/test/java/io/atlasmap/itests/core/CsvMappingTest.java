@@ -17,8 +17,19 @@ package io.atlasmap.itests.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,12 +37,19 @@ import org.junit.jupiter.api.Test;
 
 import io.atlasmap.api.AtlasContext;
 import io.atlasmap.api.AtlasContextFactory;
+import io.atlasmap.api.AtlasException;
 import io.atlasmap.api.AtlasSession;
 import io.atlasmap.core.ADMArchiveHandler;
 import io.atlasmap.core.DefaultAtlasContextFactory;
+import io.atlasmap.csv.module.CsvRecordStreamProcessor;
+import io.atlasmap.json.v2.JsonField;
 import io.atlasmap.v2.AtlasMapping;
 import io.atlasmap.v2.Collection;
+import io.atlasmap.v2.DataSource;
+import io.atlasmap.v2.DataSourceType;
+import io.atlasmap.v2.FieldType;
 import io.atlasmap.v2.Mapping;
+import io.atlasmap.v2.Uppercase;
 
 public class CsvMappingTest {
 
@@ -49,6 +67,29 @@ public class CsvMappingTest {
         assertEquals("first,last\r\nBob,Johnson\r\nAndrew,Smith\r\n", csv);
     }
 
+    @Test
+    public void testWriteIntoTargetStream() throws Exception {
+        AtlasContext context = createContext(MAPPINGS_JSON, "1", "2");
+        AtlasSession session = context.createSession();
+        session.setSourceDocument("source", "first_name,last_name\r\nBob,Johnson\r\nAndrew,Smith\r\n".getBytes(StandardCharsets.UTF_8));
+        StringWriter writer = new StringWriter();
+        session.setTargetDocument("target-csv", writer);
+        context.process(session);
+
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        assertSame(writer, session.getTargetDocument("target-csv"));
+        assertEquals("first,last\r\nBob,Johnson\r\nAndrew,Smith\r\n", writer.toString());
+
+        session = context.createSession();
+        session.setSourceDocument("source", new StringReader("first_name,last_name\r\nTom,Silva\r\n"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        session.setTargetDocument("target-csv", out);
+        context.process(session);
+
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        assertEquals("first,last\r\nTom,Silva\r\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testMapOneOfTwoFields() throws Exception {
         AtlasContext context = createContext(MAPPINGS_JSON, "3");
@@ -88,7 +129,235 @@ public class CsvMappingTest {
         assertEquals("{\"first_name\":\"Tom\"}", json);
     }
 
+    @Test
+    public void testStreamRecords() throws Exception {
+        AtlasContext context = createContext(MAPPINGS_JSON, "1", "2");
+        byte[] source = "first_name,last_name\r\nBob,Johnson\r\nAndrew,Smith\r\nTom,Silva\r\n"
+            .getBytes(StandardCharsets.UTF_8);
+        for (int batchSize : new int[] {1, 2, 10}) {
+            CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+            processor.setBatchSize(batchSize);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(3, processor.process(new ByteArrayInputStream(source), out));
+            assertEquals("first,last\r\nBob,Johnson\r\nAndrew,Smith\r\nTom,Silva\r\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8), "batchSize=" + batchSize);
+        }
+
+        CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+        processor.setBatchSize(2);
+        List<Long> indexes = new ArrayList<>();
+        processor.process(new ByteArrayInputStream(source), (index, session) -> indexes.add(index));
+        assertEquals(Arrays.asList(0L, 2L), indexes);
+    }
+
+    @Test
+    public void testStreamRecordsWithConfiguredHeaders() throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "1", "2");
+        mapping.getDataSource().stream().filter(ds -> "target-csv".equals(ds.getId()))
+            .forEach(ds -> ds.setUri("atlas:csv:target-csv?headers=first,last"));
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
+        byte[] source = "first_name,last_name\r\nBob,Johnson\r\nAndrew,Smith\r\nTom,Silva\r\n"
+            .getBytes(StandardCharsets.UTF_8);
+        for (int batchSize : new int[] {1, 2}) {
+            CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+            processor.setBatchSize(batchSize);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(3, processor.process(new ByteArrayInputStream(source), out));
+            // the configured header record is printed only once
+            assertEquals("first,last\r\nBob,Johnson\r\nAndrew,Smith\r\nTom,Silva\r\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8), "batchSize=" + batchSize);
+        }
+    }
+
+    @Test
+    public void testStreamRecordsWithRecordBuffer() throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "1", "2");
+        mapping.getDataSource().stream().filter(ds -> "source".equals(ds.getId()))
+            .forEach(ds -> ds.setUri(ds.getUri() + "&tokenizer=simple"));
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
+        byte[] source = "first_name,last_name\r\n Bob,\"Johnson, Jr\"\r\n,Smith\r\nTom,Silva\r\n"
+            .getBytes(StandardCharsets.UTF_8);
+        CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, processor.process(new ByteArrayInputStream(source), out));
+        // the columns are copied as is, while CSVPrinter would quote the leading space
+        assertEquals("first,last\r\n Bob,\"Johnson, Jr\"\r\n\"\",Smith\r\nTom,Silva\r\n",
+            new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        // a field action needs a session for each batch, which reads the records from CsvRecordBuffer
+        Collection collection = (Collection) mapping.getMappings().getMapping().get(0);
+        ((Mapping) collection.getMappings().getMapping().get(1)).getInputField().get(0).setActions(
+            new ArrayList<>(Arrays.asList(new Uppercase())));
+        context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
+        List<Long> indexes = new ArrayList<>();
+        processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+        processor.setBatchSize(2);
+        processor.process(new ByteArrayInputStream(source), (index, session) -> indexes.add(index));
+        assertEquals(Arrays.asList(0L, 2L), indexes);
+        out = new ByteArrayOutputStream();
+        assertEquals(3, processor.process(new ByteArrayInputStream(source), out));
+        assertEquals("first,last\r\n\" Bob\",\"JOHNSON, JR\"\r\n\"\",SMITH\r\nTom,SILVA\r\n",
+            new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamRecordsIntoJson() throws Exception {
+        byte[] source = "first_name,last_name\r\nBob,Johnson\r\nAndrew,Smith\r\nTom,Silva\r\n"
+            .getBytes(StandardCharsets.UTF_8);
+        // the JSON target which root is a collection is merged into a single array
+        CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(
+            createJsonTargetContext("/<>/last"), "source", "target-json");
+        processor.setBatchSize(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, processor.process(new ByteArrayInputStream(source), out));
+        assertEquals("[{\"last\":\"Johnson\"},{\"last\":\"Smith\"},{\"last\":\"Silva\"}]",
+            new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        // the other JSON target is written one line per batch
+        processor = new CsvRecordStreamProcessor(createJsonTargetContext("/last"), "source", "target-json");
+        out = new ByteArrayOutputStream();
+        assertEquals(3, processor.process(new ByteArrayInputStream(source), out));
+        assertEquals("{\"last\":\"Johnson\"}\n{\"last\":\"Smith\"}\n{\"last\":\"Silva\"}\n",
+            new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testParallelChunks() throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "1", "2");
+        mapping.getDataSource().stream().filter(ds -> "source".equals(ds.getId()))
+            .forEach(ds -> ds.setUri(ds.getUri() + "&noQuotedNewlines=true"));
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
+        StringBuilder source = new StringBuilder("first_name,last_name\r\n");
+        StringBuilder expected = new StringBuilder("first,last\r\n");
+        for (int i = 0; i < 1000; i++) {
+            source.append("first").append(i).append(",last").append(i).append("\r\n");
+            expected.append("first").append(i).append(",last").append(i).append("\r\n");
+        }
+        Path file = Files.createTempFile("atlasmap-csv", ".csv");
+        try {
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+            for (int batchSize : new int[] {1, 7}) {
+                CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+                processor.setBatchSize(batchSize);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertEquals(1000, processor.process(file, out, 4));
+                assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8),
+                    "batchSize=" + batchSize);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelChunksWithRecordBuffer() throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "1", "2");
+        mapping.getDataSource().stream().filter(ds -> "source".equals(ds.getId()))
+            .forEach(ds -> ds.setUri(ds.getUri() + "&noQuotedNewlines=true&tokenizer=simple"));
+        StringBuilder source = new StringBuilder("first_name,last_name\r\n");
+        StringBuilder expected = new StringBuilder("first,last\r\n");
+        for (int i = 0; i < 1000; i++) {
+            source.append("first").append(i).append(",last").append(i).append("\r\n");
+            expected.append("first").append(i).append(",last").append(i).append("\r\n");
+        }
+        Path file = Files.createTempFile("atlasmap-csv", ".csv");
+        try {
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+            // copied byte-for-byte
+            CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(
+                DefaultAtlasContextFactory.getInstance().createContext(mapping), "source", "target-csv");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(1000, processor.process(file, out, 4));
+            assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+            // mapped with the sessions
+            Collection collection = (Collection) mapping.getMappings().getMapping().get(0);
+            ((Mapping) collection.getMappings().getMapping().get(1)).getInputField().get(0).setActions(
+                new ArrayList<>(Arrays.asList(new Uppercase())));
+            processor = new CsvRecordStreamProcessor(
+                DefaultAtlasContextFactory.getInstance().createContext(mapping), "source", "target-csv");
+            processor.setBatchSize(7);
+            out = new ByteArrayOutputStream();
+            assertEquals(1000, processor.process(file, out, 4));
+            assertEquals(expected.toString().replace(",last", ",LAST").replaceFirst(",LAST", ",last"),
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelChunksWithMultiByteLineFeed() throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "1", "2");
+        mapping.getDataSource().stream().filter(ds -> "source".equals(ds.getId()))
+            .forEach(ds -> ds.setUri(ds.getUri() + "&noQuotedNewlines=true&charset=UTF-16LE"));
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
+        StringBuilder source = new StringBuilder("first_name,last_name\r\n");
+        StringBuilder expected = new StringBuilder("first,last\r\n");
+        for (int i = 0; i < 100; i++) {
+            source.append("first").append(i).append(",last").append(i).append("\r\n");
+            expected.append("first").append(i).append(",last").append(i).append("\r\n");
+        }
+        Path file = Files.createTempFile("atlasmap-csv", ".csv");
+        try {
+            // a line feed is 2 bytes in UTF-16, so the file is processed sequentially
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_16LE));
+            CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(100, processor.process(file, out, 4));
+            assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelChunksErrorRecordNumber() throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "1", "2");
+        mapping.getDataSource().stream().filter(ds -> "source".equals(ds.getId()))
+            .forEach(ds -> ds.setUri(ds.getUri() + "&noQuotedNewlines=true"));
+        Collection collection = (Collection) mapping.getMappings().getMapping().get(0);
+        ((Mapping) collection.getMappings().getMapping().get(0)).getOutputField().get(0).setFieldType(FieldType.INTEGER);
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
+        StringBuilder source = new StringBuilder("first_name,last_name\r\n");
+        for (int i = 0; i < 1000; i++) {
+            source.append(i == 700 ? "x" : String.valueOf(i)).append(",last").append(i).append("\r\n");
+        }
+        Path file = Files.createTempFile("atlasmap-csv", ".csv");
+        try {
+            Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+            CsvRecordStreamProcessor processor = new CsvRecordStreamProcessor(context, "source", "target-csv");
+            AtlasException e = assertThrows(AtlasException.class,
+                () -> processor.process(file, new ByteArrayOutputStream(), 4));
+            assertTrue(e.getMessage().startsWith("Failed to map the records 700-700:"), e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private AtlasContext createJsonTargetContext(String targetPath) throws Exception {
+        AtlasMapping mapping = loadMapping(MAPPINGS_JSON, "3");
+        DataSource json = new DataSource();
+        json.setId("target-json");
+        json.setUri("atlas:json:target-json");
+        json.setDataSourceType(DataSourceType.TARGET);
+        mapping.getDataSource().add(json);
+        JsonField target = new JsonField();
+        target.setDocId("target-json");
+        target.setName("last");
+        target.setPath(targetPath);
+        target.setFieldType(FieldType.STRING);
+        Mapping last = (Mapping) mapping.getMappings().getMapping().get(0);
+        last.getOutputField().clear();
+        last.getOutputField().add(target);
+        return DefaultAtlasContextFactory.getInstance().createContext(mapping);
+    }
+
     public AtlasContext createContext(String file, String... mappingIds) throws Exception {
+        return DefaultAtlasContextFactory.getInstance().createContext(loadMapping(file, mappingIds));
+    }
+
+    private AtlasMapping loadMapping(String file, String... mappingIds) throws Exception {
         InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(file);
         ADMArchiveHandler admHandler = new ADMArchiveHandler(Thread.currentThread().getContextClassLoader());
         admHandler.load(AtlasContextFactory.Format.JSON, in);
@@ -105,8 +374,7 @@ public class CsvMappingTest {
                 return false;
             }
         });
-        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(mapping);
-        return context;
+        return mapping;
     }
 
 }
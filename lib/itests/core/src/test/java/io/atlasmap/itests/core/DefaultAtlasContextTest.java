@@ -17,10 +17,22 @@ package io.atlasmap.itests.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import io.atlasmap.api.AtlasSession;
+import io.atlasmap.core.DefaultAtlasContext;
 import io.atlasmap.core.DefaultAtlasContextFactory;
+import io.atlasmap.core.DefaultAtlasMetadataRegistry;
+import io.atlasmap.java.core.JavaFieldWriterUtil;
+import io.atlasmap.java.test.SourceOrder;
+import io.atlasmap.java.test.TargetOrder;
 
 public class DefaultAtlasContextTest {
 
@@ -31,4 +43,51 @@ public class DefaultAtlasContextTest {
         assertEquals(Integer.valueOf(5), Integer.valueOf(factory.getModuleInfoRegistry().size()));
     }
 
+    @Test
+    public void testSharedMetadata() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-compiled-java.json");
+        DefaultAtlasContextFactory factory = DefaultAtlasContextFactory.newInstance();
+        factory.init();
+        AtomicInteger sizeOnClear = new AtomicInteger(-1);
+        DefaultAtlasMetadataRegistry registry = new DefaultAtlasMetadataRegistry() {
+            @Override
+            public void clear() {
+                sizeOnClear.set(size());
+                super.clear();
+            }
+        };
+        factory.setMetadataRegistry(registry);
+        try {
+            DefaultAtlasContext context1 = factory.createContext(url.toURI());
+            DefaultAtlasContext context2 = factory.createContext(url.toURI());
+            String category = JavaFieldWriterUtil.class.getName();
+            List<Object> key = Arrays.asList(factory.getClassLoader(), factory.getConversionService());
+            AtlasSession session = context1.createSession();
+            // one reference for each Java document of the context
+            int perContext = registry.getReferenceCount(category, key);
+            assertTrue(perContext > 0);
+            int size = registry.size();
+            context2.createSession();
+            // the second context shares the entries loaded by the first one
+            assertEquals(size, registry.size());
+            assertEquals(2 * perContext, registry.getReferenceCount(category, key));
+
+            context1.destroy();
+            assertEquals(perContext, registry.getReferenceCount(category, key));
+            assertTrue(context1.getTargetModules().isEmpty());
+            // the destroyed context is initialized again to process the session
+            session.setSourceDocument(SourceOrder.class.getName(), new SourceOrder());
+            context1.process(session);
+            assertEquals(2 * perContext, registry.getReferenceCount(category, key));
+            assertNotNull(session.getTargetDocument(TargetOrder.class.getName()));
+
+            // destroying the factory destroys the contexts so that everything is released
+            factory.destroy();
+            assertEquals(0, sizeOnClear.get());
+            assertTrue(context2.getTargetModules().isEmpty());
+        } finally {
+            factory.destroy();
+        }
+    }
+
 }
@@ -17,14 +17,21 @@ package io.atlasmap.itests.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 
+import javax.xml.transform.stream.StreamResult;
+
 import org.junit.jupiter.api.Test;
 
 import io.atlasmap.api.AtlasContext;
@@ -40,6 +47,65 @@ public class DfdlCsvTest {
         URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-dfdl-csv.json");
         AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(url.toURI());
         AtlasSession session = context.createSession();
+        session.setSourceDocument("java-source", createJavaSource());
+        String csvSource = TestHelper.readStringFromFile("atlas-dfdl-csv-simple.csv");
+        session.setSourceDocument("dfdl-csv-source", csvSource);
+
+        context.process(session);
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        assertTrue(session.hasWarns(), TestHelper.printAudit(session));
+        Object jt = session.getTargetDocument("java-target");
+        assertEquals(TargetTestClass.class, jt.getClass());
+        TargetTestClass javaTarget = TargetTestClass.class.cast(jt);
+        assertEquals(3, javaTarget.getContactList().size());
+        assertEquals("l1r1", javaTarget.getContactList().get(0).getFirstName());
+        assertEquals("l3r3", javaTarget.getContactList().get(2).getPhoneNumber());
+        Object dct = session.getTargetDocument("dfdl-csv-target");
+        String dfdlCsvTarget = String.class.cast(dct);
+        assertEquals(TestHelper.readStringFromFile("data/dfdl-csv-target.csv"), dfdlCsvTarget);
+    }
+
+    @Test
+    public void testBytes() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-dfdl-csv.json");
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(url.toURI());
+        AtlasSession session = context.createSession();
+        session.setSourceDocument("java-source", createJavaSource());
+        String csvSource = TestHelper.readStringFromFile("atlas-dfdl-csv-simple.csv");
+        session.setSourceDocument("dfdl-csv-source", ByteBuffer.wrap(csvSource.getBytes()));
+        ByteArrayOutputStream csvTarget = new ByteArrayOutputStream();
+        session.setTargetDocument("dfdl-csv-target", csvTarget);
+
+        context.process(session);
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        TargetTestClass javaTarget = TargetTestClass.class.cast(session.getTargetDocument("java-target"));
+        assertEquals(3, javaTarget.getContactList().size());
+        assertEquals("l1r1", javaTarget.getContactList().get(0).getFirstName());
+        assertEquals("l3r3", javaTarget.getContactList().get(2).getPhoneNumber());
+        assertSame(csvTarget, session.getTargetDocument("dfdl-csv-target"));
+        assertEquals(TestHelper.readStringFromFile("data/dfdl-csv-target.csv"), new String(csvTarget.toByteArray()));
+    }
+
+    @Test
+    public void testReader() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-dfdl-csv.json");
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(url.toURI());
+        AtlasSession session = context.createSession();
+        session.setSourceDocument("java-source", createJavaSource());
+        String csvSource = TestHelper.readStringFromFile("atlas-dfdl-csv-simple.csv");
+        session.setSourceDocument("dfdl-csv-source", new StringReader(csvSource));
+        StringWriter csvTarget = new StringWriter();
+        session.setTargetDocument("dfdl-csv-target", new StreamResult(csvTarget));
+
+        context.process(session);
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        TargetTestClass javaTarget = TargetTestClass.class.cast(session.getTargetDocument("java-target"));
+        assertEquals(3, javaTarget.getContactList().size());
+        assertEquals("l1r1", javaTarget.getContactList().get(0).getFirstName());
+        assertEquals(TestHelper.readStringFromFile("data/dfdl-csv-target.csv"), csvTarget.toString());
+    }
+
+    private TargetTestClass createJavaSource() {
         TargetTestClass javaSource = new TargetTestClass();
         javaSource.setContactList(new LinkedList<>());
         TargetContact tc = new TargetContact();
@@ -57,22 +123,7 @@ public class DfdlCsvTest {
         tc.setLastName("lastName3");
         tc.setPhoneNumber("333-333-3333");
         javaSource.getContactList().add(tc);
-        session.setSourceDocument("java-source", javaSource);
-        String csvSource = TestHelper.readStringFromFile("atlas-dfdl-csv-simple.csv");
-        session.setSourceDocument("dfdl-csv-source", csvSource);
-
-        context.process(session);
-        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
-        assertTrue(session.hasWarns(), TestHelper.printAudit(session));
-        Object jt = session.getTargetDocument("java-target");
-        assertEquals(TargetTestClass.class, jt.getClass());
-        TargetTestClass javaTarget = TargetTestClass.class.cast(jt);
-        assertEquals(3, javaTarget.getContactList().size());
-        assertEquals("l1r1", javaTarget.getContactList().get(0).getFirstName());
-        assertEquals("l3r3", javaTarget.getContactList().get(2).getPhoneNumber());
-        Object dct = session.getTargetDocument("dfdl-csv-target");
-        String dfdlCsvTarget = String.class.cast(dct);
-        assertEquals(TestHelper.readStringFromFile("data/dfdl-csv-target.csv"), dfdlCsvTarget);
+        return javaSource;
     }
 
 }
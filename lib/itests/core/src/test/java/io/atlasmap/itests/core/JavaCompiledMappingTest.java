@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.itests.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URL;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.atlasmap.api.AtlasContextFactory;
+import io.atlasmap.api.AtlasSession;
+import io.atlasmap.core.DefaultAtlasContext;
+import io.atlasmap.core.DefaultAtlasContextFactory;
+import io.atlasmap.java.module.JavaCompiledMapping;
+import io.atlasmap.java.test.SourceAddress;
+import io.atlasmap.java.test.SourceContact;
+import io.atlasmap.java.test.SourceFlatPrimitiveClass;
+import io.atlasmap.java.test.SourceOrder;
+import io.atlasmap.java.test.TargetDefaultValueClass;
+import io.atlasmap.java.test.TargetFlatPrimitiveClass;
+import io.atlasmap.java.test.TargetOrder;
+import io.atlasmap.spi.AtlasInternalSession;
+import io.atlasmap.v2.Audit;
+import io.atlasmap.v2.Mapping;
+
+public class JavaCompiledMappingTest {
+
+    private DefaultAtlasContext compiled;
+    private DefaultAtlasContext interpreted;
+
+    @BeforeEach
+    public void before() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-compiled-java.json");
+        DefaultAtlasContextFactory factory = DefaultAtlasContextFactory.getInstance();
+        interpreted = (DefaultAtlasContext) factory.createContext(url.toURI());
+        interpreted.createSession();
+        factory.getProperties().put(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING, "true");
+        try {
+            compiled = (DefaultAtlasContext) factory.createContext(url.toURI());
+            compiled.createSession();
+        } finally {
+            factory.getProperties().remove(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING);
+        }
+    }
+
+    @Test
+    public void testCompile() throws Exception {
+        assertNull(interpreted.getCompiledMapping());
+        assertEquals(JavaCompiledMapping.class, compiled.getCompiledMapping().getClass());
+        AtlasSession compiledSession = process(compiled, createSourceOrder());
+        AtlasSession interpretedSession = process(interpreted, createSourceOrder());
+        // the compiled mapping doesn't populate the Field values in the session mapping
+        assertNull(((Mapping) compiledSession.getMapping().getMappings().getMapping().get(0)).getInputField().get(0).getValue());
+
+        for (AtlasSession session : new AtlasSession[] {compiledSession, interpretedSession}) {
+            TargetFlatPrimitiveClass flat = (TargetFlatPrimitiveClass) session.getTargetDocument(
+                    TargetFlatPrimitiveClass.class.getName());
+            assertEquals(123L, flat.getLongField());
+            assertEquals(4.5d, flat.getDoubleField());
+            assertEquals(Integer.valueOf(678), flat.getBoxedIntField());
+            assertEquals(Long.valueOf(9), flat.getBoxedLongField());
+            TargetOrder order = (TargetOrder) session.getTargetDocument(TargetOrder.class.getName());
+            assertEquals(Integer.valueOf(9), order.getOrderId());
+            assertEquals("Ozzie", order.getSomeStaticClass().getSomeField());
+        }
+    }
+
+    @Test
+    public void testNullSourceValue() throws Exception {
+        assertNotNull(compiled.getCompiledMapping());
+        SourceOrder sourceOrder = createSourceOrder();
+        sourceOrder.setContact(null);
+        // the null source value falls back to the interpreted mapping process
+        AtlasSession compiledSession = compiled.createSession();
+        compiledSession.setSourceDocument(SourceFlatPrimitiveClass.class.getName(), new SourceFlatPrimitiveClass());
+        compiledSession.setSourceDocument(SourceOrder.class.getName(), sourceOrder);
+        assertFalse(compiled.getCompiledMapping().process((AtlasInternalSession) compiledSession));
+        for (DefaultAtlasContext context : new DefaultAtlasContext[] {compiled, interpreted}) {
+            AtlasSession session = process(context, sourceOrder);
+            TargetOrder order = (TargetOrder) session.getTargetDocument(TargetOrder.class.getName());
+            assertEquals(Integer.valueOf(9), order.getOrderId());
+            assertNull(order.getSomeStaticClass());
+        }
+    }
+
+    @Test
+    public void testNullSourceLeafValue() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-compiled-java-null.json");
+        DefaultAtlasContextFactory factory = DefaultAtlasContextFactory.getInstance();
+        DefaultAtlasContext nullInterpreted = (DefaultAtlasContext) factory.createContext(url.toURI());
+        nullInterpreted.createSession();
+        factory.getProperties().put(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING, "true");
+        DefaultAtlasContext nullCompiled;
+        try {
+            nullCompiled = (DefaultAtlasContext) factory.createContext(url.toURI());
+            nullCompiled.createSession();
+        } finally {
+            factory.getProperties().remove(AtlasContextFactory.PROPERTY_ATLASMAP_COMPILED_MAPPING);
+        }
+        assertNotNull(nullCompiled.getCompiledMapping());
+
+        SourceOrder sourceOrder = new SourceOrder();
+        sourceOrder.setOrderId(3);
+        SourceContact contact = new SourceContact();
+        contact.setLastName("Osbourne");
+        sourceOrder.setContact(contact);
+        SourceAddress address = new SourceAddress();
+        address.setCity("Birmingham");
+        sourceOrder.setAddress(address);
+        AtlasSession session = processNull(nullCompiled, sourceOrder);
+        // the conversion concern is kept in the validations as well as in the audits
+        assertEquals(1, session.getValidations().getValidation().size());
+        assertEquals(1, session.getAudits().getAudit().size());
+        TargetDefaultValueClass target = (TargetDefaultValueClass) session.getTargetDocument(
+                TargetDefaultValueClass.class.getName());
+        assertEquals("Osbourne", target.getStatus());
+        assertEquals((short) 3, target.getPriority());
+        assertEquals("Birmingham", target.getAddress().getCity());
+
+        // non-null parents with null leaves
+        sourceOrder.setOrderId(null);
+        contact.setLastName(null);
+        address.setCity(null);
+        AtlasSession compiledSession = nullCompiled.createSession();
+        compiledSession.setSourceDocument(SourceOrder.class.getName(), sourceOrder);
+        assertFalse(nullCompiled.getCompiledMapping().process((AtlasInternalSession) compiledSession));
+        List<Audit> expectedAudits = null;
+        for (DefaultAtlasContext context : new DefaultAtlasContext[] {nullInterpreted, nullCompiled}) {
+            session = processNull(context, sourceOrder);
+            target = (TargetDefaultValueClass) session.getTargetDocument(TargetDefaultValueClass.class.getName());
+            assertEquals("NEW", target.getStatus());
+            assertEquals((short) 5, target.getPriority());
+            assertNull(target.getAddress());
+            List<Audit> audits = session.getAudits().getAudit();
+            if (expectedAudits == null) {
+                expectedAudits = audits;
+            } else {
+                assertEquals(expectedAudits.size(), audits.size());
+                for (int i = 0; i < audits.size(); i++) {
+                    assertEquals(expectedAudits.get(i).getStatus(), audits.get(i).getStatus());
+                    assertEquals(expectedAudits.get(i).getMessage(), audits.get(i).getMessage());
+                }
+            }
+        }
+    }
+
+    private AtlasSession processNull(DefaultAtlasContext context, SourceOrder sourceOrder) throws Exception {
+        AtlasSession session = context.createSession();
+        session.setSourceDocument(SourceOrder.class.getName(), sourceOrder);
+        context.process(session);
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        return session;
+    }
+
+    private AtlasSession process(DefaultAtlasContext context, SourceOrder sourceOrder) throws Exception {
+        AtlasSession session = context.createSession();
+        SourceFlatPrimitiveClass flat = new SourceFlatPrimitiveClass();
+        flat.setIntField(123);
+        flat.setDoubleField(4.5d);
+        flat.setBoxedIntField(678);
+        session.setSourceDocument(SourceFlatPrimitiveClass.class.getName(), flat);
+        session.setSourceDocument(SourceOrder.class.getName(), sourceOrder);
+        context.process(session);
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        return session;
+    }
+
+    private SourceOrder createSourceOrder() {
+        SourceOrder order = new SourceOrder();
+        order.setOrderId(9);
+        SourceContact contact = new SourceContact();
+        contact.setFirstName("Ozzie");
+        order.setContact(contact);
+        return order;
+    }
+
+}
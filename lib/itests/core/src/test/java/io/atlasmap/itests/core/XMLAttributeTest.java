@@ -17,11 +17,19 @@ package io.atlasmap.itests.core;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.StringReader;
 import java.net.URL;
 import java.util.HashMap;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMResult;
+
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 import org.xmlunit.assertj.XmlAssert;
 
 import io.atlasmap.api.AtlasContext;
@@ -53,4 +61,30 @@ public class XMLAttributeTest {
         .valueByXPath("//ns1:purchaseOrder/ns1:comment").isEqualTo("1985-05-02");
     }
 
+    @Test
+    public void testDomSourceAndResult() throws Exception {
+        URL url = Thread.currentThread().getContextClassLoader().getResource("mappings/atlasmapping-xml-attribute-ns.json");
+        AtlasContext context = DefaultAtlasContextFactory.getInstance().createContext(url.toURI());
+        AtlasSession session = context.createSession();
+        String xmlSource = TestHelper.readStringFromFile("data/xml-source-attribute-ns.xml");
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document sourceDom = dbf.newDocumentBuilder().parse(new InputSource(new StringReader(xmlSource)));
+        session.setSourceDocument("po-example-schema-f81424a0-8871-4483-abaf-059cc432ea78", sourceDom);
+        DOMResult result = new DOMResult();
+        session.setTargetDocument("po-example-schema-b12bc688-7bf3-4626-97a2-d8c3981ecd3a", result);
+
+        context.process(session);
+        assertFalse(session.hasErrors(), TestHelper.printAudit(session));
+        assertFalse(session.hasWarns(), TestHelper.printAudit(session));
+        assertSame(result, session.getTargetDocument("po-example-schema-b12bc688-7bf3-4626-97a2-d8c3981ecd3a"));
+        assertTrue(result.getNode() instanceof Document, "target DOM is not populated");
+        HashMap<String, String> namespaces = new HashMap<>();
+        namespaces.put("ns1", "http://tempuri.org/po.xsd");
+        XmlAssert.assertThat(result.getNode()).withNamespaceContext(namespaces)
+            .valueByXPath("//ns1:purchaseOrder/@ns1:orderDate").isEqualTo("1985-05-02");
+        XmlAssert.assertThat(result.getNode()).withNamespaceContext(namespaces)
+            .valueByXPath("//ns1:purchaseOrder/ns1:comment").isEqualTo("1985-05-02");
+    }
+
 }
@@ -206,6 +206,26 @@ public class AtlasModelFactory {
         return f;
     }
 
+    /**
+     * Copies the value of the field. A value held in the primitive slots is copied without boxing.
+     * @param from source
+     * @param to target
+     */
+    public static void copyValue(Field from, Field to) {
+        FieldType type = from.getPrimitiveValueType();
+        if (type == FieldType.LONG) {
+            to.setLongValue(from.getLongValue());
+        } else if (type == FieldType.INTEGER) {
+            to.setIntegerValue((int) from.getLongValue());
+        } else if (type == FieldType.DOUBLE) {
+            to.setDoubleValue(from.getDoubleValue());
+        } else if (type == FieldType.BOOLEAN) {
+            to.setBooleanValue(from.getBooleanValue());
+        } else {
+            to.setValue(from.getValue());
+        }
+    }
+
     /**
      * Copies {@link Field} properties.
      * @param from from
@@ -18,6 +18,7 @@ package io.atlasmap.v2;
 import java.io.Serializable;
 import java.util.ArrayList;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
@@ -37,6 +38,18 @@ public abstract class Field
     /** field value */
     protected Object value;
 
+    /** the type of the value held in the primitive slots, or null if it's held in {@link #value} */
+    protected FieldType primitiveValueType;
+
+    /** primitive slot for integral values */
+    protected long longValue;
+
+    /** primitive slot for floating point values */
+    protected double doubleValue;
+
+    /** primitive slot for boolean values */
+    protected boolean booleanValue;
+
     /** array dimension */
     protected Integer arrayDimensions;
 
@@ -175,6 +188,9 @@ public abstract class Field
      *
      */
     public Object getValue() {
+        if (value == null && primitiveValueType != null) {
+            value = boxPrimitiveValue();
+        }
         return value;
     }
 
@@ -188,6 +204,132 @@ public abstract class Field
      */
     public void setValue(Object value) {
         this.value = value;
+        this.primitiveValueType = null;
+    }
+
+    /**
+     * Gets the type of the value held in the primitive slots. A numeric or boolean value set through
+     * {@link #setLongValue(long)}, {@link #setIntegerValue(int)}, {@link #setDoubleValue(double)} or
+     * {@link #setBooleanValue(boolean)} is kept unboxed until {@link #getValue()} is called.
+     *
+     * @return {@link FieldType#LONG}, {@link FieldType#INTEGER}, {@link FieldType#DOUBLE},
+     * {@link FieldType#BOOLEAN}, or null if the value is held as an object
+     */
+    @JsonIgnore
+    public FieldType getPrimitiveValueType() {
+        return primitiveValueType;
+    }
+
+    /**
+     * Gets the value as a {@code long}. It reads the primitive slot if the value is held there,
+     * otherwise it unboxes the {@link Number} value.
+     *
+     * @return value
+     */
+    @JsonIgnore
+    public long getLongValue() {
+        if (primitiveValueType == FieldType.LONG || primitiveValueType == FieldType.INTEGER) {
+            return longValue;
+        }
+        if (primitiveValueType == FieldType.DOUBLE) {
+            return (long) doubleValue;
+        }
+        return ((Number) getValue()).longValue();
+    }
+
+    /**
+     * Sets a {@code long} value without boxing it.
+     *
+     * @param value value
+     */
+    @JsonIgnore
+    public void setLongValue(long value) {
+        setPrimitiveValue(FieldType.LONG);
+        this.longValue = value;
+    }
+
+    /**
+     * Sets an {@code int} value without boxing it. {@link #getValue()} returns an {@link Integer}.
+     *
+     * @param value value
+     */
+    @JsonIgnore
+    public void setIntegerValue(int value) {
+        setPrimitiveValue(FieldType.INTEGER);
+        this.longValue = value;
+    }
+
+    /**
+     * Gets the value as a {@code double}. It reads the primitive slot if the value is held there,
+     * otherwise it unboxes the {@link Number} value.
+     *
+     * @return value
+     */
+    @JsonIgnore
+    public double getDoubleValue() {
+        if (primitiveValueType == FieldType.DOUBLE) {
+            return doubleValue;
+        }
+        if (primitiveValueType == FieldType.LONG || primitiveValueType == FieldType.INTEGER) {
+            return longValue;
+        }
+        return ((Number) getValue()).doubleValue();
+    }
+
+    /**
+     * Sets a {@code double} value without boxing it.
+     *
+     * @param value value
+     */
+    @JsonIgnore
+    public void setDoubleValue(double value) {
+        setPrimitiveValue(FieldType.DOUBLE);
+        this.doubleValue = value;
+    }
+
+    /**
+     * Gets the value as a {@code boolean}. It reads the primitive slot if the value is held there,
+     * otherwise it unboxes the {@link Boolean} value.
+     *
+     * @return value
+     */
+    @JsonIgnore
+    public boolean getBooleanValue() {
+        if (primitiveValueType == FieldType.BOOLEAN) {
+            return booleanValue;
+        }
+        return (Boolean) getValue();
+    }
+
+    /**
+     * Sets a {@code boolean} value without boxing it.
+     *
+     * @param value value
+     */
+    @JsonIgnore
+    public void setBooleanValue(boolean value) {
+        setPrimitiveValue(FieldType.BOOLEAN);
+        this.booleanValue = value;
+    }
+
+    private void setPrimitiveValue(FieldType type) {
+        this.value = null;
+        this.primitiveValueType = type;
+    }
+
+    private Object boxPrimitiveValue() {
+        switch (primitiveValueType) {
+        case LONG:
+            return longValue;
+        case INTEGER:
+            return (int) longValue;
+        case DOUBLE:
+            return doubleValue;
+        case BOOLEAN:
+            return booleanValue;
+        default:
+            return null;
+        }
     }
 
     /**
@@ -52,6 +52,28 @@ public class AtlasModelFactoryTest {
         validateMapping(fm, MappingType.LOOKUP);
     }
 
+    @Test
+    public void testCopyValue() {
+        SimpleField from = new SimpleField();
+        SimpleField to = new SimpleField();
+        from.setIntegerValue(3);
+        AtlasModelFactory.copyValue(from, to);
+        assertEquals(FieldType.INTEGER, to.getPrimitiveValueType());
+        assertEquals(3, to.getValue());
+        assertEquals(3L, to.getLongValue());
+        assertEquals(3.0, to.getDoubleValue());
+
+        from.setBooleanValue(true);
+        AtlasModelFactory.copyValue(from, to);
+        assertEquals(Boolean.TRUE, to.getValue());
+        assertEquals(true, to.getBooleanValue());
+
+        from.setValue("text");
+        AtlasModelFactory.copyValue(from, to);
+        assertNull(to.getPrimitiveValueType());
+        assertEquals("text", to.getValue());
+    }
+
     @Test
     public void testCreateAtlasMapping() {
         AtlasMapping atlasMapping = AtlasModelFactory.createAtlasMapping();
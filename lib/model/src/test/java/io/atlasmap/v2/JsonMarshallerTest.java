@@ -16,7 +16,9 @@
 package io.atlasmap.v2;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -177,4 +179,16 @@ public class JsonMarshallerTest extends BaseMarshallerTest {
         f = mapper.readValue(content, PropertyField.class);
 //        System.out.println(mapper.writeValueAsString(f));
     }
+
+    @Test
+    public void testPrimitiveValueSerialization() throws Exception {
+        SimpleField f = new SimpleField();
+        f.setDoubleValue(1.5);
+        String json = mapper.writeValueAsString(f);
+        assertFalse(json.contains("doubleValue"), json);
+        assertFalse(json.contains("primitiveValueType"), json);
+        SimpleField read = mapper.readValue(json, SimpleField.class);
+        assertEquals(1.5, read.getValue());
+        assertNull(read.getPrimitiveValueType());
+    }
 }
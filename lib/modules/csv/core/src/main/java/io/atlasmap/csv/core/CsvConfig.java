@@ -15,6 +15,10 @@
  */
 package io.atlasmap.csv.core;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.csv.CSVFormat;
@@ -23,8 +27,14 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The CSV configuration.
+ * <p>
+ * The {@link CSVFormat} and the header index built from the configuration are cached, so that a module
+ * can share one configuration among the sessions. Any setter invalidates the cache.
+ * </p>
  */
 public class CsvConfig {
+    /** The tokenizer option value to select {@link CsvTokenizer}. */
+    public static final String TOKENIZER_SIMPLE = "simple";
     private static final Logger LOG = LoggerFactory.getLogger(CsvConfig.class);
 
     private String format;
@@ -41,6 +51,11 @@ public class CsvConfig {
     private Character quote;
     private Boolean allowDuplicateHeaderNames;
     private Boolean allowMissingColumnNames;
+    private Boolean noQuotedNewlines;
+    private String charset;
+    private String tokenizer;
+    private volatile CSVFormat csvFormat;
+    private volatile Map<String, Integer> headerIndex;
 
     /**
      * A constructor.
@@ -112,16 +127,58 @@ public class CsvConfig {
                 case "allowMissingColumnNames":
                     csvConfig.allowMissingColumnNames = entry.getValue() == null || Boolean.valueOf(entry.getValue());
                     break;
+                case "noQuotedNewlines":
+                    csvConfig.noQuotedNewlines = entry.getValue() == null || Boolean.valueOf(entry.getValue());
+                    break;
+                case "charset":
+                    csvConfig.charset = entry.getValue();
+                    break;
+                case "tokenizer":
+                    csvConfig.tokenizer = entry.getValue();
+                    break;
             }
         }
         return csvConfig;
     }
 
     /**
-     * Gets the {@link CSVFormat}.
+     * Gets the cached {@link CSVFormat}, which is built on the first call.
      * @return CSVFormat
      */
-    CSVFormat newCsvFormat() {
+    public CSVFormat getCsvFormat() {
+        CSVFormat answer = this.csvFormat;
+        if (answer == null) {
+            answer = newCsvFormat();
+            this.csvFormat = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the cached index of the configured headers, which is built on the first call. The keys are
+     * lower-cased if it ignores the header case. The first column wins if a header name is duplicated.
+     * @return column index keyed by the header name, or null if no header is configured
+     */
+    public Map<String, Integer> getHeaderIndex() {
+        Map<String, Integer> answer = this.headerIndex;
+        if (answer == null && headers != null) {
+            String[] parsed = getParsedHeaders();
+            boolean lowerCase = Boolean.TRUE.equals(ignoreHeaderCase);
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < parsed.length; i++) {
+                index.putIfAbsent(lowerCase ? parsed[i].toLowerCase() : parsed[i], i);
+            }
+            answer = Collections.unmodifiableMap(index);
+            this.headerIndex = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Creates a new {@link CSVFormat}.
+     * @return CSVFormat
+     */
+    public CSVFormat newCsvFormat() {
         CSVFormat csvFormat;
         csvFormat = (format != null) ? CSVFormat.valueOf(format) : CSVFormat.DEFAULT;
         csvFormat = (delimiter != null) ? csvFormat.withDelimiter(delimiter) : csvFormat;
@@ -140,6 +197,11 @@ public class CsvConfig {
         return csvFormat;
     }
 
+    private void invalidate() {
+        this.csvFormat = null;
+        this.headerIndex = null;
+    }
+
     /**
      * Gets the format.
      * @return format
@@ -154,6 +216,7 @@ public class CsvConfig {
      */
     public void setDelimiter(Character delimiter) {
         this.delimiter = delimiter;
+        invalidate();
     }
 
     /**
@@ -170,6 +233,7 @@ public class CsvConfig {
      */
     public void setFirstRecordAsHeader(Boolean firstRecordAsHeader) {
         this.firstRecordAsHeader = firstRecordAsHeader;
+        invalidate();
     }
 
     /**
@@ -194,6 +258,7 @@ public class CsvConfig {
      */
     public void setSkipHeaderRecord(Boolean skipHeaderRecord) {
         this.skipHeaderRecord = skipHeaderRecord;
+        invalidate();
     }
 
     /**
@@ -210,6 +275,7 @@ public class CsvConfig {
      */
     public void setHeaders(String headers) {
         this.headers = headers;
+        invalidate();
     }
 
     /**
@@ -234,6 +300,7 @@ public class CsvConfig {
      */
     public void setCommentMarker(Character commentMarker) {
         this.commentMarker = commentMarker;
+        invalidate();
     }
 
     /**
@@ -258,6 +325,7 @@ public class CsvConfig {
      */
     public void setEscape(Character escape) {
         this.escape = escape;
+        invalidate();
     }
 
     /**
@@ -274,6 +342,7 @@ public class CsvConfig {
      */
     public void setIgnoreEmptyLines(Boolean ignoreEmptyLines) {
         this.ignoreEmptyLines = ignoreEmptyLines;
+        invalidate();
     }
 
     /**
@@ -290,6 +359,7 @@ public class CsvConfig {
      */
     public void setIgnoreHeaderCase(Boolean ignoreHeaderCase) {
         this.ignoreHeaderCase = ignoreHeaderCase;
+        invalidate();
     }
 
     /**
@@ -306,6 +376,7 @@ public class CsvConfig {
      */
     public void setIgnoreSurroundingSpaces(Boolean ignoreSurroundingSpaces) {
         this.ignoreSurroundingSpaces = ignoreSurroundingSpaces;
+        invalidate();
     }
 
     /**
@@ -322,6 +393,7 @@ public class CsvConfig {
      */
     public void setNullString(String nullString) {
         this.nullString = nullString;
+        invalidate();
     }
 
     /**
@@ -338,6 +410,7 @@ public class CsvConfig {
      */
     public void setQuote(Character quote) {
         this.quote = quote;
+        invalidate();
     }
 
     /**
@@ -354,6 +427,7 @@ public class CsvConfig {
      */
     public void setAllowDuplicateHeaderNames(Boolean allowDuplicateHeaderNames) {
         this.allowDuplicateHeaderNames = allowDuplicateHeaderNames;
+        invalidate();
     }
 
     /**
@@ -370,5 +444,66 @@ public class CsvConfig {
      */
     public void setAllowMissingColumnNames(Boolean allowMissingColumnNames) {
         this.allowMissingColumnNames = allowMissingColumnNames;
+        invalidate();
+    }
+
+    /**
+     * Gets if the document is declared not to have any newline in the quoted values, so that each line
+     * is a record and the document can be split at any line boundary.
+     * @return true if no quoted value contains a newline, or false
+     */
+    public Boolean getNoQuotedNewlines() {
+        return noQuotedNewlines;
+    }
+
+    /**
+     * Sets if the document is declared not to have any newline in the quoted values.
+     * @param noQuotedNewlines true if no quoted value contains a newline, or false
+     */
+    public void setNoQuotedNewlines(Boolean noQuotedNewlines) {
+        this.noQuotedNewlines = noQuotedNewlines;
+        invalidate();
+    }
+
+    /**
+     * Gets the charset used to decode a byte source document or to encode a byte target document.
+     * UTF-8 is used if not specified.
+     * @return charset
+     */
+    public Charset getCharset() {
+        return charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Sets the charset name used to decode a byte source document or to encode a byte target document.
+     * @param charset charset name
+     */
+    public void setCharset(String charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Gets the tokenizer name, {@link #TOKENIZER_SIMPLE} or null for the Commons CSV parser.
+     * @return tokenizer name
+     */
+    public String getTokenizer() {
+        return tokenizer;
+    }
+
+    /**
+     * Sets the tokenizer name, {@link #TOKENIZER_SIMPLE} or null for the Commons CSV parser.
+     * @param tokenizer tokenizer name
+     */
+    public void setTokenizer(String tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Gets if the {@link CsvTokenizer} is selected and it supports the format. Otherwise the Commons CSV
+     * parser is used.
+     * @return true if the {@link CsvTokenizer} is used, or false
+     */
+    public boolean isSimpleTokenizer() {
+        return TOKENIZER_SIMPLE.equals(tokenizer) && CsvTokenizer.supports(getCsvFormat());
     }
 }
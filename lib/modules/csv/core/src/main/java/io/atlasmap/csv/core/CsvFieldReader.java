@@ -19,8 +19,16 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -48,11 +56,35 @@ import io.atlasmap.v2.Fields;
  * It accepts InputStream as a document in order to process big files efficiently.
  * It uses the mark operation of the {@link InputStream} to reset the stream and read consecutive fields.
  * If InputStream does not support the mark operation it is wrapped in {@link BufferedInputStream}.
+ * The bytes are decoded with the charset of the {@link CsvConfig}. A {@link CharSequence} or a {@link Reader}
+ * is also accepted to read the characters without transcoding.
+ * The values of the fields typed as a number or a date are parsed once on read with {@link CsvValueTypes},
+ * so that they don't need to be converted from String for each use.
+ * <p>
+ * If the mapped fields are specified with {@link #setMappedFields(List)}, the document is instead parsed
+ * only once on the first read without the mark operation, all the mapped columns are collected in that single
+ * pass and each field read is served from the collected values. The values of all the records of the mapped
+ * columns are kept in the memory until the reader is discarded, so use {@link #setRecords(List)} with the
+ * batches of the records for a large document. A field which column is not collected or not found in
+ * the header fails to read. The single pass read uses
+ * {@link CsvTokenizer} instead of the Commons CSV parser if it's selected by {@link CsvConfig#getTokenizer()}.
+ * If the document is an InputStream and {@link CsvRecordBuffer} supports the format and the charset, the bytes
+ * are scanned with {@link CsvRecordBuffer} instead so that only the mapped columns are decoded.
+ * </p>
  */
 public class CsvFieldReader implements AtlasFieldReader {
 
+    private static final int RECORD_BATCH_SIZE = 1024;
+
     private final CsvConfig csvConfig;
     private InputStream document;
+    private CharSequence text;
+    private Reader textReader;
+    private List<CSVRecord> records;
+    private CsvRecordBuffer recordBuffer;
+    private List<CsvField> mappedFields;
+    private Map<Object, List<Object>> columnValues;
+    private Map<Object, Collection<String>> unknownColumns;
 
     /**
      * A constructor.
@@ -72,13 +104,73 @@ public class CsvFieldReader implements AtlasFieldReader {
         } else {
             this.document = inputStream;
         }
+        this.text = null;
+        this.textReader = null;
+        this.columnValues = null;
+    }
+
+    /**
+     * Sets the CSV Document as characters.
+     * @param text CSV Document
+     */
+    public void setDocument(CharSequence text) {
+        this.text = text;
+        this.document = null;
+        this.textReader = null;
+        this.columnValues = null;
+    }
+
+    /**
+     * Sets the CSV Document as a character stream. The stream is buffered into the memory on the first read
+     * so that consecutive fields can be read.
+     * @param reader CSV Document
+     */
+    public void setDocument(Reader reader) {
+        this.textReader = reader;
+        this.document = null;
+        this.text = null;
+        this.columnValues = null;
+    }
+
+    /**
+     * Sets the records already parsed by the caller to read instead of the document,
+     * e.g. a batch of the records streamed by the caller.
+     * @param records records
+     */
+    public void setRecords(List<CSVRecord> records) {
+        this.records = records;
+        this.recordBuffer = null;
+        this.columnValues = null;
+    }
+
+    /**
+     * Sets the current batch of the {@link CsvRecordBuffer} to read instead of the document, e.g. a batch of
+     * the records streamed by the caller. The column names are resolved with {@link CsvRecordBuffer#getHeaderMap()}.
+     * Only the columns of the fields being read are decoded.
+     * @param records records
+     */
+    public void setRecords(CsvRecordBuffer records) {
+        this.recordBuffer = records;
+        this.records = null;
+        this.columnValues = null;
+    }
+
+    /**
+     * Sets the fields to be read from the document, which enables the single pass read.
+     * The values of all the records of the mapped columns are collected into the memory on the first read.
+     * @param mappedFields mapped fields, or null to parse the document for each field read
+     */
+    public void setMappedFields(List<CsvField> mappedFields) {
+        this.mappedFields = mappedFields;
+        this.columnValues = null;
     }
 
     @Override
     public Field read(AtlasInternalSession session) throws AtlasException {
         Field field = session.head().getSourceField();
 
-        if (document == null) {
+        if (document == null && text == null && textReader == null && records == null && recordBuffer == null
+                && columnValues == null) {
             AtlasUtil.addAudit(session, field,
                 String.format("Cannot read field '%s' of document '%s', document is null",
                     field.getPath(), field.getDocId()),
@@ -106,7 +198,7 @@ public class CsvFieldReader implements AtlasFieldReader {
                 }
 
                 if (subField instanceof CsvField) {
-                    Field readSubField = readFields((CsvField) subField);
+                    Field readSubField = readFields(session, (CsvField) subField);
                     readFieldGroup.getField().add(readSubField);
                 }
             }
@@ -114,21 +206,227 @@ public class CsvFieldReader implements AtlasFieldReader {
             session.head().setSourceField(readFieldGroup);
             return readFieldGroup;
         } else {
-            Field readField = readFields((CsvField) field);
+            Field readField = readFields(session, (CsvField) field);
 
             session.head().setSourceField(readField);
             return readField;
         }
     }
 
-    private Field readFields(CsvField field) throws AtlasException {
+    private Field readFields(AtlasInternalSession session, CsvField field) throws AtlasException {
+        if (mappedFields == null) {
+            return parseFields(field);
+        }
+        if (columnValues == null) {
+            columnValues = collectColumns();
+        }
+        Object key = getColumnKey(field);
+        List<Object> values = columnValues.get(key);
+        if (values == null) {
+            // the document is already consumed by the single pass read
+            Collection<String> headerNames = unknownColumns.get(key);
+            if (headerNames != null) {
+                throw new AtlasException(String.format("Mapping for %s not found, expected one of %s",
+                    key, headerNames));
+            }
+            throw new AtlasException(String.format(
+                "Column '%s' of the field '%s' is not collected as it's not in the mapped fields", key, field.getPath()));
+        }
+
         List<Field> fields = new ArrayList<>();
-        CsvField csvField = field;
-        CSVFormat csvFormat = csvConfig.newCsvFormat();
+        AtlasPath atlasPath = new AtlasPath(field.getPath());
+        Integer fieldIndex = atlasPath.getRootSegment().getCollectionIndex();
+        if (fieldIndex != null) {
+            if (fieldIndex < values.size()) {
+                CsvField newField = CsvField.cloneOf(field);
+                newField.setIndex(null); //do not copy over index if set
+                newField.setValue(values.get(fieldIndex));
+                fields.add(newField);
+            }
+        } else {
+            for (int i = 0; i < values.size(); i++) {
+                CsvField collectionField = CsvField.cloneOf(field);
+                collectionField.setIndex(null); //do not copy over index if set
+                collectionField.setValue(values.get(i));
+                AtlasPath collectionFieldPath = new AtlasPath(collectionField.getPath());
+                collectionFieldPath.setCollectionIndex(0, i);
+                collectionField.setPath(collectionFieldPath.toString());
+                fields.add(collectionField);
+            }
+        }
+        return toReadField(field, fields);
+    }
+
+    /**
+     * Parses the whole document once and collects the values of all the mapped columns.
+     * The columns which are not found in the header are left out into {@link #unknownColumns}. The values of the column
+     * are parsed with {@link CsvValueTypes} if all the fields mapped from the column have the same type.
+     * @return column values keyed by the column index or name
+     * @throws AtlasException unexpected error
+     */
+    private Map<Object, List<Object>> collectColumns() throws AtlasException {
+        Map<Object, List<Object>> answer = new LinkedHashMap<>();
+        Map<Object, FieldType> types = new LinkedHashMap<>();
+        unknownColumns = new HashMap<>();
+        for (CsvField mapped : mappedFields) {
+            Object key = getColumnKey(mapped);
+            answer.putIfAbsent(key, new ArrayList<>());
+            types.merge(key, mapped.getFieldType() != null ? mapped.getFieldType() : FieldType.STRING,
+                (a, b) -> a == b ? a : FieldType.STRING);
+        }
+        if (answer.isEmpty()) {
+            return answer;
+        }
         try {
-            document.mark(Integer.MAX_VALUE);
+            if (recordBuffer != null) {
+                int[] indexes = resolveColumns(answer, recordBuffer.getHeaderMap(), recordBuffer.size() > 0);
+                collectColumns(recordBuffer, indexes, new ArrayList<>(answer.values()), getColumnTypes(answer, types));
+                return answer;
+            }
+            if (document != null && csvConfig.isSimpleTokenizer()
+                    && CsvRecordBuffer.supports(csvConfig.getCsvFormat(), csvConfig.getCharset())) {
+                CsvRecordBuffer buffer = new CsvRecordBuffer(document, csvConfig.getCsvFormat(), csvConfig.getCharset());
+                int[] indexes = resolveColumns(answer, buffer.readHeader(), true);
+                List<List<Object>> targets = new ArrayList<>(answer.values());
+                FieldType[] columnTypes = getColumnTypes(answer, types);
+                while (buffer.next(RECORD_BATCH_SIZE) > 0) {
+                    collectColumns(buffer, indexes, targets, columnTypes);
+                }
+                return answer;
+            }
+            if (records == null && csvConfig.isSimpleTokenizer()) {
+                CsvTokenizer tokenizer = new CsvTokenizer(openDocument(false), csvConfig.getCsvFormat());
+                int[] indexes = resolveColumns(answer, readHeader(tokenizer), true);
+                List<List<Object>> targets = new ArrayList<>(answer.values());
+                FieldType[] columnTypes = getColumnTypes(answer, types);
+                while (tokenizer.next()) {
+                    for (int i = 0; i < indexes.length; i++) {
+                        targets.get(i).add(CsvValueTypes.parse(tokenizer.get(indexes[i]), columnTypes[i]));
+                    }
+                }
+                return answer;
+            }
+
+            Iterable<CSVRecord> source;
+            Map<String, Integer> headerMap;
+            if (records != null) {
+                source = records;
+                headerMap = records.isEmpty() ? null : records.get(0).getParser().getHeaderMap();
+            } else {
+                CSVParser parser = csvConfig.getCsvFormat().parse(openDocument(false));
+                source = parser;
+                headerMap = parser.getHeaderMap();
+            }
+            int[] indexes = resolveColumns(answer, headerMap, records == null || !records.isEmpty());
+            List<List<Object>> targets = new ArrayList<>(answer.values());
+            FieldType[] columnTypes = getColumnTypes(answer, types);
+            for (CSVRecord record : source) {
+                for (int i = 0; i < indexes.length; i++) {
+                    targets.get(i).add(CsvValueTypes.parse(record.get(indexes[i]), columnTypes[i]));
+                }
+            }
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new AtlasException(e);
+        }
+        return answer;
+    }
+
+    private void collectColumns(CsvRecordBuffer buffer, int[] indexes, List<List<Object>> targets,
+            FieldType[] columnTypes) {
+        for (int record = 0; record < buffer.size(); record++) {
+            for (int i = 0; i < indexes.length; i++) {
+                targets.get(i).add(CsvValueTypes.parse(buffer.get(record, indexes[i]), columnTypes[i]));
+            }
+        }
+    }
 
-            CSVParser parser = csvFormat.parse(new InputStreamReader(document));
+    /**
+     * Gets the field type of each mapped column.
+     * @param columns mapped columns keyed by the column index or name
+     * @param types field types keyed by the column index or name
+     * @return field types in the same order as the columns
+     */
+    private FieldType[] getColumnTypes(Map<Object, List<Object>> columns, Map<Object, FieldType> types) {
+        FieldType[] answer = new FieldType[columns.size()];
+        int i = 0;
+        for (Object key : columns.keySet()) {
+            answer[i++] = types.get(key);
+        }
+        return answer;
+    }
+
+    /**
+     * Resolves the column index of each mapped column.
+     * @param columns mapped columns keyed by the column index or name
+     * @param headerMap header map, or null if there is no header
+     * @param removeUnknown true to leave out the columns which are not found in the header into
+     * {@link #unknownColumns}
+     * @return column indexes in the same order as the columns
+     */
+    private int[] resolveColumns(Map<Object, List<Object>> columns, Map<String, Integer> headerMap,
+            boolean removeUnknown) {
+        if (removeUnknown) {
+            Collection<String> headerNames = headerMap != null ? headerMap.keySet() : Collections.emptySet();
+            columns.keySet().removeIf(key -> {
+                if (key instanceof String && !headerNames.contains(key)) {
+                    unknownColumns.put(key, headerNames);
+                    return true;
+                }
+                return false;
+            });
+        }
+        int[] indexes = new int[columns.size()];
+        int i = 0;
+        for (Object key : columns.keySet()) {
+            indexes[i++] = key instanceof Integer ? (Integer) key : headerMap != null ? headerMap.get(key) : -1;
+        }
+        return indexes;
+    }
+
+    /**
+     * Reads the header record with the {@link CsvTokenizer} if the format expects it, or takes the
+     * configured header.
+     * @param tokenizer tokenizer
+     * @return header map, or null if there is no header
+     * @throws IOException failed to read
+     */
+    private Map<String, Integer> readHeader(CsvTokenizer tokenizer) throws IOException {
+        CSVFormat format = csvConfig.getCsvFormat();
+        if (format.getHeader() == null) {
+            return null;
+        }
+        if (format.getHeader().length > 0) {
+            if (format.getSkipHeaderRecord()) {
+                tokenizer.next();
+            }
+            return csvConfig.getHeaderIndex();
+        }
+        Map<String, Integer> answer = new HashMap<>();
+        if (tokenizer.next()) {
+            for (int i = 0; i < tokenizer.getColumnCount(); i++) {
+                answer.putIfAbsent(tokenizer.get(i), i);
+            }
+        }
+        return answer;
+    }
+
+    private Object getColumnKey(CsvField field) {
+        return field.getColumn() != null ? (Object) field.getColumn() : field.getName();
+    }
+
+    private Field parseFields(CsvField field) throws AtlasException {
+        if (recordBuffer != null) {
+            return readRecordBuffer(field);
+        }
+        List<Field> fields = new ArrayList<>();
+        CsvField csvField = field;
+        try {
+            Iterable<CSVRecord> parser;
+            if (records != null) {
+                parser = records;
+            } else {
+                parser = csvConfig.getCsvFormat().parse(openDocument(true));
+            }
 
             AtlasPath atlasPath = new AtlasPath(csvField.getPath());
             int i = 0;
@@ -144,7 +442,7 @@ public class CsvFieldReader implements AtlasFieldReader {
                         } else {
                             value = record.get(csvField.getName());
                         }
-                        newField.setValue(value);
+                        newField.setValue(CsvValueTypes.parse(value, csvField.getFieldType()));
                         fields.add(newField);
                         break;
                     }
@@ -160,7 +458,7 @@ public class CsvFieldReader implements AtlasFieldReader {
                     } else {
                         value = record.get(csvField.getName());
                     }
-                    collectionField.setValue(value);
+                    collectionField.setValue(CsvValueTypes.parse(value, csvField.getFieldType()));
                     AtlasPath collectionFieldPath = new AtlasPath(collectionField.getPath());
                     collectionFieldPath.setCollectionIndex(0, i);
                     collectionField.setPath(collectionFieldPath.toString());
@@ -168,12 +466,111 @@ public class CsvFieldReader implements AtlasFieldReader {
                     i++;
                 }
             }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new AtlasException(e);
+        } finally {
+            // reset even if the column is not found so that the other fields can be read
+            if (records == null) {
+                try {
+                    resetDocument();
+                } catch (IOException e) {
+                    throw new AtlasException(e);
+                }
+            }
+        }
+        return toReadField(field, fields);
+    }
 
-            document.reset();
-        } catch (IOException e) {
+    private Field readRecordBuffer(CsvField field) throws AtlasException {
+        Integer column = field.getColumn();
+        if (column == null) {
+            Map<String, Integer> headerMap = recordBuffer.getHeaderMap();
+            column = headerMap != null ? headerMap.get(field.getName()) : null;
+            if (column == null) {
+                throw new AtlasException(String.format("Mapping for %s not found, expected one of %s",
+                    field.getName(), headerMap != null ? headerMap.keySet() : "[]"));
+            }
+        }
+        List<Field> fields = new ArrayList<>();
+        Integer fieldIndex = new AtlasPath(field.getPath()).getRootSegment().getCollectionIndex();
+        try {
+            for (int i = 0; i < recordBuffer.size(); i++) {
+                if (fieldIndex != null && fieldIndex != i) {
+                    continue;
+                }
+                CsvField readField = CsvField.cloneOf(field);
+                readField.setIndex(null); //do not copy over index if set
+                readField.setValue(CsvValueTypes.parse(recordBuffer.get(i, column), field.getFieldType()));
+                if (fieldIndex == null) {
+                    AtlasPath readFieldPath = new AtlasPath(readField.getPath());
+                    readFieldPath.setCollectionIndex(0, i);
+                    readField.setPath(readFieldPath.toString());
+                }
+                fields.add(readField);
+            }
+        } catch (IndexOutOfBoundsException e) {
             throw new AtlasException(e);
         }
+        return toReadField(field, fields);
+    }
 
+    /**
+     * Opens the document to parse.
+     * @param reread true to mark the document so that it can be read again after {@link #resetDocument()},
+     * or false to read it only once
+     * @return reader
+     * @throws IOException failed to read
+     */
+    private Reader openDocument(boolean reread) throws IOException {
+        if (textReader != null) {
+            StringBuilder buffer = new StringBuilder();
+            char[] chars = new char[8192];
+            int n;
+            while ((n = textReader.read(chars)) != -1) {
+                buffer.append(chars, 0, n);
+            }
+            textReader = null;
+            text = buffer.toString();
+        }
+        if (text != null) {
+            String answer = text.toString();
+            text = answer;
+            return new StringReader(answer);
+        }
+        if (reread) {
+            document.mark(Integer.MAX_VALUE);
+        }
+        return new InputStreamReader(document, csvConfig.getCharset());
+    }
+
+    private void resetDocument() throws IOException {
+        if (document != null) {
+            document.reset();
+        }
+    }
+
+    private void inferTypes(List<CsvField> fields, Iterator<CSVRecord> records, CSVRecord firstRecord,
+            int sampleSize) {
+        FieldType[] types = new FieldType[fields.size()];
+        CSVRecord record = firstRecord;
+        for (int sampled = 0; sampled < sampleSize; sampled++) {
+            if (record == null) {
+                if (!records.hasNext()) {
+                    break;
+                }
+                record = records.next();
+            }
+            for (int i = 0; i < types.length && i < record.size(); i++) {
+                types[i] = CsvValueTypes.merge(types[i], CsvValueTypes.infer(record.get(i)));
+            }
+            record = null;
+        }
+        for (int i = 0; i < types.length; i++) {
+            fields.get(i).setFieldType(types[i] != null ? types[i] : FieldType.STRING);
+        }
+    }
+
+    private Field toReadField(CsvField field, List<Field> fields) {
         if (fields.size() == 1) {
             return fields.get(0);
         } else {
@@ -181,7 +578,6 @@ public class CsvFieldReader implements AtlasFieldReader {
             fieldGroup.getField().addAll(fields);
             return fieldGroup;
         }
-
     }
 
     /**
@@ -194,17 +590,33 @@ public class CsvFieldReader implements AtlasFieldReader {
      * @throws AtlasException if it fails
      */
     public Document readSchema() throws AtlasException {
-        CSVFormat csvFormat = csvConfig.newCsvFormat();
+        return readSchema(0);
+    }
+
+    /**
+     * Reads the first row and up to the specified number of records of the document, and infers
+     * the type of each column from the sampled values with {@link CsvValueTypes}. The records
+     * are streamed, i.e. only the current record is kept in the memory.
+     *
+     * If firstRecordAsHeader is set to true it uses column names for field names, otherwise it uses an index
+     * starting from 0.
+     *
+     * @param sampleSize the number of records to sample, or 0 to make all the columns STRING
+     * @return {@link Document} built from CSV
+     * @throws AtlasException if it fails
+     */
+    public Document readSchema(int sampleSize) throws AtlasException {
+        CSVFormat csvFormat = csvConfig.getCsvFormat();
         CSVParser parser;
         try {
-            document.mark(Integer.MAX_VALUE);
-            parser = csvFormat.parse(new InputStreamReader(document));
+            parser = csvFormat.parse(openDocument(true));
 
         } catch (IOException e) {
             throw new AtlasException(e);
         }
 
         List<CsvField> fields = new ArrayList<>();
+        CSVRecord firstRecord = null;
         if (csvConfig.isFirstRecordAsHeader()) {
             for (String headerName : parser.getHeaderNames()) {
                 CsvField field = new CsvField();
@@ -215,6 +627,7 @@ public class CsvFieldReader implements AtlasFieldReader {
             }
         } else {
             CSVRecord record = parser.iterator().next();
+            firstRecord = record;
             for (int i = 0; i < record.size(); i++) {
                 CsvField field = new CsvField();
                 if (parser.getHeaderNames() != null && parser.getHeaderNames().size() > i) {
@@ -229,8 +642,12 @@ public class CsvFieldReader implements AtlasFieldReader {
             }
         }
 
+        if (sampleSize > 0) {
+            inferTypes(fields, parser.iterator(), firstRecord, sampleSize);
+        }
+
         try {
-            document.reset();
+            resetDocument();
         } catch (IOException e) {
             throw new AtlasException(e);
         }
@@ -15,11 +15,11 @@
  */
 package io.atlasmap.csv.core;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -41,6 +41,7 @@ public class CsvFieldWriter implements AtlasFieldWriter {
 
     private final CsvConfig csvConfig;
     private Document document;
+    private boolean skipHeaderRecord;
 
     /**
      * A constructor.
@@ -48,6 +49,7 @@ public class CsvFieldWriter implements AtlasFieldWriter {
      */
     public CsvFieldWriter(CsvConfig csvConfig) {
         this.csvConfig = csvConfig;
+        this.skipHeaderRecord = Boolean.TRUE.equals(csvConfig.getSkipHeaderRecord());
         document = new Document();
         document.setFields(new Fields());
     }
@@ -60,6 +62,14 @@ public class CsvFieldWriter implements AtlasFieldWriter {
         return document;
     }
 
+    /**
+     * Sets if it skips the header record, which overrides the config for this writer only.
+     * @param skipHeaderRecord true to skip the header record, or false
+     */
+    public void setSkipHeaderRecord(boolean skipHeaderRecord) {
+        this.skipHeaderRecord = skipHeaderRecord;
+    }
+
     /**
      * Write is not performed until after the whole target document is ready and toCsv is called.
      *
@@ -97,28 +107,36 @@ public class CsvFieldWriter implements AtlasFieldWriter {
      * @throws AtlasException unexpected error
      */
     public String toCsv() throws AtlasException {
-        CSVFormat csvFormat = csvConfig.newCsvFormat();
+        StringWriter writer = new StringWriter();
+        toCsv(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Exports as a CSV into the output. Each record is printed into the output as soon as it's assembled
+     * from the written fields, and the output is flushed at the end if it's {@link java.io.Flushable},
+     * but not closed.
+     * @param out output
+     * @throws AtlasException unexpected error
+     */
+    public void toCsv(Appendable out) throws AtlasException {
+        CSVFormat csvFormat = csvConfig.getCsvFormat();
 
-        String[] headers = csvConfig.getParsedHeaders();
+        Map<String, Integer> headerIndex = csvConfig.getHeaderIndex();
+        int headerCount = headerIndex != null ? csvConfig.getParsedHeaders().length : 0;
         boolean ignoreHeaderCase = Boolean.TRUE.equals(csvConfig.getIgnoreHeaderCase());
-        if (headers != null && ignoreHeaderCase) {
-            for (int j = 0; j < headers.length; j++) {
-                headers[j] = headers[j].toLowerCase();
-            }
-        }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         try {
-            OutputStreamWriter writer = new OutputStreamWriter(out, "UTF-8");
-            CSVPrinter printer = new CSVPrinter(writer, csvFormat);
-
             List<Field> fields = document.getFields().getField();
 
             if (fields.isEmpty()) {
-                return "";
+                return;
             }
 
-            if (!Boolean.TRUE.equals(csvConfig.getSkipHeaderRecord())) {
+            // the format carries the configured headers, which the printer prints unless told to skip
+            CSVPrinter printer = new CSVPrinter(out, skipHeaderRecord ? csvFormat.withSkipHeaderRecord(true) : csvFormat);
+
+            if (!skipHeaderRecord) {
                 if (csvConfig.getHeaders() == null) {
                     String[] headerRecords = new String[fields.size()];
 
@@ -166,42 +184,31 @@ public class CsvFieldWriter implements AtlasFieldWriter {
                         for (int j = values.size(); j < csvField.getColumn() + 1; j++) {
                             values.add(null);
                         }
-                        values.set(csvField.getColumn(), csvField.getValue().toString());
-                    } else if (headers != null) {
-                        for (int j = values.size(); j < headers.length; j++) {
+                        values.set(csvField.getColumn(), toString(csvField.getValue()));
+                    } else if (headerIndex != null) {
+                        for (int j = values.size(); j < headerCount; j++) {
                             values.add(null);
                         }
 
-                        int column = findColumn(headers, ignoreHeaderCase, csvField);
-                        if (column != -1) {
-                            values.set(column, csvField.getValue().toString());
+                        String columnName = ignoreHeaderCase ? csvField.getName().toLowerCase() : csvField.getName();
+                        Integer column = headerIndex.get(columnName);
+                        if (column != null) {
+                            values.set(column, toString(csvField.getValue()));
                         }
                     } else {
-                        values.add(csvField.getValue().toString());
+                        values.add(toString(csvField.getValue()));
                     }
                 }
                 printer.printRecord(values);
             }
 
-            writer.flush();
-            String csv = out.toString();
-            return csv;
+            printer.flush();
         } catch (IOException e) {
             throw new AtlasException(e);
         }
     }
 
-    private int findColumn(String[] headers, boolean ignoreHeaderCase, CsvField csvField) {
-        String columnName = csvField.getName();
-        if (ignoreHeaderCase) {
-            columnName = csvField.getName().toLowerCase();
-        }
-        int column = 0;
-        for (column = 0; column < headers.length; column++) {
-            if (headers[column].equals(columnName)) {
-                return column;
-            }
-        }
-        return -1;
+    private String toString(Object value) {
+        return value != null ? value.toString() : null;
     }
 }
@@ -0,0 +1,463 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+
+/**
+ * The columnar representation of a batch of CSV records. The records are kept as the encoded bytes in one
+ * {@link ByteBuffer}, and the start and end offset of every column of the batch in the arrays shared by all
+ * the records, so that no object is created per record or per column. A column value is decoded into a
+ * {@link String} only when it's read with {@link #get(int, int)}, and it can be copied byte-for-byte into
+ * the output with {@link #copyTo(int, int, OutputStream)} without being decoded.
+ * <p>
+ * The bytes are either read from an {@link InputStream} into a reusable heap buffer, which is compacted
+ * when the next batch is read, or scanned in place in the given {@link ByteBuffer}, e.g. a memory-mapped
+ * file region. The records of the current batch are valid until the next {@link #next(int)}.
+ * The same format options as {@link CsvTokenizer} are supported, and the charset has to encode the ASCII
+ * characters in a single byte as they are, see {@link #supports(CSVFormat, Charset)}.
+ * This class is not thread-safe.
+ * </p>
+ */
+public final class CsvRecordBuffer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final byte QUOTED = 1;
+    private static final byte ESCAPED = 2;
+
+    private final InputStream input;
+    private final CSVFormat format;
+    private final Charset charset;
+    private final byte delimiter;
+    private final byte quote;
+    private final boolean quoting;
+    private final boolean ignoreEmptyLines;
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private byte[] flags = new byte[64];
+    private int columns;
+    private int[] records = new int[17];
+    private int size;
+    private long recordNumber;
+    private Map<String, Integer> headerMap;
+
+    /**
+     * A constructor to read the records from the stream.
+     * @param input CSV document
+     * @param format format to take the delimiter, quote character and empty lines handling from
+     * @param charset charset of the document
+     */
+    public CsvRecordBuffer(InputStream input, CSVFormat format, Charset charset) {
+        this(input, null, format, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * A constructor to read the records from the stream.
+     * @param input CSV document
+     * @param format format to take the delimiter, quote character and empty lines handling from
+     * @param charset charset of the document
+     * @param bufferSize initial buffer size, which is extended if a batch doesn't fit
+     */
+    public CsvRecordBuffer(InputStream input, CSVFormat format, Charset charset, int bufferSize) {
+        this(input, null, format, charset, bufferSize);
+    }
+
+    /**
+     * A constructor to scan the records in place in the bytes between the position and the limit of
+     * the buffer, which is left untouched.
+     * @param bytes CSV document
+     * @param format format to take the delimiter, quote character and empty lines handling from
+     * @param charset charset of the document
+     */
+    public CsvRecordBuffer(ByteBuffer bytes, CSVFormat format, Charset charset) {
+        this(null, bytes.slice(), format, charset, 0);
+    }
+
+    private CsvRecordBuffer(InputStream input, ByteBuffer bytes, CSVFormat format, Charset charset,
+            int bufferSize) {
+        if (!supports(format, charset)) {
+            throw new IllegalArgumentException(String.format("Unsupported CSV format: %s, charset=%s",
+                format, charset));
+        }
+        this.input = input;
+        this.format = format;
+        this.charset = charset;
+        this.delimiter = (byte) format.getDelimiterString().charAt(0);
+        this.quoting = format.getQuoteCharacter() != null;
+        this.quote = quoting ? (byte) format.getQuoteCharacter().charValue() : 0;
+        this.ignoreEmptyLines = format.getIgnoreEmptyLines();
+        if (bytes != null) {
+            this.buffer = bytes;
+            this.limit = bytes.limit();
+            this.eof = true;
+        } else {
+            this.buffer = ByteBuffer.allocate(Math.max(16, bufferSize));
+        }
+    }
+
+    /**
+     * Gets if the format and the charset can be scanned by this buffer. The format has to be supported by
+     * {@link CsvTokenizer} with an ASCII delimiter and quote character, and the charset has to be UTF-8,
+     * US-ASCII or ISO-8859-1 so that those characters and the line breaks are never a part of the other
+     * characters.
+     * @param format format
+     * @param charset charset
+     * @return true if supported, or false
+     */
+    public static boolean supports(CSVFormat format, Charset charset) {
+        return CsvTokenizer.supports(format)
+            && format.getDelimiterString().charAt(0) < 0x80
+            && (format.getQuoteCharacter() == null || format.getQuoteCharacter() < 0x80)
+            && (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset));
+    }
+
+    /**
+     * Reads the header record if the format expects it, or takes the header of the format.
+     * It should be called before the first batch is read.
+     * @return header map, or null if there is no header
+     * @throws IOException failed to read, or malformed quoted value
+     */
+    public Map<String, Integer> readHeader() throws IOException {
+        String[] header = format.getHeader();
+        if (header == null) {
+            return null;
+        }
+        Map<String, Integer> answer = new HashMap<>();
+        if (header.length > 0) {
+            if (format.getSkipHeaderRecord()) {
+                next(1);
+            }
+            for (int i = 0; i < header.length; i++) {
+                answer.putIfAbsent(header[i], i);
+            }
+        } else if (next(1) > 0) {
+            for (int i = 0; i < getColumnCount(0); i++) {
+                answer.putIfAbsent(get(0, i), i);
+            }
+        }
+        this.headerMap = Collections.unmodifiableMap(answer);
+        return this.headerMap;
+    }
+
+    /**
+     * Gets the header map read by {@link #readHeader()} or set by {@link #setHeaderMap(Map)}.
+     * @return header map, or null if there is no header
+     */
+    public Map<String, Integer> getHeaderMap() {
+        return headerMap;
+    }
+
+    /**
+     * Sets the header map resolved elsewhere, e.g. once for all the chunks of a file.
+     * @param headerMap header map
+     */
+    public void setHeaderMap(Map<String, Integer> headerMap) {
+        this.headerMap = headerMap;
+    }
+
+    /**
+     * Drops the current batch and reads the next one.
+     * @param maxRecords the maximum number of records in the batch
+     * @return the number of records in the batch, or 0 if it reached the end of the document
+     * @throws IOException failed to read, or malformed quoted value
+     */
+    public int next(int maxRecords) throws IOException {
+        recordNumber += size;
+        size = 0;
+        columns = 0;
+        if (input != null && position > 0) {
+            // nothing refers to the bytes of the previous batch any more
+            byte[] array = buffer.array();
+            System.arraycopy(array, position, array, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (size < maxRecords) {
+            int found = scan();
+            if (found > 0) {
+                int first = records[size];
+                if (ignoreEmptyLines && columns - first == 1 && starts[first] == ends[first] && flags[first] == 0) {
+                    columns = first;
+                    continue;
+                }
+                if (size + 1 == records.length) {
+                    records = Arrays.copyOf(records, records.length * 2);
+                }
+                records[++size] = columns;
+            } else if (found < 0) {
+                columns = records[size];
+                break;
+            } else {
+                fill();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of records in the current batch.
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the one-based number of the record in the whole document.
+     * @param record zero-based record index in the current batch
+     * @return record number
+     */
+    public long getRecordNumber(int record) {
+        return recordNumber + record + 1;
+    }
+
+    /**
+     * Gets the number of columns of the record.
+     * @param record zero-based record index in the current batch
+     * @return the number of columns
+     */
+    public int getColumnCount(int record) {
+        checkRecord(record);
+        return records[record + 1] - records[record];
+    }
+
+    /**
+     * Decodes the value of the column.
+     * @param record zero-based record index in the current batch
+     * @param column zero-based column index
+     * @return value
+     * @throws IndexOutOfBoundsException if the record doesn't have the column
+     */
+    public String get(int record, int column) {
+        int index = columnIndex(record, column);
+        int start = starts[index];
+        int length = ends[index] - start;
+        byte[] bytes;
+        int offset;
+        if (buffer.hasArray()) {
+            bytes = buffer.array();
+            offset = buffer.arrayOffset() + start;
+        } else {
+            bytes = new byte[length];
+            buffer.duplicate().position(start).get(bytes, 0, length);
+            offset = 0;
+        }
+        if ((flags[index] & ESCAPED) == 0) {
+            return new String(bytes, offset, length, charset);
+        }
+        byte[] unescaped = new byte[length];
+        int n = 0;
+        for (int i = offset; i < offset + length; i++) {
+            unescaped[n++] = bytes[i];
+            if (bytes[i] == quote) {
+                i++;
+            }
+        }
+        return new String(unescaped, 0, n, charset);
+    }
+
+    /**
+     * Gets if the column is empty, without decoding it.
+     * @param record zero-based record index in the current batch
+     * @param column zero-based column index
+     * @return true if empty, or false
+     */
+    public boolean isEmpty(int record, int column) {
+        int index = columnIndex(record, column);
+        return starts[index] == ends[index];
+    }
+
+    /**
+     * Copies the column into the output byte-for-byte as it's in the document, i.e. with the enclosing
+     * quotes and the escaped quotes if it's quoted, so that it can be put into a record of the same format.
+     * @param record zero-based record index in the current batch
+     * @param column zero-based column index
+     * @param out output
+     * @throws IOException failed to write
+     */
+    public void copyTo(int record, int column, OutputStream out) throws IOException {
+        int index = columnIndex(record, column);
+        int start = starts[index];
+        int end = ends[index];
+        if ((flags[index] & QUOTED) != 0) {
+            start--;
+            end++;
+        }
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + start, end - start);
+            return;
+        }
+        byte[] chunk = new byte[Math.min(end - start, 8192)];
+        ByteBuffer src = buffer.duplicate();
+        src.position(start).limit(end);
+        while (src.hasRemaining()) {
+            int n = Math.min(chunk.length, src.remaining());
+            src.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+
+    private void checkRecord(int record) {
+        if (record < 0 || record >= size) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Record %s is requested but the batch has only %s records", record, size));
+        }
+    }
+
+    private int columnIndex(int record, int column) {
+        checkRecord(record);
+        int first = records[record];
+        if (column < 0 || first + column >= records[record + 1]) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Column %s is requested but record %s has only %s columns", column, getRecordNumber(record),
+                records[record + 1] - first));
+        }
+        return first + column;
+    }
+
+    /**
+     * Scans a record from the current position and appends its columns to the batch.
+     * @return 1 if a record is found, 0 if more bytes are needed, or -1 at the end of the document
+     */
+    private int scan() throws IOException {
+        int p = position;
+        columns = records[size];
+        if (p >= limit) {
+            return eof ? -1 : 0;
+        }
+        while (true) {
+            byte c;
+            if (quoting && p < limit && buffer.get(p) == quote) {
+                int start = ++p;
+                byte flag = QUOTED;
+                while (true) {
+                    if (p >= limit) {
+                        if (eof) {
+                            throw new IOException(String.format(
+                                "EOF reached before encapsulated token finished in record %s",
+                                recordNumber + size + 1));
+                        }
+                        return 0;
+                    }
+                    if (buffer.get(p) == quote) {
+                        if (p + 1 >= limit && !eof) {
+                            return 0;
+                        }
+                        if (p + 1 < limit && buffer.get(p + 1) == quote) {
+                            flag |= ESCAPED;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                addColumn(start, p, flag);
+                p++;
+                if (p >= limit) {
+                    if (!eof) {
+                        return 0;
+                    }
+                    position = p;
+                    return 1;
+                }
+                c = buffer.get(p);
+                if (c != delimiter && c != '\n' && c != '\r') {
+                    throw new IOException(String.format(
+                        "Invalid char between encapsulated token and delimiter in record %s",
+                        recordNumber + size + 1));
+                }
+            } else {
+                int start = p;
+                while (p < limit) {
+                    c = buffer.get(p);
+                    if (c == delimiter || c == '\n' || c == '\r') {
+                        break;
+                    }
+                    p++;
+                }
+                if (p >= limit && !eof) {
+                    return 0;
+                }
+                addColumn(start, p, (byte) 0);
+                if (p >= limit) {
+                    position = p;
+                    return 1;
+                }
+                c = buffer.get(p);
+            }
+
+            if (c == delimiter) {
+                p++;
+            } else if (c == '\n') {
+                position = p + 1;
+                return 1;
+            } else {
+                if (p + 1 >= limit && !eof) {
+                    return 0;
+                }
+                position = p + 1 < limit && buffer.get(p + 1) == '\n' ? p + 2 : p + 1;
+                return 1;
+            }
+        }
+    }
+
+    private void addColumn(int start, int end, byte flag) {
+        if (columns == starts.length) {
+            starts = Arrays.copyOf(starts, columns * 2);
+            ends = Arrays.copyOf(ends, columns * 2);
+            flags = Arrays.copyOf(flags, columns * 2);
+        }
+        starts[columns] = start;
+        ends[columns] = end;
+        flags[columns] = flag;
+        columns++;
+    }
+
+    /**
+     * Reads more bytes after the current batch, extending the buffer if the batch occupies whole of it.
+     */
+    private void fill() throws IOException {
+        if (limit == buffer.capacity()) {
+            ByteBuffer extended = ByteBuffer.allocate(buffer.capacity() * 2);
+            System.arraycopy(buffer.array(), 0, extended.array(), 0, limit);
+            buffer = extended;
+        }
+        int n = input.read(buffer.array(), limit, buffer.capacity() - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+}
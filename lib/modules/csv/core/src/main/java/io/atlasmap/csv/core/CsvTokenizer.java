@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import org.apache.commons.csv.CSVFormat;
+
+/**
+ * A lightweight RFC 4180 tokenizer, an alternative to the Commons CSV parser for the simple feeds.
+ * It scans the characters in a reusable {@code char[]} buffer and keeps only the column offsets of the
+ * current record in reusable arrays, so that a {@link String} is created only for the columns asked by
+ * {@link #get(int)}.
+ * <p>
+ * It supports a single character delimiter, the quote character with the doubled quote escape, the
+ * quoted line breaks, CRLF/LF/CR record separators and {@link CSVFormat#getIgnoreEmptyLines()}.
+ * Use {@link #supports(CSVFormat)} to check if the other format options are in their defaults.
+ * </p>
+ */
+public final class CsvTokenizer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final byte QUOTED = 1;
+    private static final byte ESCAPED = 2;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char quote;
+    private final boolean quoting;
+    private final boolean ignoreEmptyLines;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private byte[] flags = new byte[16];
+    private int count;
+    private long recordNumber;
+
+    /**
+     * A constructor.
+     * @param reader CSV document
+     * @param format format to take the delimiter, quote character and empty lines handling from
+     */
+    public CsvTokenizer(Reader reader, CSVFormat format) {
+        this(reader, format, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * A constructor.
+     * @param reader CSV document
+     * @param format format to take the delimiter, quote character and empty lines handling from
+     * @param bufferSize initial buffer size, which is extended if a record doesn't fit
+     */
+    public CsvTokenizer(Reader reader, CSVFormat format, int bufferSize) {
+        if (!supports(format)) {
+            throw new IllegalArgumentException("Unsupported CSV format: " + format);
+        }
+        this.reader = reader;
+        this.delimiter = format.getDelimiterString().charAt(0);
+        this.quoting = format.getQuoteCharacter() != null;
+        this.quote = quoting ? format.getQuoteCharacter() : 0;
+        this.ignoreEmptyLines = format.getIgnoreEmptyLines();
+        this.buffer = new char[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * Gets if the format can be tokenized by this tokenizer.
+     * @param format format
+     * @return true if supported, or false
+     */
+    public static boolean supports(CSVFormat format) {
+        return format.getDelimiterString().length() == 1
+            && format.getCommentMarker() == null
+            && format.getEscapeCharacter() == null
+            && format.getNullString() == null
+            && !format.getIgnoreSurroundingSpaces()
+            && !format.getIgnoreHeaderCase()
+            && !format.getTrim();
+    }
+
+    /**
+     * Advances to the next record.
+     * @return true if there is a record, or false if it reached the end of the document
+     * @throws IOException failed to read, or malformed quoted value
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int found = scan();
+            if (found > 0) {
+                if (ignoreEmptyLines && count == 1 && starts[0] == ends[0] && flags[0] == 0) {
+                    continue;
+                }
+                recordNumber++;
+                return true;
+            } else if (found < 0) {
+                count = 0;
+                return false;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Gets the number of columns in the current record.
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return count;
+    }
+
+    /**
+     * Gets the one-based number of the current record.
+     * @return record number
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Gets the value of the column in the current record.
+     * @param column zero-based column index
+     * @return value
+     * @throws IndexOutOfBoundsException if the current record doesn't have the column
+     */
+    public String get(int column) {
+        if (column < 0 || column >= count) {
+            throw new IndexOutOfBoundsException(String.format(
+                "Column %s is requested but record %s has only %s columns", column, recordNumber, count));
+        }
+        int start = starts[column];
+        int end = ends[column];
+        if ((flags[column] & ESCAPED) == 0) {
+            return new String(buffer, start, end - start);
+        }
+        char[] chars = new char[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            chars[length++] = buffer[i];
+            if (buffer[i] == quote) {
+                i++;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Scans a record from the current position.
+     * @return 1 if a record is found, 0 if more characters are needed, or -1 at the end of the document
+     */
+    private int scan() throws IOException {
+        int p = position;
+        count = 0;
+        if (p >= limit) {
+            return eof ? -1 : 0;
+        }
+        while (true) {
+            char c;
+            if (quoting && p < limit && buffer[p] == quote) {
+                int start = ++p;
+                byte flag = QUOTED;
+                while (true) {
+                    if (p >= limit) {
+                        if (eof) {
+                            throw new IOException(String.format(
+                                "EOF reached before encapsulated token finished in record %s", recordNumber + 1));
+                        }
+                        return 0;
+                    }
+                    if (buffer[p] == quote) {
+                        if (p + 1 >= limit && !eof) {
+                            return 0;
+                        }
+                        if (p + 1 < limit && buffer[p + 1] == quote) {
+                            flag |= ESCAPED;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                addColumn(start, p, flag);
+                p++;
+                if (p >= limit) {
+                    if (!eof) {
+                        return 0;
+                    }
+                    position = p;
+                    return 1;
+                }
+                c = buffer[p];
+                if (c != delimiter && c != '\n' && c != '\r') {
+                    throw new IOException(String.format(
+                        "Invalid char between encapsulated token and delimiter in record %s", recordNumber + 1));
+                }
+            } else {
+                int start = p;
+                while (p < limit) {
+                    c = buffer[p];
+                    if (c == delimiter || c == '\n' || c == '\r') {
+                        break;
+                    }
+                    p++;
+                }
+                if (p >= limit && !eof) {
+                    return 0;
+                }
+                addColumn(start, p, (byte) 0);
+                if (p >= limit) {
+                    position = p;
+                    return 1;
+                }
+                c = buffer[p];
+            }
+
+            if (c == delimiter) {
+                p++;
+            } else if (c == '\n') {
+                position = p + 1;
+                return 1;
+            } else {
+                if (p + 1 >= limit && !eof) {
+                    return 0;
+                }
+                position = p + 1 < limit && buffer[p + 1] == '\n' ? p + 2 : p + 1;
+                return 1;
+            }
+        }
+    }
+
+    private void addColumn(int start, int end, byte flag) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            flags = Arrays.copyOf(flags, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        flags[count] = flag;
+        count++;
+    }
+
+    /**
+     * Moves the unread characters to the beginning of the buffer, extends the buffer if the incomplete
+     * record occupies whole of it, and reads more characters.
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int n = reader.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.core;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+import io.atlasmap.v2.FieldType;
+
+/**
+ * Infers the {@link FieldType} of the CSV values for the inspection, and parses the values
+ * into the inferred type at runtime.
+ * <p>
+ * The types are {@link FieldType#INTEGER}, {@link FieldType#LONG}, {@link FieldType#DOUBLE} for the exponent
+ * notation, {@link FieldType#DECIMAL} for the other decimals and the integers beyond long, and
+ * {@link FieldType#DATE} for ISO local dates. An integer with a leading zero is left as a
+ * {@link FieldType#STRING} so that the codes like a zip code are kept as is.
+ * </p>
+ */
+public final class CsvValueTypes {
+
+    private static final Pattern INTEGER = Pattern.compile("[+-]?(0|[1-9][0-9]*)");
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?([0-9]+\\.[0-9]*|\\.[0-9]+)");
+    private static final Pattern EXPONENT = Pattern.compile("[+-]?([0-9]+\\.?[0-9]*|\\.[0-9]+)[eE][+-]?[0-9]+");
+    private static final Pattern DATE = Pattern.compile("[0-9]{4}-[0-9]{2}-[0-9]{2}");
+
+    private CsvValueTypes() {
+    }
+
+    /**
+     * Infers the type of the value.
+     * @param value value
+     * @return inferred type, or null if the value is null or empty
+     */
+    public static FieldType infer(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (INTEGER.matcher(value).matches()) {
+            try {
+                Integer.parseInt(value);
+                return FieldType.INTEGER;
+            } catch (NumberFormatException e) {
+                try {
+                    Long.parseLong(value);
+                    return FieldType.LONG;
+                } catch (NumberFormatException e2) {
+                    return FieldType.DECIMAL;
+                }
+            }
+        }
+        if (DECIMAL.matcher(value).matches()) {
+            return FieldType.DECIMAL;
+        }
+        if (EXPONENT.matcher(value).matches()) {
+            return FieldType.DOUBLE;
+        }
+        if (DATE.matcher(value).matches()) {
+            try {
+                LocalDate.parse(value);
+                return FieldType.DATE;
+            } catch (DateTimeParseException e) {
+                return FieldType.STRING;
+            }
+        }
+        return FieldType.STRING;
+    }
+
+    /**
+     * Merges the types inferred from the values in the same column into the type which can hold both.
+     * @param current type inferred so far, or null if nothing is inferred yet
+     * @param inferred type inferred from a value, or null to keep the current
+     * @return merged type
+     */
+    public static FieldType merge(FieldType current, FieldType inferred) {
+        if (current == null || current == inferred) {
+            return inferred != null ? inferred : current;
+        }
+        if (inferred == null) {
+            return current;
+        }
+        int currentRank = numericRank(current);
+        int inferredRank = numericRank(inferred);
+        if (currentRank < 0 || inferredRank < 0) {
+            return FieldType.STRING;
+        }
+        return currentRank > inferredRank ? current : inferred;
+    }
+
+    /**
+     * Gets if the values of the type are parsed by {@link #parse(String, FieldType)}.
+     * @param type type
+     * @return true if parsed, or false if the values are kept as String
+     */
+    public static boolean isParsed(FieldType type) {
+        return type == FieldType.DATE || numericRank(type) >= 0;
+    }
+
+    /**
+     * Parses the value into the type. An empty value is parsed into null, and the value which can't be
+     * parsed is kept as is so that the mapping reports it in the conversion.
+     * @param value value
+     * @param type type
+     * @return parsed value
+     */
+    public static Object parse(String value, FieldType type) {
+        if (value == null || !isParsed(type)) {
+            return value;
+        }
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            switch (type) {
+            case INTEGER:
+                return Integer.valueOf(value);
+            case LONG:
+                return Long.valueOf(value);
+            case DOUBLE:
+                return Double.valueOf(value);
+            case DECIMAL:
+                return new BigDecimal(value);
+            case DATE:
+                return LocalDate.parse(value);
+            default:
+                return value;
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return value;
+        }
+    }
+
+    private static int numericRank(FieldType type) {
+        if (type == null) {
+            return -1;
+        }
+        switch (type) {
+        case INTEGER:
+            return 0;
+        case LONG:
+            return 1;
+        case DOUBLE:
+            return 2;
+        case DECIMAL:
+            return 3;
+        default:
+            return -1;
+        }
+    }
+
+}
@@ -16,27 +16,41 @@
 package io.atlasmap.csv.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.csv.CSVFormat;
 
 import io.atlasmap.csv.v2.CsvComplexType;
 import io.atlasmap.v2.Document;
 import org.junit.jupiter.api.Test;
 
+import io.atlasmap.api.AtlasException;
 import io.atlasmap.csv.v2.CsvField;
 import io.atlasmap.spi.AtlasInternalSession;
 import io.atlasmap.v2.AuditStatus;
 import io.atlasmap.v2.Audits;
 import io.atlasmap.v2.FieldGroup;
+import io.atlasmap.v2.FieldType;
 
 public class CsvFieldReaderTest {
 
     @Test
     public void testWithNullDocument() throws Exception {
         CsvFieldReader csvFieldReader = new CsvFieldReader(new CsvConfig());
-        csvFieldReader.setDocument(null);
+        csvFieldReader.setDocument((InputStream) null);
         AtlasInternalSession session = mock(AtlasInternalSession.class);
         when(session.head()).thenReturn(mock(AtlasInternalSession.Head.class));
         when(session.head().getSourceField()).thenReturn(new CsvField());
@@ -67,6 +81,37 @@ public class CsvFieldReaderTest {
         assertEquals("Andrew", field.getField().get(1).getValue());
     }
 
+    @Test
+    public void testWithCharsetAndCharacterDocuments() throws Exception {
+        CsvConfig csvConfig = CsvConfig.newConfig(Collections.singletonMap("charset", "ISO-8859-1"));
+        csvConfig.setFirstRecordAsHeader(true);
+        String csv = "givenName,familyName\nJos\u00e9,M\u00fcller\nAndr\u00e9,Smith";
+        CsvField csvField = new CsvField();
+        csvField.setName("familyName");
+        csvField.setPath("/<>/familyName");
+        AtlasInternalSession session = mock(AtlasInternalSession.class);
+        when(session.head()).thenReturn(mock(AtlasInternalSession.Head.class));
+        when(session.head().getSourceField()).thenReturn(csvField);
+        Audits audits = new Audits();
+        when(session.getAudits()).thenReturn(audits);
+
+        CsvFieldReader csvFieldReader = new CsvFieldReader(csvConfig);
+        csvFieldReader.setDocument(new ByteArrayInputStream(csv.getBytes(StandardCharsets.ISO_8859_1)));
+        FieldGroup field = (FieldGroup) csvFieldReader.read(session);
+        assertEquals("M\u00fcller", field.getField().get(0).getValue());
+
+        csvFieldReader.setDocument(new StringBuilder(csv));
+        field = (FieldGroup) csvFieldReader.read(session);
+        assertEquals("M\u00fcller", field.getField().get(0).getValue());
+
+        csvFieldReader.setDocument(new StringReader(csv));
+        field = (FieldGroup) csvFieldReader.read(session);
+        assertEquals("M\u00fcller", field.getField().get(0).getValue());
+        field = (FieldGroup) csvFieldReader.read(session);
+        assertEquals("Smith", field.getField().get(1).getValue());
+        assertEquals(0, audits.getAudit().size());
+    }
+
     @Test
     public void testWithSimpleDocumentWithoutHeader() throws Exception {
         CsvConfig csvConfig = new CsvConfig();
@@ -180,4 +225,107 @@ public class CsvFieldReaderTest {
         assertEquals("givenName", list.getCsvFields().getCsvField().get(0).getName());
         assertEquals("familyName", list.getCsvFields().getCsvField().get(1).getName());
     }
+
+    @Test
+    public void testSinglePassRead() throws Exception {
+        verifySinglePassRead(null);
+    }
+
+    @Test
+    public void testSinglePassReadWithSimpleTokenizer() throws Exception {
+        verifySinglePassRead(CsvConfig.TOKENIZER_SIMPLE);
+    }
+
+    @Test
+    public void testReadRecordBuffer() throws Exception {
+        CsvConfig csvConfig = new CsvConfig();
+        csvConfig.setFirstRecordAsHeader(true);
+        CsvFieldReader csvFieldReader = new CsvFieldReader(csvConfig);
+        CsvField givenName = new CsvField();
+        givenName.setName("givenName");
+        givenName.setPath("/<>/givenName");
+        CsvField age = new CsvField();
+        age.setColumn(2);
+        age.setName("age");
+        age.setPath("/<1>/age");
+        age.setFieldType(FieldType.INTEGER);
+        byte[] bytes = "givenName,familyName,age\nBob,Smith,42\nAndrew,\"Johnson\",30\n".getBytes();
+        CsvRecordBuffer records = new CsvRecordBuffer(ByteBuffer.wrap(bytes), CSVFormat.DEFAULT.withFirstRecordAsHeader(),
+            StandardCharsets.UTF_8);
+        records.readHeader();
+        records.next(10);
+        AtlasInternalSession session = mock(AtlasInternalSession.class);
+        when(session.head()).thenReturn(mock(AtlasInternalSession.Head.class));
+        when(session.getAudits()).thenReturn(new Audits());
+
+        for (boolean singlePass : new boolean[] {false, true}) {
+            csvFieldReader.setMappedFields(singlePass ? Arrays.asList(givenName, age) : null);
+            csvFieldReader.setRecords(records);
+            when(session.head().getSourceField()).thenReturn(givenName);
+            FieldGroup group = (FieldGroup) csvFieldReader.read(session);
+            assertEquals(2, group.getField().size());
+            assertEquals("/<1>/givenName", group.getField().get(1).getPath());
+            assertEquals("Andrew", group.getField().get(1).getValue());
+            when(session.head().getSourceField()).thenReturn(age);
+            assertEquals(30, csvFieldReader.read(session).getValue());
+        }
+    }
+
+    private void verifySinglePassRead(String tokenizer) throws Exception {
+        CsvConfig csvConfig = new CsvConfig();
+        csvConfig.setFirstRecordAsHeader(true);
+        csvConfig.setTokenizer(tokenizer);
+        CsvFieldReader csvFieldReader = new CsvFieldReader(csvConfig);
+        CsvField givenName = new CsvField();
+        givenName.setName("givenName");
+        givenName.setPath("/<>/givenName");
+        CsvField age = new CsvField();
+        age.setName("age");
+        age.setPath("/<>/age");
+        age.setFieldType(FieldType.INTEGER);
+        CsvField familyName = new CsvField();
+        familyName.setName("familyName");
+        familyName.setPath("/<1>/familyName");
+        CsvField missing = new CsvField();
+        missing.setName("missing");
+        missing.setPath("/<>/missing");
+        // familyName is not collected by the single pass read
+        csvFieldReader.setMappedFields(Arrays.asList(givenName, age, missing));
+        byte[] bytes = "givenName,familyName,age\nBob,Smith,42\nAndrew,Johnson,".getBytes();
+        csvFieldReader.setDocument(new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public boolean markSupported() {
+                return true;
+            }
+
+            @Override
+            public synchronized void mark(int readlimit) {
+                fail("the single pass read must not mark the document");
+            }
+        });
+        AtlasInternalSession session = mock(AtlasInternalSession.class);
+        when(session.head()).thenReturn(mock(AtlasInternalSession.Head.class));
+        Audits audits = new Audits();
+        when(session.getAudits()).thenReturn(audits);
+
+        when(session.head().getSourceField()).thenReturn(givenName);
+        FieldGroup group = (FieldGroup) csvFieldReader.read(session);
+        assertEquals(2, group.getField().size());
+        assertEquals("Bob", group.getField().get(0).getValue());
+        assertEquals("/<1>/givenName", group.getField().get(1).getPath());
+        assertEquals("Andrew", group.getField().get(1).getValue());
+
+        when(session.head().getSourceField()).thenReturn(familyName);
+        assertThrows(AtlasException.class, () -> csvFieldReader.read(session));
+
+        when(session.head().getSourceField()).thenReturn(age);
+        group = (FieldGroup) csvFieldReader.read(session);
+        assertEquals(42, group.getField().get(0).getValue());
+        assertEquals(null, group.getField().get(1).getValue());
+        assertEquals(0, audits.getAudit().size());
+
+        when(session.head().getSourceField()).thenReturn(missing);
+        AtlasException e = assertThrows(AtlasException.class, () -> csvFieldReader.read(session));
+        assertTrue(e.getMessage().contains("Mapping for missing not found"), e.getMessage());
+    }
 }
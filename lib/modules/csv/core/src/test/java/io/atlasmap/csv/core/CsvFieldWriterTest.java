@@ -176,6 +176,8 @@ public class CsvFieldWriterTest {
 
         String csv = writer.toCsv();
         assertEquals("FAMILYNAME,GIVENNAME\r\n,Bob\r\n,Andrew\r\n", csv);
+        assertEquals(csv, writer.toCsv());
+        assertEquals("FAMILYNAME", csvConfig.getParsedHeaders()[0]);
     }
 
     @Test
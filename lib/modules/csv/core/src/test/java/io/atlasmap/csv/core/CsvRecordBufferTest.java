@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+public class CsvRecordBufferTest {
+
+    private static final String CSV = "a,\"b,\"\"quoted\"\"\",c\r\n"
+        + "\r\n"
+        + "\"multi\nline\",,\"\"\n"
+        + "été,日本,\n"
+        + "last,row,";
+
+    @Test
+    public void testSameAsCommonsCsv() throws Exception {
+        CSVFormat tsv = CSVFormat.DEFAULT.withDelimiter('\t');
+        for (CSVFormat format : new CSVFormat[] {CSVFormat.DEFAULT, CSVFormat.RFC4180, tsv}) {
+            String csv = format == tsv ? CSV.replace(',', '\t') : CSV;
+            byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+            List<List<String>> expected = parseWithCommonsCsv(csv, format);
+            // small buffer and batch to exercise the refill in the middle of a record and a batch
+            for (int bufferSize : new int[] {16, 1024}) {
+                for (int batchSize : new int[] {1, 2, 100}) {
+                    CsvRecordBuffer buffer = new CsvRecordBuffer(new ByteArrayInputStream(bytes), format,
+                        StandardCharsets.UTF_8, bufferSize);
+                    assertEquals(expected, read(buffer, batchSize),
+                        format + ", bufferSize=" + bufferSize + ", batchSize=" + batchSize);
+                }
+            }
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2);
+            direct.put((byte) 'x').put(bytes).put((byte) 'x').position(1).limit(bytes.length + 1);
+            assertEquals(expected, read(new CsvRecordBuffer(direct, format, StandardCharsets.UTF_8), 2),
+                format + ", direct");
+            assertEquals(1, direct.position());
+        }
+    }
+
+    @Test
+    public void testCopyTo() throws Exception {
+        byte[] bytes = CSV.getBytes(StandardCharsets.UTF_8);
+        CsvRecordBuffer buffer = new CsvRecordBuffer(new ByteArrayInputStream(bytes), CSVFormat.DEFAULT,
+            StandardCharsets.UTF_8);
+        assertEquals(4, buffer.next(10));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buffer.copyTo(0, 1, out);
+        assertEquals("\"b,\"\"quoted\"\"\"", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        out.reset();
+        buffer.copyTo(2, 1, out);
+        assertEquals("日本", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertTrue(buffer.isEmpty(1, 1));
+        assertTrue(buffer.isEmpty(1, 2));
+        assertFalse(buffer.isEmpty(1, 0));
+        assertEquals(3, buffer.getRecordNumber(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(4, 0));
+        assertEquals(0, buffer.next(10));
+    }
+
+    @Test
+    public void testReadHeader() throws Exception {
+        byte[] bytes = "first,last\nBob,Smith\n".getBytes(StandardCharsets.UTF_8);
+        CsvRecordBuffer buffer = new CsvRecordBuffer(ByteBuffer.wrap(bytes), CSVFormat.DEFAULT.withFirstRecordAsHeader(),
+            StandardCharsets.UTF_8);
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("first", 0);
+        expected.put("last", 1);
+        assertEquals(expected, buffer.readHeader());
+        assertEquals(1, buffer.next(10));
+        assertEquals("Smith", buffer.get(0, buffer.getHeaderMap().get("last")));
+        assertEquals(2, buffer.getRecordNumber(0));
+
+        buffer = new CsvRecordBuffer(ByteBuffer.wrap(bytes), CSVFormat.DEFAULT.withHeader("a", "b"),
+            StandardCharsets.UTF_8);
+        assertEquals(Integer.valueOf(1), buffer.readHeader().get("b"));
+        assertEquals(2, buffer.next(10));
+    }
+
+    @Test
+    public void testUnsupported() throws Exception {
+        assertFalse(CsvRecordBuffer.supports(CSVFormat.DEFAULT, StandardCharsets.UTF_16LE));
+        assertFalse(CsvRecordBuffer.supports(CSVFormat.DEFAULT.withDelimiter('§'), StandardCharsets.UTF_8));
+        assertFalse(CsvRecordBuffer.supports(CSVFormat.MYSQL, StandardCharsets.UTF_8));
+        assertTrue(CsvRecordBuffer.supports(CSVFormat.DEFAULT, StandardCharsets.ISO_8859_1));
+        assertThrows(IllegalArgumentException.class, () -> new CsvRecordBuffer(new ByteArrayInputStream(new byte[0]),
+            CSVFormat.DEFAULT, StandardCharsets.UTF_16));
+        CsvRecordBuffer malformed = new CsvRecordBuffer(ByteBuffer.wrap("a,\"b".getBytes(StandardCharsets.UTF_8)),
+            CSVFormat.DEFAULT, StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> malformed.next(1));
+    }
+
+    private List<List<String>> parseWithCommonsCsv(String csv, CSVFormat format) throws IOException {
+        List<List<String>> answer = new ArrayList<>();
+        for (CSVRecord record : format.parse(new StringReader(csv))) {
+            List<String> values = new ArrayList<>();
+            record.forEach(values::add);
+            answer.add(values);
+        }
+        return answer;
+    }
+
+    private List<List<String>> read(CsvRecordBuffer buffer, int batchSize) throws IOException {
+        List<List<String>> answer = new ArrayList<>();
+        while (buffer.next(batchSize) > 0) {
+            assertTrue(buffer.size() <= batchSize);
+            for (int record = 0; record < buffer.size(); record++) {
+                String[] values = new String[buffer.getColumnCount(record)];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = buffer.get(record, i);
+                }
+                answer.add(Arrays.asList(values));
+                assertEquals(answer.size(), buffer.getRecordNumber(record));
+            }
+        }
+        return answer;
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+public class CsvTokenizerTest {
+
+    private static final String CSV = "a,\"b,\"\"quoted\"\"\",c\r\n"
+        + "\r\n"
+        + "\"multi\nline\",,\"\"\n"
+        + "last,row,";
+
+    @Test
+    public void testSameAsCommonsCsv() throws Exception {
+        CSVFormat tsv = CSVFormat.DEFAULT.withDelimiter('\t');
+        for (CSVFormat format : new CSVFormat[] {CSVFormat.DEFAULT, CSVFormat.RFC4180, tsv}) {
+            String csv = format == tsv ? CSV.replace(',', '\t') : CSV;
+            // small buffer to exercise the refill in the middle of a record
+            for (int bufferSize : new int[] {16, 1024}) {
+                assertEquals(parseWithCommonsCsv(csv, format), tokenize(csv, format, bufferSize),
+                    format + ", bufferSize=" + bufferSize);
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedFormat() throws Exception {
+        assertFalse(CsvTokenizer.supports(CSVFormat.MYSQL));
+        assertFalse(CsvTokenizer.supports(CSVFormat.DEFAULT.withCommentMarker('#')));
+        assertThrows(IllegalArgumentException.class,
+            () -> new CsvTokenizer(new StringReader(""), CSVFormat.DEFAULT.withNullString("")));
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        CsvTokenizer unterminated = new CsvTokenizer(new StringReader("a,\"b"), CSVFormat.DEFAULT);
+        assertThrows(IOException.class, unterminated::next);
+        CsvTokenizer trailing = new CsvTokenizer(new StringReader("\"a\"b,c"), CSVFormat.DEFAULT);
+        assertThrows(IOException.class, trailing::next);
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a,b"), CSVFormat.DEFAULT);
+        tokenizer.next();
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.get(2));
+    }
+
+    private List<List<String>> parseWithCommonsCsv(String csv, CSVFormat format) throws IOException {
+        List<List<String>> answer = new ArrayList<>();
+        for (CSVRecord record : format.parse(new StringReader(csv))) {
+            List<String> values = new ArrayList<>();
+            record.forEach(values::add);
+            answer.add(values);
+        }
+        return answer;
+    }
+
+    private List<List<String>> tokenize(String csv, CSVFormat format, int bufferSize) throws IOException {
+        List<List<String>> answer = new ArrayList<>();
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv), format, bufferSize);
+        while (tokenizer.next()) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < tokenizer.getColumnCount(); i++) {
+                values.add(tokenizer.get(i));
+            }
+            answer.add(values);
+            assertEquals(answer.size(), tokenizer.getRecordNumber());
+        }
+        return answer;
+    }
+
+}
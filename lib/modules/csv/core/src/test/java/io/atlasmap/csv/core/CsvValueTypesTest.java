@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import io.atlasmap.v2.FieldType;
+
+public class CsvValueTypesTest {
+
+    @Test
+    public void testInfer() {
+        assertNull(CsvValueTypes.infer(""));
+        assertEquals(FieldType.INTEGER, CsvValueTypes.infer("-123"));
+        assertEquals(FieldType.LONG, CsvValueTypes.infer("12345678901"));
+        assertEquals(FieldType.DECIMAL, CsvValueTypes.infer("123456789012345678901234567890"));
+        assertEquals(FieldType.DECIMAL, CsvValueTypes.infer("12.50"));
+        assertEquals(FieldType.DOUBLE, CsvValueTypes.infer("1.5e3"));
+        assertEquals(FieldType.DATE, CsvValueTypes.infer("2021-02-28"));
+        assertEquals(FieldType.STRING, CsvValueTypes.infer("2021-02-30"));
+        assertEquals(FieldType.STRING, CsvValueTypes.infer("01234"));
+        assertEquals(FieldType.STRING, CsvValueTypes.infer("true"));
+    }
+
+    @Test
+    public void testMerge() {
+        assertEquals(FieldType.INTEGER, CsvValueTypes.merge(null, FieldType.INTEGER));
+        assertEquals(FieldType.INTEGER, CsvValueTypes.merge(FieldType.INTEGER, null));
+        assertEquals(FieldType.LONG, CsvValueTypes.merge(FieldType.INTEGER, FieldType.LONG));
+        assertEquals(FieldType.DECIMAL, CsvValueTypes.merge(FieldType.DOUBLE, FieldType.DECIMAL));
+        assertEquals(FieldType.STRING, CsvValueTypes.merge(FieldType.DATE, FieldType.INTEGER));
+        assertEquals(FieldType.STRING, CsvValueTypes.merge(FieldType.STRING, FieldType.INTEGER));
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(42, CsvValueTypes.parse("42", FieldType.INTEGER));
+        assertEquals(42L, CsvValueTypes.parse("42", FieldType.LONG));
+        assertEquals(1500d, CsvValueTypes.parse("1.5e3", FieldType.DOUBLE));
+        assertEquals(new BigDecimal("12.50"), CsvValueTypes.parse("12.50", FieldType.DECIMAL));
+        assertEquals(LocalDate.of(2021, 2, 28), CsvValueTypes.parse("2021-02-28", FieldType.DATE));
+        assertNull(CsvValueTypes.parse("", FieldType.INTEGER));
+        assertEquals("", CsvValueTypes.parse("", FieldType.STRING));
+        assertEquals("n/a", CsvValueTypes.parse("n/a", FieldType.INTEGER));
+    }
+
+}
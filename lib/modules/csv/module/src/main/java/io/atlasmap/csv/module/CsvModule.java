@@ -17,22 +17,36 @@ package io.atlasmap.csv.module;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.commons.csv.CSVRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.atlasmap.api.AtlasConstants;
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.core.AtlasUtil;
 import io.atlasmap.core.BaseAtlasModule;
 import io.atlasmap.csv.core.CsvConfig;
 import io.atlasmap.csv.core.CsvFieldReader;
 import io.atlasmap.csv.core.CsvFieldWriter;
+import io.atlasmap.csv.core.CsvRecordBuffer;
 import io.atlasmap.csv.v2.CsvField;
 import io.atlasmap.spi.AtlasInternalSession;
 import io.atlasmap.spi.AtlasModuleDetail;
+import io.atlasmap.v2.AtlasMapping;
 import io.atlasmap.v2.AuditStatus;
+import io.atlasmap.v2.BaseMapping;
+import io.atlasmap.v2.Collection;
 import io.atlasmap.v2.Field;
 import io.atlasmap.v2.FieldGroup;
+import io.atlasmap.v2.Mapping;
+import io.atlasmap.v2.Mappings;
 
 /**
  * The {@link io.atlasmap.spi.AtlasModule} implementation for CSV Document.
@@ -40,32 +54,70 @@ import io.atlasmap.v2.FieldGroup;
 @AtlasModuleDetail(name = "CsvModule", uri = "atlas:csv", modes = { "SOURCE", "TARGET" }, dataFormats = {
         "csv" }, configPackages = { "io.atlasmap.csv.v2" })
 public class CsvModule extends BaseAtlasModule {
+    /** The session property to suppress the header record in the target document, e.g. for the subsequent batches. */
+    public static final String SESSION_PROPERTY_SKIP_TARGET_HEADER = "Atlas.CsvSkipTargetHeader";
     private static final Logger LOG = LoggerFactory.getLogger(CsvModule.class);
 
+    private volatile CsvConfig csvConfig;
+    private volatile MappedFields mappedFields;
+
+    @Override
+    public void init() throws AtlasException {
+        super.init();
+        this.csvConfig = CsvConfig.newConfig(getUriParameters());
+    }
+
+    /**
+     * Gets the config built from the URI parameters, which is shared among the sessions
+     * so that the {@link org.apache.commons.csv.CSVFormat} and the header index are built only once.
+     * @return config
+     */
+    public CsvConfig getCsvConfig() {
+        CsvConfig answer = this.csvConfig;
+        if (answer == null) {
+            answer = CsvConfig.newConfig(getUriParameters());
+            this.csvConfig = answer;
+        }
+        return answer;
+    }
+
     @Override
     public void processPreValidation(AtlasInternalSession session) throws AtlasException {
 
     }
 
+    /**
+     * A String or any other {@link CharSequence}, a {@link Reader}, an InputStream, a byte array, and
+     * a List of {@link CSVRecord} or a {@link CsvRecordBuffer} already parsed by the caller, e.g. by
+     * {@link CsvRecordStreamProcessor}, are accepted as a source document. The characters are read as is, and the bytes are decoded with
+     * the {@code charset} URI parameter, UTF-8 by default.
+     */
     @Override
     public void processPreSourceExecution(AtlasInternalSession session) throws AtlasException {
         Object sourceDocument = session.getSourceDocument(getDocId());
-        InputStream sourceInputStream = null;
+        CsvFieldReader reader = new CsvFieldReader(getCsvConfig());
+        reader.setMappedFields(getMappedFields(session.getMapping()));
 
-        if (sourceDocument == null || !((sourceDocument instanceof String) || (sourceDocument instanceof InputStream))) {
+        if (sourceDocument instanceof List && isRecordList((List<?>) sourceDocument)) {
+            @SuppressWarnings("unchecked")
+            List<CSVRecord> records = (List<CSVRecord>) sourceDocument;
+            reader.setRecords(records);
+        } else if (sourceDocument instanceof CsvRecordBuffer) {
+            reader.setRecords((CsvRecordBuffer) sourceDocument);
+        } else if (sourceDocument instanceof CharSequence) {
+            reader.setDocument((CharSequence) sourceDocument);
+        } else if (sourceDocument instanceof Reader) {
+            reader.setDocument((Reader) sourceDocument);
+        } else if (sourceDocument instanceof byte[]) {
+            reader.setDocument(new ByteArrayInputStream((byte[]) sourceDocument));
+        } else if (sourceDocument instanceof InputStream) {
+            reader.setDocument((InputStream) sourceDocument);
+        } else {
             AtlasUtil.addAudit(session, getDocId(), String.format(
-                "Null, non-String or non-Stream source document: docId='%s'", getDocId()),
+                "Null or unsupported source document type: docId='%s'", getDocId()),
                 AuditStatus.WARN, null);
-        } else if (sourceDocument instanceof String){
-            String sourceDocumentString = String.class.cast(sourceDocument);
-            sourceInputStream = new ByteArrayInputStream(sourceDocumentString.getBytes());
-        } else {
-            sourceInputStream = (InputStream) sourceDocument;
+            reader.setDocument((InputStream) null);
         }
-
-        CsvConfig csvConfig = CsvConfig.newConfig(getUriParameters());
-        CsvFieldReader reader = new CsvFieldReader(csvConfig);
-        reader.setDocument(sourceInputStream);
         session.setFieldReader(getDocId(), reader);
 
         if (LOG.isDebugEnabled()) {
@@ -75,8 +127,10 @@ public class CsvModule extends BaseAtlasModule {
 
     @Override
     public void processPreTargetExecution(AtlasInternalSession session) throws AtlasException {
-        CsvConfig csvConfig = CsvConfig.newConfig(getUriParameters());
-        CsvFieldWriter writer = new CsvFieldWriter(csvConfig);
+        CsvFieldWriter writer = new CsvFieldWriter(getCsvConfig());
+        if (Boolean.TRUE.equals(session.getProperties().get(SESSION_PROPERTY_SKIP_TARGET_HEADER))) {
+            writer.setSkipHeaderRecord(true);
+        }
         session.setFieldWriter(getDocId(), writer);
 
         if (LOG.isDebugEnabled()) {
@@ -119,12 +173,26 @@ public class CsvModule extends BaseAtlasModule {
         }
     }
 
+    /**
+     * If a {@link Writer} or an {@link OutputStream} is supplied as a target document before processing,
+     * the records are printed straight into it, encoded with the {@code charset} URI parameter in case of
+     * an OutputStream. The supplied target document is left as is in the session and is not closed.
+     * Otherwise the target document is a String.
+     */
     @Override
     public void processPostTargetExecution(AtlasInternalSession session) throws AtlasException {
         CsvFieldWriter writer = session.getFieldWriter(getDocId(), CsvFieldWriter.class);
         if (writer != null && writer.getDocument() != null) {
-            String targetDocumentString = writer.toCsv();
-            session.setTargetDocument(getDocId(), targetDocumentString);
+            Object targetDocument = session.hasTargetDocument(getDocId())
+                    ? session.getTargetDocument(getDocId()) : null;
+            if (targetDocument instanceof Writer) {
+                writer.toCsv((Writer) targetDocument);
+            } else if (targetDocument instanceof OutputStream) {
+                writer.toCsv(new OutputStreamWriter((OutputStream) targetDocument, getCsvConfig().getCharset()));
+            } else {
+                String targetDocumentString = writer.toCsv();
+                session.setTargetDocument(getDocId(), targetDocumentString);
+            }
         } else {
             AtlasUtil.addAudit(session, getDocId(), String
                     .format("No target document created for DataSource:[id=%s, uri=%s]", getDocId(), this.getUri()),
@@ -137,6 +205,65 @@ public class CsvModule extends BaseAtlasModule {
         }
     }
 
+    private boolean isRecordList(List<?> list) {
+        return list.isEmpty() || list.get(0) instanceof CSVRecord;
+    }
+
+    /**
+     * Gets the source fields of this document referenced from the mapping definition, so that
+     * {@link CsvFieldReader} can collect all of them in a single pass. The result is kept as long as
+     * the same mapping definition is used.
+     * @param mapping mapping definition
+     * @return mapped fields, or null if the mapping definition is not available
+     */
+    protected List<CsvField> getMappedFields(AtlasMapping mapping) {
+        if (mapping == null) {
+            return null;
+        }
+        MappedFields answer = this.mappedFields;
+        if (answer == null || answer.mapping != mapping) {
+            List<CsvField> fields = new ArrayList<>();
+            collectMappedFields(mapping.getMappings(), fields);
+            answer = new MappedFields(mapping, fields);
+            this.mappedFields = answer;
+        }
+        return answer.fields;
+    }
+
+    private void collectMappedFields(Mappings mappings, List<CsvField> fields) {
+        if (mappings == null) {
+            return;
+        }
+        for (BaseMapping baseMapping : mappings.getMapping()) {
+            if (baseMapping instanceof Collection) {
+                collectMappedFields(((Collection) baseMapping).getMappings(), fields);
+            } else if (baseMapping instanceof Mapping) {
+                Mapping mapping = (Mapping) baseMapping;
+                collectMappedFields(mapping.getInputField(), fields);
+                if (mapping.getInputFieldGroup() != null) {
+                    collectMappedFields(mapping.getInputFieldGroup().getField(), fields);
+                }
+            }
+        }
+    }
+
+    private void collectMappedFields(List<Field> source, List<CsvField> fields) {
+        if (source == null) {
+            return;
+        }
+        for (Field field : source) {
+            if (field instanceof FieldGroup) {
+                collectMappedFields(((FieldGroup) field).getField(), fields);
+            } else if (field instanceof CsvField) {
+                String docId = field.getDocId() == null || field.getDocId().isEmpty()
+                    ? AtlasConstants.DEFAULT_SOURCE_DOCUMENT_ID : field.getDocId();
+                if (docId.equals(getDocId())) {
+                    fields.add((CsvField) field);
+                }
+            }
+        }
+    }
+
     @Override
     public Field cloneField(Field field) throws AtlasException {
         return CsvField.cloneOf((CsvField) field);
@@ -152,4 +279,14 @@ public class CsvModule extends BaseAtlasModule {
         return new CsvField();
     }
 
+    private static final class MappedFields {
+        private final AtlasMapping mapping;
+        private final List<CsvField> fields;
+
+        private MappedFields(AtlasMapping mapping, List<CsvField> fields) {
+            this.mapping = mapping;
+            this.fields = fields;
+        }
+    }
+
 }
@@ -0,0 +1,890 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.csv.module;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.QuoteMode;
+
+import io.atlasmap.api.AtlasContext;
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.api.AtlasSession;
+import io.atlasmap.core.AtlasPath;
+import io.atlasmap.core.DefaultAtlasContext;
+import io.atlasmap.csv.core.CsvConfig;
+import io.atlasmap.csv.core.CsvRecordBuffer;
+import io.atlasmap.csv.v2.CsvField;
+import io.atlasmap.spi.AtlasModule;
+import io.atlasmap.spi.AtlasModuleDetail;
+import io.atlasmap.v2.AtlasMapping;
+import io.atlasmap.v2.AuditStatus;
+import io.atlasmap.v2.BaseMapping;
+import io.atlasmap.v2.Collection;
+import io.atlasmap.v2.Field;
+import io.atlasmap.v2.FieldGroup;
+import io.atlasmap.v2.FieldType;
+import io.atlasmap.v2.Mapping;
+import io.atlasmap.v2.MappingType;
+import io.atlasmap.v2.Mappings;
+import io.atlasmap.v2.Validations;
+
+/**
+ * Streams a CSV source document through the mapping a batch of records at a time, so that the memory
+ * consumption is bounded by the batch size rather than by the size of the input. Each batch is mapped
+ * with its own {@link AtlasSession} and the target document is written out before the next batch is read.
+ * The mapping is validated only once for the first batch and the validations are reused by the other batches.
+ * <p>
+ * The mapping definition must map the CSV records one by one, i.e. each batch has to map independently
+ * from the others, which is the case for a collection mapping from the CSV records into the target records.
+ * A CSV target is printed straight into the output with the header record only once. A JSON target which root is
+ * a collection is merged into a single array, any other JSON target is written as one line per batch, and any other
+ * String target is concatenated. The way of writing is chosen from the target module and the target field paths.
+ * </p>
+ * <p>
+ * If the source document is a file declared with {@code noQuotedNewlines}, i.e. every line is a record,
+ * {@link #process(Path, OutputStream, int)} splits the file at line boundaries into chunks, memory-maps
+ * and maps the chunks in parallel, and writes the outputs in the original order. The header is resolved
+ * once from the beginning of the file and shared by all the chunks. The output of a chunk is kept in memory
+ * until it's written, so a chunk is at most 4 MiB of the input up to the end of the line.
+ * </p>
+ * <p>
+ * If the source document selects the simple tokenizer with {@code tokenizer=simple} and
+ * {@link CsvRecordBuffer} supports its format and charset, each batch is a {@link CsvRecordBuffer} which
+ * keeps the records as the bytes read from the input, or as the memory-mapped chunk itself, and only the
+ * mapped columns are decoded. If in addition the target is a CSV document of the same delimiter and quote
+ * character, the source is UTF-8 or US-ASCII, and every mapping copies a source column into a target
+ * column as is, i.e. without any field action, type conversion or index, the columns are copied
+ * byte-for-byte from the source into the output without running a session. The copied columns keep the
+ * quoting of the source.
+ * </p>
+ */
+public class CsvRecordStreamProcessor {
+
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final long MAX_CHUNK_SIZE = 4L * 1024 * 1024;
+    private static final int COPY_BATCH_SIZE = 1024;
+    private static final String JSON_MODULE_URI = "atlas:json";
+
+    private final AtlasContext context;
+    private final String sourceDocId;
+    private final String targetDocId;
+    private int batchSize = 1;
+    private Validations validations;
+
+    /**
+     * A constructor.
+     * @param context context
+     * @param sourceDocId Document ID of the CSV source document
+     * @param targetDocId Document ID of the target document
+     */
+    public CsvRecordStreamProcessor(AtlasContext context, String sourceDocId, String targetDocId) {
+        this.context = context;
+        this.sourceDocId = sourceDocId;
+        this.targetDocId = targetDocId;
+    }
+
+    /**
+     * Gets the number of records mapped in one session.
+     * @return batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of records mapped in one session. A bigger batch amortizes the session overhead
+     * at the cost of memory.
+     * @param batchSize batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Maps all the records and writes the target documents into the output stream in UTF-8.
+     * @param input CSV source document
+     * @param output output stream, which is flushed but not closed
+     * @return the number of processed records
+     * @throws AtlasException failed to map or write
+     */
+    public long process(InputStream input, OutputStream output) throws AtlasException {
+        return process(context.createSession(), input, output);
+    }
+
+    private long process(AtlasSession first, InputStream input, OutputStream output) throws AtlasException {
+        Writer out = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        if (getTargetModule() instanceof CsvModule) {
+            ColumnCopy copy = getColumnCopy();
+            if (copy != null) {
+                return copyStream(input, output, copy);
+            }
+            // CSV target prints the records straight into the output
+            return processStream(first, input, out, (index, session) -> { });
+        }
+        TargetWriter writer = new TargetWriter(output, out, getTargetFormat());
+        long count = processStream(first, input, null,
+            (index, session) -> writer.write(session.getTargetDocument(targetDocId)));
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Maps all the records and passes each processed session to the handler.
+     * @param input CSV source document
+     * @param handler batch handler
+     * @return the number of processed records
+     * @throws AtlasException failed to map or handle a batch
+     */
+    public long process(InputStream input, BatchHandler handler) throws AtlasException {
+        return processStream(context.createSession(), input, null, handler);
+    }
+
+    private long processStream(AtlasSession first, InputStream input, Writer target, BatchHandler handler)
+            throws AtlasException {
+        CsvConfig csvConfig = getSourceModule().getCsvConfig();
+        try {
+            if (isRecordBuffer(csvConfig)) {
+                CsvRecordBuffer buffer = new CsvRecordBuffer(input, csvConfig.getCsvFormat(), csvConfig.getCharset());
+                buffer.readHeader();
+                return processRecords(first, buffer, true, target, handler);
+            }
+            CSVParser parser = csvConfig.getCsvFormat().parse(new InputStreamReader(input, csvConfig.getCharset()));
+            return processRecords(first, parser, true, target, handler);
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private long copyStream(InputStream input, OutputStream output, ColumnCopy copy) throws AtlasException {
+        CsvConfig csvConfig = getSourceModule().getCsvConfig();
+        try {
+            CsvRecordBuffer buffer = new CsvRecordBuffer(input, csvConfig.getCsvFormat(), csvConfig.getCharset());
+            int[] columns = copy.resolve(buffer.readHeader());
+            long count = 0;
+            while (buffer.next(COPY_BATCH_SIZE) > 0) {
+                if (count == 0) {
+                    output.write(copy.header);
+                }
+                copy.write(buffer, columns, output);
+                count += buffer.size();
+            }
+            output.flush();
+            return count;
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private boolean isRecordBuffer(CsvConfig csvConfig) {
+        return csvConfig.isSimpleTokenizer()
+            && CsvRecordBuffer.supports(csvConfig.getCsvFormat(), csvConfig.getCharset());
+    }
+
+    /**
+     * Maps the records of the file in parallel and writes the target documents into the output stream
+     * in UTF-8 in the original order. The source document must be declared with {@code noQuotedNewlines}
+     * and its charset must encode a line feed in a single byte, e.g. UTF-8 or ISO-8859-1 but not UTF-16,
+     * otherwise the file is processed sequentially as {@link #process(InputStream, OutputStream)} does.
+     * At most {@code parallelism * 2} chunks are in flight and each of them keeps its output in memory,
+     * so the memory consumption is bounded by {@code parallelism * 2} times the output mapped from 4 MiB
+     * of the input.
+     * @param input CSV source document file
+     * @param output output stream, which is flushed but not closed
+     * @param parallelism the number of worker threads
+     * @return the number of processed records
+     * @throws AtlasException failed to map or write
+     */
+    public long process(Path input, OutputStream output, int parallelism) throws AtlasException {
+        AtlasSession first = context.createSession();
+        CsvConfig csvConfig = getSourceModule().getCsvConfig();
+        if (parallelism <= 1 || !Boolean.TRUE.equals(csvConfig.getNoQuotedNewlines())
+                || !hasSingleByteLineFeed(csvConfig.getCharset())) {
+            try (InputStream in = Files.newInputStream(input)) {
+                return process(first, in, output);
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+        }
+
+        ColumnCopy copy = getTargetModule() instanceof CsvModule ? getColumnCopy() : null;
+        TargetWriter writer = new TargetWriter(output, getTargetFormat());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            CSVFormat baseFormat = csvConfig.getCsvFormat();
+            long dataStart = 0;
+            String[] header = baseFormat.getHeader() != null && baseFormat.getHeader().length > 0
+                ? baseFormat.getHeader() : null;
+            if (csvConfig.isFirstRecordAsHeader() || Boolean.TRUE.equals(csvConfig.getSkipHeaderRecord())) {
+                dataStart = findLineEnd(channel, 0);
+                if (csvConfig.isFirstRecordAsHeader()) {
+                    header = readHeader(channel, dataStart, baseFormat, csvConfig.getCharset());
+                }
+            }
+            CSVFormat chunkFormat = baseFormat.withHeader(header).withSkipHeaderRecord(false);
+            boolean buffered = isRecordBuffer(csvConfig);
+            Map<String, Integer> headerMap = toHeaderMap(header);
+            int[] columns = copy != null ? copy.resolve(headerMap) : null;
+
+            List<long[]> chunks = split(channel, dataStart, parallelism);
+            Deque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                long[] chunk = chunks.get(i);
+                AtlasSession session = i == 0 ? first : null;
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                inFlight.add(pool.submit(() -> copy != null
+                    ? copyChunk(buffer, chunkFormat, csvConfig.getCharset(), headerMap, copy, columns)
+                    : processChunk(session, buffer, chunkFormat, csvConfig.getCharset(), buffered, headerMap)));
+                if (inFlight.size() >= parallelism * 2) {
+                    count += writeChunk(inFlight.poll(), writer, count, copy);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                count += writeChunk(inFlight.poll(), writer, count, copy);
+            }
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Maps the records of a chunk. The record indexes start from zero in each chunk since the number of
+     * records in the preceding chunks is not known yet, and {@link #writeChunk(Future, TargetWriter, long)}
+     * shifts them in the error message.
+     * @param reusable session to map the first batch with, only given to the first chunk which prints the header
+     * @param buffered true to read the chunk with {@link CsvRecordBuffer}, or false to parse with Commons CSV
+     * @param headerMap header map shared by the chunks, or null if there is no header
+     */
+    private ChunkResult processChunk(AtlasSession reusable, ByteBuffer buffer, CSVFormat format, Charset charset,
+            boolean buffered, Map<String, Integer> headerMap) throws Exception {
+        ChunkResult answer = new ChunkResult();
+        BatchHandler handler = (index, session) -> answer.targets.add(session.getTargetDocument(targetDocId));
+        if (buffered) {
+            CsvRecordBuffer records = new CsvRecordBuffer(buffer, format, charset);
+            records.setHeaderMap(headerMap);
+            answer.count = processRecords(reusable, records, reusable != null, null, handler);
+        } else {
+            CSVParser parser = format.parse(new InputStreamReader(new ByteBufferInputStream(buffer), charset));
+            answer.count = processRecords(reusable, parser, reusable != null, null, handler);
+        }
+        return answer;
+    }
+
+    private ChunkResult copyChunk(ByteBuffer buffer, CSVFormat format, Charset charset, Map<String, Integer> headerMap,
+            ColumnCopy copy, int[] columns) throws IOException {
+        ChunkResult answer = new ChunkResult();
+        CsvRecordBuffer records = new CsvRecordBuffer(buffer, format, charset);
+        records.setHeaderMap(headerMap);
+        // the copied columns are no longer than the chunk except for the quotes of an empty first column
+        answer.copied = new ByteArrayOutputStream(buffer.remaining());
+        while (records.next(COPY_BATCH_SIZE) > 0) {
+            copy.write(records, columns, answer.copied);
+            answer.count += records.size();
+        }
+        return answer;
+    }
+
+    private long writeChunk(Future<ChunkResult> future, TargetWriter writer, long offset, ColumnCopy copy)
+            throws AtlasException {
+        try {
+            ChunkResult result = future.get();
+            for (Object target : result.targets) {
+                writer.write(target);
+            }
+            if (result.copied != null && result.count > 0) {
+                if (offset == 0) {
+                    writer.write(copy.header);
+                }
+                writer.write(result.copied);
+            }
+            return result.count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AtlasException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // ForkJoinPool wraps the checked exception thrown by the task
+            while (!(cause instanceof AtlasException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RecordsException) {
+                throw ((RecordsException) cause).shift(offset);
+            }
+            throw cause instanceof AtlasException ? (AtlasException) cause : new AtlasException(cause);
+        }
+    }
+
+    private List<long[]> split(FileChannel channel, long dataStart, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunkSize = Math.min(MAX_CHUNK_SIZE,
+            Math.max(1, (size - dataStart) / ((long) parallelism * CHUNKS_PER_WORKER)));
+        List<long[]> answer = new ArrayList<>();
+        long start = dataStart;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : findLineEnd(channel, start + chunkSize);
+            answer.add(new long[] {start, end});
+            start = end;
+        }
+        return answer;
+    }
+
+    private static boolean hasSingleByteLineFeed(Charset charset) {
+        // the chunks are split by scanning the bytes for a line feed
+        byte[] lineFeed = "\n".getBytes(charset);
+        return lineFeed.length == 1 && lineFeed[0] == '\n';
+    }
+
+    private long findLineEnd(FileChannel channel, long position) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = position;
+        while (true) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+    }
+
+    private static Map<String, Integer> toHeaderMap(String[] header) {
+        if (header == null) {
+            return null;
+        }
+        Map<String, Integer> answer = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            answer.putIfAbsent(header[i], i);
+        }
+        return answer;
+    }
+
+    private String[] readHeader(FileChannel channel, long length, CSVFormat format, Charset charset)
+            throws IOException {
+        ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        CSVParser parser = format.withHeader().withSkipHeaderRecord(false).parse(
+            new InputStreamReader(new ByteBufferInputStream(buf), charset));
+        List<String> names = parser.getHeaderNames();
+        return names.toArray(new String[0]);
+    }
+
+    private long processRecords(AtlasSession reusable, Iterable<CSVRecord> records, boolean header,
+            Writer target, BatchHandler handler) throws AtlasException {
+        long count = 0;
+        List<CSVRecord> batch = new ArrayList<>(batchSize);
+        AtlasSession session = reusable;
+        for (CSVRecord record : records) {
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                processBatch(session, count, header && count == 0, batch, batch.size(), target, handler);
+                count += batch.size();
+                batch = new ArrayList<>(batchSize);
+                session = null;
+            }
+        }
+        if (!batch.isEmpty()) {
+            processBatch(session, count, header && count == 0, batch, batch.size(), target, handler);
+            count += batch.size();
+        }
+        return count;
+    }
+
+    private long processRecords(AtlasSession reusable, CsvRecordBuffer records, boolean header,
+            Writer target, BatchHandler handler) throws AtlasException {
+        long count = 0;
+        AtlasSession session = reusable;
+        try {
+            for (int size = records.next(batchSize); size > 0; size = records.next(batchSize)) {
+                processBatch(session, count, header && count == 0, records, size, target, handler);
+                count += size;
+                session = null;
+            }
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+        return count;
+    }
+
+    private void processBatch(AtlasSession reusable, long index, boolean header, Object batch, int size,
+            Writer target, BatchHandler handler) throws AtlasException {
+        AtlasSession session = reusable != null ? reusable : context.createSession();
+        if (target != null) {
+            session.setTargetDocument(targetDocId, target);
+        }
+        if (!header) {
+            session.getProperties().put(CsvModule.SESSION_PROPERTY_SKIP_TARGET_HEADER, Boolean.TRUE);
+        }
+        session.getProperties().put(DefaultAtlasContext.SESSION_PROPERTY_VALIDATIONS, getValidations());
+        session.setSourceDocument(sourceDocId, batch);
+        context.process(session);
+        if (session.hasErrors()) {
+            String errors = session.getAudits().getAudit().stream()
+                .filter(a -> a.getStatus() == AuditStatus.ERROR)
+                .map(a -> a.getMessage())
+                .collect(Collectors.joining("; "));
+            throw new RecordsException(index, index + size - 1, errors);
+        }
+        try {
+            handler.handle(index, session);
+        } catch (AtlasException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private synchronized Validations getValidations() throws AtlasException {
+        if (validations == null) {
+            AtlasSession session = context.createSession();
+            context.processValidation(session);
+            validations = session.getValidations();
+        }
+        return validations;
+    }
+
+    /**
+     * Builds the plan to copy the source columns into the target columns byte-for-byte if every mapping
+     * copies a source column into a target column as is, see the class description.
+     * @return plan, or null if the mappings have to be processed with a session
+     */
+    private ColumnCopy getColumnCopy() throws AtlasException {
+        CsvConfig sourceConfig = getSourceModule().getCsvConfig();
+        CsvConfig targetConfig = ((CsvModule) getTargetModule()).getCsvConfig();
+        CSVFormat sourceFormat = sourceConfig.getCsvFormat();
+        CSVFormat targetFormat = targetConfig.getCsvFormat();
+        Charset charset = sourceConfig.getCharset();
+        if (!isRecordBuffer(sourceConfig)
+                || !(StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset))
+                || !CsvRecordBuffer.supports(targetFormat, charset)
+                || !sourceFormat.getDelimiterString().equals(targetFormat.getDelimiterString())
+                || !Objects.equals(sourceFormat.getQuoteCharacter(), targetFormat.getQuoteCharacter())
+                || (targetFormat.getQuoteMode() != null && targetFormat.getQuoteMode() != QuoteMode.MINIMAL)) {
+            return null;
+        }
+        AtlasMapping mapping = ((DefaultAtlasContext) context).getMapping();
+        List<CsvField[]> pairs = new ArrayList<>();
+        if (mapping == null || !collectColumnCopies(mapping.getMappings(), pairs) || pairs.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Integer> headerIndex = targetConfig.getHeaderIndex();
+        boolean ignoreHeaderCase = Boolean.TRUE.equals(targetConfig.getIgnoreHeaderCase());
+        boolean byColumn = pairs.get(0)[1].getColumn() != null;
+        int width = headerIndex != null && !byColumn ? targetConfig.getParsedHeaders().length : 0;
+        List<Object> keys = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            CsvField source = pairs.get(i)[0];
+            CsvField target = pairs.get(i)[1];
+            if ((target.getColumn() != null) != byColumn) {
+                return null;
+            }
+            Integer position;
+            if (byColumn) {
+                position = target.getColumn();
+            } else if (headerIndex != null) {
+                position = headerIndex.get(ignoreHeaderCase ? target.getName().toLowerCase() : target.getName());
+            } else {
+                position = i;
+            }
+            if (position == null) {
+                // not printed as CsvFieldWriter doesn't either
+                continue;
+            }
+            while (keys.size() <= position) {
+                keys.add(null);
+                names.add(null);
+            }
+            keys.set(position, source.getColumn() != null ? (Object) source.getColumn() : source.getName());
+            names.set(position, target.getName());
+            width = Math.max(width, position + 1);
+        }
+        while (keys.size() < width) {
+            keys.add(null);
+            names.add(null);
+        }
+
+        try {
+            StringWriter header = new StringWriter();
+            boolean skipHeader = Boolean.TRUE.equals(targetConfig.getSkipHeaderRecord());
+            CSVPrinter printer = new CSVPrinter(header,
+                skipHeader ? targetFormat.withSkipHeaderRecord(true) : targetFormat);
+            if (!skipHeader && targetConfig.getHeaders() == null) {
+                printer.printRecord(names);
+            }
+            printer.flush();
+            String separator = targetFormat.getRecordSeparator() != null ? targetFormat.getRecordSeparator() : "";
+            return new ColumnCopy(keys.toArray(), header.toString().getBytes(StandardCharsets.UTF_8),
+                (byte) targetFormat.getDelimiterString().charAt(0), targetFormat.getQuoteCharacter(),
+                separator.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private boolean collectColumnCopies(Mappings mappings, List<CsvField[]> pairs) {
+        if (mappings == null) {
+            return true;
+        }
+        for (BaseMapping baseMapping : mappings.getMapping()) {
+            if (baseMapping instanceof Collection) {
+                if (!collectColumnCopies(((Collection) baseMapping).getMappings(), pairs)) {
+                    return false;
+                }
+                continue;
+            }
+            if (!(baseMapping instanceof Mapping)) {
+                return false;
+            }
+            Mapping mapping = (Mapping) baseMapping;
+            if ((mapping.getMappingType() != null && mapping.getMappingType() != MappingType.MAP)
+                    || mapping.getExpression() != null || mapping.getLookupTableName() != null
+                    || mapping.getInputFieldGroup() != null
+                    || mapping.getInputField().size() != 1 || mapping.getOutputField().size() != 1) {
+                return false;
+            }
+            Field source = mapping.getInputField().get(0);
+            Field target = mapping.getOutputField().get(0);
+            if (!isCopiedColumn(source, sourceDocId) || !isCopiedColumn(target, targetDocId)
+                    || !isString(source) || !isString(target)) {
+                return false;
+            }
+            pairs.add(new CsvField[] {(CsvField) source, (CsvField) target});
+        }
+        return true;
+    }
+
+    private boolean isCopiedColumn(Field field, String docId) {
+        if (!(field instanceof CsvField) || !docId.equals(field.getDocId()) || field.getPath() == null
+                || (field.getActions() != null && !field.getActions().isEmpty())) {
+            return false;
+        }
+        AtlasPath path = new AtlasPath(field.getPath());
+        return path.hasCollectionRoot() && path.getRootSegment().getCollectionIndex() == null;
+    }
+
+    private boolean isString(Field field) {
+        return field.getFieldType() == null || field.getFieldType() == FieldType.STRING;
+    }
+
+    private CsvModule getSourceModule() throws AtlasException {
+        AtlasModule module = context instanceof DefaultAtlasContext
+            ? ((DefaultAtlasContext) context).getSourceModules().get(sourceDocId) : null;
+        if (!(module instanceof CsvModule)) {
+            throw new AtlasException(String.format("Source document '%s' is not a CSV document", sourceDocId));
+        }
+        return (CsvModule) module;
+    }
+
+    private AtlasModule getTargetModule() {
+        return context instanceof DefaultAtlasContext
+            ? ((DefaultAtlasContext) context).getTargetModules().get(targetDocId) : null;
+    }
+
+    private TargetFormat getTargetFormat() {
+        AtlasModule module = getTargetModule();
+        AtlasModuleDetail detail = module != null ? module.getClass().getAnnotation(AtlasModuleDetail.class) : null;
+        if (detail == null || !JSON_MODULE_URI.equals(detail.uri())) {
+            return TargetFormat.TEXT;
+        }
+        AtlasMapping mapping = ((DefaultAtlasContext) context).getMapping();
+        return mapping != null && hasCollectionRoot(mapping.getMappings())
+            ? TargetFormat.JSON_ARRAY : TargetFormat.JSON_LINES;
+    }
+
+    private boolean hasCollectionRoot(Mappings mappings) {
+        if (mappings == null) {
+            return false;
+        }
+        for (BaseMapping baseMapping : mappings.getMapping()) {
+            if (baseMapping instanceof Collection && hasCollectionRoot(((Collection) baseMapping).getMappings())) {
+                return true;
+            } else if (baseMapping instanceof Mapping && hasCollectionRoot(((Mapping) baseMapping).getOutputField())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasCollectionRoot(List<Field> fields) {
+        for (Field field : fields) {
+            if (field instanceof FieldGroup && hasCollectionRoot(((FieldGroup) field).getField())) {
+                return true;
+            } else if (targetDocId.equals(field.getDocId()) && field.getPath() != null
+                    && new AtlasPath(field.getPath()).hasCollectionRoot()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A handler which receives a session processed for a batch of records.
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+
+        /**
+         * Handles a processed session.
+         * @param index zero-based index of the first record of the batch in the input
+         * @param session processed session
+         * @throws Exception failed to handle
+         */
+        void handle(long index, AtlasSession session) throws Exception;
+    }
+
+    private static final class RecordsException extends AtlasException {
+        private static final long serialVersionUID = 1L;
+        private final long first;
+        private final long last;
+        private final String errors;
+
+        private RecordsException(long first, long last, String errors) {
+            super(String.format("Failed to map the records %s-%s: %s", first, last, errors));
+            this.first = first;
+            this.last = last;
+            this.errors = errors;
+        }
+
+        private RecordsException shift(long offset) {
+            return new RecordsException(first + offset, last + offset, errors);
+        }
+    }
+
+    private static final class ChunkResult {
+        private final List<Object> targets = new ArrayList<>();
+        private ByteArrayOutputStream copied;
+        private long count;
+    }
+
+    /**
+     * The plan to copy the source columns into the target columns byte-for-byte.
+     */
+    private static final class ColumnCopy {
+        private final Object[] sourceKeys;
+        private final byte[] header;
+        private final byte delimiter;
+        private final Character quote;
+        private final byte[] recordSeparator;
+
+        private ColumnCopy(Object[] sourceKeys, byte[] header, byte delimiter, Character quote,
+                byte[] recordSeparator) {
+            this.sourceKeys = sourceKeys;
+            this.header = header;
+            this.delimiter = delimiter;
+            this.quote = quote;
+            this.recordSeparator = recordSeparator;
+        }
+
+        /**
+         * Resolves the source column index for each target column.
+         * @return source column indexes, or -1 for the target column which is not mapped
+         */
+        private int[] resolve(Map<String, Integer> headerMap) throws AtlasException {
+            int[] answer = new int[sourceKeys.length];
+            for (int i = 0; i < answer.length; i++) {
+                Object key = sourceKeys[i];
+                Integer column = key == null || key instanceof Integer ? (Integer) key
+                    : headerMap != null ? headerMap.get(key) : null;
+                if (key != null && column == null) {
+                    throw new AtlasException(String.format("Mapping for %s not found, expected one of %s",
+                        key, headerMap != null ? headerMap.keySet() : "[]"));
+                }
+                answer[i] = column != null ? column : -1;
+            }
+            return answer;
+        }
+
+        private void write(CsvRecordBuffer records, int[] columns, OutputStream out) throws IOException {
+            for (int record = 0; record < records.size(); record++) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) {
+                        out.write(delimiter);
+                    }
+                    if (columns[i] < 0) {
+                        continue;
+                    }
+                    if (i == 0 && quote != null && records.isEmpty(record, columns[i])) {
+                        // CSVPrinter quotes an empty first value so that the record is not an empty line
+                        out.write(quote);
+                        out.write(quote);
+                    } else {
+                        records.copyTo(record, columns[i], out);
+                    }
+                }
+                out.write(recordSeparator);
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    private enum TargetFormat {
+        JSON_ARRAY, JSON_LINES, TEXT
+    }
+
+    private static final class TargetWriter {
+        private final OutputStream output;
+        private final Writer writer;
+        private final TargetFormat format;
+        private boolean started;
+        private boolean hasElement;
+
+        private TargetWriter(OutputStream output, TargetFormat format) {
+            this(output, new OutputStreamWriter(output, StandardCharsets.UTF_8), format);
+        }
+
+        private TargetWriter(OutputStream output, Writer writer, TargetFormat format) {
+            this.output = output;
+            this.writer = writer;
+            this.format = format;
+        }
+
+        private void write(byte[] bytes) throws AtlasException {
+            try {
+                writer.flush();
+                output.write(bytes);
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+        }
+
+        private void write(ByteArrayOutputStream bytes) throws AtlasException {
+            try {
+                writer.flush();
+                // without copying the bytes as toByteArray() does
+                bytes.writeTo(output);
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+        }
+
+        private void write(Object target) throws AtlasException {
+            if (target == null) {
+                return;
+            }
+            if (!(target instanceof String)) {
+                throw new AtlasException(String.format("Unsupported target document type '%s', use BatchHandler instead",
+                    target.getClass().getName()));
+            }
+            String doc = (String) target;
+            try {
+                if (format == TargetFormat.JSON_ARRAY) {
+                    writeElements(doc.trim());
+                } else if (format == TargetFormat.JSON_LINES) {
+                    writer.write(doc);
+                    writer.write('\n');
+                } else {
+                    writer.write(doc);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+        }
+
+        private void writeElements(String array) throws IOException, AtlasException {
+            if (!array.startsWith("[") || !array.endsWith("]")) {
+                throw new AtlasException("JSON array is expected for the target document but was: " + array);
+            }
+            if (!started) {
+                started = true;
+                writer.write('[');
+            }
+            String elements = array.substring(1, array.length() - 1).trim();
+            if (!elements.isEmpty()) {
+                if (hasElement) {
+                    writer.write(',');
+                }
+                writer.write(elements);
+                hasElement = true;
+            }
+        }
+
+        private void finish() throws AtlasException {
+            try {
+                if (format == TargetFormat.JSON_ARRAY) {
+                    if (!started) {
+                        writer.write('[');
+                    }
+                    writer.write(']');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new AtlasException(e);
+            }
+        }
+    }
+
+}
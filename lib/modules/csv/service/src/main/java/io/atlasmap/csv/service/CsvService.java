@@ -103,6 +103,7 @@ public class CsvService {
      * @param quote quote
      * @param allowDuplicateHeaderNames allow duplicate header names
      * @param allowMissingColumnNames allow missing column names
+     * @param sampleSize the number of records to infer the column types from, or none to make them STRING
      * @return {@link CsvInspectionResponse}
      * @throws IOException unexpected error
      */
@@ -126,7 +127,8 @@ public class CsvService {
                             @QueryParam("nullString") String nullString,
                             @QueryParam("quote") String quote,
                             @QueryParam("allowDuplicateHeaderNames") Boolean allowDuplicateHeaderNames,
-                            @QueryParam("allowMissingColumnNames") Boolean allowMissingColumnNames) throws IOException  {
+                            @QueryParam("allowMissingColumnNames") Boolean allowMissingColumnNames,
+                            @QueryParam("sampleSize") Integer sampleSize) throws IOException  {
         long startTime = System.currentTimeMillis();
 
         CsvInspectionResponse response = new CsvInspectionResponse();
@@ -160,7 +162,7 @@ public class CsvService {
             CsvFieldReader csvFieldReader = new CsvFieldReader(csvConfig);
             csvFieldReader.setDocument(request);
 
-            Document document = csvFieldReader.readSchema();
+            Document document = csvFieldReader.readSchema(sampleSize != null ? sampleSize : 0);
             response.setCsvDocument(document);
             request.close();
         } catch (Exception e) {
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import io.atlasmap.csv.v2.CsvComplexType;
 import io.atlasmap.csv.v2.CsvField;
 import io.atlasmap.csv.v2.CsvInspectionResponse;
+import io.atlasmap.v2.FieldType;
 import io.atlasmap.v2.Json;
 
 public class CsvServiceTest {
@@ -58,7 +59,7 @@ public class CsvServiceTest {
 
         Response res = csvService.inspect(inputStream, null, ",", true, null, null,
             null, null, null, null, null, null,
-            null, null, null);
+            null, null, null, null);
         Object entity = res.getEntity();
         assertEquals(byte[].class, entity.getClass());
         CsvInspectionResponse csvInspectionResponse = Json.mapper().readValue((byte[])entity, CsvInspectionResponse.class);
@@ -80,7 +81,7 @@ public class CsvServiceTest {
 
         Response res = csvService.inspect(inputStream, null, null, null, null, null,
             null, null, null, null, null, null,
-            null, null, null);
+            null, null, null, null);
         Object entity = res.getEntity();
         assertEquals(byte[].class, entity.getClass());
         CsvInspectionResponse csvInspectionResponse = Json.mapper().readValue((byte[])entity, CsvInspectionResponse.class);
@@ -97,7 +98,7 @@ public class CsvServiceTest {
 
         Response res = csvService.inspect(inputStream, null, ",", true, null, null,
             null, null, null, null, null, null,
-            null, null, null);
+            null, null, null, null);
         Object entity = res.getEntity();
         assertEquals(byte[].class, entity.getClass());
         CsvInspectionResponse csvInspectionResponse = Json.mapper().readValue((byte[])entity, CsvInspectionResponse.class);
@@ -110,4 +111,21 @@ public class CsvServiceTest {
         assertEquals("sourceCsvDate", fields.get(3).getName());
         assertEquals("sourceCsvBoolean", fields.get(4).getName());
     }
+
+    @Test
+    public void testSchemaFileWithTypes() throws Exception {
+        InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("test.csv");
+
+        Response res = csvService.inspect(inputStream, null, ",", true, null, null,
+            null, null, null, null, null, null,
+            null, null, null, 10);
+        CsvInspectionResponse csvInspectionResponse = Json.mapper().readValue((byte[])res.getEntity(), CsvInspectionResponse.class);
+        CsvComplexType complexType = (CsvComplexType) csvInspectionResponse.getCsvDocument().getFields().getField().get(0);
+        List<CsvField> fields = complexType.getCsvFields().getCsvField();
+        assertEquals(FieldType.STRING, fields.get(0).getFieldType());
+        assertEquals(FieldType.INTEGER, fields.get(1).getFieldType());
+        assertEquals(FieldType.DECIMAL, fields.get(2).getFieldType());
+        assertEquals(FieldType.DATE, fields.get(3).getFieldType());
+        assertEquals(FieldType.STRING, fields.get(4).getFieldType());
+    }
 }
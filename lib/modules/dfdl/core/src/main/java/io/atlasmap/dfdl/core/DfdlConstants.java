@@ -23,5 +23,10 @@ public final class DfdlConstants {
     public static final String OPTION_PREFIX = "atlas.dfdl";
     /** Option name for the example. */
     public static final String OPTION_EXAMPLE_DATA = "atlas.dfdl.example";
+    /**
+     * Option name for the directory to save and reload pre-compiled DFDL parsers. It could be
+     * also specified as a system property to apply for all DFDL modules.
+     */
+    public static final String OPTION_CACHE_DIRECTORY = "atlas.dfdl.cacheDirectory";
 
 }
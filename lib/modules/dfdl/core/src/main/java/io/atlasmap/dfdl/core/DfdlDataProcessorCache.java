@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.dfdl.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.daffodil.japi.Daffodil;
+import org.apache.daffodil.japi.DataProcessor;
+import org.apache.daffodil.japi.Diagnostic;
+import org.apache.daffodil.japi.ProcessorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.atlasmap.api.AtlasException;
+
+/**
+ * The process wide cache of compiled DFDL {@link DataProcessor}. Compiling DFDL schema takes
+ * a while, so the compiled {@link DataProcessor} is kept and shared with all the DFDL modules
+ * which use the same schema. The cache key consists of DFDL schema name, options and the checksum
+ * of the schema content including all the schemas it imports or includes. A {@link DataProcessor}
+ * is immutable and thread safe once it's created. Different schemas are compiled concurrently,
+ * while the same schema is compiled only once.
+ * <p>
+ * If the cache directory is specified either by the {@link DfdlConstants#OPTION_CACHE_DIRECTORY}
+ * option or the system property with the same name, compiled parsers are also saved in the
+ * directory by {@link DataProcessor#save(java.nio.channels.WritableByteChannel)} and then reloaded
+ * with {@link org.apache.daffodil.japi.Compiler#reload(File)} next time instead of compiling.
+ * </p>
+ */
+public final class DfdlDataProcessorCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DfdlDataProcessorCache.class);
+    private static final String SAVED_PARSER_SUFFIX = ".dfdl.bin";
+    private static final DfdlDataProcessorCache INSTANCE = new DfdlDataProcessorCache();
+
+    private final Map<String, Future<DataProcessor>> processors = new ConcurrentHashMap<>();
+
+    private DfdlDataProcessorCache() {
+    }
+
+    /**
+     * Gets the singleton instance.
+     * @return instance
+     */
+    public static DfdlDataProcessorCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the compiled {@link DataProcessor} for the DFDL schema. It returns a cached one if any,
+     * otherwise reloads a saved parser from the cache directory or compiles the schema.
+     * @param dfdlSchemaName DFDL schema name
+     * @param dfdlSchema URI of the DFDL schema file resolved by {@link DfdlSchemaResolver}
+     * @param options options
+     * @return data processor
+     * @throws AtlasException failed to compile DFDL schema
+     */
+    public DataProcessor getDataProcessor(String dfdlSchemaName, URI dfdlSchema, Map<String, String> options)
+            throws AtlasException {
+        String key = createKey(dfdlSchemaName, dfdlSchema, options);
+        Future<DataProcessor> answer = processors.get(key);
+        if (answer == null) {
+            FutureTask<DataProcessor> task = new FutureTask<>(
+                () -> loadOrCompile(key, dfdlSchemaName, dfdlSchema, getCacheDirectory(options)));
+            answer = processors.putIfAbsent(key, task);
+            if (answer == null) {
+                answer = task;
+                task.run();
+            }
+        }
+        try {
+            return answer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AtlasException(String.format("Interrupted while compiling DFDL schema '%s'", dfdlSchemaName), e);
+        } catch (ExecutionException e) {
+            processors.remove(key, answer);
+            if (e.getCause() instanceof AtlasException) {
+                throw (AtlasException) e.getCause();
+            }
+            throw new AtlasException(String.format("Failed to compile DFDL schema '%s'", dfdlSchemaName), e.getCause());
+        }
+    }
+
+    /**
+     * Clears the in-memory cache. The saved parsers in the cache directory are kept.
+     */
+    public void clear() {
+        processors.clear();
+    }
+
+    /**
+     * Gets the number of cached {@link DataProcessor}.
+     * @return the number of cached entries
+     */
+    public int size() {
+        return processors.size();
+    }
+
+    private DataProcessor loadOrCompile(String key, String dfdlSchemaName, URI dfdlSchema, File cacheDir)
+            throws AtlasException {
+        File saved = cacheDir != null ? new File(cacheDir, checksum(key.getBytes(StandardCharsets.UTF_8))
+                + SAVED_PARSER_SUFFIX) : null;
+        if (saved != null && saved.isFile()) {
+            try {
+                DataProcessor reloaded = Daffodil.compiler().reload(saved);
+                if (!reloaded.isError()) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Reloaded pre-compiled DFDL parser for '{}' from '{}'", dfdlSchemaName, saved);
+                    }
+                    return reloaded;
+                }
+            } catch (Exception e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("", e);
+                }
+            }
+            LOG.warn("Failed to reload pre-compiled DFDL parser '{}' - compiling DFDL schema '{}'",
+                    saved, dfdlSchemaName);
+        }
+
+        DataProcessor compiled;
+        try {
+            ProcessorFactory factory = Daffodil.compiler().compileSource(dfdlSchema);
+            if (factory.isError()) {
+                throw new AtlasException(toErrorMessage(factory.getDiagnostics()));
+            }
+            compiled = factory.onPath("/");
+            if (compiled.isError()) {
+                throw new AtlasException(toErrorMessage(compiled.getDiagnostics()));
+            }
+        } catch (AtlasException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AtlasException(String.format("Failed to compile DFDL schema '%s'", dfdlSchemaName), e);
+        }
+
+        if (saved != null) {
+            save(compiled, saved);
+        }
+        return compiled;
+    }
+
+    private void save(DataProcessor processor, File saved) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(saved.getParentFile().toPath());
+            tmp = Files.createTempFile(saved.getParentFile().toPath(), saved.getName(), ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                processor.save(channel);
+            }
+            Files.move(tmp, saved.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            LOG.warn("Failed to save pre-compiled DFDL parser into '{}': {} - ignoring", saved, e.getMessage());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("", e);
+            }
+            try {
+                if (tmp != null) {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (Exception e2) {
+                LOG.debug("", e2);
+            }
+        }
+    }
+
+    private String createKey(String dfdlSchemaName, URI dfdlSchema, Map<String, String> options)
+            throws AtlasException {
+        StringBuilder buf = new StringBuilder(dfdlSchemaName).append('|');
+        if (options != null) {
+            for (Entry<String, String> option : new TreeMap<>(options).entrySet()) {
+                if (DfdlConstants.OPTION_CACHE_DIRECTORY.equals(option.getKey())) {
+                    continue;
+                }
+                buf.append(option.getKey()).append('=').append(option.getValue()).append('|');
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digestSchema(dfdlSchema.toURL(), digest, new HashSet<>());
+            buf.append(toHex(digest.digest()));
+        } catch (AtlasException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AtlasException(String.format("Failed to read DFDL schema '%s'", dfdlSchema), e);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Adds the schema content and then the schemas it imports or includes into the digest,
+     * so that modifying any of them results in a different key.
+     */
+    private void digestSchema(URL schema, MessageDigest digest, Set<String> visited) throws Exception {
+        if (!visited.add(schema.toExternalForm())) {
+            return;
+        }
+        byte[] bytes;
+        try (InputStream is = schema.openStream()) {
+            bytes = is.readAllBytes();
+        }
+        digest.update(bytes);
+        for (String location : readSchemaLocations(bytes)) {
+            URL resolved = resolveSchemaLocation(schema, location);
+            if (resolved == null) {
+                throw new AtlasException(String.format(
+                    "Cannot resolve the schema '%s' referenced from DFDL schema '%s'", location, schema));
+            }
+            digestSchema(resolved, digest, visited);
+        }
+    }
+
+    private static List<String> readSchemaLocations(byte[] schema) throws Exception {
+        List<String> answer = new ArrayList<>();
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = factory.createXMLStreamReader(new ByteArrayInputStream(schema));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT
+                        || !XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(reader.getNamespaceURI())) {
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if ("import".equals(name) || "include".equals(name) || "redefine".equals(name)) {
+                    String location = reader.getAttributeValue(null, "schemaLocation");
+                    if (location != null && !location.isEmpty()) {
+                        answer.add(location);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return answer;
+    }
+
+    /**
+     * Resolves the schema location relative to the referencing schema, and then in the classpath
+     * as Daffodil does.
+     */
+    private static URL resolveSchemaLocation(URL base, String location) {
+        try {
+            URL relative = new URL(base, location);
+            try (InputStream is = relative.openStream()) {
+                return relative;
+            }
+        } catch (Exception e) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Schema '{}' is not found relative to '{}'", location, base);
+            }
+        }
+        String path = location.startsWith("/") ? location.substring(1) : location;
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        URL answer = tccl != null ? tccl.getResource(path) : null;
+        if (answer == null) {
+            answer = DfdlDataProcessorCache.class.getClassLoader().getResource(path);
+        }
+        return answer;
+    }
+
+    private File getCacheDirectory(Map<String, String> options) {
+        String dir = options != null ? options.get(DfdlConstants.OPTION_CACHE_DIRECTORY) : null;
+        if (dir == null || dir.isEmpty()) {
+            dir = System.getProperty(DfdlConstants.OPTION_CACHE_DIRECTORY);
+        }
+        return dir != null && !dir.isEmpty() ? new File(dir) : null;
+    }
+
+    private static String toErrorMessage(Iterable<Diagnostic> diagnostics) {
+        StringBuilder buf = new StringBuilder("Failed to compile DFDL schema: [");
+        for (Diagnostic d : diagnostics) {
+            buf.append(d.getMessage()).append("; ");
+        }
+        return buf.append("]").toString();
+    }
+
+    /**
+     * Computes the SHA-256 checksum of the bytes in hex string.
+     * @param bytes bytes
+     * @return checksum
+     */
+    static String checksum(byte[] bytes) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] digest) {
+        StringBuilder buf = new StringBuilder();
+        for (byte b : digest) {
+            buf.append(String.format("%02x", b));
+        }
+        return buf.toString();
+    }
+
+}
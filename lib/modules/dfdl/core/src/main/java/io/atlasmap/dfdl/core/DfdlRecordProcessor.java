@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.dfdl.core;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.daffodil.japi.DataProcessor;
+import org.apache.daffodil.japi.ParseResult;
+import org.apache.daffodil.japi.infoset.W3CDOMInfosetOutputter;
+import org.apache.daffodil.japi.io.InputSourceDataInputStream;
+import org.w3c.dom.Document;
+
+import io.atlasmap.api.AtlasException;
+
+/**
+ * Parses DFDL data one record at a time by repeatedly invoking the {@link DataProcessor}
+ * against the same {@link InputSourceDataInputStream}. The DFDL schema has to have a root element
+ * which represents a single record, e.g. the one generated by
+ * {@link io.atlasmap.dfdl.core.schema.CsvDfdlSchemaGenerator} with {@code RECORD_ROOT} option.
+ * <p>
+ * Records are always parsed sequentially since they share the input stream, while the parsed
+ * records could be dispatched to the parallel workers. The number of records in flight is bounded
+ * so that the memory consumption doesn't depend on the size of the input.
+ * </p>
+ * <p>
+ * If the data is given as a {@link ByteBuffer}, e.g. a memory-mapped file, each record is also handed over
+ * as a read-only view of its bytes in the buffer, so that a record which is not modified can be copied into
+ * the output byte-for-byte without being serialized from the infoset.
+ * </p>
+ */
+public class DfdlRecordProcessor {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final DataProcessor dataProcessor;
+
+    /**
+     * A constructor.
+     * @param dataProcessor compiled DFDL data processor which root element is a record
+     */
+    public DfdlRecordProcessor(DataProcessor dataProcessor) {
+        this.dataProcessor = dataProcessor;
+    }
+
+    /**
+     * Parses the next record.
+     * @param input input
+     * @return parsed record as DFDL infoset, or null if there's no more data
+     * @throws AtlasException failed to parse
+     */
+    public Document parseRecord(InputSourceDataInputStream input) throws AtlasException {
+        if (!input.hasData()) {
+            return null;
+        }
+        W3CDOMInfosetOutputter output = new W3CDOMInfosetOutputter();
+        parse(input, output);
+        return output.getResult();
+    }
+
+    private ParseResult parse(InputSourceDataInputStream input, W3CDOMInfosetOutputter output)
+            throws AtlasException {
+        ParseResult result = this.dataProcessor.parse(input, output);
+        if (result.isError()) {
+            StringBuffer buf = new StringBuffer("DFDL record read error");
+            result.getDiagnostics().forEach(d -> {
+                buf.append("; ").append(d.getMessage());
+            });
+            throw new AtlasException(buf.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Parses all the records between the position and the limit of the buffer, and passes each of them
+     * to the handler in the caller thread together with its bytes. The buffer is left untouched.
+     * @param input input
+     * @param handler record handler
+     * @return the number of processed records
+     * @throws AtlasException failed to parse or handle a record
+     */
+    public long process(ByteBuffer input, RawRecordHandler handler) throws AtlasException {
+        ByteBuffer bytes = input.slice();
+        InputSourceDataInputStream dis = new InputSourceDataInputStream(bytes.duplicate());
+        long count = 0;
+        int start = 0;
+        while (dis.hasData()) {
+            W3CDOMInfosetOutputter output = new W3CDOMInfosetOutputter();
+            ParseResult result = parse(dis, output);
+            // one-based position of the next byte to parse
+            int end = (int) (result.location().bytePos1b() - 1);
+            ByteBuffer raw = bytes.duplicate();
+            raw.position(start).limit(end);
+            try {
+                handler.handle(count++, output.getResult(), raw.slice().asReadOnlyBuffer());
+            } catch (AtlasException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AtlasException(e);
+            }
+            start = end;
+        }
+        return count;
+    }
+
+    /**
+     * Parses all the records and passes each of them to the handler in the caller thread.
+     * @param input input
+     * @param handler record handler
+     * @return the number of processed records
+     * @throws AtlasException failed to parse or handle a record
+     */
+    public long process(InputStream input, RecordHandler handler) throws AtlasException {
+        return process(input, 1, handler);
+    }
+
+    /**
+     * Parses all the records and passes each of them to the handler. If the parallelism is greater than 1,
+     * the handler is invoked concurrently from the worker threads, in no particular order.
+     * Processing stops at the first failure.
+     * @param input input
+     * @param parallelism the number of worker threads
+     * @param handler record handler, which must be thread safe if the parallelism is greater than 1
+     * @return the number of processed records
+     * @throws AtlasException failed to parse or handle a record
+     */
+    public long process(InputStream input, int parallelism, RecordHandler handler) throws AtlasException {
+        InputSourceDataInputStream dis = new InputSourceDataInputStream(input);
+        long count = 0;
+        if (parallelism <= 1) {
+            for (Document record = parseRecord(dis); record != null; record = parseRecord(dis)) {
+                try {
+                    handler.handle(count++, record);
+                } catch (AtlasException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new AtlasException(e);
+                }
+            }
+            return count;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "atlasmap-dfdl-record-" + THREAD_COUNT.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        try {
+            for (Document record = parseRecord(dis); record != null && failure.get() == null;
+                    record = parseRecord(dis)) {
+                final long index = count++;
+                final Document current = record;
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        if (failure.get() == null) {
+                            handler.handle(index, current);
+                        }
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AtlasException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        Exception e = failure.get();
+        if (e instanceof AtlasException) {
+            throw (AtlasException) e;
+        } else if (e != null) {
+            throw new AtlasException(e);
+        }
+        return count;
+    }
+
+    /**
+     * A handler which receives a parsed record.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * Handles a record.
+         * @param index zero-based index of the record in the input
+         * @param record parsed record as DFDL infoset
+         * @throws Exception failed to handle
+         */
+        void handle(long index, Document record) throws Exception;
+    }
+
+    /**
+     * A handler which receives a parsed record together with its bytes.
+     */
+    @FunctionalInterface
+    public interface RawRecordHandler {
+
+        /**
+         * Handles a record.
+         * @param index zero-based index of the record in the input
+         * @param record parsed record as DFDL infoset
+         * @param bytes read-only view of the record bytes in the input
+         * @throws Exception failed to handle
+         */
+        void handle(long index, Document record, ByteBuffer bytes) throws Exception;
+    }
+
+}
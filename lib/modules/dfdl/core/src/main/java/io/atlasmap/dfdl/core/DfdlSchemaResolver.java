@@ -15,12 +15,15 @@
  */
 package io.atlasmap.dfdl.core;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
@@ -38,8 +41,12 @@ import io.atlasmap.api.AtlasException;
  */
 public class DfdlSchemaResolver {
 
+    /** Generated schema files keyed by the checksum of its content, shared in the process. */
+    private static final Map<String, URI> GENERATED_SCHEMAS = new ConcurrentHashMap<>();
+
     private ClassLoader classLoader;
     private Map<String, DfdlSchemaGenerator> dfdlGenerators;
+    private TransformerFactory transformerFactory;
 
     /**
      * A constructor.
@@ -52,10 +59,12 @@ public class DfdlSchemaResolver {
         for (DfdlSchemaGenerator generator : schemaGenLoader) {
             this.dfdlGenerators.put(generator.getName(), generator);
         }
+        this.transformerFactory = TransformerFactory.newInstance();
     }
 
     /**
-     * Looks up the DFDL schema file in the classpath.
+     * Looks up the DFDL schema file in the classpath. If it's generated by {@link DfdlSchemaGenerator},
+     * the schema file is written only once for the same content and reused afterwards.
      * @param dfdlSchemaName DFDL schema name
      * @param options options
      * @return URI
@@ -76,13 +85,21 @@ public class DfdlSchemaResolver {
         DfdlSchemaGenerator generator = this.dfdlGenerators.get(dfdlSchemaName);
         if (generator != null) {
             Document xsd = generator.generate(classLoader, options);
+            Transformer transformer = this.transformerFactory.newTransformer();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            transformer.transform(new DOMSource(xsd), new StreamResult(bos));
+            byte[] bytes = bos.toByteArray();
+            String checksum = DfdlDataProcessorCache.checksum(bytes);
+            URI uri = GENERATED_SCHEMAS.get(checksum);
+            if (uri != null && new File(uri).exists()) {
+                return uri;
+            }
             File f = File.createTempFile(dfdlSchemaName, ".dfdl.xsd");
             f.deleteOnExit();
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            DOMSource source = new DOMSource(xsd);
-            StreamResult result = new StreamResult(f);
-            transformer.transform(source, result);
-            return f.toURI();
+            Files.write(f.toPath(), bytes);
+            uri = f.toURI();
+            GENERATED_SCHEMAS.put(checksum, uri);
+            return uri;
         }
 
         throw new AtlasException(String.format("DFDL schema not found for '%s'", dfdlSchemaName));
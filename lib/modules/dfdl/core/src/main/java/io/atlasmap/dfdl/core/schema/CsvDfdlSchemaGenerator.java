@@ -57,6 +57,9 @@ public class CsvDfdlSchemaGenerator implements DfdlSchemaGenerator {
     private static final String NS_XS = "http://www.w3.org/2001/XMLSchema";
     private static final String NS_DFDL = "http://www.ogf.org/dfdl/dfdl-1.0/";
     private static final String NS_ATLAS = "http://atlasmap.io/dfdl/csv";
+    private static final String FILE_PATH = "/xs:schema/xs:element[@name='file']";
+    private static final String RECORD_PATH = "xs:complexType/xs:sequence/xs:element[@name='record']";
+    private static final String FIELDS_PATH = "xs:complexType/xs:sequence";
 
     private XmlIOHelper helper = new XmlIOHelper(CsvDfdlSchemaGenerator.class.getClassLoader());
 
@@ -69,7 +72,13 @@ public class CsvDfdlSchemaGenerator implements DfdlSchemaGenerator {
         /** Example. */
         EXAMPLE(DfdlConstants.OPTION_EXAMPLE_DATA),
         /** Delimiter. */
-        DELIMITER(DfdlConstants.OPTION_PREFIX + ".csv.delimiter");
+        DELIMITER(DfdlConstants.OPTION_PREFIX + ".csv.delimiter"),
+        /**
+         * Whether to generate a schema which root element is a single CSV record so that records
+         * could be parsed one by one with {@link io.atlasmap.dfdl.core.DfdlRecordProcessor}.
+         * A header line is parsed as a record in this mode.
+         */
+        RECORD_ROOT(DfdlConstants.OPTION_PREFIX + ".csv.recordRoot");
 
         private final String value;
 
@@ -121,12 +130,9 @@ public class CsvDfdlSchemaGenerator implements DfdlSchemaGenerator {
         Document xsd = factory.newDocumentBuilder().parse(is);
         XPath xpath = XPathFactory.newInstance().newXPath();
         xpath.setNamespaceContext(new NamespaceResolver());
-        String targetPath = "//xs:schema/xs:element[@name='file']/xs:complexType/xs:sequence"
-                        + "/xs:element[@name='record']/xs:complexType/xs:sequence";
-        Node parentNode = (Node) xpath.compile(targetPath).evaluate(xsd, XPathConstants.NODE);
-        if (parentNode == null) {
-            throw new AtlasException(String.format("Invalid DFDL template for CSV format: path '%s' could not be found", targetPath));
-        }
+        Element file = findElement(xpath, xsd, FILE_PATH);
+        Element record = findElement(xpath, file, RECORD_PATH);
+        Node parentNode = findElement(xpath, record, FIELDS_PATH);
         parentNode.getAttributes().getNamedItemNS(NS_DFDL, "separator").setNodeValue(delimiter);
         for (String fieldName : fieldNames) {
             Element e = xsd.createElementNS(NS_XS, "element");
@@ -136,6 +142,12 @@ public class CsvDfdlSchemaGenerator implements DfdlSchemaGenerator {
             e.setAttribute("maxOccurs", "1");
             parentNode.appendChild(e);
         }
+        if (Boolean.parseBoolean(options.get(Options.RECORD_ROOT.value()))) {
+            record.getParentNode().removeChild(record);
+            record.removeAttribute("maxOccurs");
+            record.setAttributeNS(NS_DFDL, "dfdl:terminator", "%NL;");
+            file.getParentNode().replaceChild(record, file);
+        }
         if (LOG.isDebugEnabled()) {
             LOG.debug("Generated CSV DFDL Schema:");
             LOG.debug(helper.writeDocumentToString(false, xsd));
@@ -143,6 +155,15 @@ public class CsvDfdlSchemaGenerator implements DfdlSchemaGenerator {
         return xsd;
     }
 
+    private Element findElement(XPath xpath, Node context, String path) throws Exception {
+        Node answer = (Node) xpath.compile(path).evaluate(context, XPathConstants.NODE);
+        if (!(answer instanceof Element)) {
+            throw new AtlasException(String.format(
+                "Invalid DFDL template for CSV format: path '%s' could not be found", path));
+        }
+        return (Element) answer;
+    }
+
     /**
      * The {@link NamespaceContext} for the DFDL module.
      */
@@ -19,11 +19,8 @@ import java.io.File;
 import java.net.URI;
 import java.util.Map;
 
-import org.apache.daffodil.japi.Compiler;
-import org.apache.daffodil.japi.Daffodil;
 import org.apache.daffodil.japi.DataProcessor;
 import org.apache.daffodil.japi.ParseResult;
-import org.apache.daffodil.japi.ProcessorFactory;
 import org.apache.daffodil.japi.infoset.W3CDOMInfosetOutputter;
 import org.apache.daffodil.japi.io.InputSourceDataInputStream;
 import org.slf4j.Logger;
@@ -31,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.dfdl.core.DfdlConstants;
+import io.atlasmap.dfdl.core.DfdlDataProcessorCache;
 import io.atlasmap.dfdl.core.DfdlSchemaResolver;
 import io.atlasmap.xml.core.XmlIOHelper;
 import io.atlasmap.xml.inspect.XmlInstanceInspector;
@@ -72,9 +70,8 @@ public class DfdlInspector {
             return;
         }
 
-        Compiler c = Daffodil.compiler();
-        ProcessorFactory pf = c.compileSource(schemaResolver.resolve(dfdlSchemaName, options));
-        DataProcessor dp = pf.onPath("/");
+        DataProcessor dp = DfdlDataProcessorCache.getInstance().getDataProcessor(
+                dfdlSchemaName, schemaResolver.resolve(dfdlSchemaName, options), options);
         W3CDOMInfosetOutputter output = new W3CDOMInfosetOutputter();
         ParseResult result = dp.parse(new InputSourceDataInputStream(example.getBytes()), output);
         if (result.isError()) {
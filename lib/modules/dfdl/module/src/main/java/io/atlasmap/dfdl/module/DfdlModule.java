@@ -16,17 +16,28 @@
 package io.atlasmap.dfdl.module;
 
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import org.apache.daffodil.japi.Daffodil;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
 import org.apache.daffodil.japi.DataProcessor;
-import org.apache.daffodil.japi.Diagnostic;
 import org.apache.daffodil.japi.ParseResult;
-import org.apache.daffodil.japi.ProcessorFactory;
 import org.apache.daffodil.japi.UnparseResult;
 import org.apache.daffodil.japi.infoset.W3CDOMInfosetInputter;
 import org.apache.daffodil.japi.infoset.W3CDOMInfosetOutputter;
@@ -37,6 +48,8 @@ import org.w3c.dom.Document;
 
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.dfdl.core.DfdlConstants;
+import io.atlasmap.dfdl.core.DfdlDataProcessorCache;
+import io.atlasmap.dfdl.core.DfdlRecordProcessor;
 import io.atlasmap.dfdl.core.DfdlSchemaResolver;
 import io.atlasmap.spi.AtlasModuleDetail;
 import io.atlasmap.xml.module.XmlModule;
@@ -48,6 +61,8 @@ import io.atlasmap.xml.module.XmlModule;
         "dfdl" }, configPackages = { "io.atlasmap.dfdl.v2" })
 public class DfdlModule extends XmlModule {
     private static final Logger LOG = LoggerFactory.getLogger(DfdlModule.class);
+    /** The charset to encode/decode the character DFDL data, which is independent from the platform default. */
+    private static final Charset CHARSET = StandardCharsets.UTF_8;
 
     private DfdlSchemaResolver schemaResolver;
     private DataProcessor daffodil;
@@ -69,22 +84,27 @@ public class DfdlModule extends XmlModule {
 
         try {
             URI dfdl = this.schemaResolver.resolve(type, options);
-            org.apache.daffodil.japi.Compiler compiler = Daffodil.compiler();
-            ProcessorFactory factory = compiler.compileSource(dfdl);
-            if (factory.isError()) {
-                StringBuffer buf = new StringBuffer("Faield ti initialize DFDL module: [");
-                for (Diagnostic d : factory.getDiagnostics()) {
-                    buf.append(d.getMessage()).append("; ");
-                }
-                buf.append("]");
-                throw new AtlasException(buf.toString());
-            }
-            this.daffodil = factory.onPath("/");
+            this.daffodil = DfdlDataProcessorCache.getInstance().getDataProcessor(type, dfdl, options);
         } catch (Exception e) {
             throw new AtlasException("Failed to initialize DFDL module:", e);
         }
     }
 
+    /**
+     * Creates a {@link DfdlRecordProcessor} which shares the DFDL data processor compiled for this module.
+     * The DFDL schema has to have a root element which represents a single record, e.g. the CSV schema
+     * generated with {@code atlas.dfdl.csv.recordRoot=true} parameter. Each parsed record could be
+     * set as a source document of this module.
+     * @return record processor
+     * @throws AtlasException module is not initialized
+     */
+    public DfdlRecordProcessor createRecordProcessor() throws AtlasException {
+        if (this.daffodil == null) {
+            throw new AtlasException("DFDL module is not initialized");
+        }
+        return new DfdlRecordProcessor(this.daffodil);
+    }
+
     @Override
     protected DfdlValidationService createValidationService() {
         DfdlValidationService dfdlValidationService = new DfdlValidationService(getConversionService(), getFieldActionService());
@@ -93,10 +113,67 @@ public class DfdlModule extends XmlModule {
         return dfdlValidationService;
     }
 
+    /**
+     * In addition to the types XML module supports, {@link ByteBuffer} and {@link ReadableByteChannel}
+     * are also supported for DFDL module.
+     */
+    @Override
+    protected boolean isSupportedSourceDocument(Object sourceDocument) {
+        return super.isSupportedSourceDocument(sourceDocument)
+                || sourceDocument instanceof ByteBuffer
+                || sourceDocument instanceof ReadableByteChannel;
+    }
+
+    @Override
+    protected Document toXmlDocument(Object source, boolean namespaced) throws AtlasException {
+        if (source instanceof byte[]) {
+            return parse(new InputSourceDataInputStream((byte[]) source));
+        } else if (source instanceof ByteBuffer) {
+            return parse(new InputSourceDataInputStream((ByteBuffer) source));
+        } else if (source instanceof ReadableByteChannel) {
+            return parse(new InputSourceDataInputStream(Channels.newInputStream((ReadableByteChannel) source)));
+        }
+        return super.toXmlDocument(source, namespaced);
+    }
+
     @Override
     protected Document convertToXmlDocument(String source, boolean namespaced) throws AtlasException {
+        return parse(new InputSourceDataInputStream(source.getBytes(CHARSET)));
+    }
+
+    @Override
+    protected Document convertToXmlDocument(InputStream source, boolean namespaced) throws AtlasException {
+        return parse(new InputSourceDataInputStream(source));
+    }
+
+    @Override
+    protected Document convertToXmlDocument(Reader source, boolean namespaced) throws AtlasException {
+        StringWriter writer = new StringWriter();
+        char[] buf = new char[8192];
+        try {
+            for (int n = source.read(buf); n != -1; n = source.read(buf)) {
+                writer.write(buf, 0, n);
+            }
+        } catch (Exception e) {
+            throw new AtlasException(e);
+        }
+        return convertToXmlDocument(writer.toString(), namespaced);
+    }
+
+    @Override
+    protected Document convertToXmlDocument(Source source, boolean namespaced) throws AtlasException {
+        if (source instanceof StreamSource && ((StreamSource) source).getInputStream() != null) {
+            return convertToXmlDocument(((StreamSource) source).getInputStream(), namespaced);
+        } else if (source instanceof StreamSource && ((StreamSource) source).getReader() != null) {
+            return convertToXmlDocument(((StreamSource) source).getReader(), namespaced);
+        }
+        // DOM or SAX source is treated as a DFDL infoset
+        return super.convertToXmlDocument(source, namespaced);
+    }
+
+    private Document parse(InputSourceDataInputStream source) throws AtlasException {
         W3CDOMInfosetOutputter output = new W3CDOMInfosetOutputter();
-        ParseResult result = this.daffodil.parse(new InputSourceDataInputStream(source.getBytes()), output);
+        ParseResult result = this.daffodil.parse(source, output);
         if (result.isError()) {
             StringBuffer buf = new StringBuffer("DFDL document read error");
             result.getDiagnostics().forEach(d -> {
@@ -114,14 +191,60 @@ public class DfdlModule extends XmlModule {
 
     @Override
     protected String convertFromXmlDocument(Document xml) throws AtlasException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        unparse(xml, bos);
+        return new String(bos.toByteArray(), CHARSET);
+    }
+
+    /**
+     * In addition to the types XML module supports, {@link OutputStream} and {@link WritableByteChannel}
+     * are also supported for DFDL module. The DFDL data is unparsed directly into it.
+     */
+    @Override
+    protected boolean writeToTargetDocument(Document xml, Object targetDocument) throws AtlasException {
+        if (targetDocument instanceof WritableByteChannel) {
+            unparse(xml, (WritableByteChannel) targetDocument);
+            return true;
+        } else if (targetDocument instanceof OutputStream) {
+            unparse(xml, (OutputStream) targetDocument);
+            return true;
+        }
+        return super.writeToTargetDocument(xml, targetDocument);
+    }
+
+    @Override
+    protected void convertFromXmlDocument(Document xml, Result result) throws AtlasException {
+        if (result instanceof StreamResult && ((StreamResult) result).getOutputStream() != null) {
+            unparse(xml, ((StreamResult) result).getOutputStream());
+        } else if (result instanceof StreamResult && ((StreamResult) result).getWriter() != null) {
+            try {
+                ((StreamResult) result).getWriter().write(convertFromXmlDocument(xml));
+            } catch (Exception e) {
+                throw new AtlasException(e);
+            }
+        } else {
+            // DOM or SAX result receives a DFDL infoset
+            super.convertFromXmlDocument(xml, result);
+        }
+    }
+
+    private void unparse(Document xml, OutputStream out) throws AtlasException {
+        unparse(xml, Channels.newChannel(out));
+        try {
+            out.flush();
+        } catch (Exception e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private void unparse(Document xml, WritableByteChannel out) throws AtlasException {
         if (LOG.isTraceEnabled()) {
             try {
                 LOG.trace("DFDL: converting from XML >>> " + getXmlIOHelper().writeDocumentToString(false, xml));
             } catch (Exception e) {}
         }
         W3CDOMInfosetInputter input = new W3CDOMInfosetInputter(xml);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        UnparseResult result = this.daffodil.unparse(input, Channels.newChannel(bos));
+        UnparseResult result = this.daffodil.unparse(input, out);
         if (result.isError()) {
             StringBuffer buf = new StringBuffer("DFDL document read error");
             result.getDiagnostics().forEach(d -> {
@@ -129,7 +252,6 @@ public class DfdlModule extends XmlModule {
             });
             throw new AtlasException(buf.toString());
         }
-        return new String(bos.toByteArray());
     }
 
 }
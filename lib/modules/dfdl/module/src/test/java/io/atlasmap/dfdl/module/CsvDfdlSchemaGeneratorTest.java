@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.dfdl.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.dfdl.core.schema.CsvDfdlSchemaGenerator;
+
+public class CsvDfdlSchemaGeneratorTest {
+
+    private CsvDfdlSchemaGenerator generator = new CsvDfdlSchemaGenerator();
+
+    @Test
+    public void testRecordRoot() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), "a,b");
+        options.put(CsvDfdlSchemaGenerator.Options.RECORD_ROOT.value(), "true");
+        Document xsd = generator.generate(getClass().getClassLoader(), options);
+        Element root = (Element) xsd.getDocumentElement().getElementsByTagNameNS(
+            "http://www.w3.org/2001/XMLSchema", "element").item(0);
+        assertEquals("record", root.getAttribute("name"));
+        assertEquals(xsd.getDocumentElement(), root.getParentNode());
+        assertEquals(3, xsd.getElementsByTagNameNS("http://www.w3.org/2001/XMLSchema", "element").getLength());
+    }
+
+    @Test
+    public void testMissingRecordElement() throws Exception {
+        String template = "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+            + "<xs:element name=\"file\"><xs:complexType><xs:sequence>"
+            + "<xs:element name=\"row\"/></xs:sequence></xs:complexType></xs:element></xs:schema>";
+        ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                return new ByteArrayInputStream(template.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        Map<String, String> options = new HashMap<>();
+        options.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), "a,b");
+        AtlasException e = assertThrows(AtlasException.class, () -> generator.generate(loader, options));
+        assertEquals("Invalid DFDL template for CSV format: path "
+            + "'xs:complexType/xs:sequence/xs:element[@name='record']' could not be found", e.getMessage());
+    }
+
+}
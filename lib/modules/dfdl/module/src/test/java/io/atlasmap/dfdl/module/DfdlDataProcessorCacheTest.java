@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.dfdl.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.daffodil.japi.DataProcessor;
+import org.apache.daffodil.japi.ParseResult;
+import org.apache.daffodil.japi.infoset.W3CDOMInfosetOutputter;
+import org.apache.daffodil.japi.io.InputSourceDataInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.atlasmap.dfdl.core.DfdlConstants;
+import io.atlasmap.dfdl.core.DfdlDataProcessorCache;
+import io.atlasmap.dfdl.core.DfdlSchemaResolver;
+import io.atlasmap.dfdl.core.schema.CsvDfdlSchemaGenerator;
+
+public class DfdlDataProcessorCacheTest {
+
+    @TempDir
+    File cacheDir;
+
+    private DfdlDataProcessorCache cache = DfdlDataProcessorCache.getInstance();
+
+    @BeforeEach
+    public void setUp() {
+        cache.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.clear();
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        DfdlSchemaResolver resolver = new DfdlSchemaResolver(getClass().getClassLoader());
+        Map<String, String> options = new HashMap<>();
+        options.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), "a,b,c");
+        URI schema = resolver.resolve(CsvDfdlSchemaGenerator.NAME, options);
+        assertEquals(schema, resolver.resolve(CsvDfdlSchemaGenerator.NAME, options));
+
+        DataProcessor dp = cache.getDataProcessor(CsvDfdlSchemaGenerator.NAME, schema, options);
+        assertSame(dp, cache.getDataProcessor(CsvDfdlSchemaGenerator.NAME, schema, options));
+        assertEquals(1, cache.size());
+
+        Map<String, String> options2 = new HashMap<>();
+        options2.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), "d,e");
+        URI schema2 = resolver.resolve(CsvDfdlSchemaGenerator.NAME, options2);
+        assertNotSame(dp, cache.getDataProcessor(CsvDfdlSchemaGenerator.NAME, schema2, options2));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testIncludedSchemaChange() throws Exception {
+        File main = new File(cacheDir, "main.dfdl.xsd");
+        File types = new File(cacheDir, "types.xsd");
+        Files.writeString(main.toPath(), "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" xmlns:dfdl=\"http://www.ogf.org/dfdl/dfdl-1.0/\"\n"
+            + "    xmlns:ex=\"urn:example\" targetNamespace=\"urn:example\">\n"
+            + "  <xs:include schemaLocation=\"org/apache/daffodil/xsd/DFDLGeneralFormat.dfdl.xsd\"/>\n"
+            + "  <xs:include schemaLocation=\"types.xsd\"/>\n"
+            + "  <xs:annotation><xs:appinfo source=\"http://www.ogf.org/dfdl/\">\n"
+            + "    <dfdl:format ref=\"ex:GeneralFormat\"/>\n"
+            + "  </xs:appinfo></xs:annotation>\n"
+            + "  <xs:element name=\"root\" type=\"ex:rootType\" dfdl:lengthKind=\"delimited\"/>\n"
+            + "</xs:schema>\n");
+        String typesSchema = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" xmlns:dfdl=\"http://www.ogf.org/dfdl/dfdl-1.0/\"\n"
+            + "    targetNamespace=\"urn:example\">\n"
+            + "  <xs:simpleType name=\"rootType\"><xs:restriction base=\"xs:string\"/></xs:simpleType>\n"
+            + "</xs:schema>\n";
+        Files.writeString(types.toPath(), typesSchema);
+
+        DataProcessor dp = cache.getDataProcessor("main", main.toURI(), null);
+        assertSame(dp, cache.getDataProcessor("main", main.toURI(), null));
+        Files.writeString(types.toPath(), typesSchema.replace("<xs:simpleType", "<!-- modified -->\n  <xs:simpleType"));
+        assertNotSame(dp, cache.getDataProcessor("main", main.toURI(), null));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testSaveAndReload() throws Exception {
+        DfdlSchemaResolver resolver = new DfdlSchemaResolver(getClass().getClassLoader());
+        Map<String, String> options = new HashMap<>();
+        options.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), "a,b,c");
+        options.put(DfdlConstants.OPTION_CACHE_DIRECTORY, cacheDir.getAbsolutePath());
+        URI schema = resolver.resolve(CsvDfdlSchemaGenerator.NAME, options);
+
+        DataProcessor compiled = cache.getDataProcessor(CsvDfdlSchemaGenerator.NAME, schema, options);
+        assertEquals(1, cacheDir.listFiles().length);
+        cache.clear();
+        DataProcessor reloaded = cache.getDataProcessor(CsvDfdlSchemaGenerator.NAME, schema, options);
+        assertNotSame(compiled, reloaded);
+        assertEquals(1, cacheDir.listFiles().length);
+
+        W3CDOMInfosetOutputter output = new W3CDOMInfosetOutputter();
+        ParseResult result = reloaded.parse(new InputSourceDataInputStream("a,b,c\n1,2,3\n".getBytes()), output);
+        assertFalse(result.isError());
+        assertEquals("3", output.getResult().getElementsByTagName("c").item(0).getTextContent());
+    }
+
+}
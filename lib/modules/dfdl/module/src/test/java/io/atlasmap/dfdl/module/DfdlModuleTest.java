@@ -15,14 +15,25 @@
  */
 package io.atlasmap.dfdl.module;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.dfdl.core.DfdlRecordProcessor;
 import io.atlasmap.v2.ConstantField;
+import io.atlasmap.v2.DataSource;
+import io.atlasmap.v2.DataSourceType;
 import io.atlasmap.v2.PropertyField;
 import io.atlasmap.v2.SimpleField;
 import io.atlasmap.xml.v2.XmlField;
@@ -49,4 +60,22 @@ public class DfdlModuleTest {
         assertTrue(module.isSupportedField(new SimpleField()));
     }
 
+    @Test
+    public void testCreateRecordProcessor() throws Exception {
+        assertThrows(AtlasException.class, () -> module.createRecordProcessor());
+        DataSource ds = new DataSource();
+        ds.setId("dfdl-csv-source");
+        ds.setDataSourceType(DataSourceType.SOURCE);
+        ds.setUri("atlas:dfdl:csv?atlas.dfdl.csv.header=id,name&atlas.dfdl.csv.recordRoot=true");
+        module.setDataSource(ds);
+        module.setClassLoader(getClass().getClassLoader());
+        module.init();
+        DfdlRecordProcessor processor = module.createRecordProcessor();
+        List<String> names = new ArrayList<>();
+        long count = processor.process(new ByteArrayInputStream("0,a\n1,b\n2,c\n".getBytes(StandardCharsets.UTF_8)),
+            (index, record) -> names.add(record.getElementsByTagName("name").item(0).getTextContent()));
+        assertEquals(3, count);
+        assertEquals("[a, b, c]", names.toString());
+    }
+
 }
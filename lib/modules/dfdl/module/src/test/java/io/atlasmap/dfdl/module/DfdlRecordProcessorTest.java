@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.dfdl.module;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.daffodil.japi.DataProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.dfdl.core.DfdlDataProcessorCache;
+import io.atlasmap.dfdl.core.DfdlRecordProcessor;
+import io.atlasmap.dfdl.core.DfdlSchemaResolver;
+import io.atlasmap.dfdl.core.schema.CsvDfdlSchemaGenerator;
+
+public class DfdlRecordProcessorTest {
+
+    private static final int RECORDS = 1000;
+
+    private DfdlRecordProcessor processor;
+    private byte[] data;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put(CsvDfdlSchemaGenerator.Options.HEADER.value(), "id,name,amount");
+        options.put(CsvDfdlSchemaGenerator.Options.RECORD_ROOT.value(), "true");
+        DfdlSchemaResolver resolver = new DfdlSchemaResolver(getClass().getClassLoader());
+        DataProcessor dp = DfdlDataProcessorCache.getInstance().getDataProcessor(CsvDfdlSchemaGenerator.NAME,
+            resolver.resolve(CsvDfdlSchemaGenerator.NAME, options), options);
+        processor = new DfdlRecordProcessor(dp);
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < RECORDS; i++) {
+            buf.append(i).append(",name").append(i).append(",").append(i * 2).append("\n");
+        }
+        data = buf.toString().getBytes();
+    }
+
+    @Test
+    public void testSequential() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        long count = processor.process(new ByteArrayInputStream(data), (index, record) -> {
+            assertEquals(Long.toString(index), record.getElementsByTagName("id").item(0).getTextContent());
+            sum.addAndGet(Long.parseLong(record.getElementsByTagName("amount").item(0).getTextContent()));
+        });
+        assertEquals(RECORDS, count);
+        assertEquals((long) RECORDS * (RECORDS - 1), sum.get());
+    }
+
+    @Test
+    public void testRecordBytes() throws Exception {
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        long count = processor.process(ByteBuffer.wrap(data), (index, record, bytes) -> {
+            String id = record.getElementsByTagName("id").item(0).getTextContent();
+            assertEquals(Long.toString(index), id);
+            byte[] raw = new byte[bytes.remaining()];
+            bytes.get(raw);
+            assertEquals(id + ",name" + id + "," + index * 2 + "\n", new String(raw, StandardCharsets.UTF_8));
+            copied.write(raw);
+        });
+        assertEquals(RECORDS, count);
+        assertArrayEquals(data, copied.toByteArray());
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        AtomicLong sum = new AtomicLong();
+        long count = processor.process(new ByteArrayInputStream(data), 4, (index, record) -> {
+            assertEquals("name" + index, record.getElementsByTagName("name").item(0).getTextContent());
+            sum.addAndGet(Long.parseLong(record.getElementsByTagName("amount").item(0).getTextContent()));
+        });
+        assertEquals(RECORDS, count);
+        assertEquals((long) RECORDS * (RECORDS - 1), sum.get());
+    }
+
+    @Test
+    public void testParallelFailure() throws Exception {
+        assertThrows(AtlasException.class, () -> processor.process(new ByteArrayInputStream(data), 4,
+            (index, record) -> {
+                if (index == 10) {
+                    throw new IllegalStateException("failed");
+                }
+            }));
+    }
+
+}
@@ -246,23 +246,7 @@ public class ClassHelper {
      * @return getter method
      */
     public static Method lookupGetterMethod(Object object, String name) {
-        List<String> getters = getterMethodNames(name);
-        Method getterMethod = null;
-        for (String getter : getters) {
-            try {
-                getterMethod = detectGetterMethod(object.getClass(), getter);
-                break;
-            } catch (NoSuchMethodException e) {
-                // exhaust options
-            }
-        }
-
-        if (getterMethod == null) {
-            return null;
-        } else {
-            getterMethod.setAccessible(true);
-            return getterMethod;
-        }
+        return object != null ? JavaClassMetadata.of(object.getClass()).getGetter(name) : null;
     }
 
     /**
@@ -272,18 +256,7 @@ public class ClassHelper {
      * @return field
      */
     public static Field lookupJavaField(Object source, String fieldName) {
-        Class<?> targetClazz = source != null ? source.getClass() : null;
-        while (targetClazz != null && targetClazz != Object.class) {
-            try {
-                Field field = targetClazz.getDeclaredField(fieldName);
-                field.setAccessible(true);
-                return field;
-            } catch (Exception e) {
-                e.getMessage(); // ignore
-                targetClazz = targetClazz.getSuperclass();
-            }
-        }
-        return null;
+        return source != null ? JavaClassMetadata.of(source.getClass()).getField(fieldName) : null;
     }
 
     /**
@@ -0,0 +1,450 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.core;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The per-class cache of the reflection metadata, i.e. resolved getter, setter and field accessors
+ * as well as the generic type of each property. {@link Class#getMethods()} copies the method array
+ * on every call, so the lookups are done only once per class and property name and then served from
+ * this cache. The instance is attached to the {@link Class} through {@link ClassValue} so that it
+ * doesn't prevent the class from being unloaded.
+ * <p>
+ * The getters and setters are also exposed as {@link Function} and {@link BiConsumer} which are
+ * generated by {@link LambdaMetafactory}, so that the value is read and written by a direct call
+ * the JIT compiler could inline rather than through {@link Method#invoke(Object, Object...)}.
+ * It falls back to the reflection if the member is not accessible through {@link MethodHandles}.
+ * The same applies to the constructor which is used to instantiate the class.
+ * </p>
+ * This is shared by {@link JavaFieldReader}, {@link JavaFieldWriter}, {@link JavaFieldWriterUtil}
+ * and {@link TargetValueConverter}.
+ */
+public final class JavaClassMetadata {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaClassMetadata.class);
+
+    private static final ClassValue<JavaClassMetadata> METADATA = new ClassValue<JavaClassMetadata>() {
+        @Override
+        protected JavaClassMetadata computeValue(Class<?> type) {
+            return new JavaClassMetadata(type);
+        }
+    };
+
+    private final Class<?> clazz;
+    private volatile List<Class<?>> mappableClasses;
+    private final Map<String, Optional<Method>> getters = new ConcurrentHashMap<>();
+    private final Map<String, Map<Class<?>, Optional<Method>>> setters = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Field>> fields = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Field>> mappableFields = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Type>> genericTypes = new ConcurrentHashMap<>();
+    private final Map<Method, Function<Object, Object>> getterFunctions = new ConcurrentHashMap<>();
+    private final Map<Method, BiConsumer<Object, Object>> setterFunctions = new ConcurrentHashMap<>();
+    private volatile Optional<Supplier<Object>> instantiator;
+    private volatile Optional<JavaObjectCreator> creator;
+
+    private JavaClassMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+    }
+
+    /**
+     * Gets the metadata for the class.
+     * @param clazz class
+     * @return metadata
+     */
+    public static JavaClassMetadata of(Class<?> clazz) {
+        return METADATA.get(clazz);
+    }
+
+    /**
+     * Resolves the {@link JavaObjectCreator} of the class and of the classes reachable from it through
+     * the fields and the creator properties, including the collection item types, so that the creators
+     * are ready before the first object is written. The JDK classes are not traversed.
+     * @param clazz root class
+     */
+    public static void resolveCreators(Class<?> clazz) {
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            if (current.isArray()) {
+                queue.add(current.getComponentType());
+                continue;
+            }
+            if (current.isPrimitive() || current.isEnum() || current.getPackage() == null
+                    || JdkPackages.contains(current.getPackage().getName()) || !visited.add(current)) {
+                continue;
+            }
+            JavaObjectCreator creator = of(current).getCreator();
+            if (creator != null) {
+                for (int i = 0; i < creator.getPropertyNames().size(); i++) {
+                    addReachableTypes(queue, creator.getPropertyType(i), creator.getGenericPropertyType(i));
+                }
+                continue;
+            }
+            for (Class<?> mappable : of(current).getMappableClasses()) {
+                for (Field field : mappable.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        addReachableTypes(queue, field.getType(), field.getGenericType());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addReachableTypes(Deque<Class<?>> queue, Class<?> type, Type genericType) {
+        queue.add(type);
+        if (genericType instanceof ParameterizedType) {
+            for (Type arg : ((ParameterizedType) genericType).getActualTypeArguments()) {
+                if (arg instanceof Class) {
+                    queue.add((Class<?>) arg);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the class which this metadata describes.
+     * @return class
+     */
+    public Class<?> getType() {
+        return this.clazz;
+    }
+
+    /**
+     * Gets the getter method for the property, either {@code get} or {@code is} prefixed one.
+     * @param name property name
+     * @return getter method, or null if not found
+     */
+    public Method getGetter(String name) {
+        return getters.computeIfAbsent(name, n -> {
+            for (String getter : ClassHelper.getterMethodNames(n)) {
+                try {
+                    return Optional.of(makeAccessible(ClassHelper.detectGetterMethod(clazz, getter)));
+                } catch (NoSuchMethodException e) {
+                    // exhaust options
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Gets the setter method for the property. The class hierarchy is searched from the class itself
+     * up to the first super class which belongs to the JDK.
+     * @param name property name
+     * @param paramType parameter type, or null to auto-detect
+     * @return setter method, or null if not found
+     * @see ClassHelper#detectSetterMethod(Class, String, Class)
+     */
+    public Method getSetter(String name, Class<?> paramType) {
+        Map<Class<?>, Optional<Method>> byType = setters.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        return byType.computeIfAbsent(paramType != null ? paramType : void.class, t -> {
+            String setterMethodName = "set" + StringUtil.capitalizeFirstLetter(name);
+            for (Class<?> c : getMappableClasses()) {
+                try {
+                    return Optional.of(makeAccessible(ClassHelper.detectSetterMethod(c, setterMethodName, paramType)));
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Gets the Java field declared on the class or any of its super classes.
+     * @param name field name
+     * @return field, or null if not found
+     */
+    public Field getField(String name) {
+        return fields.computeIfAbsent(name, n -> {
+            Class<?> targetClazz = clazz;
+            while (targetClazz != null && targetClazz != Object.class) {
+                try {
+                    return Optional.of(makeAccessible(targetClazz.getDeclaredField(n)));
+                } catch (NoSuchFieldException e) {
+                    targetClazz = targetClazz.getSuperclass();
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Gets the Java field declared on the class or its super classes up to the first one
+     * which belongs to the JDK.
+     * @param name field name
+     * @return field, or null if not found
+     */
+    public Field getMappableField(String name) {
+        return mappableFields.computeIfAbsent(name, n -> {
+            for (Class<?> c : getMappableClasses()) {
+                try {
+                    return Optional.of(makeAccessible(c.getDeclaredField(n)));
+                } catch (NoSuchFieldException e) {
+                    continue;
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Gets the generic type of the property, from the getter return type if the getter exists,
+     * otherwise from the mappable field.
+     * @param name property name
+     * @return generic type, or null if neither getter nor field is found
+     */
+    public Type getGenericType(String name) {
+        return genericTypes.computeIfAbsent(name, n -> {
+            Method getter = getGetter(n);
+            if (getter != null) {
+                return Optional.of(getter.getGenericReturnType());
+            }
+            Field field = getMappableField(n);
+            return field != null ? Optional.of(field.getGenericType()) : Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Gets the {@link Function} which invokes the getter method. The function is generated once
+     * on first access and reused afterwards.
+     * @param getter getter method
+     * @return getter function
+     */
+    public Function<Object, Object> getGetterFunction(Method getter) {
+        return getterFunctions.computeIfAbsent(getter, JavaClassMetadata::createGetterFunction);
+    }
+
+    /**
+     * Gets the {@link BiConsumer} which invokes the setter method with the parent object and the value.
+     * The consumer is generated once on first access and reused afterwards.
+     * @param setter setter method
+     * @return setter consumer
+     */
+    public BiConsumer<Object, Object> getSetterFunction(Method setter) {
+        return setterFunctions.computeIfAbsent(setter, JavaClassMetadata::createSetterFunction);
+    }
+
+    /**
+     * Gets the {@link Supplier} which creates a new instance of the class through the no-arg constructor.
+     * For a non-static inner class, a new instance of the enclosing class is created first and then
+     * passed into the constructor. The supplier is generated once on first access and reused afterwards.
+     * @return instantiator, or null if the class doesn't have an applicable constructor
+     */
+    public Supplier<Object> getInstantiator() {
+        Optional<Supplier<Object>> answer = this.instantiator;
+        if (answer == null) {
+            answer = Optional.ofNullable(createInstantiator());
+            this.instantiator = answer;
+        }
+        return answer.orElse(null);
+    }
+
+    /**
+     * Gets the {@link JavaObjectCreator} which creates the object from all of its property values at once.
+     * This is available for a {@code record}, and for the class which doesn't have a no-arg constructor
+     * but has either a builder or a constructor annotated with {@link java.beans.ConstructorProperties}.
+     * @return creator, or null if the object should be instantiated and then populated through setters
+     */
+    public JavaObjectCreator getCreator() {
+        Optional<JavaObjectCreator> answer = this.creator;
+        if (answer == null) {
+            JavaObjectCreator c = JavaObjectCreator.create(clazz);
+            if (c != null && !c.isRecord() && getInstantiator() != null) {
+                c = null;
+            }
+            answer = Optional.ofNullable(c);
+            this.creator = answer;
+        }
+        return answer.orElse(null);
+    }
+
+    /**
+     * Gets the class itself and its super classes up to the first one which belongs to the JDK,
+     * child first.
+     * @return mappable classes
+     */
+    public List<Class<?>> getMappableClasses() {
+        List<Class<?>> answer = this.mappableClasses;
+        if (answer != null) {
+            return answer;
+        }
+        List<Class<?>> classTree = new ArrayList<>();
+        classTree.add(clazz);
+        Class<?> superClazz = clazz.getSuperclass();
+        while (superClazz != null && !JdkPackages.contains(superClazz.getPackage().getName())) {
+            classTree.add(superClazz);
+            superClazz = superClazz.getSuperclass();
+        }
+        answer = Collections.unmodifiableList(classTree);
+        this.mappableClasses = answer;
+        return answer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Supplier<Object> createInstantiator() {
+        if (clazz.isInterface() || clazz.isArray() || clazz.isPrimitive() || Modifier.isAbstract(clazz.getModifiers())) {
+            return null;
+        }
+        Class<?> enclosing = clazz.getEnclosingClass();
+        if (enclosing != null && !Modifier.isStatic(clazz.getModifiers())) {
+            // Nested class requires an instance of enclosing class to instantiate
+            Constructor<?> constructor;
+            try {
+                constructor = makeAccessible(clazz.getDeclaredConstructor(enclosing));
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+            JavaClassMetadata enclosingMetadata = of(enclosing);
+            return () -> {
+                Supplier<Object> enclosingInstantiator = enclosingMetadata.getInstantiator();
+                if (enclosingInstantiator == null) {
+                    throw new IllegalStateException("Could not instantiate enclosing class: " + enclosing.getName());
+                }
+                try {
+                    return constructor.newInstance(enclosingInstantiator.get());
+                } catch (Exception e) {
+                    throw sneakyThrow(e);
+                }
+            };
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = makeAccessible(clazz.getDeclaredConstructor());
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflectConstructor(constructor);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    handle, handle.type());
+            return (Supplier<Object>) site.getTarget().invokeExact();
+        } catch (Throwable t) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Falling back to reflection for constructor '{}': {}", constructor, t.getMessage());
+            }
+        }
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (Exception e) {
+                throw sneakyThrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetterFunction(Method getter) {
+        if (!Modifier.isStatic(getter.getModifiers())) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
+                        getter.getDeclaringClass(), MethodHandles.lookup());
+                MethodHandle handle = lookup.unreflect(getter);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle, handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable t) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Falling back to reflection for getter '{}': {}", getter, t.getMessage());
+                }
+            }
+        }
+        return parent -> {
+            try {
+                return getter.invoke(parent);
+            } catch (Exception e) {
+                throw sneakyThrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> createSetterFunction(Method setter) {
+        if (!Modifier.isStatic(setter.getModifiers())) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
+                        setter.getDeclaringClass(), MethodHandles.lookup());
+                MethodHandle handle = lookup.unreflect(setter);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle, handle.type().wrap().changeReturnType(void.class));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable t) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Falling back to reflection for setter '{}': {}", setter, t.getMessage());
+                }
+            }
+        }
+        return (parent, value) -> {
+            try {
+                setter.invoke(parent, value);
+            } catch (Exception e) {
+                throw sneakyThrow(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+
+    private static <T extends AccessibleObject> T makeAccessible(T member) {
+        try {
+            member.setAccessible(true);
+        } catch (RuntimeException e) {
+            // public members could be still accessed
+        }
+        return member;
+    }
+
+}
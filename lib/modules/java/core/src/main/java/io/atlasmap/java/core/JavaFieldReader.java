@@ -136,22 +136,25 @@ public class JavaFieldReader implements AtlasFieldReader {
             List<Field> childFields = getFieldsForPath(session, indexItem, field, path, depth + 1);
             fields.addAll(childFields);
         } else {
-            List<?> items = childAccessor.getCollectionValues();
-            for (int i = 0; i < items.size(); i++) {
+            // iterate rather than index so that non-List collections are not copied
+            int i = 0;
+            for (Object item : childAccessor.getCollectionValues()) {
                 //include the array index within the path
                 Field itemField;
+                AtlasPath itemPath;
                 if (field instanceof FieldGroup) {
                     itemField = AtlasJavaModelFactory.cloneFieldGroup((FieldGroup)field);
                     AtlasPath.setCollectionIndexRecursively((FieldGroup)itemField, depth, i);
+                    itemPath = new AtlasPath(itemField.getPath());
                 } else {
                     itemField = AtlasJavaModelFactory.cloneJavaField(field, false);
-                    AtlasPath itemPath = new AtlasPath(field.getPath());
+                    itemPath = new AtlasPath(field.getPath());
                     itemPath.setCollectionIndex(depth, i);
                     itemField.setPath(itemPath.toString());
                 }
-                List<Field> arrayFields = getFieldsForPath(
-                    session, items.get(i), itemField, new AtlasPath(itemField.getPath()), depth + 1);
+                List<Field> arrayFields = getFieldsForPath(session, item, itemField, itemPath, depth + 1);
                 fields.addAll(arrayFields);
+                i++;
             }
         }
         return fields;
@@ -246,21 +249,23 @@ public class JavaFieldReader implements AtlasFieldReader {
         }
         FieldGroup group = field instanceof FieldGroup ?
          (FieldGroup)field : AtlasModelFactory.createFieldGroupFrom(field, true);
-        for (int i=0; i<accessor.getCollectionValues().size(); i++) {
+        int i = 0;
+        for (Object item : accessor.getCollectionValues()) {
             AtlasPath itemPath = new AtlasPath(group.getPath());
             List<SegmentContext> segments = itemPath.getSegments(true);
             itemPath.setCollectionIndex(segments.size() - 1, i);
             if (field instanceof FieldGroup) {
                 FieldGroup itemGroup = AtlasJavaModelFactory.cloneFieldGroup((FieldGroup)field);
                 AtlasPath.setCollectionIndexRecursively(itemGroup, segments.size(), i);
-                populateChildFields(accessor.getValueAt(i), itemGroup, itemPath);
+                populateChildFields(item, itemGroup, itemPath);
                 group.getField().add(itemGroup);
             } else {
                 Field itemField = AtlasJavaModelFactory.cloneJavaField(field, false);
                 itemField.setPath(itemPath.toString());
-                itemField.setValue(accessor.getValueAt(i));
+                itemField.setValue(item);
                 group.getField().add(itemField);
             }
+            i++;
         }
         return group;
     }
@@ -15,8 +15,11 @@
  */
 package io.atlasmap.java.core;
 
+import java.lang.reflect.Array;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +38,17 @@ import io.atlasmap.v2.LookupTable;
 
 /**
  * The {@link AtlasFieldWriter} for the Java Document.
+ * <p>
+ * Target arrays grow geometrically rather than one element at a time while items are written, so that
+ * populating a large array is not quadratic. The arrays are trimmed to their exact size by
+ * {@link #trimArrays()} once all the mappings are processed.
+ * </p>
+ * <p>
+ * The objects which are created through {@link JavaObjectCreator}, i.e. {@code record}s and immutable
+ * classes with a builder, are not instantiated until all the property values are collected. The property
+ * values are held by a placeholder in the meantime, and then {@link #completeObjects()} invokes the canonical
+ * constructor or the builder once per object and sets it to the parent.
+ * </p>
  */
 public class JavaFieldWriter implements AtlasFieldWriter {
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(JavaFieldWriter.class);
@@ -44,6 +58,8 @@ public class JavaFieldWriter implements AtlasFieldWriter {
     private TargetValueConverter converter;
     private Map<String, Object> pathParentQueue = new LinkedHashMap<>();
     private Class<?> collectionItemClass = null;
+    private Map<Object, GrowingArray> growingArrays = new IdentityHashMap<>();
+    private Map<Object, Map<Object, DeferredChild>> deferredChildren = new IdentityHashMap<>();
 
     /**
      * A constructor.
@@ -86,11 +102,10 @@ public class JavaFieldWriter implements AtlasFieldWriter {
                     // Cannot proceed from collection segment without index
                     return null;
                 }
-                parentObject = writerUtil.getCollectionItem(rootObject, rootSegment);
+                parentObject = getCollectionItem(rootObject, rootSegment);
                 if (parentObject == null) {
-                    this.rootObject = writerUtil.adjustCollectionSize(this.rootObject, rootSegment);
-                    parentObject = writerUtil.createComplexCollectionItem(this.rootObject, collectionItemClass,
-                            rootSegment);
+                    this.rootObject = adjustCollectionSize(null, this.rootObject, rootSegment);
+                    parentObject = createCollectionItem(null, this.rootObject, collectionItemClass, rootSegment);
                 }
             }
 
@@ -104,22 +119,22 @@ public class JavaFieldWriter implements AtlasFieldWriter {
                     return parentObject;
                 }
 
-                Object childObject = writerUtil.getChildObject(parentObject, segmentContext);
+                Object childObject = getChildObject(parentObject, segmentContext);
                 if (childObject == null) {
-                    childObject = writerUtil.createComplexChildObject(parentObject, segmentContext);
+                    childObject = createChildObject(parentObject, segmentContext, null);
                 }
                 if (segmentContext.getCollectionType() != CollectionType.NONE) {
                     if (segmentContext.getCollectionIndex() == null) {
                         // Cannot proceed from collection segment without index
                         return null;
                     }
-                    Object item = writerUtil.getCollectionItem(childObject, segmentContext);
+                    Object item = getCollectionItem(childObject, segmentContext);
                     if (item == null) {
-                        Object adjusted = writerUtil.adjustCollectionSize(childObject, segmentContext);
+                        Object adjusted = adjustCollectionSize(parentObject, childObject, segmentContext);
                         if (adjusted != childObject) {
                             writerUtil.setChildObject(parentObject, adjusted, segmentContext);
                         }
-                        item = writerUtil.createComplexCollectionItem(parentObject, adjusted, segmentContext);
+                        item = createCollectionItem(parentObject, adjusted, null, segmentContext);
                     }
                     childObject = item;
                 }
@@ -203,11 +218,11 @@ public class JavaFieldWriter implements AtlasFieldWriter {
             if (lastSegment.getCollectionType() == CollectionType.NONE) {
                 this.rootObject = targetField.getValue();
             } else {
-                Object adjusted = writerUtil.adjustCollectionSize(this.rootObject, lastSegment);
+                Object adjusted = adjustCollectionSize(null, this.rootObject, lastSegment);
                 if (adjusted != this.rootObject) {
                     this.rootObject = adjusted;
                 }
-                writerUtil.setCollectionItem(adjusted, targetField.getValue(), lastSegment);
+                setCollectionItem(adjusted, targetField.getValue(), lastSegment);
             }
             return;
         }
@@ -227,36 +242,234 @@ public class JavaFieldWriter implements AtlasFieldWriter {
             if (targetField.getFieldType() == FieldType.COMPLEX && !(targetField instanceof JavaEnumField)
                     && targetField.getValue() == null) {
                 if (targetClassName != null && !targetClassName.isEmpty()) {
-                    writerUtil.createComplexChildObject(parentObject, lastSegment,
-                            writerUtil.loadClass(targetClassName));
+                    createChildObject(parentObject, lastSegment, writerUtil.loadClass(targetClassName));
                 } else {
-                    writerUtil.createComplexChildObject(parentObject, lastSegment);
+                    createChildObject(parentObject, lastSegment, null);
                 }
             } else {
-                writerUtil.setChildObject(parentObject, targetField.getValue(), lastSegment);
+                setChildObject(parentObject, targetField.getValue(), lastSegment);
             }
         } else {
-            Object collection = writerUtil.getChildObject(parentObject, lastSegment);
+            Object collection = getChildObject(parentObject, lastSegment);
             if (collection == null) {
-                collection = writerUtil.createComplexChildObject(parentObject, lastSegment);
+                collection = createChildObject(parentObject, lastSegment, null);
             }
             if (lastSegment.getCollectionIndex() == null) {
                 // Collection field without index - just create collection object and keep it empty
                 return;
             }
-            Object adjusted = writerUtil.adjustCollectionSize(collection, lastSegment);
+            Object adjusted = adjustCollectionSize(parentObject, collection, lastSegment);
             if (adjusted != collection) {
                 writerUtil.setChildObject(parentObject, adjusted, lastSegment);
             }
             if (targetField.getFieldType() == FieldType.COMPLEX && targetField.getValue() == null) {
                 if (targetClassName != null && !targetClassName.isEmpty()) {
-                    writerUtil.createComplexChildObject(parentObject, lastSegment,
-                            writerUtil.loadClass(targetClassName));
+                    createChildObject(parentObject, lastSegment, writerUtil.loadClass(targetClassName));
                 } else {
-                    writerUtil.createComplexChildObject(parentObject, lastSegment);
+                    createChildObject(parentObject, lastSegment, null);
                 }
             } else {
-                writerUtil.setCollectionItem(adjusted, targetField.getValue(), lastSegment);
+                setCollectionItem(adjusted, targetField.getValue(), lastSegment);
+            }
+        }
+    }
+
+    private Object getChildObject(Object parentObject, SegmentContext segment) throws AtlasException {
+        DeferredChild deferred = getDeferredChild(parentObject, segment.getName());
+        return deferred != null ? deferred.pending : writerUtil.getChildObject(parentObject, segment);
+    }
+
+    private Object createChildObject(Object parentObject, SegmentContext segment, Class<?> clazz)
+            throws AtlasException {
+        if (!(parentObject instanceof PendingJavaObject)) {
+            Class<?> childClass = clazz != null ? clazz : writerUtil.resolveChildClass(parentObject, segment);
+            if (childClass != null && JavaClassMetadata.of(childClass).getCreator() != null) {
+                Object child = writerUtil.instantiateTargetObject(childClass);
+                deferChild(parentObject, segment.getName(), segment, child);
+                return child;
+            }
+        }
+        return clazz != null ? writerUtil.createComplexChildObject(parentObject, segment, clazz)
+                : writerUtil.createComplexChildObject(parentObject, segment);
+    }
+
+    private void setChildObject(Object parentObject, Object childObject, SegmentContext segment)
+            throws AtlasException {
+        if (childObject instanceof PendingJavaObject && !(parentObject instanceof PendingJavaObject)) {
+            deferChild(parentObject, segment.getName(), segment, childObject);
+            return;
+        }
+        removeDeferredChild(parentObject, segment.getName());
+        writerUtil.setChildObject(parentObject, childObject, segment);
+    }
+
+    private Object getCollectionItem(Object collection, SegmentContext segment) throws AtlasException {
+        DeferredChild deferred = getDeferredChild(collection, segment.getCollectionIndex());
+        return deferred != null ? deferred.pending : writerUtil.getCollectionItem(collection, segment);
+    }
+
+    private Object createCollectionItem(Object parentObject, Object collection, Class<?> itemClass,
+            SegmentContext segment) throws AtlasException {
+        Class<?> clazz = itemClass != null || parentObject == null ? itemClass
+                : writerUtil.resolveCollectionItemClass(parentObject, segment);
+        Class<?> resolved = clazz == null && collection.getClass().isArray()
+                ? collection.getClass().getComponentType() : clazz;
+        if (resolved != null && segment.getCollectionIndex() != null
+                && JavaClassMetadata.of(resolved).getCreator() != null) {
+            Object item = writerUtil.instantiateTargetObject(resolved);
+            deferChild(collection, segment.getCollectionIndex(), segment, item);
+            return item;
+        }
+        return writerUtil.createComplexCollectionItem(collection, clazz, segment);
+    }
+
+    private void setCollectionItem(Object collection, Object item, SegmentContext segment) throws AtlasException {
+        if (item instanceof PendingJavaObject && segment.getCollectionIndex() != null) {
+            deferChild(collection, segment.getCollectionIndex(), segment, item);
+            return;
+        }
+        removeDeferredChild(collection, segment.getCollectionIndex());
+        writerUtil.setCollectionItem(collection, item, segment);
+    }
+
+    private DeferredChild getDeferredChild(Object container, Object key) {
+        if (this.deferredChildren.isEmpty()) {
+            return null;
+        }
+        Map<Object, DeferredChild> children = this.deferredChildren.get(container);
+        return children != null ? children.get(key) : null;
+    }
+
+    private void deferChild(Object container, Object key, SegmentContext segment, Object child) {
+        this.deferredChildren.computeIfAbsent(container, c -> new LinkedHashMap<>())
+            .put(key, new DeferredChild(segment, (PendingJavaObject) child));
+    }
+
+    private void removeDeferredChild(Object container, Object key) {
+        Map<Object, DeferredChild> children = this.deferredChildren.get(container);
+        if (children != null) {
+            children.remove(key);
+        }
+    }
+
+    private void moveDeferredChildren(Object from, Object to) {
+        Map<Object, DeferredChild> children = this.deferredChildren.remove(from);
+        if (children != null) {
+            this.deferredChildren.put(to, children);
+        }
+    }
+
+    /**
+     * Adjusts the collection size so that the item at the index of the segment could be set.
+     * The array is reallocated with extra capacity and the logical size is tracked until
+     * {@link #trimArrays()} is invoked.
+     * @param parentObject the object which holds the collection, or null if it's the root object
+     * @param collection collection
+     * @param segment segment
+     * @return adjusted collection
+     * @throws AtlasException unexpected error
+     */
+    private Object adjustCollectionSize(Object parentObject, Object collection, SegmentContext segment)
+            throws AtlasException {
+        if (!collection.getClass().isArray() || segment.getCollectionIndex() == null) {
+            return writerUtil.adjustCollectionSize(collection, segment);
+        }
+        int index = segment.getCollectionIndex();
+        int length = Array.getLength(collection);
+        GrowingArray growing = this.growingArrays.get(collection);
+        int size = growing != null ? growing.size : length;
+        if (index < size) {
+            return collection;
+        }
+        if (index < length) {
+            growing.size = index + 1;
+            return collection;
+        }
+        Object grown = Array.newInstance(collection.getClass().getComponentType(), Math.max(index + 1, length * 2));
+        System.arraycopy(collection, 0, grown, 0, size);
+        moveDeferredChildren(collection, grown);
+        this.growingArrays.remove(collection);
+        this.growingArrays.put(grown, new GrowingArray(parentObject, segment, index + 1));
+        return grown;
+    }
+
+    /**
+     * Trims the target arrays which have extra capacity to their exact size and sets them back
+     * to the parent objects. This must be invoked once all the target fields are written.
+     * @throws AtlasException unexpected error
+     */
+    public void trimArrays() throws AtlasException {
+        try {
+            for (Entry<Object, GrowingArray> entry : this.growingArrays.entrySet()) {
+                Object array = entry.getKey();
+                GrowingArray growing = entry.getValue();
+                if (growing.size == Array.getLength(array)) {
+                    continue;
+                }
+                Object trimmed = Array.newInstance(array.getClass().getComponentType(), growing.size);
+                System.arraycopy(array, 0, trimmed, 0, growing.size);
+                moveDeferredChildren(array, trimmed);
+                if (growing.parentObject == null) {
+                    if (this.rootObject == array) {
+                        this.rootObject = trimmed;
+                    }
+                } else if (writerUtil.getChildObject(growing.parentObject, growing.segment) == array) {
+                    writerUtil.setChildObject(growing.parentObject, trimmed, growing.segment);
+                }
+            }
+        } finally {
+            this.growingArrays.clear();
+        }
+    }
+
+    /**
+     * Creates the objects which have been collecting the property values through {@link JavaObjectCreator}
+     * and sets them to the parent objects. This must be invoked once all the target fields are written
+     * and {@link #trimArrays()} is done.
+     * @throws AtlasException failed to create an object
+     */
+    public void completeObjects() throws AtlasException {
+        try {
+            while (!this.deferredChildren.isEmpty()) {
+                completeChildren(this.deferredChildren.keySet().iterator().next());
+            }
+            this.rootObject = complete(this.rootObject);
+        } finally {
+            this.deferredChildren.clear();
+        }
+    }
+
+    private Object complete(Object object) throws AtlasException {
+        if (object instanceof PendingJavaObject) {
+            PendingJavaObject pending = (PendingJavaObject) object;
+            if (pending.getInstance() == null) {
+                Object[] values = pending.getValues();
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = complete(values[i]);
+                }
+                try {
+                    pending.createInstance();
+                } catch (RuntimeException e) {
+                    throw new AtlasException("Could not create an instance of "
+                            + pending.getCreator().getType().getName(), e);
+                }
+            }
+            return pending.getInstance();
+        }
+        if (object != null && this.deferredChildren.containsKey(object)) {
+            completeChildren(object);
+        }
+        return object;
+    }
+
+    private void completeChildren(Object container) throws AtlasException {
+        Map<Object, DeferredChild> children = this.deferredChildren.remove(container);
+        for (Entry<Object, DeferredChild> entry : children.entrySet()) {
+            Object child = complete(entry.getValue().pending);
+            if (entry.getKey() instanceof Integer) {
+                writerUtil.setCollectionItem(container, child, entry.getValue().segment);
+            } else {
+                writerUtil.setChildObject(container, child, entry.getValue().segment);
             }
         }
     }
@@ -293,6 +506,16 @@ public class JavaFieldWriter implements AtlasFieldWriter {
         this.rootObject = rootObject;
     }
 
+    /**
+     * Instantiates the class and sets it as the Document root object. If the class is created through
+     * {@link JavaObjectCreator}, the root object is a placeholder until {@link #completeObjects()} creates it.
+     * @param clazz class
+     * @throws AtlasException unexpected error
+     */
+    public void instantiateRootObject(Class<?> clazz) throws AtlasException {
+        this.rootObject = writerUtil.instantiateTargetObject(clazz);
+    }
+
     /**
      * Sets the target value converter.
      * @param converter converter
@@ -327,4 +550,26 @@ public class JavaFieldWriter implements AtlasFieldWriter {
         }
     }
 
+    private static class GrowingArray {
+        private final Object parentObject;
+        private final SegmentContext segment;
+        private int size;
+
+        GrowingArray(Object parentObject, SegmentContext segment, int size) {
+            this.parentObject = parentObject;
+            this.segment = segment;
+            this.size = size;
+        }
+    }
+
+    private static class DeferredChild {
+        private final SegmentContext segment;
+        private final PendingJavaObject pending;
+
+        DeferredChild(SegmentContext segment, PendingJavaObject pending) {
+            this.segment = segment;
+            this.pending = pending;
+        }
+    }
+
 }
@@ -19,14 +19,12 @@ import java.beans.beancontext.BeanContext;
 import java.beans.beancontext.BeanContextServices;
 import java.beans.beancontext.BeanContextServicesSupport;
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,6 +49,7 @@ import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.TransferQueue;
+import java.util.function.Supplier;
 
 import org.slf4j.LoggerFactory;
 
@@ -66,9 +65,32 @@ import io.atlasmap.v2.CollectionType;
  */
 public class JavaFieldWriterUtil {
     private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(JavaFieldWriterUtil.class);
-    private AtlasConversionService conversionService = null;
-    private ClassLoader classLoader;
-    private Map<Class<?>, Class<?>> defaultCollectionImplClasses = new HashMap<>();
+    private static final Map<Class<?>, Class<?>> DEFAULT_COLLECTION_IMPL_CLASSES;
+    static {
+        Map<Class<?>, Class<?>> map = new HashMap<>();
+        map.put(BeanContext.class, BeanContextServicesSupport.class);
+        map.put(BeanContextServices.class, BeanContextServicesSupport.class);
+        map.put(BlockingDeque.class, LinkedBlockingDeque.class);
+        map.put(BlockingQueue.class, LinkedBlockingQueue.class);
+        map.put(Collection.class, LinkedList.class);
+        map.put(ConcurrentMap.class, ConcurrentHashMap.class);
+        map.put(ConcurrentNavigableMap.class, ConcurrentSkipListMap.class);
+        map.put(Deque.class, ArrayDeque.class);
+        map.put(List.class, LinkedList.class);
+        map.put(Map.class, HashMap.class);
+        map.put(NavigableSet.class, TreeSet.class);
+        map.put(NavigableMap.class, TreeMap.class);
+        map.put(Queue.class, LinkedList.class);
+        map.put(Set.class, HashSet.class);
+        map.put(SortedSet.class, TreeSet.class);
+        map.put(SortedMap.class, TreeMap.class);
+        map.put(TransferQueue.class, LinkedTransferQueue.class);
+        DEFAULT_COLLECTION_IMPL_CLASSES = Collections.unmodifiableMap(map);
+    }
+
+    private final AtlasConversionService conversionService;
+    private final ClassLoader classLoader;
+    private final Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
 
     /**
      * A constructor.
@@ -79,30 +101,14 @@ public class JavaFieldWriterUtil {
     }
 
     /**
-     * A constructor.
+     * A constructor. The instance holds no mutable state other than the loaded class cache,
+     * so that it can be shared among the modules of different contexts.
      * @param classLoader class loader
      * @param conversionService conversion service
      */
     public JavaFieldWriterUtil(ClassLoader classLoader, AtlasConversionService conversionService) {
         this.conversionService = conversionService;
         this.classLoader = classLoader;
-        defaultCollectionImplClasses.put(BeanContext.class, BeanContextServicesSupport.class);
-        defaultCollectionImplClasses.put(BeanContextServices.class, BeanContextServicesSupport.class);
-        defaultCollectionImplClasses.put(BlockingDeque.class, LinkedBlockingDeque.class);
-        defaultCollectionImplClasses.put(BlockingQueue.class, LinkedBlockingQueue.class);
-        defaultCollectionImplClasses.put(Collection.class, LinkedList.class);
-        defaultCollectionImplClasses.put(ConcurrentMap.class, ConcurrentHashMap.class);
-        defaultCollectionImplClasses.put(ConcurrentNavigableMap.class, ConcurrentSkipListMap.class);
-        defaultCollectionImplClasses.put(Deque.class, ArrayDeque.class);
-        defaultCollectionImplClasses.put(List.class, LinkedList.class);
-        defaultCollectionImplClasses.put(Map.class, HashMap.class);
-        defaultCollectionImplClasses.put(NavigableSet.class, TreeSet.class);
-        defaultCollectionImplClasses.put(NavigableMap.class, TreeMap.class);
-        defaultCollectionImplClasses.put(Queue.class, LinkedList.class);
-        defaultCollectionImplClasses.put(Set.class, HashSet.class);
-        defaultCollectionImplClasses.put(SortedSet.class, TreeSet.class);
-        defaultCollectionImplClasses.put(SortedMap.class, TreeMap.class);
-        defaultCollectionImplClasses.put(TransferQueue.class, LinkedTransferQueue.class);
     }
 
     /**
@@ -123,41 +129,57 @@ public class JavaFieldWriterUtil {
             return Array.newInstance(clazz.getComponentType(), 0);
         }
 
-        if (this.defaultCollectionImplClasses.get(clazz) != null) {
-            clazz = this.defaultCollectionImplClasses.get(clazz);
+        if (DEFAULT_COLLECTION_IMPL_CLASSES.get(clazz) != null) {
+            clazz = DEFAULT_COLLECTION_IMPL_CLASSES.get(clazz);
+        }
+        Supplier<Object> instantiator = JavaClassMetadata.of(clazz).getInstantiator();
+        if (instantiator == null) {
+            throw new AtlasException("Could not instantiate class: " + clazz.getName()
+                + " - no applicable constructor found");
         }
         try {
-            Constructor<?> constructor = null;
-            if (clazz.getEnclosingClass() != null && !Modifier.isStatic(clazz.getModifiers())) {
-                // Nested class requires an instance of enclosing class to instantiate
-                Object enclosing = clazz.getEnclosingClass()
-                                        .getDeclaredConstructor(new Class[0])
-                                        .newInstance(new Object[0]);
-                constructor = clazz.getDeclaredConstructor(new Class[] { enclosing.getClass() });
-                constructor.setAccessible(true);
-                return constructor.newInstance(new Object[] { enclosing });
-            } else {
-                constructor = clazz.getDeclaredConstructor(new Class[0]);
-                constructor.setAccessible(true);
-                return constructor.newInstance(new Object[0]);
-            }
+            return instantiator.get();
         } catch (Exception e) {
             throw new AtlasException("Could not instantiate class: " + clazz.getName(), e);
         }
     }
 
     /**
-     * Loads the class.
+     * Instantiates the target class. If the class is created through {@link JavaObjectCreator}, i.e. a
+     * {@code record} or an immutable class with a builder, it returns a placeholder which collects the property
+     * values until {@link JavaFieldWriter#completeObjects()} creates the actual object.
+     * @param clazz class
+     * @return instantiated, or the placeholder
+     * @throws AtlasException unexpected error
+     */
+    Object instantiateTargetObject(Class<?> clazz) throws AtlasException {
+        if (clazz != null && !clazz.isArray()) {
+            JavaObjectCreator creator = JavaClassMetadata.of(clazz).getCreator();
+            if (creator != null) {
+                return new PendingJavaObject(creator);
+            }
+        }
+        return instantiateObject(clazz);
+    }
+
+    /**
+     * Loads the class. The loaded class is cached by name.
      * @param name name
      * @return loaded
      * @throws AtlasException unexpected error
      */
     public Class<?> loadClass(String name) throws AtlasException {
+        Class<?> answer = this.loadedClasses.get(name);
+        if (answer != null) {
+            return answer;
+        }
         try {
-            return this.classLoader.loadClass(name);
+            answer = this.classLoader.loadClass(name);
         } catch (Exception e) {
             throw new AtlasException(e);
         }
+        this.loadedClasses.put(name, answer);
+        return answer;
     }
 
     /**
@@ -167,9 +189,9 @@ public class JavaFieldWriterUtil {
      */
     public Class<?> getDefaultCollectionImplClass(CollectionType type) {
         if (type == CollectionType.LIST) {
-            return this.defaultCollectionImplClasses.get(List.class);
+            return DEFAULT_COLLECTION_IMPL_CLASSES.get(List.class);
         } else if (type == CollectionType.MAP) {
-            return this.defaultCollectionImplClasses.get(Map.class);
+            return DEFAULT_COLLECTION_IMPL_CLASSES.get(Map.class);
         }
         return null;
     }
@@ -194,8 +216,12 @@ public class JavaFieldWriterUtil {
             }
             return null;
         }
+        if (parentObject instanceof PendingJavaObject) {
+            return ((PendingJavaObject) parentObject).get(fieldName);
+        }
 
-        Method getterMethod = resolveGetterMethod(parentObject.getClass(), fieldName);
+        JavaClassMetadata metadata = JavaClassMetadata.of(parentObject.getClass());
+        Method getterMethod = metadata.getGetter(fieldName);
         if (getterMethod == null) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug(String.format(
@@ -205,10 +231,9 @@ public class JavaFieldWriterUtil {
             return null;
         }
 
-        getterMethod.setAccessible(true);
         Object childObject;
         try {
-            childObject = getterMethod.invoke(parentObject);
+            childObject = metadata.getGetterFunction(getterMethod).apply(parentObject);
         } catch (Exception e) {
             throw new AtlasException(e);
         }
@@ -237,17 +262,20 @@ public class JavaFieldWriterUtil {
             LOG.debug("Creating object for segment:'{} \n\tparentObject: {} \n\tclass: {}",
             segmentContext, parentObject, clazz.getName());
         }
+        if (parentObject instanceof PendingJavaObject) {
+            Object targetObject = instantiateTargetObject(clazz);
+            ((PendingJavaObject) parentObject).set(segmentContext.getName(), targetObject);
+            return targetObject;
+        }
 
         try {
             Method setterMethod = resolveSetterMethod(parentObject, segmentContext, null);
             Object targetObject = instantiateObject(clazz);
-            setterMethod.setAccessible(true);
-            setterMethod.invoke(parentObject, targetObject);
+            JavaClassMetadata.of(parentObject.getClass()).getSetterFunction(setterMethod).accept(parentObject, targetObject);
             return targetObject;
         } catch (Exception e) {
             try {
                 java.lang.reflect.Field field = resolveField(parentObject.getClass(), segmentContext.getName());
-                field.setAccessible(true);
                 Object targetObject = instantiateObject(clazz);
                 field.set(parentObject, targetObject);
                 return targetObject;
@@ -270,19 +298,23 @@ public class JavaFieldWriterUtil {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Creating object for segment:'{} \n\tparentObject: {}", segmentContext, parentObject);
         }
+        if (parentObject instanceof PendingJavaObject) {
+            PendingJavaObject pending = (PendingJavaObject) parentObject;
+            Object targetObject = instantiateTargetObject(pending.getPropertyType(segmentContext.getName()));
+            pending.set(segmentContext.getName(), targetObject);
+            return targetObject;
+        }
 
         Class<?> clazz;
         try {
             Method setterMethod = resolveSetterMethod(parentObject, segmentContext, null);
             clazz = setterMethod.getParameterTypes()[0];
             Object targetObject = instantiateObject(clazz);
-            setterMethod.setAccessible(true);
-            setterMethod.invoke(parentObject, targetObject);
+            JavaClassMetadata.of(parentObject.getClass()).getSetterFunction(setterMethod).accept(parentObject, targetObject);
             return targetObject;
         } catch (Exception e) {
             try {
                 java.lang.reflect.Field field = resolveField(parentObject.getClass(), segmentContext.getName());
-                field.setAccessible(true);
                 clazz = field.getType();
                 Object targetObject = instantiateObject(clazz);
                 field.set(parentObject, targetObject);
@@ -307,6 +339,10 @@ public class JavaFieldWriterUtil {
             LOG.debug("Setting object for segment:'" + segmentContext.getExpression() + "'.\n\tchildObject: " + childObject
                     + "\n\tparentObject: " + parentObject);
         }
+        if (parentObject instanceof PendingJavaObject) {
+            setPendingChildObject((PendingJavaObject) parentObject, childObject, segmentContext);
+            return;
+        }
 
         try {
             Class<?> childClass = childObject == null ? null : childObject.getClass();
@@ -327,8 +363,7 @@ public class JavaFieldWriterUtil {
                     }
                     return;
                 }
-                setterMethod.setAccessible(true);
-                setterMethod.invoke(targetObject, childObject);
+                JavaClassMetadata.of(targetObject.getClass()).getSetterFunction(setterMethod).accept(targetObject, childObject);
             } catch (Exception e) {
                 java.lang.reflect.Field field = resolveField(targetObject.getClass(), segmentContext.getName());
                 if (field == null) {
@@ -348,7 +383,6 @@ public class JavaFieldWriterUtil {
                     }
                     return;
                 }
-                field.setAccessible(true);
                 field.set(targetObject, childObject);
             }
         } catch (Exception e) {
@@ -368,13 +402,15 @@ public class JavaFieldWriterUtil {
      * @throws AtlasException unexpected error
      */
     public Class<?> resolveChildClass(Object parentObject, SegmentContext segment) throws AtlasException {
+        if (parentObject instanceof PendingJavaObject) {
+            return ((PendingJavaObject) parentObject).getPropertyType(segment.getName());
+        }
         try {
             Method setterMethod = resolveSetterMethod(parentObject, segment, null);
             return setterMethod.getParameterTypes()[0];
         } catch (NoSuchMethodException e) {
             try {
                 java.lang.reflect.Field field = resolveField(parentObject.getClass(), segment.getName());
-                field.setAccessible(true);
                 return field.getType();
             } catch (Exception e2) {
                 String parentClassName = parentObject == null ? null : parentObject.getClass().getName();
@@ -437,9 +473,7 @@ public class JavaFieldWriterUtil {
             if (Array.getLength(answer) < (index + 1)) {
                 Object newArray = Array.newInstance(answer.getClass().getComponentType(), segmentContext.getCollectionIndex() + 1);
                 // copy pre-existing items over to new array
-                for (int i = 0; i < Array.getLength(answer); i++) {
-                    Array.set(newArray, i, Array.get(answer, i));
-                }
+                System.arraycopy(answer, 0, newArray, 0, Array.getLength(answer));
                 answer = newArray;
             }
         } else if (answer instanceof List) {
@@ -532,19 +566,14 @@ public class JavaFieldWriterUtil {
      */
     public Class<?> resolveCollectionItemClass(Object parentObject, SegmentContext segmentContext) throws AtlasException {
         Class<?> itemType = null;
-        Method getterMethod = resolveGetterMethod(parentObject.getClass(), segmentContext.getName());
         try {
-            Type genericType = null;
-            if (getterMethod != null) {
-                genericType = getterMethod.getGenericReturnType();
-            } else {
-                java.lang.reflect.Field field = resolveField(parentObject.getClass(), segmentContext.getName());
-                if (field == null) {
-                    throw new AtlasException(String.format(
-                        "Failed to create a collection item, parent class={}, field name={}",
-                        parentObject.getClass(), segmentContext.getName()));
-                }
-                genericType = field.getGenericType();
+            Type genericType = parentObject instanceof PendingJavaObject
+                ? ((PendingJavaObject) parentObject).getGenericPropertyType(segmentContext.getName())
+                : JavaClassMetadata.of(parentObject.getClass()).getGenericType(segmentContext.getName());
+            if (genericType == null) {
+                throw new AtlasException(String.format(
+                    "Failed to create a collection item, parent class={}, field name={}",
+                    parentObject.getClass(), segmentContext.getName()));
             }
             if (genericType instanceof Class) {
                 if (((Class<?>)genericType).isArray()) {
@@ -554,8 +583,8 @@ public class JavaFieldWriterUtil {
                 }
             } else if (genericType instanceof ParameterizedType
                     && ((ParameterizedType) genericType).getActualTypeArguments().length > 0) {
-                String typeArg = ((ParameterizedType) genericType).getActualTypeArguments()[0].getTypeName();
-                itemType = classLoader.loadClass(typeArg);
+                Type typeArg = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                itemType = typeArg instanceof Class ? (Class<?>) typeArg : classLoader.loadClass(typeArg.getTypeName());
             } else {
                 itemType = Object.class;
             }
@@ -624,93 +653,50 @@ public class JavaFieldWriterUtil {
 
     /**
      * Gets the default collection implementation classes.
-     * @return default collection implementation classes.
+     * @return unmodifiable default collection implementation classes.
      */
     public Map<Class<?>, Class<?>> getDefaultCollectionImplClasses() {
-        return this.defaultCollectionImplClasses;
+        return DEFAULT_COLLECTION_IMPL_CLASSES;
     }
 
-    private Method resolveGetterMethod(Class<?> clz, String fieldName) {
-        List<String> getters = ClassHelper.getterMethodNames(fieldName);
-        List<Class<?>> classTree = resolveMappableClasses(clz);
-        Method getterMethod = null;
-        for (Class<?> clazz : classTree) {
-            for (String getter : getters) {
-                try {
-                    return ClassHelper.detectGetterMethod(clazz, getter);
-                } catch (NoSuchMethodException e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Looking for getter for '{}' on this class: {}",
-                            fieldName, clazz.getName(), e);
-                    }
-                }
+    private void setPendingChildObject(PendingJavaObject parentObject, Object childObject, SegmentContext segmentContext)
+            throws AtlasException {
+        Class<?> targetClass = parentObject.getPropertyType(segmentContext.getName());
+        Object value = childObject;
+        if (value != null && !(value instanceof PendingJavaObject)) {
+            value = conversionService.convertType(value, null, targetClass, null);
+        }
+        if (value == null && conversionService.isPrimitive(targetClass)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Not setting null value for primitive property for segment:'" + segmentContext.getExpression()
+                        + "'.\n\tparentObject: " + parentObject);
             }
+            return;
         }
-        return getterMethod;
+        parentObject.set(segmentContext.getName(), value);
     }
 
     private Method resolveSetterMethod(Object sourceObject, SegmentContext segmentContext, Class<?> targetType)
             throws NoSuchMethodException {
-        String setterMethodName = "set" + capitalizeFirstLetter(segmentContext.getName());
-        List<Class<?>> classTree = resolveMappableClasses(sourceObject.getClass());
-
-        Method m = null;
-        for (Class<?> clazz : classTree) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Looking for setter '" + setterMethodName + "' on this class: " + clazz.getName());
-            }
-            try {
-                m = ClassHelper.detectSetterMethod(clazz, setterMethodName, targetType);
-                if (m != null) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Found setter '" + setterMethodName + "' on this class: " + clazz.getName());
-                    }
-                    return m;
-                }
-            } catch (NoSuchMethodException e) {
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Did not find setter '" + setterMethodName + "' on this class: " + clazz.getName(), e);
-                }
-            }
-
-            // Try the boxUnboxed version
-            if (conversionService.isPrimitive(targetType) || conversionService.isBoxedPrimitive(targetType)) {
-                try {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Looking for boxed setter '" + setterMethodName + "' on this class: "
-                                + clazz.getName());
-                    }
-                    m = ClassHelper.detectSetterMethod(clazz, setterMethodName,
-                            conversionService.boxOrUnboxPrimitive(targetType));
-                    if (m != null) {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Found setter '" + setterMethodName + "' on this class: " + clazz.getName());
-                        }
-                        return m;
-                    }
-                } catch (NoSuchMethodException e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Did not find setter '" + setterMethodName + "' on this class: " + clazz.getName(),
-                                e);
-                    }
-                }
-            }
+        JavaClassMetadata metadata = JavaClassMetadata.of(sourceObject.getClass());
+        Method m = metadata.getSetter(segmentContext.getName(), targetType);
+        // Try the boxUnboxed version
+        if (m == null && (conversionService.isPrimitive(targetType) || conversionService.isBoxedPrimitive(targetType))) {
+            m = metadata.getSetter(segmentContext.getName(), conversionService.boxOrUnboxPrimitive(targetType));
         }
-
-        throw new NoSuchMethodException("Unable to resolve expected setter '" + setterMethodName + "' for segment: "
-                + segmentContext.getExpression() + ", on object: " + sourceObject);
+        if (m == null) {
+            throw new NoSuchMethodException("Unable to resolve expected setter 'set"
+                    + capitalizeFirstLetter(segmentContext.getName()) + "' for segment: "
+                    + segmentContext.getExpression() + ", on object: " + sourceObject);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found setter '" + m.getName() + "' on this class: " + m.getDeclaringClass().getName());
+        }
+        return m;
     }
 
     private java.lang.reflect.Field resolveField(Class<?> clz, String name) {
-        List<Class<?>> classTree = resolveMappableClasses(clz);
-        for (Class<?> clazz : classTree) {
-            try {
-                return clazz.getDeclaredField(name);
-            } catch (Exception e) {
-                continue;
-            }
-        }
-        return null;
+        return JavaClassMetadata.of(clz).getMappableField(name);
     }
 
     private static String capitalizeFirstLetter(String string) {
@@ -723,30 +709,4 @@ public class JavaFieldWriterUtil {
         return String.valueOf(string.charAt(0)).toUpperCase() + string.substring(1);
     }
 
-    private List<Class<?>> resolveMappableClasses(Class<?> clazz) {
-        List<Class<?>> classTree = new ArrayList<>();
-        classTree.add(clazz);
-        Class<?> superClazz = clazz.getSuperclass();
-        while (superClazz != null) {
-            if (JdkPackages.contains(superClazz.getPackage().getName())) {
-                superClazz = null;
-            } else {
-                classTree.add(superClazz);
-                superClazz = superClazz.getSuperclass();
-            }
-        }
-
-        // DON'T reverse.. prefer child -> parent -> grandparent
-        // List<Class<?>> reverseTree = classTree.subList(0, classTree.size());
-        // Collections.reverse(reverseTree);
-        // return reverseTree;
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Found " + classTree.size() + " mappable classes for class '"
-                    + clazz.getName() + "': " + classTree);
-        }
-
-        return classTree;
-    }
-
 }
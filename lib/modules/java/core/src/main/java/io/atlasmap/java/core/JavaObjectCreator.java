@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.core;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates an immutable object from all of its property values at once, i.e. through the canonical
+ * constructor of a {@code record}, the public constructor annotated with {@link ConstructorProperties},
+ * or the static {@code builder()} method and the fluent builder. Only the fluent builder methods which
+ * take one argument of a property type and are named after a property of the built class, optionally
+ * prefixed with {@code set} or {@code with}, are used as the property setters. The constructor and builder methods
+ * are resolved into {@link MethodHandle} when the {@link JavaClassMetadata} is created for the class,
+ * then {@link JavaFieldWriter} collects the property values and invokes {@link #newInstance(Object[])}
+ * once per object.
+ * <p>
+ * The {@code record} is detected through the reflection so that it works on the JDK which supports
+ * records while this module itself is built for older one.
+ * </p>
+ */
+public final class JavaObjectCreator {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaObjectCreator.class);
+    private static final Method IS_RECORD = findMethod(Class.class, "isRecord");
+    private static final Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+
+    private final Class<?> type;
+    private final boolean record;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Type[] genericTypes;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final MethodHandle constructor;
+    private final MethodHandle builder;
+    private final MethodHandle[] builderSetters;
+    private final MethodHandle build;
+
+    private JavaObjectCreator(Class<?> type, boolean record, String[] names, Class<?>[] types, Type[] genericTypes,
+            MethodHandle constructor, MethodHandle builder, MethodHandle[] builderSetters, MethodHandle build) {
+        this.type = type;
+        this.record = record;
+        this.names = names;
+        this.types = types;
+        this.genericTypes = genericTypes;
+        this.constructor = constructor;
+        this.builder = builder;
+        this.builderSetters = builderSetters;
+        this.build = build;
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], i);
+        }
+    }
+
+    /**
+     * Creates the creator for the class.
+     * @param clazz class
+     * @return creator, or null if the class is neither a record, a class with a constructor annotated with
+     * {@link ConstructorProperties} nor a class with a builder
+     */
+    static JavaObjectCreator create(Class<?> clazz) {
+        if (clazz.isInterface() || clazz.isArray() || clazz.isPrimitive() || clazz.isEnum()
+                || Modifier.isAbstract(clazz.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            if (isRecord(clazz)) {
+                return createForRecord(lookup, clazz);
+            }
+            JavaObjectCreator answer = createForBuilder(lookup, clazz);
+            return answer != null ? answer : createForConstructorProperties(lookup, clazz);
+        } catch (Throwable t) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Could not resolve the creator for '{}': {}", clazz.getName(), t.getMessage());
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Gets if the class is a {@code record}.
+     * @param clazz class
+     * @return true if it's a record, or false
+     */
+    static boolean isRecord(Class<?> clazz) {
+        try {
+            return IS_RECORD != null && (Boolean) IS_RECORD.invoke(clazz);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the class which this creator creates.
+     * @return class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Gets if the class is a {@code record}.
+     * @return true if it's a record, or false
+     */
+    public boolean isRecord() {
+        return record;
+    }
+
+    /**
+     * Gets the property names in the order of {@link #newInstance(Object[])} arguments.
+     * @return property names
+     */
+    public List<String> getPropertyNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Gets the index of the property.
+     * @param name property name
+     * @return index, or -1 if the property doesn't exist
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets the property type.
+     * @param index property index
+     * @return property type
+     */
+    public Class<?> getPropertyType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Gets the generic property type.
+     * @param index property index
+     * @return generic property type
+     */
+    public Type getGenericPropertyType(int index) {
+        return genericTypes[index];
+    }
+
+    /**
+     * Creates the object.
+     * @param values property values in the order of {@link #getPropertyNames()}
+     * @return created object
+     */
+    public Object newInstance(Object[] values) {
+        try {
+            if (constructor != null) {
+                Object[] args = values.clone();
+                for (int i = 0; i < args.length; i++) {
+                    if (args[i] == null && types[i].isPrimitive()) {
+                        args[i] = Array.get(Array.newInstance(types[i], 1), 0);
+                    }
+                }
+                return (Object) constructor.invokeExact(args);
+            }
+            Object b = (Object) builder.invokeExact();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    Object next = (Object) builderSetters[i].invokeExact(b, values[i]);
+                    b = next != null ? next : b;
+                }
+            }
+            return (Object) build.invokeExact(b);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create an instance of " + type.getName(), t);
+        }
+    }
+
+    private static JavaObjectCreator createForRecord(MethodHandles.Lookup lookup, Class<?> clazz) throws Exception {
+        Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(clazz);
+        String[] names = new String[components.length];
+        Class<?>[] types = new Class<?>[components.length];
+        Type[] genericTypes = new Type[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Class<?> componentClass = components[i].getClass();
+            names[i] = (String) componentClass.getMethod("getName").invoke(components[i]);
+            types[i] = (Class<?>) componentClass.getMethod("getType").invoke(components[i]);
+            genericTypes[i] = (Type) componentClass.getMethod("getGenericType").invoke(components[i]);
+        }
+        Constructor<?> canonical = clazz.getDeclaredConstructor(types);
+        return new JavaObjectCreator(clazz, true, names, types, genericTypes,
+                spread(lookup.unreflectConstructor(canonical)), null, null, null);
+    }
+
+    private static JavaObjectCreator createForConstructorProperties(MethodHandles.Lookup lookup, Class<?> clazz)
+            throws Exception {
+        for (Constructor<?> c : clazz.getConstructors()) {
+            ConstructorProperties properties = c.getAnnotation(ConstructorProperties.class);
+            if (properties == null || properties.value().length != c.getParameterCount()) {
+                continue;
+            }
+            return new JavaObjectCreator(clazz, false, properties.value(), c.getParameterTypes(),
+                    c.getGenericParameterTypes(), spread(lookup.unreflectConstructor(c)), null, null, null);
+        }
+        return null;
+    }
+
+    private static JavaObjectCreator createForBuilder(MethodHandles.Lookup lookup, Class<?> clazz) throws Exception {
+        Method builderMethod;
+        Method buildMethod;
+        try {
+            builderMethod = clazz.getMethod("builder");
+            if (!Modifier.isStatic(builderMethod.getModifiers()) || builderMethod.getReturnType() == void.class) {
+                return null;
+            }
+            buildMethod = builderMethod.getReturnType().getMethod("build");
+            if (!clazz.isAssignableFrom(buildMethod.getReturnType())) {
+                return null;
+            }
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        Class<?> builderClass = builderMethod.getReturnType();
+        Map<String, Class<?>> properties = getProperties(clazz);
+        Map<String, Method> candidates = new TreeMap<>();
+        for (Method m : builderClass.getMethods()) {
+            if (m.getParameterCount() != 1 || Modifier.isStatic(m.getModifiers())
+                    || !builderClass.isAssignableFrom(m.getReturnType())) {
+                continue;
+            }
+            String name = toPropertyName(m.getName());
+            Class<?> propertyType = properties.get(name);
+            Class<?> paramType = m.getParameterTypes()[0];
+            if (propertyType == null || !paramType.isAssignableFrom(propertyType)) {
+                continue;
+            }
+            Method current = candidates.get(name);
+            // prefer the overload which parameter type is the closest to the property type
+            if (current == null || current.getParameterTypes()[0].isAssignableFrom(paramType)) {
+                candidates.put(name, m);
+            }
+        }
+        List<String> names = new ArrayList<>(candidates.keySet());
+        List<Method> setters = new ArrayList<>(candidates.values());
+        Class<?>[] types = new Class<?>[setters.size()];
+        Type[] genericTypes = new Type[setters.size()];
+        MethodHandle[] handles = new MethodHandle[setters.size()];
+        MethodHandles.Lookup builderLookup = MethodHandles.privateLookupIn(builderClass, MethodHandles.lookup());
+        for (int i = 0; i < setters.size(); i++) {
+            Method setter = setters.get(i);
+            types[i] = setter.getParameterTypes()[0];
+            genericTypes[i] = setter.getGenericParameterTypes()[0];
+            MethodHandle handle = builderLookup.unreflect(setter);
+            handles[i] = handle.asType(handle.type().generic());
+        }
+        MethodHandle builderHandle = lookup.unreflect(builderMethod);
+        MethodHandle buildHandle = builderLookup.unreflect(buildMethod);
+        return new JavaObjectCreator(clazz, false, names.toArray(new String[0]), types, genericTypes, null,
+                builderHandle.asType(builderHandle.type().generic()), handles,
+                buildHandle.asType(buildHandle.type().generic()));
+    }
+
+    private static MethodHandle spread(MethodHandle handle) {
+        return handle.asType(handle.type().generic()).asSpreader(Object[].class, handle.type().parameterCount());
+    }
+
+    /**
+     * Collects the properties of the class from the getters and the fields.
+     */
+    private static Map<String, Class<?>> getProperties(Class<?> clazz) {
+        Map<String, Class<?>> answer = new HashMap<>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(f.getModifiers()) && !f.isSynthetic()) {
+                    answer.putIfAbsent(f.getName(), f.getType());
+                }
+            }
+        }
+        for (Method m : clazz.getMethods()) {
+            if (m.getParameterCount() != 0 || Modifier.isStatic(m.getModifiers())
+                    || m.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            String name = m.getName();
+            int prefix = name.startsWith("get") && m.getReturnType() != void.class ? 3
+                : name.startsWith("is") && m.getReturnType() == boolean.class ? 2 : 0;
+            if (prefix > 0 && name.length() > prefix && Character.isUpperCase(name.charAt(prefix))) {
+                answer.putIfAbsent(Character.toLowerCase(name.charAt(prefix)) + name.substring(prefix + 1),
+                    m.getReturnType());
+            }
+        }
+        return answer;
+    }
+
+    private static String toPropertyName(String methodName) {
+        for (String prefix : new String[] {"set", "with"}) {
+            if (methodName.length() > prefix.length() && methodName.startsWith(prefix)
+                    && Character.isUpperCase(methodName.charAt(prefix.length()))) {
+                return Character.toLowerCase(methodName.charAt(prefix.length()))
+                    + methodName.substring(prefix.length() + 1);
+            }
+        }
+        return methodName;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name) {
+        try {
+            return clazz.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.core;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import io.atlasmap.api.AtlasException;
+
+/**
+ * The placeholder of the object which is created through {@link JavaObjectCreator}. The property values
+ * are collected while the target fields are written, then {@link JavaFieldWriter} creates the object once
+ * all the target fields are written.
+ */
+final class PendingJavaObject {
+    private final JavaObjectCreator creator;
+    private final Object[] values;
+    private Object instance;
+
+    /**
+     * A constructor.
+     * @param creator creator
+     */
+    PendingJavaObject(JavaObjectCreator creator) {
+        this.creator = creator;
+        this.values = new Object[creator.getPropertyNames().size()];
+    }
+
+    /**
+     * Gets the creator.
+     * @return creator
+     */
+    JavaObjectCreator getCreator() {
+        return creator;
+    }
+
+    /**
+     * Gets the property value.
+     * @param name property name
+     * @return value
+     */
+    Object get(String name) {
+        int index = creator.indexOf(name);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * Sets the property value.
+     * @param name property name
+     * @param value value
+     * @throws AtlasException the property doesn't exist
+     */
+    void set(String name, Object value) throws AtlasException {
+        values[indexOf(name)] = value;
+    }
+
+    /**
+     * Gets the property type.
+     * @param name property name
+     * @return type
+     * @throws AtlasException the property doesn't exist
+     */
+    Class<?> getPropertyType(String name) throws AtlasException {
+        return creator.getPropertyType(indexOf(name));
+    }
+
+    /**
+     * Gets the generic property type.
+     * @param name property name
+     * @return generic type
+     * @throws AtlasException the property doesn't exist
+     */
+    Type getGenericPropertyType(String name) throws AtlasException {
+        return creator.getGenericPropertyType(indexOf(name));
+    }
+
+    /**
+     * Gets the property values.
+     * @return values
+     */
+    Object[] getValues() {
+        return values;
+    }
+
+    /**
+     * Gets the created instance.
+     * @return instance, or null if it's not yet created
+     */
+    Object getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates the instance from the property values.
+     * @return instance
+     */
+    Object createInstance() {
+        this.instance = creator.newInstance(values);
+        return this.instance;
+    }
+
+    private int indexOf(String name) throws AtlasException {
+        int index = creator.indexOf(name);
+        if (index < 0) {
+            throw new AtlasException(String.format("Property '%s' is not found on %s, available properties: %s",
+                name, creator.getType().getName(), creator.getPropertyNames()));
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "PendingJavaObject[" + creator.getType().getName() + ", " + Arrays.toString(values) + "]";
+    }
+
+}
@@ -16,6 +16,8 @@
 package io.atlasmap.java.core;
 
 import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +47,7 @@ public class TargetValueConverter {
     private AtlasConversionService conversionService = null;
     private JavaFieldWriterUtil writerUtil = null;
     private ClassLoader classLoader;
+    private Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
 
     /**
      * A constructor.
@@ -127,7 +130,7 @@ public class TargetValueConverter {
                 return;
             }
             if (javaTargetField.getClassName() != null) {
-                Object created = writerUtil.instantiateObject(writerUtil.loadClass(javaTargetField.getClassName()));
+                Object created = writerUtil.instantiateTargetObject(writerUtil.loadClass(javaTargetField.getClassName()));
                 javaTargetField.setValue(created);
                 return;
             }
@@ -183,7 +186,7 @@ public class TargetValueConverter {
             targetClazz = conversionService.boxOrUnboxPrimitive(targetClassName);
         } else {
             try {
-                targetClazz = classLoader.loadClass(targetClassName);
+                targetClazz = loadClass(targetClassName);
             } catch (ClassNotFoundException e) {
                 AtlasUtil.addAudit(session, targetField,
                         String.format("Target field class '%s' was not found: sourceType=%s targetType=%s targetPath=%s msg=%s",
@@ -246,7 +249,7 @@ public class TargetValueConverter {
         @SuppressWarnings("rawtypes")
         Class enumClass = null;
         try {
-            enumClass = this.classLoader.loadClass(targetField.getClassName());
+            enumClass = loadClass(targetField.getClassName());
         } catch (Exception e) {
             AtlasUtil.addAudit(session, targetField,
                     String.format("Could not find class for output field class '%s': %s", targetField.getClassName(), e.getMessage()),
@@ -266,4 +269,13 @@ public class TargetValueConverter {
         }
     }
 
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        Class<?> answer = loadedClasses.get(name);
+        if (answer == null) {
+            answer = classLoader.loadClass(name);
+            loadedClasses.put(name, answer);
+        }
+        return answer;
+    }
+
 }
@@ -17,8 +17,10 @@ package io.atlasmap.java.core.accessor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.function.Function;
 
 import io.atlasmap.api.AtlasException;
+import io.atlasmap.java.core.JavaClassMetadata;
 
 /**
  * The {@link JavaChildAccessor} which accesses the field through the getter method.
@@ -26,6 +28,7 @@ import io.atlasmap.api.AtlasException;
 public class GetterAccessor extends JavaChildAccessor {
 
     private Method getter;
+    private Function<Object, Object> getterFunction;
 
     /**
      * A constructor.
@@ -37,12 +40,13 @@ public class GetterAccessor extends JavaChildAccessor {
         super(parent, name);
         getter.setAccessible(true);
         this.getter = getter;
+        this.getterFunction = JavaClassMetadata.of(getter.getDeclaringClass()).getGetterFunction(getter);
     }
 
     @Override
     public Object getRawValue() throws AtlasException {
         try {
-            return getter.invoke(getParentObject(), new Object[0]);
+            return getterFunction.apply(getParentObject());
         } catch (Exception e) {
             throw new AtlasException(e);
         }
@@ -17,18 +17,21 @@ package io.atlasmap.java.core.accessor;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.AbstractList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.java.core.ClassHelper;
 import io.atlasmap.v2.CollectionType;
 
 /**
- * The accessor for the Java child field.
+ * The accessor for the Java child field. The collection values are exposed as a read-only view
+ * of the underlying array, {@link Collection} or {@link Map} values rather than a copy.
  */
 public abstract class JavaChildAccessor {
 
@@ -95,23 +98,21 @@ public abstract class JavaChildAccessor {
             return this.collectionType;
         }
 
+        Object rawValue = getRawValue();
         if (getRawClass().isArray()) {
             this.collectionType = CollectionType.ARRAY;
-            this.collectionValues = new ArrayList<>();
-            for (int i=0; getRawValue() != null && i<Array.getLength(getRawValue()); i++) {
-                this.collectionValues.add(Array.get(getRawValue(), i));
-            }
-        } else if (getRawValue() instanceof Collection) {
+            this.collectionValues = rawValue != null ? new ArrayView(rawValue) : Collections.emptyList();
+        } else if (rawValue instanceof Collection) {
             this.collectionType = CollectionType.LIST;
-            if (getRawValue() instanceof List) {
-                this.collectionValues = (List<Object>)this.getRawValue();
+            if (rawValue instanceof List) {
+                this.collectionValues = (List<Object>) rawValue;
             } else {
-                this.collectionValues = Arrays.asList(Collection.class.cast(getRawValue()).toArray());
+                this.collectionValues = new IteratorView((Collection<Object>) rawValue);
             }
-        } else if (getRawValue() instanceof Map) {
+        } else if (rawValue instanceof Map) {
             // TODO java.util.Map support
             this.collectionType = CollectionType.MAP;
-            this.collectionValues = Arrays.asList(Map.class.cast(getRawValue()).values().toArray());
+            this.collectionValues = new IteratorView(((Map<?, Object>) rawValue).values());
         } else {
             this.collectionType = CollectionType.NONE;
         }
@@ -119,7 +120,8 @@ public abstract class JavaChildAccessor {
     }
 
     /**
-     * Gets the collection values.
+     * Gets the collection values. The returned list is a read-only view of the underlying collection
+     * which is best iterated either by {@link List#iterator()} or by ascending index.
      * @return collection values
      * @throws AtlasException unexpected error
      */
@@ -177,4 +179,78 @@ public abstract class JavaChildAccessor {
         return this.collectionValues.size() > pos ? this.collectionValues.get(pos) : null;
     }
 
+    /**
+     * The view of an array. {@code int[]}, {@code long[]}, {@code double[]} and {@code Object[]} are
+     * read directly instead of going through {@link Array#get(Object, int)}.
+     */
+    private static final class ArrayView extends AbstractList<Object> implements RandomAccess {
+        private final Object array;
+        private final int size;
+
+        private ArrayView(Object array) {
+            this.array = array;
+            this.size = Array.getLength(array);
+        }
+
+        @Override
+        public Object get(int index) {
+            if (array instanceof Object[]) {
+                return ((Object[]) array)[index];
+            } else if (array instanceof int[]) {
+                return ((int[]) array)[index];
+            } else if (array instanceof long[]) {
+                return ((long[]) array)[index];
+            } else if (array instanceof double[]) {
+                return ((double[]) array)[index];
+            }
+            return Array.get(array, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The view of a {@link Collection} which doesn't support random access. It keeps the iterator
+     * of the last access so that reading by ascending index doesn't restart the iteration.
+     */
+    private static final class IteratorView extends AbstractList<Object> {
+        private final Collection<Object> collection;
+        private Iterator<Object> cursor;
+        private int cursorIndex;
+        private Object current;
+
+        private IteratorView(Collection<Object> collection) {
+            this.collection = collection;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= collection.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + collection.size());
+            }
+            if (cursor == null || index < cursorIndex) {
+                cursor = collection.iterator();
+                cursorIndex = -1;
+            }
+            while (cursorIndex < index) {
+                current = cursor.next();
+                cursorIndex++;
+            }
+            return current;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return Collections.unmodifiableCollection(collection).iterator();
+        }
+
+        @Override
+        public int size() {
+            return collection.size();
+        }
+    }
+
 }
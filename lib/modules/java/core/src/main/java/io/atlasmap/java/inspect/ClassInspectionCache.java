@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.inspect;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.atlasmap.java.v2.JavaClass;
+
+/**
+ * The process wide cache of {@link JavaClass} inspection results. Inspecting a large class graph
+ * takes a while and the result doesn't change as long as the class is loaded from the same JAR,
+ * so the result is kept per {@link ClassLoader}. The cache key consists of the class name, the
+ * collection type, the inspection options and the checksum of the JAR the class is loaded from.
+ * Cached entries for a {@link ClassLoader} should be dropped by {@link #invalidate(ClassLoader)}
+ * when the libraries it loads from are updated.
+ * <p>
+ * The cached {@link JavaClass} is shared among the callers and must not be modified.
+ * </p>
+ */
+public final class ClassInspectionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassInspectionCache.class);
+    private static final ClassInspectionCache INSTANCE = new ClassInspectionCache();
+
+    private final Map<ClassLoader, Map<String, JavaClass>> inspections = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<String, String> jarChecksums = new ConcurrentHashMap<>();
+
+    /**
+     * A constructor.
+     */
+    public ClassInspectionCache() {
+    }
+
+    /**
+     * Gets the singleton instance.
+     * @return instance
+     */
+    public static ClassInspectionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the cached inspection result.
+     * @param classLoader class loader
+     * @param key cache key created by {@link #createKey(Class, String)}
+     * @return cached inspection result, or null if not cached
+     */
+    public JavaClass get(ClassLoader classLoader, String key) {
+        Map<String, JavaClass> cached = inspections.get(classLoader);
+        return cached != null ? cached.get(key) : null;
+    }
+
+    /**
+     * Puts the inspection result into the cache. If other thread has already put one with the same key,
+     * it returns that one so that all the callers share the same result.
+     * @param classLoader class loader
+     * @param key cache key created by {@link #createKey(Class, String)}
+     * @param javaClass inspection result
+     * @return cached inspection result
+     */
+    public JavaClass put(ClassLoader classLoader, String key, JavaClass javaClass) {
+        Map<String, JavaClass> cached = inspections.computeIfAbsent(classLoader, l -> new ConcurrentHashMap<>());
+        JavaClass existing = cached.putIfAbsent(key, javaClass);
+        return existing != null ? existing : javaClass;
+    }
+
+    /**
+     * Drops all the inspection results for the class loader.
+     * @param classLoader class loader
+     */
+    public void invalidate(ClassLoader classLoader) {
+        inspections.remove(classLoader);
+    }
+
+    /**
+     * Clears the cache.
+     */
+    public void clear() {
+        inspections.clear();
+        jarChecksums.clear();
+    }
+
+    /**
+     * Creates the cache key.
+     * @param clazz inspected class
+     * @param options string representation of the inspection options
+     * @return cache key
+     */
+    public String createKey(Class<?> clazz, String options) {
+        return new StringBuilder(clazz.getName()).append('|').append(options)
+            .append('|').append(getJarChecksum(clazz)).toString();
+    }
+
+    private String getJarChecksum(Class<?> clazz) {
+        File jar = null;
+        try {
+            CodeSource source = clazz.getProtectionDomain().getCodeSource();
+            URL location = source != null ? source.getLocation() : null;
+            if (location == null || !"file".equals(location.getProtocol())) {
+                return "";
+            }
+            jar = new File(location.toURI());
+        } catch (Exception e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Could not determine the location of the class '{}': {}", clazz.getName(), e.getMessage());
+            }
+            return "";
+        }
+        if (!jar.isFile()) {
+            return jar.getPath();
+        }
+        File file = jar;
+        String fileKey = file.getPath() + '|' + file.length() + '|' + file.lastModified();
+        return jarChecksums.computeIfAbsent(fileKey, k -> checksum(file));
+    }
+
+    private static String checksum(File file) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream is = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+                is.transferTo(OutputStream.nullOutputStream());
+            }
+            StringBuilder buf = new StringBuilder();
+            for (byte b : digest.digest()) {
+                buf.append(String.format("%02x", b));
+            }
+            return buf.toString();
+        } catch (Exception e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Could not compute the checksum of '{}': {}", file, e.getMessage());
+            }
+            return file.getPath() + '|' + file.length() + '|' + file.lastModified();
+        }
+    }
+
+}
@@ -27,9 +27,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,6 +82,7 @@ public class ClassInspectionService {
     private Boolean disablePrivateOnlyFields = false;
     private Boolean disablePublicOnlyFields = false;
     private Boolean disablePublicGetterSetterFields = false;
+    private ClassInspectionCache inspectionCache = null;
 
     /**
      * Gets the map classes.
@@ -191,6 +196,22 @@ public class ClassInspectionService {
         this.disablePublicGetterSetterFields = disablePublicGetterSetterFields;
     }
 
+    /**
+     * Gets the inspection cache.
+     * @return inspection cache, or null if the cache is not used
+     */
+    public ClassInspectionCache getInspectionCache() {
+        return inspectionCache;
+    }
+
+    /**
+     * Sets the inspection cache. The inspection results are not cached if it's null.
+     * @param inspectionCache inspection cache
+     */
+    public void setInspectionCache(ClassInspectionCache inspectionCache) {
+        this.inspectionCache = inspectionCache;
+    }
+
     /**
      * Inspects Java class as a Document and return {@link JavaClass} Java Document.
      * @param className class name
@@ -280,7 +301,69 @@ public class ClassInspectionService {
         if (clazz == null) {
             throw new IllegalArgumentException("Class must be specified");
         }
+        if (inspectionCache == null) {
+            return doInspectClass(classLoader, clazz, collectionType, collectionClassName);
+        }
+
+        String key = inspectionCache.createKey(clazz, getOptionsKey(collectionType, collectionClassName));
+        JavaClass answer = inspectionCache.get(classLoader, key);
+        if (answer != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Using cached inspection result of class: " + clazz.getName());
+            }
+            return answer;
+        }
+        answer = doInspectClass(classLoader, clazz, collectionType, collectionClassName);
+        return inspectionCache.put(classLoader, key, answer);
+    }
+
+    /**
+     * Inspects Java classes in parallel and return {@link JavaClass} Java Documents. Each class
+     * is inspected independently, the result is same as invoking
+     * {@link #inspectClass(ClassLoader, String, CollectionType, String)} one by one.
+     * The class which is not found has {@link FieldStatus#NOT_FOUND} status.
+     * @param classLoader class loader
+     * @param classNames class names
+     * @param collectionType collection type
+     * @param collectionClassName collection class name
+     * @return Java Documents keyed by the class name, in the order of {@code classNames}
+     */
+    public Map<String, JavaClass> inspectClasses(ClassLoader classLoader, Collection<String> classNames,
+            CollectionType collectionType, String collectionClassName) {
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(classNames));
+        JavaClass[] results = new JavaClass[names.size()];
+        IntStream.range(0, names.size()).parallel().forEach(i -> {
+            String className = names.get(i);
+            try {
+                results[i] = inspectClass(classLoader, className, collectionType, collectionClassName);
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Class was not found: " + className);
+                }
+                JavaClass notFound = AtlasJavaModelFactory.createJavaClass();
+                notFound.setClassName(className);
+                notFound.setStatus(FieldStatus.NOT_FOUND);
+                results[i] = notFound;
+            }
+        });
+        Map<String, JavaClass> answer = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            answer.put(names.get(i), results[i]);
+        }
+        return answer;
+    }
+
+    private String getOptionsKey(CollectionType collectionType, String collectionClassName) {
+        return new StringBuilder().append(collectionType).append('|').append(collectionClassName)
+            .append('|').append(listClasses).append('|').append(mapClasses)
+            .append('|').append(fieldExclusions).append('|').append(classNameExclusions)
+            .append('|').append(disablePackagePrivateOnlyFields).append(disableProtectedOnlyFields)
+            .append(disablePrivateOnlyFields).append(disablePublicOnlyFields)
+            .append(disablePublicGetterSetterFields).toString();
+    }
 
+    private JavaClass doInspectClass(ClassLoader classLoader, Class<?> clazz, CollectionType collectionType,
+            String collectionClassName) {
         JavaClass javaClass = AtlasJavaModelFactory.createJavaClass();
         javaClass.setCollectionType(collectionType);
         String rootPath = AtlasPath.PATH_SEPARATOR;
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.atlasmap.java.test.BaseOrder;
+import io.atlasmap.java.test.ImmutableTargetAddress;
+import io.atlasmap.java.test.ImmutableTargetContact;
+import io.atlasmap.java.test.TargetContact;
+import io.atlasmap.java.test.TargetFlatPrimitiveClass;
+import io.atlasmap.java.test.TargetOrder;
+import io.atlasmap.java.test.TargetTestClass;
+
+public class JavaClassMetadataTest {
+
+    @Test
+    public void testCached() {
+        JavaClassMetadata metadata = JavaClassMetadata.of(TargetTestClass.class);
+        assertSame(metadata, JavaClassMetadata.of(TargetTestClass.class));
+        assertSame(TargetTestClass.class, metadata.getType());
+        Method getter = metadata.getGetter("name");
+        assertNotNull(getter);
+        assertEquals("getName", getter.getName());
+        assertSame(getter, metadata.getGetter("name"));
+        Method setter = metadata.getSetter("name", null);
+        assertNotNull(setter);
+        assertEquals("setName", setter.getName());
+        assertEquals(setter, metadata.getSetter("name", String.class));
+    }
+
+    @Test
+    public void testNotFound() {
+        JavaClassMetadata metadata = JavaClassMetadata.of(TargetTestClass.class);
+        assertNull(metadata.getGetter("nothing"));
+        assertNull(metadata.getSetter("nothing", null));
+        assertNull(metadata.getField("nothing"));
+        assertNull(metadata.getMappableField("nothing"));
+        assertNull(metadata.getGenericType("nothing"));
+    }
+
+    @Test
+    public void testInheritedField() {
+        JavaClassMetadata metadata = JavaClassMetadata.of(TargetOrder.class);
+        assertNotNull(metadata.getField("orderId"));
+        assertEquals(metadata.getField("orderId"), metadata.getMappableField("orderId"));
+        assertEquals(2, metadata.getMappableClasses().size());
+    }
+
+    @Test
+    public void testGenericType() {
+        Type type = JavaClassMetadata.of(TargetTestClass.class).getGenericType("contactList");
+        assertEquals(TargetContact.class, ((ParameterizedType) type).getActualTypeArguments()[0]);
+        assertEquals(TargetContact[].class,
+                JavaClassMetadata.of(TargetTestClass.class).getGenericType("contactArray"));
+    }
+
+    @Test
+    public void testGetterSetterFunction() {
+        JavaClassMetadata metadata = JavaClassMetadata.of(TargetFlatPrimitiveClass.class);
+        TargetFlatPrimitiveClass target = new TargetFlatPrimitiveClass();
+        Method setter = metadata.getSetter("intField", null);
+        metadata.getSetterFunction(setter).accept(target, 5);
+        assertSame(metadata.getSetterFunction(setter), metadata.getSetterFunction(setter));
+        Method getter = metadata.getGetter("intField");
+        assertEquals(5, metadata.getGetterFunction(getter).apply(target));
+        assertSame(metadata.getGetterFunction(getter), metadata.getGetterFunction(getter));
+    }
+
+    @Test
+    public void testReflectionFallback() {
+        // java.base is not open for the private lookup
+        JavaClassMetadata metadata = JavaClassMetadata.of(ArrayList.class);
+        Method getter = metadata.getGetter("empty");
+        assertEquals(false, metadata.getGetterFunction(getter).apply(new ArrayList<>(Arrays.asList("a"))));
+    }
+
+    @Test
+    public void testInstantiator() {
+        JavaClassMetadata metadata = JavaClassMetadata.of(TargetOrder.class);
+        assertSame(metadata.getInstantiator(), metadata.getInstantiator());
+        Object created = metadata.getInstantiator().get();
+        assertEquals(TargetOrder.class, created.getClass());
+        assertNotSame(created, metadata.getInstantiator().get());
+        assertNull(JavaClassMetadata.of(BaseOrder.class).getInstantiator());
+        assertNull(JavaClassMetadata.of(List.class).getInstantiator());
+    }
+
+    @Test
+    public void testCreator() {
+        assertNull(JavaClassMetadata.of(TargetOrder.class).getCreator());
+        assertNull(JavaClassMetadata.of(BaseOrder.class).getCreator());
+
+        JavaObjectCreator creator = JavaClassMetadata.of(ImmutableTargetAddress.class).getCreator();
+        assertSame(creator, JavaClassMetadata.of(ImmutableTargetAddress.class).getCreator());
+        assertEquals(Arrays.asList("addressLine1", "city", "zipCode"), creator.getPropertyNames());
+        assertEquals(int.class, creator.getPropertyType(creator.indexOf("zipCode")));
+        ImmutableTargetAddress address = (ImmutableTargetAddress) creator.newInstance(new Object[] {"1 Main St", null, null});
+        assertEquals("1 Main St", address.getAddressLine1());
+        assertEquals(0, address.getZipCode());
+
+        creator = JavaClassMetadata.of(ImmutableTargetContact.class).getCreator();
+        // from(), previousAddress(), addAllPreviousAddresses() and non-fluent lastNameHint() are not setters
+        assertEquals(Arrays.asList("address", "firstName", "lastName", "previousAddresses"), creator.getPropertyNames());
+        assertEquals(String.class, creator.getPropertyType(creator.indexOf("firstName")));
+        Type itemType = ((ParameterizedType) creator.getGenericPropertyType(creator.indexOf("previousAddresses")))
+            .getActualTypeArguments()[0];
+        assertEquals(ImmutableTargetAddress.class, itemType);
+        ImmutableTargetContact contact = (ImmutableTargetContact) creator.newInstance(
+            new Object[] {address, "Jane", null, null});
+        assertEquals("Jane", contact.getFirstName());
+        assertSame(address, contact.getAddress());
+        assertEquals(-1, creator.indexOf("build"));
+    }
+
+}
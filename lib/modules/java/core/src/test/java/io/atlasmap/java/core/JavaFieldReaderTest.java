@@ -22,8 +22,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
@@ -192,6 +194,44 @@ public class JavaFieldReaderTest extends BaseJavaFieldReaderTest {
         assertEquals(0, audits.size());
     }
 
+    @Test
+    public void testReadTopmostPrimitiveArray() throws Exception {
+        Object[][] arrays = new Object[][] {
+            {new int[] {1, 2, 3}, FieldType.INTEGER, 2},
+            {new long[] {1L, 2L, 3L}, FieldType.LONG, 2L},
+            {new double[] {1d, 2d, 3d}, FieldType.DOUBLE, 2d},
+            {new short[] {1, 2, 3}, FieldType.SHORT, (short) 2},
+        };
+        for (Object[] array : arrays) {
+            reader.setDocument(array[0]);
+            read("/[1]", (FieldType) array[1]);
+            assertEquals(0, audits.size());
+            assertEquals(array[2], field.getValue());
+            readGroup("/[]", (FieldType) array[1]);
+            assertEquals(0, audits.size());
+            assertEquals(3, fieldGroup.getField().size());
+            assertEquals(array[2], fieldGroup.getField().get(1).getValue());
+            assertEquals("/[2]", fieldGroup.getField().get(2).getPath());
+        }
+    }
+
+    @Test
+    public void testReadTopmostSetString() throws Exception {
+        Set<String> stringSet = new LinkedHashSet<>(Arrays.asList("one", "two", "three"));
+        reader.setDocument(stringSet);
+        read("/<2>", FieldType.STRING);
+        assertEquals(0, audits.size());
+        assertEquals("three", field.getValue());
+        read("/<0>", FieldType.STRING);
+        assertEquals("one", field.getValue());
+        readGroup("/<>", FieldType.STRING);
+        assertEquals(0, audits.size());
+        assertEquals(3, fieldGroup.getField().size());
+        assertEquals("one", fieldGroup.getField().get(0).getValue());
+        assertEquals("two", fieldGroup.getField().get(1).getValue());
+        assertEquals("three", fieldGroup.getField().get(2).getValue());
+    }
+
     @Test
     public void testReadTopmostListString() throws Exception {
         List<String> stringList = Arrays.asList(new String[] {"one", "two"});
@@ -31,12 +31,15 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.java.test.BaseOrder;
+import io.atlasmap.java.test.ImmutableTargetAddress;
+import io.atlasmap.java.test.ImmutableTargetContact;
 import io.atlasmap.java.test.StateEnumClassLong;
 import io.atlasmap.java.test.StringTestClass;
 import io.atlasmap.java.test.TargetAddress;
 import io.atlasmap.java.test.TargetCollectionsClass;
 import io.atlasmap.java.test.TargetContact;
 import io.atlasmap.java.test.TargetFlatPrimitiveClass;
+import io.atlasmap.java.test.TargetImmutableHolder;
 import io.atlasmap.java.test.TargetOrder;
 import io.atlasmap.java.test.TargetOrderArray;
 import io.atlasmap.java.test.TargetTestClass;
@@ -125,6 +128,63 @@ public class JavaFieldWriterTest extends BaseJavaFieldWriterTest {
         assertEquals("boxedString", o.getBoxedStringArrayField()[10]);
     }
 
+    @Test
+    public void testPrimitiveArrayGrowth() throws Exception {
+        writer.setRootObject(new TargetFlatPrimitiveClass());
+        for (int i = 0; i < 100; i++) {
+            write("/intArrayField[" + i + "]", i);
+        }
+        TargetFlatPrimitiveClass o = (TargetFlatPrimitiveClass) writer.getRootObject();
+        int[] grown = o.getIntArrayField();
+        assertTrue(grown.length >= 100);
+        writer.trimArrays();
+        assertEquals(100, o.getIntArrayField().length);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, o.getIntArrayField()[i]);
+        }
+    }
+
+    @Test
+    public void testImmutableTarget() throws Exception {
+        writer.setRootObject(new TargetImmutableHolder());
+        write("/contact/firstName", "Jane");
+        write("/contact/address/city", "Raleigh");
+        write("/contact/address/zipCode", 27601);
+        write("/contact/previousAddresses<1>/city", "Boston");
+        write("/contact/previousAddresses<0>/city", "Austin");
+        write("/addresses[1]/city", "Denver");
+        write("/addresses[0]/addressLine1", "1 Main St");
+        TargetImmutableHolder o = (TargetImmutableHolder) writer.getRootObject();
+        assertNull(o.getContact());
+        writer.trimArrays();
+        writer.completeObjects();
+
+        ImmutableTargetContact contact = o.getContact();
+        assertEquals("Jane", contact.getFirstName());
+        assertNull(contact.getLastName());
+        assertEquals("Raleigh", contact.getAddress().getCity());
+        assertEquals(27601, contact.getAddress().getZipCode());
+        assertEquals(2, contact.getPreviousAddresses().size());
+        assertEquals("Austin", contact.getPreviousAddresses().get(0).getCity());
+        assertEquals("Boston", contact.getPreviousAddresses().get(1).getCity());
+        assertEquals(0, contact.getPreviousAddresses().get(1).getZipCode());
+        assertEquals(2, o.getAddresses().length);
+        assertEquals("1 Main St", o.getAddresses()[0].getAddressLine1());
+        assertEquals("Denver", o.getAddresses()[1].getCity());
+    }
+
+    @Test
+    public void testImmutableRoot() throws Exception {
+        writer.instantiateRootObject(ImmutableTargetAddress.class);
+        write("/city", "Raleigh");
+        write("/zipCode", 27601);
+        writer.completeObjects();
+        ImmutableTargetAddress o = (ImmutableTargetAddress) writer.getRootObject();
+        assertNull(o.getAddressLine1());
+        assertEquals("Raleigh", o.getCity());
+        assertEquals(27601, o.getZipCode());
+    }
+
     @Test
     public void testClassLookupAbstract() throws Exception {
         writer.setRootObject(new TargetTestClass());
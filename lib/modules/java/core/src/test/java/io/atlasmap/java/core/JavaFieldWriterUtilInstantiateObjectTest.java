@@ -26,6 +26,7 @@ import org.junit.jupiter.api.Test;
 
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.core.DefaultAtlasConversionService;
+import io.atlasmap.java.test.ImmutableTargetAddress;
 import io.atlasmap.java.test.SourceAddress;
 import io.atlasmap.java.test.SourceContact;
 import io.atlasmap.java.test.TargetOrder;
@@ -81,6 +82,16 @@ public class JavaFieldWriterUtilInstantiateObjectTest extends BaseJavaFieldWrite
     }
 
 
+    @Test
+    public void testImmutableClass() throws Exception {
+        // an immutable class is instantiated only through its creator by the writer
+        assertThrows(AtlasException.class, () -> {
+            writerUtil.instantiateObject(ImmutableTargetAddress.class);
+        });
+        assertEquals(PendingJavaObject.class, writerUtil.instantiateTargetObject(ImmutableTargetAddress.class).getClass());
+        assertEquals(TargetOrder.class, writerUtil.instantiateTargetObject(TargetOrder.class).getClass());
+    }
+
     @Test
     public void testNullClass() throws Exception {
         assertThrows(AtlasException.class, () -> {
@@ -18,10 +18,14 @@ package io.atlasmap.java.inspect;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +41,7 @@ import io.atlasmap.java.v2.JavaField;
 import io.atlasmap.java.v2.Modifier;
 import io.atlasmap.v2.CollectionType;
 import io.atlasmap.v2.Field;
+import io.atlasmap.v2.FieldStatus;
 import io.atlasmap.v2.FieldType;
 
 public class ClassInspectionServiceTest {
@@ -430,4 +435,39 @@ public class ClassInspectionServiceTest {
             extended.getJavaFields().getJavaField().size()
         );
     }
+
+    @Test
+    public void testInspectionCache() {
+        ClassInspectionCache cache = new ClassInspectionCache();
+        classInspectionService.setInspectionCache(cache);
+        ClassLoader loader = getClass().getClassLoader();
+        JavaClass first = classInspectionService.inspectClass(loader, TargetTestClass.class, CollectionType.NONE, null);
+        assertSame(first, classInspectionService.inspectClass(loader, TargetTestClass.class, CollectionType.NONE, null));
+        assertNotSame(first, classInspectionService.inspectClass(loader, TargetTestClass.class, CollectionType.LIST, null));
+
+        classInspectionService.getFieldExclusions().add("address");
+        JavaClass excluded = classInspectionService.inspectClass(loader, TargetTestClass.class, CollectionType.NONE, null);
+        assertNotSame(first, excluded);
+
+        cache.invalidate(loader);
+        classInspectionService.getFieldExclusions().remove("address");
+        JavaClass reloaded = classInspectionService.inspectClass(loader, TargetTestClass.class, CollectionType.NONE, null);
+        assertNotSame(first, reloaded);
+        assertEquals(first.getJavaFields().getJavaField().size(), reloaded.getJavaFields().getJavaField().size());
+    }
+
+    @Test
+    public void testInspectClasses() {
+        List<String> classNames = Arrays.asList(TargetTestClassExtended.class.getName(), "not.Found",
+            TargetTestClass.class.getName());
+        Map<String, JavaClass> inspected = classInspectionService.inspectClasses(
+            getClass().getClassLoader(), classNames, CollectionType.NONE, null);
+        assertEquals(classNames, new ArrayList<>(inspected.keySet()));
+        assertEquals(FieldStatus.NOT_FOUND, inspected.get("not.Found").getStatus());
+        JavaClass parent = classInspectionService.inspectClass(TargetTestClass.class, CollectionType.NONE, null);
+        assertEquals(parent.getJavaFields().getJavaField().size(),
+            inspected.get(TargetTestClass.class.getName()).getJavaFields().getJavaField().size());
+        assertEquals(TargetTestClassExtended.class.getName(),
+            inspected.get(TargetTestClassExtended.class.getName()).getClassName());
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compiled and run only on JDK 16 or later, see {@code java16-tests} profile.
+ */
+public class JavaRecordWriterTest extends BaseJavaFieldWriterTest {
+
+    public record RecordAddress(String city, int zipCode) {
+    }
+
+    public record RecordContact(String firstName, RecordAddress address, List<RecordAddress> previousAddresses) {
+    }
+
+    public static class RecordHolder {
+        private RecordContact contact;
+
+        public RecordContact getContact() {
+            return contact;
+        }
+
+        public void setContact(RecordContact contact) {
+            this.contact = contact;
+        }
+    }
+
+    @Test
+    public void testCreator() {
+        JavaObjectCreator creator = JavaClassMetadata.of(RecordContact.class).getCreator();
+        assertTrue(creator.isRecord());
+        assertEquals(Arrays.asList("firstName", "address", "previousAddresses"), creator.getPropertyNames());
+        assertEquals(RecordAddress.class, creator.getPropertyType(creator.indexOf("address")));
+    }
+
+    @Test
+    public void testRecordRoot() throws Exception {
+        writer.instantiateRootObject(RecordContact.class);
+        write("/firstName", "Jane");
+        write("/address/city", "Raleigh");
+        write("/address/zipCode", 27601);
+        write("/previousAddresses<1>/city", "Boston");
+        write("/previousAddresses<0>/city", "Austin");
+        writer.completeObjects();
+
+        RecordContact contact = (RecordContact) writer.getRootObject();
+        assertEquals("Jane", contact.firstName());
+        assertEquals(new RecordAddress("Raleigh", 27601), contact.address());
+        assertEquals(Arrays.asList(new RecordAddress("Austin", 0), new RecordAddress("Boston", 0)),
+            contact.previousAddresses());
+    }
+
+    @Test
+    public void testRecordChild() throws Exception {
+        writer.setRootObject(new RecordHolder());
+        write("/contact/address/city", "Raleigh");
+        RecordHolder holder = (RecordHolder) writer.getRootObject();
+        assertNull(holder.getContact());
+        writer.completeObjects();
+
+        assertNull(holder.getContact().firstName());
+        assertEquals(new RecordAddress("Raleigh", 0), holder.getContact().address());
+        assertNull(holder.getContact().previousAddresses());
+    }
+
+}
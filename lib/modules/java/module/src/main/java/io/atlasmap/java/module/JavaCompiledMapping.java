@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.module;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.java.core.JavaFieldWriterUtil;
+import io.atlasmap.spi.AtlasCompiledMapping;
+import io.atlasmap.spi.AtlasConversionService;
+import io.atlasmap.spi.AtlasInternalSession;
+
+/**
+ * The {@link AtlasCompiledMapping} created by {@link JavaMappingCompiler}. It directly invokes the getters
+ * on the source Documents and the setters on the target Documents without creating any
+ * {@link io.atlasmap.v2.Field} nor {@link io.atlasmap.core.AtlasPath}. The target Documents are put into
+ * the session only when all the mappings are processed successfully, otherwise it falls back to
+ * the interpreted mapping process which reports the problem as an audit. A null source value, either
+ * the leaf or an intermediate object, also falls back to the interpreted mapping process.
+ */
+public class JavaCompiledMapping implements AtlasCompiledMapping {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaCompiledMapping.class);
+
+    private final Map<String, Class<?>> sourceClasses;
+    private final Map<String, Class<?>> targetClasses;
+    private final MappingStep[] steps;
+    private final JavaFieldWriterUtil writerUtil;
+    private final AtlasConversionService conversionService;
+
+    JavaCompiledMapping(Map<String, Class<?>> sourceClasses, Map<String, Class<?>> targetClasses,
+            List<MappingStep> steps, JavaFieldWriterUtil writerUtil, AtlasConversionService conversionService) {
+        this.sourceClasses = sourceClasses;
+        this.targetClasses = targetClasses;
+        this.steps = steps.toArray(new MappingStep[0]);
+        this.writerUtil = writerUtil;
+        this.conversionService = conversionService;
+    }
+
+    @Override
+    public boolean process(AtlasInternalSession session) throws AtlasException {
+        try {
+            Map<String, Object> sources = new HashMap<>(sourceClasses.size() * 2);
+            for (Entry<String, Class<?>> entry : sourceClasses.entrySet()) {
+                Object source = session.getSourceDocument(entry.getKey());
+                if (!entry.getValue().isInstance(source)) {
+                    return fallback("source Document '%s' is null or not an instance of '%s'",
+                            entry.getKey(), entry.getValue().getName());
+                }
+                sources.put(entry.getKey(), source);
+            }
+            Map<String, Object> targets = new HashMap<>(targetClasses.size() * 2);
+            for (Entry<String, Class<?>> entry : targetClasses.entrySet()) {
+                targets.put(entry.getKey(), writerUtil.instantiateObject(entry.getValue()));
+            }
+
+            for (MappingStep step : steps) {
+                Object value = readSourceValue(step, sources.get(step.sourceDocId));
+                if (value == null) {
+                    // let the interpreted mapping process handle the null value and its audits
+                    return fallback("source value of '%s' is null", step.sourceDocId);
+                }
+                if (step.convert) {
+                    if (!conversionService.isConvertionAvailableFor(value, step.targetClass)) {
+                        return fallback("no conversion from '%s' to '%s'",
+                                value.getClass().getName(), step.targetClass.getName());
+                    }
+                    value = conversionService.convertType(value, null, step.targetClass, null);
+                }
+                if (value == null || value.getClass() != step.targetClass) {
+                    return fallback("unexpected target value type '%s'", value);
+                }
+
+                Object parent = targets.get(step.targetDocId);
+                for (int i = 0; i < step.targetGetters.size(); i++) {
+                    Object child = step.targetGetters.get(i).apply(parent);
+                    Class<?> childClass = step.targetChildClasses.get(i);
+                    if (child == null) {
+                        child = writerUtil.instantiateObject(childClass);
+                        step.targetSetters.get(i).accept(parent, child);
+                    } else if (child.getClass() != childClass) {
+                        return fallback("unexpected target object type '%s'", child.getClass().getName());
+                    }
+                    parent = child;
+                }
+                step.targetSetter.accept(parent, value);
+            }
+
+            for (Entry<String, Object> entry : targets.entrySet()) {
+                session.setTargetDocument(entry.getKey(), entry.getValue());
+            }
+            return true;
+        } catch (Exception e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Compiled mapping failed, falling back to the interpreted mapping process", e);
+            }
+            return false;
+        }
+    }
+
+    private static Object readSourceValue(MappingStep step, Object source) {
+        Object value = source;
+        for (Function<Object, Object> getter : step.sourceGetters) {
+            value = getter.apply(value);
+            if (value == null) {
+                return null;
+            }
+        }
+        return value;
+    }
+
+    private static boolean fallback(String format, Object... args) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Falling back to the interpreted mapping process - " + String.format(format, args));
+        }
+        return false;
+    }
+
+    /**
+     * A compiled one-to-one mapping.
+     */
+    static class MappingStep {
+        final String sourceDocId;
+        final String targetDocId;
+        final List<Function<Object, Object>> sourceGetters = new ArrayList<>();
+        final List<Function<Object, Object>> targetGetters = new ArrayList<>();
+        final List<BiConsumer<Object, Object>> targetSetters = new ArrayList<>();
+        final List<Class<?>> targetChildClasses = new ArrayList<>();
+        Class<?> sourceClass;
+        Class<?> targetClass;
+        boolean convert;
+        BiConsumer<Object, Object> targetSetter;
+
+        MappingStep(String sourceDocId, String targetDocId) {
+            this.sourceDocId = sourceDocId;
+            this.targetDocId = targetDocId;
+        }
+    }
+
+}
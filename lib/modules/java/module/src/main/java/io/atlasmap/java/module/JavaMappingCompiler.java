@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.module;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.atlasmap.api.AtlasConstants;
+import io.atlasmap.api.AtlasException;
+import io.atlasmap.core.AtlasPath;
+import io.atlasmap.core.AtlasPath.SegmentContext;
+import io.atlasmap.core.AtlasUtil;
+import io.atlasmap.java.core.JavaClassMetadata;
+import io.atlasmap.java.core.JavaFieldWriterUtil;
+import io.atlasmap.java.module.JavaCompiledMapping.MappingStep;
+import io.atlasmap.java.v2.JavaField;
+import io.atlasmap.spi.AtlasCompiledMapping;
+import io.atlasmap.spi.AtlasConversionService;
+import io.atlasmap.spi.AtlasMappingCompiler;
+import io.atlasmap.spi.AtlasModule;
+import io.atlasmap.v2.AtlasMapping;
+import io.atlasmap.v2.BaseMapping;
+import io.atlasmap.v2.CollectionType;
+import io.atlasmap.v2.Field;
+import io.atlasmap.v2.FieldType;
+import io.atlasmap.v2.Mapping;
+import io.atlasmap.v2.MappingType;
+
+/**
+ * The {@link AtlasMappingCompiler} for the mappings between Java Documents. It compiles the mapping definition
+ * only when all the source and target Documents are Java Documents with known classes and all the mappings are
+ * plain one-to-one mappings between non-collection fields which are accessible through the getter and setter
+ * methods, without any field action, expression or lookup table. Otherwise it returns null so that
+ * the interpreted mapping process is used.
+ * <p>
+ * The getter and setter invocations are resolved at compile time into the {@link java.util.function.Function}
+ * and {@link java.util.function.BiConsumer} generated by {@link JavaClassMetadata}, and the type conversion
+ * is skipped when the source value is already assignable to the target type.
+ * </p>
+ */
+public class JavaMappingCompiler implements AtlasMappingCompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaMappingCompiler.class);
+
+    @Override
+    public AtlasCompiledMapping compile(AtlasMapping mapping, Map<String, AtlasModule> sourceModules,
+            Map<String, AtlasModule> targetModules) throws AtlasException {
+        if (mapping == null || mapping.getMappings() == null || mapping.getMappings().getMapping().isEmpty()) {
+            return null;
+        }
+        Map<String, Class<?>> sourceClasses = new HashMap<>();
+        for (Entry<String, AtlasModule> entry : sourceModules.entrySet()) {
+            if (entry.getValue() instanceof JavaModule) {
+                Class<?> clazz = loadDocumentClass((JavaModule) entry.getValue(), false);
+                if (clazz == null) {
+                    return unsupported("source Document '%s' doesn't have a class name", entry.getKey());
+                }
+                sourceClasses.put(entry.getKey(), clazz);
+            } else if (!AtlasConstants.CONSTANTS_DOCUMENT_ID.equals(entry.getKey())
+                    && !AtlasConstants.PROPERTIES_SOURCE_DOCUMENT_ID.equals(entry.getKey())) {
+                return unsupported("source Document '%s' is not a Java Document", entry.getKey());
+            }
+        }
+        Map<String, Class<?>> targetClasses = new HashMap<>();
+        JavaFieldWriterUtil writerUtil = null;
+        for (Entry<String, AtlasModule> entry : targetModules.entrySet()) {
+            if (entry.getValue() instanceof JavaModule) {
+                Class<?> clazz = loadDocumentClass((JavaModule) entry.getValue(), true);
+                if (clazz == null) {
+                    return unsupported("target Document '%s' is not a concrete non-collection class", entry.getKey());
+                }
+                targetClasses.put(entry.getKey(), clazz);
+                writerUtil = new JavaFieldWriterUtil(entry.getValue().getClassLoader(),
+                        entry.getValue().getConversionService());
+            } else if (!AtlasConstants.PROPERTIES_TARGET_DOCUMENT_ID.equals(entry.getKey())) {
+                return unsupported("target Document '%s' is not a Java Document", entry.getKey());
+            }
+        }
+        if (sourceClasses.isEmpty() || targetClasses.isEmpty()) {
+            return null;
+        }
+
+        List<MappingStep> steps = new ArrayList<>();
+        for (BaseMapping baseMapping : mapping.getMappings().getMapping()) {
+            if (!(baseMapping instanceof Mapping)) {
+                return unsupported("mapping type '%s'", baseMapping.getClass().getSimpleName());
+            }
+            Mapping m = (Mapping) baseMapping;
+            if ((m.getMappingType() != null && m.getMappingType() != MappingType.MAP) || m.getExpression() != null
+                    || m.getLookupTableName() != null || m.getInputFieldGroup() != null
+                    || m.getInputField().size() != 1 || m.getOutputField().size() != 1) {
+                return unsupported("mapping other than one-to-one MAP: %s", m.getMappingType());
+            }
+            Field sourceField = m.getInputField().get(0);
+            Field targetField = m.getOutputField().get(0);
+            if (!isPlainJavaField(sourceField) || !isPlainJavaField(targetField)
+                    || targetField.getFieldType() == FieldType.COMPLEX) {
+                return unsupported("field '%s' -> '%s'", sourceField.getPath(), targetField.getPath());
+            }
+            String sourceDocId = resolveDocId(sourceField, AtlasConstants.DEFAULT_SOURCE_DOCUMENT_ID);
+            String targetDocId = resolveDocId(targetField, AtlasConstants.DEFAULT_TARGET_DOCUMENT_ID);
+            if (!sourceClasses.containsKey(sourceDocId) || !targetClasses.containsKey(targetDocId)) {
+                return unsupported("Document '%s' -> '%s'", sourceDocId, targetDocId);
+            }
+            MappingStep step = new MappingStep(sourceDocId, targetDocId);
+            if (!compileSource(step, sourceClasses.get(sourceDocId), sourceField)
+                    || !compileTarget(step, targetClasses.get(targetDocId), (JavaField) targetField,
+                            targetModules.get(targetDocId))) {
+                return unsupported("field '%s' -> '%s'", sourceField.getPath(), targetField.getPath());
+            }
+            steps.add(step);
+        }
+        return new JavaCompiledMapping(sourceClasses, targetClasses, steps, writerUtil,
+                targetModules.values().iterator().next().getConversionService());
+    }
+
+    private boolean compileSource(MappingStep step, Class<?> rootClass, Field sourceField) {
+        List<SegmentContext> segments = getSegments(sourceField.getPath());
+        if (segments == null) {
+            return false;
+        }
+        Class<?> clazz = rootClass;
+        for (SegmentContext segment : segments) {
+            if (clazz.isPrimitive()) {
+                return false;
+            }
+            JavaClassMetadata metadata = JavaClassMetadata.of(clazz);
+            Method getter = metadata.getGetter(segment.getName());
+            if (getter == null || Modifier.isStatic(getter.getModifiers())) {
+                return false;
+            }
+            step.sourceGetters.add(metadata.getGetterFunction(getter));
+            clazz = getter.getReturnType();
+        }
+        if (isCollection(clazz)) {
+            return false;
+        }
+        step.sourceClass = clazz;
+        return true;
+    }
+
+    private boolean compileTarget(MappingStep step, Class<?> rootClass, JavaField targetField, AtlasModule module)
+            throws AtlasException {
+        List<SegmentContext> segments = getSegments(targetField.getPath());
+        if (segments == null) {
+            return false;
+        }
+        AtlasConversionService conversionService = module.getConversionService();
+        Class<?> clazz = rootClass;
+        for (SegmentContext segment : segments.subList(0, segments.size() - 1)) {
+            JavaClassMetadata metadata = JavaClassMetadata.of(clazz);
+            Method getter = metadata.getGetter(segment.getName());
+            Method setter = metadata.getSetter(segment.getName(), null);
+            if (getter == null || setter == null) {
+                return false;
+            }
+            clazz = setter.getParameterTypes()[0];
+            if (!isInstantiable(clazz)) {
+                return false;
+            }
+            step.targetGetters.add(metadata.getGetterFunction(getter));
+            step.targetSetters.add(metadata.getSetterFunction(setter));
+            step.targetChildClasses.add(clazz);
+        }
+
+        // resolve the target value class as TargetValueConverter does
+        String name = segments.get(segments.size() - 1).getName();
+        JavaClassMetadata metadata = JavaClassMetadata.of(clazz);
+        Class<?> targetClass;
+        String targetClassName = targetField.getClassName();
+        if (targetClassName == null) {
+            FieldType fieldType = targetField.getFieldType();
+            if (fieldType == null) {
+                Method setter = metadata.getSetter(name, null);
+                if (setter == null) {
+                    return false;
+                }
+                fieldType = conversionService.fieldTypeFromClass(setter.getParameterTypes()[0]);
+            }
+            if (fieldType == null || fieldType == FieldType.COMPLEX) {
+                return false;
+            }
+            targetClass = conversionService.classFromFieldType(fieldType);
+        } else if (conversionService.isPrimitive(targetClassName)) {
+            targetClass = conversionService.boxOrUnboxPrimitive(targetClassName);
+        } else {
+            try {
+                targetClass = module.getClassLoader().loadClass(targetClassName);
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+        if (targetClass == null || isCollection(targetClass)) {
+            return false;
+        }
+
+        Method setter = metadata.getSetter(name, targetClass);
+        if (setter == null && (conversionService.isPrimitive(targetClass)
+                || conversionService.isBoxedPrimitive(targetClass))) {
+            setter = metadata.getSetter(name, conversionService.boxOrUnboxPrimitive(targetClass));
+        }
+        if (setter == null) {
+            return false;
+        }
+        Class<?> paramType = setter.getParameterTypes()[0];
+        if (paramType.isPrimitive()) {
+            paramType = conversionService.boxOrUnboxPrimitive(paramType);
+        }
+        if (!paramType.isAssignableFrom(targetClass)) {
+            return false;
+        }
+        Class<?> sourceClass = step.sourceClass.isPrimitive()
+                ? conversionService.boxOrUnboxPrimitive(step.sourceClass) : step.sourceClass;
+        step.convert = !targetClass.isAssignableFrom(sourceClass);
+        step.targetClass = targetClass;
+        step.targetSetter = metadata.getSetterFunction(setter);
+        return true;
+    }
+
+    private static List<SegmentContext> getSegments(String path) {
+        if (path == null) {
+            return null;
+        }
+        List<SegmentContext> segments = new ArrayList<>(new AtlasPath(path).getSegments(true));
+        if (segments.isEmpty() || !segments.get(0).isRoot()
+                || segments.get(0).getCollectionType() != CollectionType.NONE) {
+            return null;
+        }
+        segments.remove(0);
+        if (segments.isEmpty()) {
+            return null;
+        }
+        for (SegmentContext segment : segments) {
+            if (segment.getCollectionType() != CollectionType.NONE || segment.isAttribute()) {
+                return null;
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isPlainJavaField(Field field) {
+        return field.getClass() == JavaField.class && field.getIndex() == null
+                && (field.getActions() == null || field.getActions().isEmpty());
+    }
+
+    private static boolean isInstantiable(Class<?> clazz) {
+        return !clazz.isPrimitive() && !clazz.isArray() && !clazz.isInterface() && !isCollection(clazz)
+                && !Modifier.isAbstract(clazz.getModifiers())
+                && (clazz.getEnclosingClass() == null || Modifier.isStatic(clazz.getModifiers()))
+                && JavaClassMetadata.of(clazz).getCreator() == null;
+    }
+
+    private static boolean isCollection(Class<?> clazz) {
+        return clazz.isArray() || Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz);
+    }
+
+    private static String resolveDocId(Field field, String defaultDocId) {
+        return field.getDocId() == null || field.getDocId().isEmpty() ? defaultDocId : field.getDocId();
+    }
+
+    private static Class<?> loadDocumentClass(JavaModule module, boolean target) {
+        String className = AtlasUtil.unescapeFromUri(AtlasUtil.getUriParameterValue(module.getUri(), "className"));
+        String collectionType = AtlasUtil.getUriParameterValue(module.getUri(), "collectionType");
+        if (className == null || (collectionType != null
+                && CollectionType.fromValue(AtlasUtil.unescapeFromUri(collectionType)) != CollectionType.NONE)) {
+            return null;
+        }
+        try {
+            Class<?> clazz = module.getClassLoader().loadClass(className);
+            return target && !isInstantiable(clazz) ? null : clazz;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static AtlasCompiledMapping unsupported(String format, Object... args) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Not compiling the mapping - unsupported " + String.format(format, args));
+        }
+        return null;
+    }
+
+}
@@ -16,6 +16,7 @@
 package io.atlasmap.java.module;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -26,6 +27,7 @@ import io.atlasmap.api.AtlasValidationException;
 import io.atlasmap.core.AtlasPath;
 import io.atlasmap.core.AtlasUtil;
 import io.atlasmap.core.BaseAtlasModule;
+import io.atlasmap.java.core.JavaClassMetadata;
 import io.atlasmap.java.core.JavaFieldReader;
 import io.atlasmap.java.core.JavaFieldWriter;
 import io.atlasmap.java.core.JavaFieldWriterUtil;
@@ -35,6 +37,7 @@ import io.atlasmap.java.v2.JavaEnumField;
 import io.atlasmap.java.v2.JavaField;
 import io.atlasmap.spi.AtlasInternalSession;
 import io.atlasmap.spi.AtlasModuleDetail;
+import io.atlasmap.spi.AtlasModuleMode;
 import io.atlasmap.v2.AtlasModelFactory;
 import io.atlasmap.v2.AuditStatus;
 import io.atlasmap.v2.CollectionType;
@@ -64,15 +67,40 @@ public class JavaModule extends BaseAtlasModule {
     }
 
     @Override
-    public void init() {
-        writerUtil = new JavaFieldWriterUtil(getClassLoader(), getConversionService());
-        targetValueConverter = new TargetValueConverter(getClassLoader(), getConversionService(), writerUtil);
+    public void init() throws AtlasException {
+        super.init();
+        List<Object> key = Arrays.asList(getClassLoader(), getConversionService());
+        JavaFieldWriterUtil util = acquireMetadata(JavaFieldWriterUtil.class.getName(), key,
+            () -> new JavaFieldWriterUtil(getClassLoader(), getConversionService()));
+        writerUtil = util;
+        targetValueConverter = acquireMetadata(TargetValueConverter.class.getName(), key,
+            () -> new TargetValueConverter(getClassLoader(), getConversionService(), util));
+        if (getDataSource() != null && getMode() == AtlasModuleMode.TARGET) {
+            resolveTargetCreators(util);
+        }
+    }
+
+    private void resolveTargetCreators(JavaFieldWriterUtil util) {
+        String targetClassName = AtlasUtil.unescapeFromUri(AtlasUtil.getUriParameterValue(getUri(), "className"));
+        if (targetClassName == null) {
+            return;
+        }
+        try {
+            // resolve the record and builder creators of the target object graph up front
+            JavaClassMetadata.resolveCreators(util.loadClass(targetClassName));
+        } catch (AtlasException e) {
+            // reported when the target document is created
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("{}: Could not resolve the target creators: {}", getDocId(), e.getMessage());
+            }
+        }
     }
 
     @Override
-    public void destroy() {
+    public void destroy() throws AtlasException {
         targetValueConverter = null;
         writerUtil = null;
+        super.destroy();
     }
 
     @Override
@@ -128,7 +156,6 @@ public class JavaModule extends BaseAtlasModule {
             throw new AtlasException("AtlasSession not properly intialized with a mapping that contains field mappings");
         }
 
-        Object rootObject;
         String targetClassName = AtlasUtil.unescapeFromUri(AtlasUtil.getUriParameterValue(getUri(), "className"));
         String collectionTypeStr = AtlasUtil.unescapeFromUri(AtlasUtil.getUriParameterValue(getUri(), "collectionType"));
         CollectionType collectionType = collectionTypeStr != null ? CollectionType.fromValue(collectionTypeStr) : CollectionType.NONE;
@@ -137,18 +164,17 @@ public class JavaModule extends BaseAtlasModule {
         JavaFieldWriter writer = new JavaFieldWriter(this.writerUtil);
         Class<?> clazz = writerUtil.loadClass(targetClassName);
         if (collectionType == CollectionType.ARRAY) {
-            rootObject = Array.newInstance(clazz, 0);
+            writer.setRootObject(Array.newInstance(clazz, 0));
         } else if (collectionType != CollectionType.NONE) {
             if (collectionClassName != null) {
-                rootObject = writerUtil.instantiateObject(writerUtil.loadClass(collectionClassName));
+                writer.setRootObject(writerUtil.instantiateObject(writerUtil.loadClass(collectionClassName)));
             } else {
-                rootObject = writerUtil.instantiateObject(writerUtil.getDefaultCollectionImplClass(collectionType));
+                writer.setRootObject(writerUtil.instantiateObject(writerUtil.getDefaultCollectionImplClass(collectionType)));
             }
             writer.setCollectionItemClass(clazz);
         } else {
-            rootObject = writerUtil.instantiateObject(clazz);
+            writer.instantiateRootObject(clazz);
         }
-        writer.setRootObject(rootObject);
         writer.setTargetValueConverter(targetValueConverter);
         atlasSession.setFieldWriter(getDocId(), writer);
 
@@ -288,6 +314,10 @@ public class JavaModule extends BaseAtlasModule {
     @Override
     public void processPostTargetExecution(AtlasInternalSession session) throws AtlasException {
         JavaFieldWriter writer = session.getFieldWriter(getDocId(), JavaFieldWriter.class);
+        if (writer != null) {
+            writer.trimArrays();
+            writer.completeObjects();
+        }
         if (writer != null && writer.getRootObject() != null) {
             session.setTargetDocument(getDocId(), writer.getRootObject());
         } else {
@@ -17,6 +17,9 @@ package io.atlasmap.java.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -36,10 +39,12 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import io.atlasmap.core.DefaultAtlasConversionService;
+import io.atlasmap.java.inspect.ClassInspectionCache;
 import io.atlasmap.java.inspect.ClassInspectionService;
 import io.atlasmap.java.v2.ClassInspectionRequest;
 import io.atlasmap.java.v2.ClassInspectionResponse;
 import io.atlasmap.java.v2.JavaClass;
+import io.atlasmap.service.AtlasLibraryLoader;
 import io.atlasmap.service.AtlasService;
 import io.atlasmap.v2.Json;
 import io.swagger.v3.oas.annotations.Operation;
@@ -57,6 +62,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 public class JavaService {
 
     private static final Logger LOG = LoggerFactory.getLogger(JavaService.class);
+    private static final Set<AtlasLibraryLoader> CACHED_LOADERS = Collections.newSetFromMap(new WeakHashMap<>());
 
     @Context
     private ResourceContext resourceContext;
@@ -133,6 +139,7 @@ public class JavaService {
             JavaClass c = null;
             if (request.getClasspath() == null || request.getClasspath().isEmpty()) {
                 AtlasService atlasService = resourceContext.getResource(AtlasService.class);
+                classInspectionService.setInspectionCache(getInspectionCache(atlasService.getLibraryLoader()));
                 c = classInspectionService.inspectClass(
                         atlasService.getLibraryLoader(),
                         request.getClassName(),
@@ -157,6 +164,22 @@ public class JavaService {
         return Response.ok().entity(toJson(response)).build();
     }
 
+    /**
+     * Gets the inspection cache for the library loader. The cached inspection results
+     * are dropped when the libraries are updated.
+     * @param loader library loader
+     * @return inspection cache
+     */
+    protected ClassInspectionCache getInspectionCache(AtlasLibraryLoader loader) {
+        ClassInspectionCache cache = ClassInspectionCache.getInstance();
+        synchronized (CACHED_LOADERS) {
+            if (CACHED_LOADERS.add(loader)) {
+                loader.addListener(l -> cache.invalidate(l));
+            }
+        }
+        return cache;
+    }
+
     /**
      * Maps inspection parameters from the request to the inspection service.
      * @param classInspectionService inspection service
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.test;
+
+import java.beans.ConstructorProperties;
+
+public final class ImmutableTargetAddress {
+
+    private final String addressLine1;
+    private final String city;
+    private final int zipCode;
+
+    @ConstructorProperties({"addressLine1", "city", "zipCode"})
+    public ImmutableTargetAddress(String addressLine1, String city, int zipCode) {
+        this.addressLine1 = addressLine1;
+        this.city = city;
+        this.zipCode = zipCode;
+    }
+
+    public String getAddressLine1() {
+        return addressLine1;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public int getZipCode() {
+        return zipCode;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableTargetAddress [addressLine1=" + addressLine1 + ", city=" + city + ", zipCode=" + zipCode + "]";
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class ImmutableTargetContact {
+
+    private final String firstName;
+    private final String lastName;
+    private final ImmutableTargetAddress address;
+    private final List<ImmutableTargetAddress> previousAddresses;
+
+    private ImmutableTargetContact(Builder builder) {
+        this.firstName = builder.firstName;
+        this.lastName = builder.lastName;
+        this.address = builder.address;
+        this.previousAddresses = builder.previousAddresses != null
+            ? Collections.unmodifiableList(builder.previousAddresses) : Collections.emptyList();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public ImmutableTargetAddress getAddress() {
+        return address;
+    }
+
+    public List<ImmutableTargetAddress> getPreviousAddresses() {
+        return previousAddresses;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableTargetContact [firstName=" + firstName + ", lastName=" + lastName + ", address=" + address
+                + ", previousAddresses=" + previousAddresses + "]";
+    }
+
+    public static final class Builder {
+        private String firstName;
+        private String lastName;
+        private ImmutableTargetAddress address;
+        private List<ImmutableTargetAddress> previousAddresses;
+
+        private Builder() {
+        }
+
+        public Builder from(ImmutableTargetContact other) {
+            this.firstName = other.firstName;
+            this.lastName = other.lastName;
+            this.address = other.address;
+            this.previousAddresses = other.previousAddresses;
+            return this;
+        }
+
+        public Builder firstName(CharSequence firstName) {
+            this.firstName = firstName != null ? firstName.toString() : null;
+            return this;
+        }
+
+        public Builder firstName(String firstName) {
+            this.firstName = firstName;
+            return this;
+        }
+
+        public Builder lastName(String lastName) {
+            this.lastName = lastName;
+            return this;
+        }
+
+        public Builder address(ImmutableTargetAddress address) {
+            this.address = address;
+            return this;
+        }
+
+        public Builder previousAddresses(List<ImmutableTargetAddress> previousAddresses) {
+            this.previousAddresses = previousAddresses;
+            return this;
+        }
+
+        public Builder previousAddress(ImmutableTargetAddress previousAddress) {
+            if (this.previousAddresses == null) {
+                this.previousAddresses = new ArrayList<>();
+            }
+            this.previousAddresses.add(previousAddress);
+            return this;
+        }
+
+        public Builder addAllPreviousAddresses(List<ImmutableTargetAddress> previousAddresses) {
+            if (this.previousAddresses == null) {
+                this.previousAddresses = new ArrayList<>();
+            }
+            this.previousAddresses.addAll(previousAddresses);
+            return this;
+        }
+
+        public void lastNameHint(String lastName) {
+            this.lastName = lastName;
+        }
+
+        public ImmutableTargetContact build() {
+            return new ImmutableTargetContact(this);
+        }
+    }
+
+}
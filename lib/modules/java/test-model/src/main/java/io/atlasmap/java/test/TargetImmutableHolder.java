@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.java.test;
+
+import java.util.Arrays;
+
+public class TargetImmutableHolder {
+
+    private ImmutableTargetContact contact;
+    private ImmutableTargetAddress[] addresses;
+
+    public ImmutableTargetContact getContact() {
+        return contact;
+    }
+
+    public void setContact(ImmutableTargetContact contact) {
+        this.contact = contact;
+    }
+
+    public ImmutableTargetAddress[] getAddresses() {
+        return addresses;
+    }
+
+    public void setAddresses(ImmutableTargetAddress[] addresses) {
+        this.addresses = addresses;
+    }
+
+    @Override
+    public String toString() {
+        return "TargetImmutableHolder [contact=" + contact + ", addresses=" + Arrays.toString(addresses) + "]";
+    }
+
+}
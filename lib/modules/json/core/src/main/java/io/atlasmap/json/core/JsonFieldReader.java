@@ -113,8 +113,7 @@ public class JsonFieldReader implements AtlasFieldReader {
                 if (field instanceof JsonEnumField && field.getFieldType() == FieldType.COMPLEX) {
                     jsonField.setFieldType(FieldType.STRING); // enum has COMPLEX by default
                 }
-                Object value = handleValueNode(session, node, jsonField);
-                jsonField.setValue(value);
+                populateValue(session, node, jsonField);
                 jsonField.setIndex(null); //reset index for subfields
                 fields.add(jsonField);
             }
@@ -194,8 +193,7 @@ public class JsonFieldReader implements AtlasFieldReader {
                 if (child instanceof FieldGroup) {
                     populateChildFields(session, childNode, (FieldGroup)child, childPath);
                 } else {
-                    Object value = handleValueNode(session, childNode, (JsonField)child);
-                    child.setValue(value);
+                    populateValue(session, childNode, (JsonField)child);
                 }
                 newChildren.add(child);
             }
@@ -225,14 +223,39 @@ public class JsonFieldReader implements AtlasFieldReader {
             } else {
                 JsonField itemField = AtlasJsonModelFactory.cloneField((JsonField)field, false);
                 itemField.setPath(itemPath.toString());
-                Object value = handleValueNode(session, arrayNode.get(i), itemField);
-                itemField.setValue(value);
+                populateValue(session, arrayNode.get(i), itemField);
                 group.getField().add(itemField);
             }
         }
         return group;
     }
 
+    /**
+     * Sets the value of the node into the field. The int, long, double and boolean values are kept in
+     * the primitive slots of the field so that they're not boxed.
+     */
+    private void populateValue(AtlasInternalSession session, JsonNode valueNode, JsonField jsonField) throws AtlasException {
+        FieldType type = jsonField.getFieldType();
+        if (type != null && jsonField.getFormat() != null) {
+            jsonField.setValue(handleValueNode(session, valueNode, jsonField));
+        } else if (valueNode.isInt() && (type == null || type == FieldType.INTEGER)) {
+            jsonField.setFieldType(FieldType.INTEGER);
+            jsonField.setIntegerValue(valueNode.intValue());
+        } else if (valueNode.isLong() && (type == null || type == FieldType.LONG)) {
+            jsonField.setFieldType(FieldType.LONG);
+            jsonField.setLongValue(valueNode.longValue());
+        } else if (valueNode.isDouble()
+                && (type == null || (type == FieldType.DOUBLE && Double.isFinite(valueNode.doubleValue())))) {
+            jsonField.setFieldType(FieldType.DOUBLE);
+            jsonField.setDoubleValue(valueNode.doubleValue());
+        } else if (valueNode.isBoolean() && (type == null || type == FieldType.BOOLEAN)) {
+            jsonField.setFieldType(FieldType.BOOLEAN);
+            jsonField.setBooleanValue(valueNode.booleanValue());
+        } else {
+            jsonField.setValue(handleValueNode(session, valueNode, jsonField));
+        }
+    }
+
     private Object handleValueNode(AtlasInternalSession session, JsonNode valueNode, JsonField jsonField) throws AtlasException {
         if (valueNode.isNull()) {
             return null;
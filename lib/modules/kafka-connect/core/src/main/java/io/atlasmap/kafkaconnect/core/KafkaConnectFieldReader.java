@@ -16,9 +16,9 @@
 package io.atlasmap.kafkaconnect.core;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +27,7 @@ import io.atlasmap.api.AtlasException;
 import io.atlasmap.core.AtlasPath;
 import io.atlasmap.core.AtlasPath.SegmentContext;
 import io.atlasmap.core.AtlasUtil;
+import io.atlasmap.kafkaconnect.core.KafkaConnectSchemaPaths.FieldChain;
 import io.atlasmap.kafkaconnect.v2.AtlasKafkaConnectModelFactory;
 import io.atlasmap.kafkaconnect.v2.KafkaConnectField;
 import io.atlasmap.spi.AtlasConversionService;
@@ -49,6 +50,8 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
     private AtlasConversionService conversionService;
     private Object root;
     private org.apache.kafka.connect.data.Schema schema;
+    private KafkaConnectSchemaPaths.Cache pathsCache;
+    private KafkaConnectSchemaPaths paths;
 
     @SuppressWarnings("unused")
     private KafkaConnectFieldReader() {
@@ -73,8 +76,12 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
             return field;
         }
 
+        Schema rootSchema = root instanceof Struct ? ((Struct) root).schema() : schema;
+        if (paths == null || paths.getSchema() != rootSchema) {
+            paths = pathsCache != null ? pathsCache.get(rootSchema) : new KafkaConnectSchemaPaths(rootSchema);
+        }
         AtlasPath path = new AtlasPath(field.getPath());
-         List<Field> fields;
+        List<Field> fields;
         if (path.getSegments(true).size() == 1) {
             if (field.getFieldType() == FieldType.COMPLEX) {
                 FieldGroup group = (FieldGroup) field;
@@ -88,7 +95,7 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
                 fields = createValueFields(root, path.getRootSegment(), 0, (KafkaConnectField)field);
             }
         } else {
-            fields = getFieldsForPath(session, root, field, path, 0);
+            fields = getFieldsForPath(session, root, field, path, paths.resolve(field.getPath()), 0);
         }
         
         if (path.hasCollection() && !path.isIndexedCollection()) {
@@ -115,20 +122,20 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
             return;
         }
 
-        List<Field> processed = new LinkedList<>();
-        for (int index=0; index<collection.size(); index++) {
+        List<Field> processed = new ArrayList<>(collection.size());
+        int index = 0;
+        for (Object item : collection) {
             FieldGroup itemGroup = AtlasKafkaConnectModelFactory.cloneFieldGroup(parent);
-            AtlasPath.setCollectionIndexRecursively(itemGroup, depth, index);
+            AtlasPath.setCollectionIndexRecursively(itemGroup, depth, index++);
             processed.add(itemGroup);
-            Struct struct = (Struct) collection.get(index);
-            populateChildFields(session, struct, itemGroup);
+            populateChildFields(session, (Struct) item, itemGroup);
         }
         parent.getField().clear();
         parent.getField().addAll(processed);
     }
 
     private List<Field> createValueFields(Object parent, SegmentContext segment, int segmentIndex, KafkaConnectField parentField) throws AtlasException {
-        List<Field> fields = new LinkedList<>();
+        List<Field> fields = new ArrayList<>();
         if (segment.getCollectionType() == CollectionType.NONE) {
             KafkaConnectField kcField = AtlasKafkaConnectModelFactory.cloneField(parentField, true);
             Object converted = conversionService.convertType(parent, parentField.getFormat(),
@@ -147,22 +154,24 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
             fields.add(kcField);
         } else {
             List<Object> collection = (List<Object>) parent;
-            for (int i=0; i<collection.size(); i++) {
+            AtlasPath path = new AtlasPath(parentField.getPath());
+            int i = 0;
+            for (Object item : collection) {
                 KafkaConnectField kcField = AtlasKafkaConnectModelFactory.cloneField(parentField, true);
-                Object converted = conversionService.convertType(collection.get(i), parentField.getFormat(),
+                Object converted = conversionService.convertType(item, parentField.getFormat(),
                     parentField.getFieldType(), null);
                 kcField.setValue(converted);
                 kcField.setIndex(null); //reset index for subfields
                 fields.add(kcField);
-                AtlasPath path = new AtlasPath(parentField.getPath());
-                path.setCollectionIndex(segmentIndex, i);
+                path.setCollectionIndex(segmentIndex, i++);
                 kcField.setPath(path.toString());
             }
         }
         return fields;
     }
 
-    private List<Field> getFieldsForPath(AtlasInternalSession session, Object parent, Field field, AtlasPath path, int depth) throws AtlasException {
+    private List<Field> getFieldsForPath(AtlasInternalSession session, Object parent, Field field, AtlasPath path,
+            FieldChain chain, int depth) throws AtlasException {
         List<Field> fields = new ArrayList<>();
         List<SegmentContext> segments = path.getSegments(true);
         if (parent == null) {
@@ -197,15 +206,14 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
                 depth = 1; //skip the root, if not a collection
             }
             segmentContext = segments.get(depth);
-            String fieldName = segmentContext.getName();
-            child = ((Struct)parent).get(fieldName);
+            child = chain.get((Struct)parent, depth);
             if (segmentContext.getCollectionType() != CollectionType.NONE) {
                 collectionChild = (List<Object>) child;
             }
         }
 
         if (segmentContext.getCollectionType() == CollectionType.NONE) {
-            List<Field> childFields = getFieldsForPath(session, child, field, path, depth + 1);
+            List<Field> childFields = getFieldsForPath(session, child, field, path, chain, depth + 1);
             fields.addAll(childFields);
             return fields;
         }
@@ -216,25 +224,28 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
                 //index out of range
                 return fields;
             }
-            List<Field> arrayFields = getFieldsForPath(session, collectionChild.get(segmentContext.getCollectionIndex()), field, path, depth + 1);
+            List<Field> arrayFields = getFieldsForPath(session, collectionChild.get(segmentContext.getCollectionIndex()),
+                field, path, chain, depth + 1);
             fields.addAll(arrayFields);
         } else {
             //if index not included, iterate over all
-            for (int i=0; i<collectionChild.size(); i++) {
+            AtlasPath itemPath = path.clone();
+            int i = 0;
+            for (Object item : collectionChild) {
                 Field itemField;
+                itemPath.setCollectionIndex(depth, i);
                 if (field instanceof FieldGroup) {
                     itemField = AtlasKafkaConnectModelFactory.cloneFieldGroup((FieldGroup)field);
                     AtlasPath.setCollectionIndexRecursively((FieldGroup)itemField, depth, i);
                 } else {
                     itemField = AtlasKafkaConnectModelFactory.cloneField((KafkaConnectField)field, false);
-                    AtlasPath itemPath = new AtlasPath(field.getPath());
-                    itemPath.setCollectionIndex(depth, i);
                     itemField.setPath(itemPath.toString());
-                 }
-                 List<Field> arrayFields = getFieldsForPath(
-                    session, collectionChild.get(i), itemField, new AtlasPath(itemField.getPath()), depth + 1);
+                }
+                List<Field> arrayFields = getFieldsForPath(
+                    session, item, itemField, itemPath, chain, depth + 1);
                 fields.addAll(arrayFields);
-        }
+                i++;
+            }
         }
         return fields;
 
@@ -244,9 +255,10 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
      throws AtlasException {
         List<Field> newChildren = new ArrayList<>();
         for (Field child : fieldGroup.getField()) {
-            AtlasPath childPath = new AtlasPath(child.getPath());
-            Object childValue = parent.get(childPath.getLastSegment().getName());
-            if (childPath.getLastSegment().getCollectionType() != CollectionType.NONE) {
+            FieldChain chain = paths.resolve(child.getPath());
+            int last = chain.size() - 1;
+            Object childValue = chain.get(parent, last);
+            if (chain.isCollection(last)) {
                 FieldGroup childGroup = populateCollectionItems(session, (List<Object>)childValue, child);
                 newChildren.add(childGroup);
             } else {
@@ -267,23 +279,25 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
     private FieldGroup populateCollectionItems(AtlasInternalSession session, List<Object> values, Field field)
      throws AtlasException {
         FieldGroup group = AtlasModelFactory.createFieldGroupFrom(field, true);
-        for (int i=0; i<values.size(); i++) {
-            AtlasPath itemPath = new AtlasPath(group.getPath());
-            List<SegmentContext> segments = itemPath.getSegments(true);
-            itemPath.setCollectionIndex(segments.size() - 1, i);
+        AtlasPath itemPath = new AtlasPath(group.getPath());
+        int last = itemPath.getSegments(true).size() - 1;
+        int i = 0;
+        for (Object value : values) {
+            itemPath.setCollectionIndex(last, i);
             if (field instanceof FieldGroup) {
                 FieldGroup itemGroup = AtlasKafkaConnectModelFactory.cloneFieldGroup((FieldGroup)field);
-                AtlasPath.setCollectionIndexRecursively(itemGroup, segments.size() - 1, i);
-                populateChildFields(session, (Struct)values.get(i), itemGroup);
+                AtlasPath.setCollectionIndexRecursively(itemGroup, last, i);
+                populateChildFields(session, (Struct)value, itemGroup);
                 group.getField().add(itemGroup);
             } else {
                 KafkaConnectField itemField = AtlasKafkaConnectModelFactory.cloneField((KafkaConnectField)field, false);
                 itemField.setPath(itemPath.toString());
-                Object converted = conversionService.convertType(values.get(i), itemField.getFormat(),
+                Object converted = conversionService.convertType(value, itemField.getFormat(),
                     itemField.getFieldType(), null);
                 itemField.setValue(converted);
                 group.getField().add(itemField);
             }
+            i++;
         }
         return group;
     }
@@ -305,4 +319,13 @@ public class KafkaConnectFieldReader implements AtlasFieldReader {
         this.schema = schema;
     }
 
+    /**
+     * Sets the cache of the resolved paths shared among the sessions, which is looked up
+     * with the schema the document is built with.
+     * @param cache cache
+     */
+    public void setSchemaPathsCache(KafkaConnectSchemaPaths.Cache cache) {
+        this.pathsCache = cache;
+    }
+
 }
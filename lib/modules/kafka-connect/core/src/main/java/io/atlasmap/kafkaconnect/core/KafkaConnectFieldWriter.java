@@ -15,10 +15,10 @@
  */
 package io.atlasmap.kafkaconnect.core;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.ListIterator;
 
-import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.slf4j.LoggerFactory;
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import io.atlasmap.api.AtlasException;
 import io.atlasmap.core.AtlasPath;
 import io.atlasmap.core.AtlasPath.SegmentContext;
+import io.atlasmap.kafkaconnect.core.KafkaConnectSchemaPaths.FieldChain;
 import io.atlasmap.spi.AtlasConversionService;
 import io.atlasmap.spi.AtlasFieldWriter;
 import io.atlasmap.spi.AtlasInternalSession;
@@ -42,6 +43,12 @@ public class KafkaConnectFieldWriter implements AtlasFieldWriter {
     private AtlasConversionService conversionService;
     private Object root = null;
     private org.apache.kafka.connect.data.Schema schema;
+    private boolean schemaEnforced;
+    private KafkaConnectSchemaPaths schemaPaths;
+    private KafkaConnectSchemaPaths.Cache schemaPathsCache;
+    private boolean deferredValidation;
+    private int collectionSizeHint;
+    private int collectionSizeHintSegment = -1;
 
     /**
      * A constructor.
@@ -52,19 +59,78 @@ public class KafkaConnectFieldWriter implements AtlasFieldWriter {
     }
 
     /**
-     * Gets the Document.
+     * Gets the Document. If the deferred validation is enabled, this builds the {@link Struct}s
+     * from the collected values, which validates each value once. Then it should be invoked
+     * after all the fields are written.
      * @return Document
      */
     public Object getDocument() {
+        if (deferredValidation && root != null) {
+            root = toConnect(root, schema);
+        }
         return root;
     }
 
     /**
-     * Sets the schema.
+     * Sets the schema. {@link KafkaConnectUtil#enforceDefaultOrOptional(Schema)} is applied to the schema
+     * on the first write.
      * @param schema schema
      */
     public void setSchema(org.apache.kafka.connect.data.Schema schema) {
+        setSchema(schema, false);
+    }
+
+    /**
+     * Sets the schema.
+     * @param schema schema
+     * @param enforced true if {@link KafkaConnectUtil#enforceDefaultOrOptional(Schema)} is already applied
+     * to the schema, e.g. by the module once for all the sessions
+     */
+    public void setSchema(org.apache.kafka.connect.data.Schema schema, boolean enforced) {
         this.schema = schema;
+        this.schemaEnforced = enforced;
+    }
+
+    /**
+     * Sets the cache of the resolved paths shared among the sessions, which is looked up
+     * with the schema set to this writer.
+     * @param cache cache
+     */
+    public void setSchemaPathsCache(KafkaConnectSchemaPaths.Cache cache) {
+        this.schemaPathsCache = cache;
+    }
+
+    /**
+     * Sets whether to defer the validation. {@link Struct#put(org.apache.kafka.connect.data.Field, Object)}
+     * validates the value for each write. If this is enabled, the values are collected without
+     * validation and the {@link Struct}s are built and validated once by {@link #getDocument()}.
+     * @param deferred true to defer the validation, or false
+     */
+    public void setDeferredValidation(boolean deferred) {
+        this.deferredValidation = deferred;
+    }
+
+    /**
+     * Sets the expected number of the collection items to be written, which is used as an initial
+     * capacity of the collection at the first collection segment of the path. The other collections,
+     * e.g. the nested ones created for each item, are created with the default capacity.
+     * @param path path of the fields to be written, or null if unknown
+     * @param size expected size, or 0 if unknown
+     */
+    public void setCollectionSizeHint(String path, int size) {
+        this.collectionSizeHint = size;
+        this.collectionSizeHintSegment = -1;
+        if (path == null || size <= 0) {
+            return;
+        }
+        List<SegmentContext> segments = new AtlasPath(path).getSegments(true);
+        for (int i = 0; i < segments.size(); i++) {
+            CollectionType type = segments.get(i).getCollectionType();
+            if (type != null && type != CollectionType.NONE) {
+                this.collectionSizeHintSegment = i;
+                return;
+            }
+        }
     }
 
     @Override
@@ -82,40 +148,48 @@ public class KafkaConnectFieldWriter implements AtlasFieldWriter {
                     + targetField.getValue());
         }
 
+        // the schema is never null here, which is rejected above
+        if (!schemaEnforced) {
+            KafkaConnectUtil.enforceDefaultOrOptional(schema);
+            schemaEnforced = true;
+        }
+        if (schemaPaths == null || schemaPaths.getSchema() != schema) {
+            schemaPaths = schemaPathsCache != null ? schemaPathsCache.get(schema) : new KafkaConnectSchemaPaths(schema);
+        }
         AtlasPath path = new AtlasPath(targetField.getPath());
-        this.root = writeSegment(path, 0, root, schema, targetField);
+        FieldChain chain = schemaPaths.resolve(targetField.getPath());
+        this.root = writeSegment(path.getSegments(true), chain, 0, root, schema, targetField);
     }
 
-    private Object writeSegment(AtlasPath path, int index, Object parent, Schema parentSchema, Field field) throws AtlasException {
+    private Object writeSegment(List<SegmentContext> segments, FieldChain chain, int index, Object parent,
+            Schema parentSchema, Field field) throws AtlasException {
         Object answer;
         Schema schema;
-        List<SegmentContext> segments = path.getSegments(true);
         SegmentContext segment = segments.get(index);
+        org.apache.kafka.connect.data.Field connectField = index > 0 ? getConnectField(chain, index) : null;
         // terminal field
         if (segments.size() == index + 1) {
             if (segment.getCollectionType() != CollectionType.NONE) {
-                List<Object> collection = new LinkedList<Object>();
-                if (parent == null) {
+                List<Object> collection;
+                if (index == 0) {
+                    collection = parent != null ? (List<Object>) parent : newCollection(index);
                     answer = collection;
                 } else {
-                    Object array = ((Struct)parent).get(segment.getName());
-                    if (array == null) {
-                        ((Struct)parent).put(segment.getName(), collection);
-                    } else {
-                        collection = (List<Object>) array;
+                    collection = (List<Object>) getValue(parent, connectField);
+                    if (collection == null) {
+                        collection = newCollection(index);
+                        putValue(parent, connectField, collection);
                     }
                     answer = parent;
                 }
                 int pos = segment.getCollectionIndex();
-                while (collection.size() < pos + 1) {
-                    collection.add(null);
-                }
+                padCollection(collection, pos);
                 collection.set(pos, field.getValue());
             } else {
-                if (parent == null) {
+                if (index == 0) {
                     answer = field.getValue();
                 } else {
-                    ((Struct)parent).put(segment.getName(), field.getValue());
+                    putValue(parent, connectField, field.getValue());
                     answer = parent;
                 }
             }
@@ -127,74 +201,117 @@ public class KafkaConnectFieldWriter implements AtlasFieldWriter {
         // non-collection segment
         if (segment.getCollectionType() == null || segment.getCollectionType() == CollectionType.NONE) {
             if (index == 0) {
-                answer = root != null ? root : new Struct(enforceDefaultOrOptional(parentSchema));
+                answer = root != null ? root : newStruct(parentSchema);
                 schema = parentSchema;
             } else {
-                schema = parentSchema.field(segment.getName()).schema();
-                if (((Struct)parent).getStruct(segment.getName()) == null) {
-                    ((Struct)parent).put(segment.getName(), new Struct(schema));
+                schema = connectField.schema();
+                answer = getValue(parent, connectField);
+                if (answer == null) {
+                    answer = newStruct(schema);
+                    putValue(parent, connectField, answer);
                 }
-                answer = ((Struct)parent).getStruct(segment.getName());
             }
-            writeSegment(path, index + 1, answer, schema, field);
+            writeSegment(segments, chain, index + 1, answer, schema, field);
             return answer;
         }
 
         // collection segment
         List<Object> array;
         if (index == 0) {
-            array = root != null ? (List<Object>)root : new LinkedList<Object>();
-            schema = enforceDefaultOrOptional(parentSchema.valueSchema());
+            array = root != null ? (List<Object>)root : newCollection(index);
+            schema = parentSchema.valueSchema();
         } else {
-            schema = parentSchema.field(segment.getName()).schema().valueSchema();
-            array = ((Struct) parent).getArray(segment.getName());
+            schema = connectField.schema().valueSchema();
+            array = (List<Object>) getValue(parent, connectField);
             if (array == null) {
-                array = new LinkedList<>();
-                ((Struct) parent).put(segment.getName(), array);
+                array = newCollection(index);
+                putValue(parent, connectField, array);
             }
         }
         int pos = segment.getCollectionIndex();
-        while (array.size() < pos + 1) {
-            array.add(null);
-        }
+        padCollection(array, pos);
         if (array.get(pos) == null) {
-            array.set(pos, new Struct(schema));
+            array.set(pos, newStruct(schema));
         }
-        writeSegment(path, index + 1, array.get(pos), schema, field);
+        writeSegment(segments, chain, index + 1, array.get(pos), schema, field);
         return array;
     }
 
+    private org.apache.kafka.connect.data.Field getConnectField(FieldChain chain, int index) throws AtlasException {
+        org.apache.kafka.connect.data.Field connectField = chain.getField(index);
+        if (connectField == null) {
+            throw new AtlasException(String.format("Field '%s' is not found in the Kafka Connect schema",
+                chain.getName(index)));
+        }
+        return connectField;
+    }
+
+    private List<Object> newCollection(int segmentIndex) {
+        int capacity = getInitialCapacity(segmentIndex);
+        return capacity > 0 ? new ArrayList<>(capacity) : new ArrayList<>();
+    }
+
     /**
-     * Dirty hack. In current Kafka Connect implementation, <code>Struct#put()</code> throws an Exception
-     * if non-optional child doesn't have a value.
-     * @param schema
-     * @return modified schema
+     * Gets the initial capacity of the collection created at the segment.
+     * @param segmentIndex segment index
+     * @return initial capacity, or 0 for the default
      */
-    private Schema enforceDefaultOrOptional(Schema schema) {
-        if (!schema.isOptional() && schema.defaultValue() == null) {
-            LOG.warn("Enforcing schema to be optional since there is no default value. "
-                + "It is recommended to either 1) define a default value or 2) set it optional in the Kafka Connect schema.");
-            try {
-                java.lang.reflect.Field optionalField = ConnectSchema.class.getDeclaredField("optional");
-                optionalField.setAccessible(true);
-                optionalField.setBoolean(schema, true);
-            } catch (Exception e) {
-                LOG.warn("", e);
+    int getInitialCapacity(int segmentIndex) {
+        return segmentIndex == collectionSizeHintSegment ? collectionSizeHint : 0;
+    }
+
+    private void padCollection(List<Object> collection, int pos) {
+        if (collection.size() > pos) {
+            return;
+        }
+        if (collection instanceof ArrayList) {
+            ((ArrayList<Object>) collection).ensureCapacity(pos + 1);
+        }
+        while (collection.size() < pos + 1) {
+            collection.add(null);
+        }
+    }
+
+    private Object newStruct(Schema structSchema) {
+        return deferredValidation ? new Object[structSchema.fields().size()] : new Struct(structSchema);
+    }
+
+    private Object getValue(Object parent, org.apache.kafka.connect.data.Field connectField) {
+        if (parent instanceof Struct) {
+            return ((Struct) parent).get(connectField);
+        }
+        return ((Object[]) parent)[connectField.index()];
+    }
+
+    private void putValue(Object parent, org.apache.kafka.connect.data.Field connectField, Object value) {
+        if (parent instanceof Struct) {
+            ((Struct) parent).put(connectField, value);
+        } else {
+            ((Object[]) parent)[connectField.index()] = value;
+        }
+    }
+
+    private Object toConnect(Object value, Schema valueSchema) {
+        if (value instanceof Object[]) {
+            Object[] values = (Object[]) value;
+            Struct struct = new Struct(valueSchema);
+            for (org.apache.kafka.connect.data.Field connectField : valueSchema.fields()) {
+                Object child = values[connectField.index()];
+                if (child != null) {
+                    struct.put(connectField, toConnect(child, connectField.schema()));
+                }
+            }
+            return struct;
+        }
+        if (value instanceof List && valueSchema.type() == Schema.Type.ARRAY) {
+            ListIterator<Object> it = ((List<Object>) value).listIterator();
+            while (it.hasNext()) {
+                Object item = it.next();
+                if (item instanceof Object[]) {
+                    it.set(toConnect(item, valueSchema.valueSchema()));
+                }
             }
         }
-        switch (schema.type()) {
-            case ARRAY:
-                enforceDefaultOrOptional(schema.valueSchema());
-                break;
-            case STRUCT:
-                schema.fields().forEach(f -> enforceDefaultOrOptional(f.schema()));
-                break;
-            case MAP:
-                enforceDefaultOrOptional(schema.keySchema());
-                enforceDefaultOrOptional(schema.valueSchema());
-                break;
-            default:
-        }
-        return schema;
+        return value;
     }
 }
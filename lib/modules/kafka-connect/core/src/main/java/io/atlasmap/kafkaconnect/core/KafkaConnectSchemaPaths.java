@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.kafkaconnect.core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+import io.atlasmap.core.AtlasPath;
+import io.atlasmap.core.AtlasPath.SegmentContext;
+import io.atlasmap.v2.CollectionType;
+
+/**
+ * Resolves the field paths against a Kafka Connect {@link Schema} into the chains of
+ * {@link Field}, so that the {@link Struct} values are accessed by the field index instead of
+ * looking up the field name for each value. The resolved chains are cached by the path
+ * without collection indexes, so the instance could be shared among the sessions.
+ */
+public class KafkaConnectSchemaPaths {
+
+    private final Schema schema;
+    private final Map<String, FieldChain> chains = new ConcurrentHashMap<>();
+
+    /**
+     * A constructor.
+     * @param schema schema, or null if not available
+     */
+    public KafkaConnectSchemaPaths(Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Gets the schema.
+     * @return schema
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Resolves the path.
+     * @param path path
+     * @return resolved chain
+     */
+    public FieldChain resolve(String path) {
+        String key = stripCollectionIndexes(path);
+        FieldChain chain = chains.get(key);
+        if (chain == null) {
+            chain = chains.computeIfAbsent(key, k -> new FieldChain(schema, new AtlasPath(path)));
+        }
+        return chain;
+    }
+
+    private static String stripCollectionIndexes(String path) {
+        if (path.indexOf(AtlasPath.PATH_LIST_START) == -1 && path.indexOf(AtlasPath.PATH_ARRAY_START) == -1) {
+            return path;
+        }
+        StringBuilder buf = new StringBuilder(path.length());
+        boolean inIndex = false;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (inIndex && c >= '0' && c <= '9') {
+                continue;
+            }
+            inIndex = c == '<' || c == '[';
+            buf.append(c);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * The chain of {@link Field} resolved from the path. The element at the index 0 represents
+     * the root, which doesn't have a corresponding {@link Field}. The element is null if the
+     * segment could not be resolved against the schema.
+     */
+    public static final class FieldChain {
+        private final Field[] fields;
+        private final Schema[] parents;
+        private final String[] names;
+        private final boolean[] collections;
+
+        private FieldChain(Schema schema, AtlasPath path) {
+            List<SegmentContext> segments = path.getSegments(true);
+            int size = segments.size();
+            this.fields = new Field[size];
+            this.parents = new Schema[size];
+            this.names = new String[size];
+            this.collections = new boolean[size];
+            Schema parent = schema;
+            for (int i = 0; i < size; i++) {
+                SegmentContext segment = segments.get(i);
+                names[i] = segment.getName();
+                collections[i] = segment.getCollectionType() != null
+                    && segment.getCollectionType() != CollectionType.NONE;
+                Schema current = parent;
+                if (i > 0) {
+                    Field field = parent != null && parent.type() == Schema.Type.STRUCT
+                        ? parent.field(names[i]) : null;
+                    fields[i] = field;
+                    parents[i] = field != null ? parent : null;
+                    current = field != null ? field.schema() : null;
+                }
+                parent = current != null && collections[i] ? current.valueSchema() : current;
+            }
+        }
+
+        /**
+         * Gets the number of the segments including root.
+         * @return size
+         */
+        public int size() {
+            return fields.length;
+        }
+
+        /**
+         * Gets the resolved field.
+         * @param index segment index
+         * @return field, or null if it's not resolved
+         */
+        public Field getField(int index) {
+            return fields[index];
+        }
+
+        /**
+         * Gets the segment name.
+         * @param index segment index
+         * @return name
+         */
+        public String getName(int index) {
+            return names[index];
+        }
+
+        /**
+         * Gets if the segment is a collection.
+         * @param index segment index
+         * @return true if it's a collection, or false
+         */
+        public boolean isCollection(int index) {
+            return collections[index];
+        }
+
+        /**
+         * Gets the value of the segment from the parent {@link Struct}. This falls back to the lookup
+         * by name if the {@link Struct} is not built with the resolved schema.
+         * @param parent parent
+         * @param index segment index
+         * @return value
+         */
+        public Object get(Struct parent, int index) {
+            Field field = fields[index];
+            if (field != null && parent.schema() == parents[index]) {
+                return parent.get(field);
+            }
+            return parent.get(names[index]);
+        }
+    }
+
+    /**
+     * Holds the {@link KafkaConnectSchemaPaths} of the recently used schemas, so that a document built
+     * with another schema instance than the one parsed by the module, e.g. a record passed to the SMT,
+     * doesn't resolve the paths again for each record. The schema is looked up by identity since
+     * the schema equality compares the whole schema tree. The least recently used one is
+     * evicted when it exceeds the maximum size.
+     */
+    public static final class Cache {
+        private final Map<SchemaKey, KafkaConnectSchemaPaths> entries;
+
+        /**
+         * A constructor.
+         * @param maxSize the maximum number of the schemas to hold
+         */
+        public Cache(int maxSize) {
+            this.entries = new LinkedHashMap<SchemaKey, KafkaConnectSchemaPaths>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SchemaKey, KafkaConnectSchemaPaths> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * Gets the resolved paths of the schema, or creates them if not cached.
+         * @param schema schema
+         * @return resolved paths
+         */
+        public synchronized KafkaConnectSchemaPaths get(Schema schema) {
+            SchemaKey key = new SchemaKey(schema);
+            KafkaConnectSchemaPaths answer = entries.get(key);
+            if (answer == null) {
+                answer = new KafkaConnectSchemaPaths(schema);
+                entries.put(key, answer);
+            }
+            return answer;
+        }
+
+        /**
+         * Gets the number of the cached schemas.
+         * @return size
+         */
+        public synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    private static final class SchemaKey {
+        private final Schema schema;
+
+        private SchemaKey(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SchemaKey && ((SchemaKey) obj).schema == schema;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(schema);
+        }
+    }
+
+}
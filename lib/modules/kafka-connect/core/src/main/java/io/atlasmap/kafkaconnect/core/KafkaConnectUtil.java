@@ -18,10 +18,13 @@ package io.atlasmap.kafkaconnect.core;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema.Type;
 import org.apache.kafka.connect.json.JsonConverter;
 import org.apache.kafka.connect.json.JsonConverterConfig;
 import org.apache.kafka.connect.storage.StringConverterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -35,6 +38,7 @@ import io.atlasmap.v2.FieldType;
  * A collection of utility methods for Kafka Connect module.
  */
 public class KafkaConnectUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaConnectUtil.class);
 
     /**
      * Converts Kafka Connect from {@link Type} to AtlasMap {@link FieldType}.
@@ -119,4 +123,43 @@ public class KafkaConnectUtil {
         options.put(StringConverterConfig.TYPE_CONFIG, isKey ? "key" : "value");
         return options;
     }
+
+    /**
+     * Dirty hack. In current Kafka Connect implementation, <code>Struct#put()</code> throws an Exception
+     * if non-optional child doesn't have a value. This makes the schema and all its descendants optional
+     * if they don't have a default value. The schema is modified in place, so it should be done only once
+     * for a schema, e.g. when the module is initialized.
+     * @param schema schema, or null to skip
+     * @return modified schema, or null if the schema is null
+     */
+    public static org.apache.kafka.connect.data.Schema enforceDefaultOrOptional(org.apache.kafka.connect.data.Schema schema) {
+        if (schema == null) {
+            return null;
+        }
+        if (!schema.isOptional() && schema.defaultValue() == null) {
+            LOG.warn("Enforcing schema to be optional since there is no default value. "
+                + "It is recommended to either 1) define a default value or 2) set it optional in the Kafka Connect schema.");
+            try {
+                java.lang.reflect.Field optionalField = ConnectSchema.class.getDeclaredField("optional");
+                optionalField.setAccessible(true);
+                optionalField.setBoolean(schema, true);
+            } catch (Exception e) {
+                LOG.warn("", e);
+            }
+        }
+        switch (schema.type()) {
+            case ARRAY:
+                enforceDefaultOrOptional(schema.valueSchema());
+                break;
+            case STRUCT:
+                schema.fields().forEach(f -> enforceDefaultOrOptional(f.schema()));
+                break;
+            case MAP:
+                enforceDefaultOrOptional(schema.keySchema());
+                enforceDefaultOrOptional(schema.valueSchema());
+                break;
+            default:
+        }
+        return schema;
+    }
 }
@@ -16,10 +16,13 @@
 package io.atlasmap.kafkaconnect.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.kafka.connect.data.Schema;
@@ -72,6 +75,30 @@ public class KafkaConnectFieldWriterTest {
         });
     }
 
+    @Test
+    public void testWriteWithoutSchema() throws Exception {
+        KafkaConnectField f = AtlasKafkaConnectModelFactory.createKafkaConnectField();
+        f.setPath("/f0");
+        f.setValue("val");
+        AtlasException e = assertThrows(AtlasException.class, () -> {
+            write(f);
+        });
+        assertEquals("Kafka Connect schema must be set to write Kafka Connect object", e.getMessage());
+        assertNull(KafkaConnectUtil.enforceDefaultOrOptional(null));
+    }
+
+    @Test
+    public void testWritePrimitiveRoot() throws Exception {
+        Schema schema = SchemaBuilder.string().build();
+        writer.setSchema(schema);
+        KafkaConnectField f = AtlasKafkaConnectModelFactory.createKafkaConnectField();
+        f.setPath("/");
+        f.setValue("val");
+        write(f);
+        assertEquals("val", writer.getDocument());
+        assertTrue(schema.isOptional());
+    }
+
     @Test
     public void testWriteRoot() throws Exception {
         writer.setSchema(rootSchema);
@@ -133,6 +160,88 @@ public class KafkaConnectFieldWriterTest {
         assertRoot((Struct)root.get(2), "/<2>", 2);
     }
 
+    @Test
+    public void testWriteRootWithDeferredValidation() throws Exception {
+        writer.setSchema(rootSchema);
+        writer.setDeferredValidation(true);
+        writeRoot("", 0);
+        Struct root = (Struct) writer.getDocument();
+        root.validate();
+        assertRoot(root, "", 0);
+    }
+
+    @Test
+    public void testWriteCollectionRootWithDeferredValidation() throws Exception {
+        writer.setSchema(SchemaBuilder.array(rootSchema).build());
+        writer.setDeferredValidation(true);
+        writeRoot("/<0>", 0);
+        writeRoot("/<1>", 1);
+        List<Object> root = (List<Object>) writer.getDocument();
+        assertEquals(2, root.size());
+        assertRoot((Struct)root.get(0), "/<0>", 0);
+        assertRoot((Struct)root.get(1), "/<1>", 1);
+    }
+
+    @Test
+    public void testWriteCollectionWithSizeHint() throws Exception {
+        writer.setSchema(rootSchema);
+        writer.setCollectionSizeHint("/fl0<>", 100);
+        for (int i=99; i>=0; i--) {
+            KafkaConnectField fl0 = AtlasKafkaConnectModelFactory.createKafkaConnectField();
+            fl0.setPath("/fl0<" + i + ">");
+            fl0.setValue("fl0val-" + i);
+            write(fl0);
+        }
+        List<Object> fl0 = ((Struct) writer.getDocument()).getArray("fl0");
+        assertTrue(fl0 instanceof ArrayList);
+        assertEquals(100, fl0.size());
+        for (int i=0; i<100; i++) {
+            assertEquals("fl0val-" + i, fl0.get(i));
+        }
+    }
+
+    @Test
+    public void testWriteNestedCollectionWithSizeHint() throws Exception {
+        Schema itemSchema = SchemaBuilder.struct()
+            .field("values", SchemaBuilder.array(Schema.STRING_SCHEMA).build())
+            .build();
+        Schema schema = SchemaBuilder.struct()
+            .field("items", SchemaBuilder.array(itemSchema).build())
+            .build();
+        writer.setSchema(schema);
+        writer.setCollectionSizeHint("/items<>/values<>", 50);
+        // only the group's own collection is pre-sized, not the nested one created for each item
+        assertEquals(0, writer.getInitialCapacity(0));
+        assertEquals(50, writer.getInitialCapacity(1));
+        assertEquals(0, writer.getInitialCapacity(2));
+        for (int i = 0; i < 50; i++) {
+            KafkaConnectField value = AtlasKafkaConnectModelFactory.createKafkaConnectField();
+            value.setPath("/items<" + i + ">/values<0>");
+            value.setValue("value-" + i);
+            write(value);
+        }
+        List<Object> items = ((Struct) writer.getDocument()).getArray("items");
+        assertEquals(50, items.size());
+        for (int i = 0; i < 50; i++) {
+            List<Object> values = ((Struct) items.get(i)).getArray("values");
+            assertEquals(1, values.size());
+            assertEquals("value-" + i, values.get(0));
+        }
+        writer.setCollectionSizeHint(null, 0);
+        assertEquals(0, writer.getInitialCapacity(1));
+    }
+
+    @Test
+    public void testWriteUnknownField() throws Exception {
+        writer.setSchema(rootSchema);
+        KafkaConnectField f = AtlasKafkaConnectModelFactory.createKafkaConnectField();
+        f.setPath("/unknown");
+        f.setValue("val");
+        assertThrows(AtlasException.class, () -> {
+            write(f);
+        });
+    }
+
     private void write(Field field) throws Exception {
         AtlasInternalSession session = mock(AtlasInternalSession.class);
         when(session.head()).thenReturn(mock(Head.class));
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.kafkaconnect.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+
+import io.atlasmap.kafkaconnect.core.KafkaConnectSchemaPaths.FieldChain;
+
+public class KafkaConnectSchemaPathsTest {
+
+    private static final Schema ITEM_SCHEMA = SchemaBuilder.struct()
+        .field("f0", Schema.STRING_SCHEMA)
+        .field("f1", Schema.INT32_SCHEMA)
+        .build();
+    private static final Schema ROOT_SCHEMA = SchemaBuilder.struct()
+        .field("f0", Schema.STRING_SCHEMA)
+        .field("fcl0", SchemaBuilder.array(ITEM_SCHEMA).build())
+        .build();
+
+    @Test
+    public void testResolve() throws Exception {
+        KafkaConnectSchemaPaths paths = new KafkaConnectSchemaPaths(ROOT_SCHEMA);
+        FieldChain chain = paths.resolve("/fcl0<0>/f1");
+        assertEquals(3, chain.size());
+        assertNull(chain.getField(0));
+        assertSame(ROOT_SCHEMA.field("fcl0"), chain.getField(1));
+        assertTrue(chain.isCollection(1));
+        assertSame(ITEM_SCHEMA.field("f1"), chain.getField(2));
+        assertFalse(chain.isCollection(2));
+        assertSame(chain, paths.resolve("/fcl0<12>/f1"));
+        assertSame(chain, paths.resolve("/fcl0<>/f1"));
+    }
+
+    @Test
+    public void testResolveUnknown() throws Exception {
+        KafkaConnectSchemaPaths paths = new KafkaConnectSchemaPaths(ROOT_SCHEMA);
+        FieldChain chain = paths.resolve("/unknown/f0");
+        assertNull(chain.getField(1));
+        assertNull(chain.getField(2));
+        assertEquals("f0", chain.getName(2));
+    }
+
+    @Test
+    public void testGetWithOtherSchema() throws Exception {
+        KafkaConnectSchemaPaths paths = new KafkaConnectSchemaPaths(ROOT_SCHEMA);
+        FieldChain chain = paths.resolve("/fcl0<0>/f1");
+        Struct item = new Struct(ITEM_SCHEMA).put("f0", "v0").put("f1", 1);
+        assertEquals(1, chain.get(item, 2));
+        Schema other = SchemaBuilder.struct()
+            .field("f1", Schema.INT32_SCHEMA)
+            .field("f0", Schema.STRING_SCHEMA)
+            .build();
+        Struct otherItem = new Struct(other).put("f0", "v0").put("f1", 2);
+        assertEquals(2, chain.get(otherItem, 2));
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        KafkaConnectSchemaPaths.Cache cache = new KafkaConnectSchemaPaths.Cache(2);
+        KafkaConnectSchemaPaths paths = cache.get(ROOT_SCHEMA);
+        assertSame(ROOT_SCHEMA, paths.getSchema());
+        assertSame(paths, cache.get(ROOT_SCHEMA));
+        // an equal but different schema instance gets its own paths
+        Schema copy = SchemaBuilder.struct()
+            .field("f0", Schema.STRING_SCHEMA)
+            .field("fcl0", SchemaBuilder.array(ITEM_SCHEMA).build())
+            .build();
+        assertEquals(ROOT_SCHEMA, copy);
+        KafkaConnectSchemaPaths copyPaths = cache.get(copy);
+        assertNotSame(paths, copyPaths);
+        assertSame(copy, copyPaths.getSchema());
+        assertEquals(2, cache.size());
+        // the least recently used one is evicted
+        cache.get(ROOT_SCHEMA);
+        cache.get(ITEM_SCHEMA);
+        assertEquals(2, cache.size());
+        assertSame(paths, cache.get(ROOT_SCHEMA));
+        assertNotSame(copyPaths, cache.get(copy));
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package io.atlasmap.kafkaconnect.module;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -29,6 +31,7 @@ import io.atlasmap.core.AtlasUtil;
 import io.atlasmap.core.BaseAtlasModule;
 import io.atlasmap.kafkaconnect.core.KafkaConnectFieldReader;
 import io.atlasmap.kafkaconnect.core.KafkaConnectFieldWriter;
+import io.atlasmap.kafkaconnect.core.KafkaConnectSchemaPaths;
 import io.atlasmap.kafkaconnect.core.KafkaConnectUtil;
 import io.atlasmap.kafkaconnect.v2.AtlasKafkaConnectModelFactory;
 import io.atlasmap.kafkaconnect.v2.KafkaConnectConstants;
@@ -37,6 +40,7 @@ import io.atlasmap.kafkaconnect.v2.KafkaConnectField;
 import io.atlasmap.kafkaconnect.v2.KafkaConnectSchemaType;
 import io.atlasmap.spi.AtlasInternalSession;
 import io.atlasmap.spi.AtlasModuleDetail;
+import io.atlasmap.spi.AtlasModuleMode;
 import io.atlasmap.v2.AtlasModelFactory;
 import io.atlasmap.v2.AuditStatus;
 import io.atlasmap.v2.DataSourceMetadata;
@@ -52,9 +56,14 @@ import io.atlasmap.v2.Validations;
         "kafkaconnect" }, configPackages = { "io.atlasmap.kafkaconnect.v2" })
 public class KafkaConnectModule extends BaseAtlasModule {
     private static final Logger LOG = LoggerFactory.getLogger(KafkaConnectModule.class);
+    /** The number of the schema instances to keep the resolved paths for, e.g. the schema versions of the records. */
+    private static final int SCHEMA_PATHS_CACHE_SIZE = 16;
 
     private boolean isKey;
     private Type rootSchemaType;
+    private boolean deferredValidation;
+    private org.apache.kafka.connect.data.Schema schema;
+    private final KafkaConnectSchemaPaths.Cache schemaPathsCache = new KafkaConnectSchemaPaths.Cache(SCHEMA_PATHS_CACHE_SIZE);
 
     @Override
     public void init() throws AtlasException {
@@ -63,6 +72,37 @@ public class KafkaConnectModule extends BaseAtlasModule {
         rootSchemaType = typeStr != null ? Type.valueOf(typeStr) : Type.STRUCT;
         String isKeyStr = AtlasUtil.unescapeFromUri(AtlasUtil.getUriParameterValue(getUri(), "isKey"));
         isKey = isKeyStr != null ? Boolean.parseBoolean(isKeyStr) : false;
+        String deferredValidationStr = AtlasUtil.unescapeFromUri(
+            AtlasUtil.getUriParameterValue(getUri(), "deferredValidation"));
+        deferredValidation = deferredValidationStr != null ? Boolean.parseBoolean(deferredValidationStr) : false;
+        this.schema = null;
+        DataSourceMetadata meta = getDataSourceMetadata();
+        if (meta == null || meta.getSpecification() == null) {
+            return;
+        }
+        try {
+            this.schema = acquireMetadata(org.apache.kafka.connect.data.Schema.class.getName(),
+                Arrays.asList(ByteBuffer.wrap(meta.getSpecification()), meta.getInspectionParameters(), getMode()),
+                () -> {
+                    org.apache.kafka.connect.data.Schema parsed = extractSchema(meta);
+                    return parsed != null && getMode() == AtlasModuleMode.TARGET
+                        ? KafkaConnectUtil.enforceDefaultOrOptional(parsed) : parsed;
+                });
+        } catch (Exception e) {
+            LOG.warn("Failed to load Kafka Connect schema for the document '{}': {} - ignoring",
+                getDocId(), e.getMessage());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("", e);
+            }
+        }
+    }
+
+    /**
+     * Gets the Kafka Connect schema parsed from the data source metadata on initialization.
+     * @return schema, or null if not available
+     */
+    public org.apache.kafka.connect.data.Schema getSchema() {
+        return schema;
     }
 
     @Override
@@ -94,7 +134,8 @@ public class KafkaConnectModule extends BaseAtlasModule {
         Object sourceDocument = session.getSourceDocument(getDocId());
         KafkaConnectFieldReader fieldReader = new KafkaConnectFieldReader(getConversionService());
         fieldReader.setDocument(sourceDocument);
-        fieldReader.setSchema(extractSchema(getDataSourceMetadata()));
+        fieldReader.setSchema(schema);
+        fieldReader.setSchemaPathsCache(schemaPathsCache);
         session.setFieldReader(getDocId(), fieldReader);
 
         if (LOG.isDebugEnabled()) {
@@ -129,7 +170,9 @@ public class KafkaConnectModule extends BaseAtlasModule {
     @Override
     public void processPreTargetExecution(AtlasInternalSession session) throws AtlasException {
         KafkaConnectFieldWriter writer = new KafkaConnectFieldWriter(getConversionService());
-        writer.setSchema(extractSchema(getDataSourceMetadata()));
+        writer.setSchema(schema, true);
+        writer.setSchemaPathsCache(schemaPathsCache);
+        writer.setDeferredValidation(deferredValidation);
         session.setFieldWriter(getDocId(), writer);
 
         if (LOG.isDebugEnabled()) {
@@ -237,9 +280,14 @@ public class KafkaConnectModule extends BaseAtlasModule {
         if (session.head().getTargetField() instanceof FieldGroup) {
             FieldGroup targetFieldGroup = (FieldGroup) session.head().getTargetField();
             if (targetFieldGroup.getField().size() > 0) {
-                for (Field f : targetFieldGroup.getField()) {
-                    session.head().setTargetField(f);
-                    writer.write(session);
+                writer.setCollectionSizeHint(targetFieldGroup.getPath(), targetFieldGroup.getField().size());
+                try {
+                    for (Field f : targetFieldGroup.getField()) {
+                        session.head().setTargetField(f);
+                        writer.write(session);
+                    }
+                } finally {
+                    writer.setCollectionSizeHint(null, 0);
                 }
                 return;
             }
@@ -15,9 +15,14 @@
  */
 package io.atlasmap.kafkaconnect.module;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.HashMap;
+
+import org.apache.kafka.connect.data.Schema;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,7 +30,12 @@ import org.junit.jupiter.api.Test;
 import io.atlasmap.kafkaconnect.v2.KafkaConnectComplexType;
 import io.atlasmap.kafkaconnect.v2.KafkaConnectEnumField;
 import io.atlasmap.kafkaconnect.v2.KafkaConnectField;
+import io.atlasmap.kafkaconnect.v2.KafkaConnectConstants;
+import io.atlasmap.kafkaconnect.v2.KafkaConnectSchemaType;
 import io.atlasmap.v2.ConstantField;
+import io.atlasmap.v2.DataSource;
+import io.atlasmap.v2.DataSourceMetadata;
+import io.atlasmap.v2.DataSourceType;
 import io.atlasmap.v2.PropertyField;
 import io.atlasmap.v2.SimpleField;
 
@@ -53,4 +63,23 @@ public class KafkaConnectModuleTest {
         assertTrue(module.isSupportedField(new SimpleField()));
     }
 
+    @Test
+    public void testInitParsesSchema() throws Exception {
+        DataSource ds = new DataSource();
+        ds.setDataSourceType(DataSourceType.TARGET);
+        module.setDataSource(ds);
+        DataSourceMetadata meta = new DataSourceMetadata();
+        meta.setSpecification(("{\"type\":\"struct\",\"name\":\"struct\",\"fields\":["
+            + "{\"field\":\"f0\",\"type\":\"string\"}]}").getBytes());
+        HashMap<String, String> params = new HashMap<>();
+        params.put(KafkaConnectConstants.OPTIONS_SCHEMA_TYPE, KafkaConnectSchemaType.JSON.name());
+        meta.setInspectionParameters(params);
+        module.setDataSourceMetadata(meta);
+        module.init();
+        Schema schema = module.getSchema();
+        assertNotNull(schema);
+        assertEquals(Schema.Type.STRUCT, schema.type());
+        assertTrue(schema.field("f0").schema().isOptional());
+    }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.xml.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * The index of child elements grouped by the name without namespace alias. The children of
+ * each parent element are scanned only once on first access, and the subsequent lookups are
+ * served from the index. This is meant to be used against a read-only document such as
+ * a source document for {@link XmlFieldReader}, the index is not updated when the document
+ * is modified.
+ */
+public class XmlChildElementIndex {
+
+    private final Map<Element, Map<String, ChildBucket>> index = new IdentityHashMap<>();
+
+    /**
+     * Gets the children which has the specified name with stripping namespace alias.
+     * @param name name
+     * @param namespace namespace URI, or empty to ignore namespace
+     * @param parentNode parent
+     * @return unmodifiable list of children
+     */
+    public List<Element> getChildrenWithNameStripAlias(String name, Optional<String> namespace, Element parentNode) {
+        if (parentNode == null) {
+            return Collections.emptyList();
+        }
+        ChildBucket bucket = index.computeIfAbsent(parentNode, XmlChildElementIndex::buildBuckets).get(name);
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        return namespace.isPresent() ? bucket.getElements(namespace.get()) : bucket.getElements();
+    }
+
+    /**
+     * Clears the index.
+     */
+    public void clear() {
+        index.clear();
+    }
+
+    private static Map<String, ChildBucket> buildBuckets(Element parentNode) {
+        Map<String, ChildBucket> buckets = new HashMap<>();
+        NodeList nodeChildren = parentNode.getChildNodes();
+        for (int i = 0; i < nodeChildren.getLength(); i++) {
+            Node child = nodeChildren.item(i);
+            if (child instanceof Element) {
+                String nodeName = child.getLocalName() != null ? child.getLocalName()
+                        : XmlIOHelper.getNodeNameWithoutNamespaceAlias(child);
+                buckets.computeIfAbsent(nodeName, k -> new ChildBucket()).add((Element) child);
+            }
+        }
+        return buckets;
+    }
+
+    private static class ChildBucket {
+        private final List<Element> elements = new ArrayList<>(1);
+        private Map<String, List<Element>> byNamespace;
+
+        private void add(Element element) {
+            elements.add(element);
+        }
+
+        private List<Element> getElements() {
+            return Collections.unmodifiableList(elements);
+        }
+
+        private List<Element> getElements(String namespace) {
+            if (byNamespace == null) {
+                byNamespace = new HashMap<>();
+                for (Element e : elements) {
+                    if (e.getNamespaceURI() != null) {
+                        byNamespace.computeIfAbsent(e.getNamespaceURI(), k -> new ArrayList<>(1)).add(e);
+                    }
+                }
+            }
+            List<Element> answer = byNamespace.get(namespace);
+            return answer != null ? Collections.unmodifiableList(answer) : Collections.emptyList();
+        }
+    }
+
+}
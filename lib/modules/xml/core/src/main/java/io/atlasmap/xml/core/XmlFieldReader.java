@@ -16,6 +16,7 @@
 package io.atlasmap.xml.core;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -59,6 +60,7 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
 
     private AtlasConversionService conversionService;
     private Document document;
+    private XmlChildElementIndex childIndex = new XmlChildElementIndex();
 
     /**
      * A constructor.
@@ -104,7 +106,7 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         if (LOG.isDebugEnabled()) {
             LOG.debug("Reading source value for field: " + field.getPath());
         }
-        Optional<XmlNamespaces> xmlNamespaces = getSourceNamespaces(session, field);
+        Map<String, String> xmlNamespaces = getSourceNamespaces(session, field);
         XmlPath path = new XmlPath(field.getPath());
         List<Field> fields = getFieldsForPath(session, xmlNamespaces, document.getDocumentElement(), field, path, 0);
 
@@ -121,7 +123,7 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         }
     }
 
-    private List<Field> getFieldsForPath(AtlasInternalSession session, Optional<XmlNamespaces> xmlNamespaces,
+    private List<Field> getFieldsForPath(AtlasInternalSession session, Map<String, String> xmlNamespaces,
      Element node, Field field, XmlPath path, int depth) throws AtlasException {
         List<Field> fields = new ArrayList<>();
         List<XmlSegmentContext> segments = path.getXmlSegments(false);
@@ -156,7 +158,7 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
             if (segment.getName().startsWith(XmlIOHelper.getNodeNameWithoutNamespaceAlias(node))) {
                 Optional<String> rootNamespace = Optional.empty();
                 if (segment.getNamespace() != null) {
-                    rootNamespace = getNamespace(xmlNamespaces, segment.getNamespace());
+                    rootNamespace = segment.resolveNamespaceUri(xmlNamespaces);
                 }
                 if (!rootNamespace.isPresent() || rootNamespace.get().equals(node.getNamespaceURI())) {
                     // processing root node part of path such as the "XOA" part of
@@ -180,9 +182,8 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         }
 
         String fieldName = segment.getName();
-        String fieldNamespace = segment.getNamespace();
-        Optional<String> namespace = getNamespace(xmlNamespaces, fieldNamespace);
-        List<Element> children = XmlIOHelper.getChildrenWithNameStripAlias(fieldName, namespace, node);
+        Optional<String> namespace = segment.resolveNamespaceUri(xmlNamespaces);
+        List<Element> children = childIndex.getChildrenWithNameStripAlias(fieldName, namespace, node);
         if (children == null || children.isEmpty()) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Skipping source value set, couldn't find children with name '" + fieldName
@@ -229,14 +230,14 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         return fields;
     }
 
-    private void populateChildFields(AtlasInternalSession session, Optional<XmlNamespaces> xmlNamespaces,
+    private void populateChildFields(AtlasInternalSession session, Map<String, String> xmlNamespaces,
      Element node, FieldGroup fieldGroup, AtlasPath path) throws AtlasException {
         List<Field> newChildren = new ArrayList<>();
         for (Field child : fieldGroup.getField()) {
             XmlPath childPath = new XmlPath(child.getPath());
-            String fieldNamespace = childPath.getLastSegment().getNamespace();
-            Optional<String> namespace = getNamespace(xmlNamespaces, fieldNamespace);
-            List<Element> children = XmlIOHelper.getChildrenWithNameStripAlias(childPath.getLastSegment().getName(), namespace, node);
+            Optional<String> namespace = childPath.getLastSegment().resolveNamespaceUri(xmlNamespaces);
+            List<Element> children = childIndex.getChildrenWithNameStripAlias(
+                    childPath.getLastSegment().getName(), namespace, node);
             if (childPath.getLastSegment().getCollectionType() != CollectionType.NONE) {
                 FieldGroup childGroup = populateCollectionItems(session, xmlNamespaces, children, child);
                 newChildren.add(childGroup);
@@ -253,7 +254,7 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         fieldGroup.getField().addAll(newChildren);
     }
 
-    private FieldGroup populateCollectionItems(AtlasInternalSession session, Optional<XmlNamespaces> xmlNamespaces,
+    private FieldGroup populateCollectionItems(AtlasInternalSession session, Map<String, String> xmlNamespaces,
      List<Element> elements, Field field) throws AtlasException {
         FieldGroup group = field instanceof FieldGroup ?
          (FieldGroup)field : AtlasModelFactory.createFieldGroupFrom(field, true);
@@ -276,7 +277,7 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         return group;
     }
 
-    private void copyValue(AtlasInternalSession session, Optional<XmlNamespaces> xmlNamespaces,
+    private void copyValue(AtlasInternalSession session, Map<String, String> xmlNamespaces,
             XmlSegmentContext sc, Element node, XmlField xmlField) {
         if (xmlField.getFieldType() == null) {
             xmlField.setFieldType(FieldType.STRING);
@@ -285,9 +286,9 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
         String value;
         if (sc.isAttribute()) {
             if (sc.getNamespace() != null && !sc.getNamespace().isEmpty()) {
-                if (getNamespace(xmlNamespaces, sc.getNamespace()).isPresent()) {
-                    value = node.getAttributeNS(
-                        getNamespace(xmlNamespaces, sc.getNamespace()).get(), sc.getName());
+                Optional<String> namespace = sc.resolveNamespaceUri(xmlNamespaces);
+                if (namespace.isPresent()) {
+                    value = node.getAttributeNS(namespace.get(), sc.getName());
                 } else {
                     String attributeName = sc.getQName();
                     value = node.getAttribute(attributeName);
@@ -327,14 +328,16 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
      */
     public void setDocument(Document document) throws AtlasException {
         this.document = document;
+        this.childIndex.clear();
     }
 
-    private Optional<XmlNamespaces> getSourceNamespaces(AtlasInternalSession session, Field field) {
+    private Map<String, String> getSourceNamespaces(AtlasInternalSession session, Field field) {
+        Map<String, String> answer = new HashMap<>();
         DataSource dataSource = null;
         AtlasMapping mapping = session.getMapping();
         // this is to simplify tests which uses mocks
         if (mapping == null || mapping.getDataSource() == null || field.getDocId() == null) {
-            return Optional.empty();
+            return answer;
         }
         List<DataSource> dataSources = mapping.getDataSource();
         for (DataSource source : dataSources) {
@@ -347,24 +350,16 @@ public class XmlFieldReader extends XmlFieldTransformer implements AtlasFieldRea
             }
         }
         if (dataSource == null || !XmlDataSource.class.isInstance(dataSource)) {
-            return Optional.empty();
+            return answer;
         }
-        XmlDataSource xmlDataSource = XmlDataSource.class.cast(dataSource);
-        return xmlDataSource.getXmlNamespaces() != null ? Optional.of(xmlDataSource.getXmlNamespaces()) : Optional.empty();
-    }
-
-    private Optional<String> getNamespace(Optional<XmlNamespaces> xmlNamespaces, String namespaceAlias) {
-        Optional<String> namespace = Optional.empty();
-        if (xmlNamespaces.isPresent()) {
-            for (XmlNamespace xmlNamespace : xmlNamespaces.get().getXmlNamespace()) {
-                if ((xmlNamespace.getAlias() == null && namespaceAlias == null)
-                    || xmlNamespace.getAlias().equals(namespaceAlias)) {
-                    namespace = Optional.of(xmlNamespace.getUri());
-                    break;
-                }
+        XmlNamespaces xmlNamespaces = XmlDataSource.class.cast(dataSource).getXmlNamespaces();
+        if (xmlNamespaces != null) {
+            for (XmlNamespace xmlNamespace : xmlNamespaces.getXmlNamespace()) {
+                // the first one wins
+                answer.putIfAbsent(xmlNamespace.getAlias(), xmlNamespace.getUri());
             }
         }
-        return namespace;
+        return answer;
     }
 
 }
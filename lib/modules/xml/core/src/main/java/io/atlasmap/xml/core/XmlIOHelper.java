@@ -20,8 +20,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
@@ -32,11 +36,12 @@ import org.w3c.dom.NodeList;
 import io.atlasmap.api.AtlasException;
 
 /**
- * The XML IO helper.
+ * The XML IO helper. It's thread safe so that it can be shared among the modules, a
+ * {@link Transformer} is created for each use since it's not.
  */
 public final class XmlIOHelper {
 
-    private TransformerFactory transformerFactory;
+    private final TransformerFactory transformerFactory;
 
     /**
      * A constructor.
@@ -112,7 +117,7 @@ public final class XmlIOHelper {
             if (node == null) {
                 return "";
             }
-            Transformer transformer = transformerFactory.newTransformer();
+            Transformer transformer = newTransformer();
             StringWriter writer = new StringWriter();
             transformer.transform(new DOMSource(node), new StreamResult(writer));
 
@@ -127,6 +132,45 @@ public final class XmlIOHelper {
         }
     }
 
+    /**
+     * Writes the XML Document into the {@link Result}. If it's an empty {@link DOMResult},
+     * the node is handed over as is without being copied.
+     * @param node node
+     * @param result result to write into
+     * @throws AtlasException unexpected error
+     */
+    public void writeDocument(Node node, Result result) throws AtlasException {
+        if (node == null) {
+            return;
+        }
+        if (result instanceof DOMResult && ((DOMResult) result).getNode() == null) {
+            ((DOMResult) result).setNode(node);
+            return;
+        }
+        transform(new DOMSource(node), result);
+    }
+
+    /**
+     * Transforms the {@link Source} into the {@link Result} with an identity transformer.
+     * @param source source
+     * @param result result
+     * @throws AtlasException unexpected error
+     */
+    public void transform(Source source, Result result) throws AtlasException {
+        try {
+            newTransformer().transform(source, result);
+        } catch (Exception e) {
+            throw new AtlasException(e);
+        }
+    }
+
+    private Transformer newTransformer() throws TransformerConfigurationException {
+        // TransformerFactory is not guaranteed to be thread safe
+        synchronized (this.transformerFactory) {
+            return this.transformerFactory.newTransformer();
+        }
+    }
+
     /**
      * Gets the node name without namespace alias.
      * @param child node
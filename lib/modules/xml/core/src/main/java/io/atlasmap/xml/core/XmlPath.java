@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import io.atlasmap.core.AtlasPath;
 import io.atlasmap.v2.CollectionType;
@@ -144,6 +145,7 @@ public class XmlPath extends AtlasPath {
     public static class XmlSegmentContext extends SegmentContext {
         private String namespace;
         private String qname;
+        private Optional<String> namespaceUri;
 
         /**
          * A constructor.
@@ -168,6 +170,28 @@ public class XmlPath extends AtlasPath {
             return namespace;
         }
 
+        /**
+         * Gets the namespace URI resolved from the namespace alias with
+         * {@link #resolveNamespaceUri(Map)}.
+         * @return namespace URI, empty if it's not available, or null if not yet resolved
+         */
+        public Optional<String> getNamespaceUri() {
+            return namespaceUri;
+        }
+
+        /**
+         * Resolves the namespace URI from the namespace alias and keeps it in this segment
+         * so that it can be reused while traversing the document.
+         * @param namespaces a map from namespace alias to URI
+         * @return namespace URI, or empty if it's not available
+         */
+        public Optional<String> resolveNamespaceUri(Map<String, String> namespaces) {
+            if (namespaceUri == null) {
+                namespaceUri = namespaces != null ? Optional.ofNullable(namespaces.get(namespace)) : Optional.empty();
+            }
+            return namespaceUri;
+        }
+
         /**
          * Gets the QName string.
          * @return QName
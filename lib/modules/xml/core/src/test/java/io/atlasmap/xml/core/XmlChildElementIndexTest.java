@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017 Red Hat, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atlasmap.xml.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+public class XmlChildElementIndexTest {
+
+    private static final String XML = "<orders xmlns:x=\"http://x.example.com\" xmlns:y=\"http://y.example.com\">"
+        + "<x:order>1</x:order><y:order>2</y:order><x:order>3</x:order><order>4</order><item>5</item>"
+        + "</orders>";
+
+    @Test
+    public void testGetChildrenWithNameStripAlias() throws Exception {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Document doc = dbf.newDocumentBuilder().parse(new InputSource(new StringReader(XML)));
+        Element root = doc.getDocumentElement();
+        XmlChildElementIndex index = new XmlChildElementIndex();
+
+        List<Element> all = index.getChildrenWithNameStripAlias("order", Optional.empty(), root);
+        assertEquals(XmlIOHelper.getChildrenWithNameStripAlias("order", Optional.empty(), root), all);
+        assertEquals(4, all.size());
+        List<Element> x = index.getChildrenWithNameStripAlias("order", Optional.of("http://x.example.com"), root);
+        assertEquals(XmlIOHelper.getChildrenWithNameStripAlias("order", Optional.of("http://x.example.com"), root), x);
+        assertEquals(2, x.size());
+        assertEquals("1", x.get(0).getTextContent());
+        assertEquals("3", x.get(1).getTextContent());
+        assertSame(all.get(1),
+            index.getChildrenWithNameStripAlias("order", Optional.of("http://y.example.com"), root).get(0));
+        assertEquals(1, index.getChildrenWithNameStripAlias("item", Optional.empty(), root).size());
+        assertTrue(index.getChildrenWithNameStripAlias("none", Optional.empty(), root).isEmpty());
+        assertTrue(index.getChildrenWithNameStripAlias("order", Optional.of("http://z.example.com"), root).isEmpty());
+        assertTrue(index.getChildrenWithNameStripAlias("order", Optional.empty(), null).isEmpty());
+    }
+
+}
@@ -16,6 +16,8 @@
 package io.atlasmap.xml.core;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -54,4 +56,19 @@ public class XmlPathTest {
 
     }
 
+    @Test
+    public void testResolveNamespaceUri() {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        namespaces.put("x", "http://x.example.com");
+        namespaces.put(null, "http://default.example.com");
+        XmlPath path = new XmlPath("/orders/x:order/id/@y:custId");
+        XmlPath.XmlSegmentContext order = path.getXmlSegments(false).get(1);
+        assertNull(order.getNamespaceUri());
+        assertEquals("http://x.example.com", order.resolveNamespaceUri(namespaces).get());
+        assertEquals("http://x.example.com", order.getNamespaceUri().get());
+        assertEquals("http://default.example.com",
+            path.getXmlSegments(false).get(2).resolveNamespaceUri(namespaces).get());
+        assertFalse(path.getXmlSegments(false).get(3).resolveNamespaceUri(namespaces).isPresent());
+    }
+
 }
@@ -16,6 +16,11 @@
 package io.atlasmap.xml.module;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,11 +28,18 @@ import java.util.Map;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
 
 import com.sun.xml.xsom.XSElementDecl;
 import com.sun.xml.xsom.XSSchemaSet;
@@ -43,6 +55,7 @@ import io.atlasmap.spi.AtlasModuleDetail;
 import io.atlasmap.v2.AtlasModelFactory;
 import io.atlasmap.v2.AuditStatus;
 import io.atlasmap.v2.DataSource;
+import io.atlasmap.v2.DataSourceMetadata;
 import io.atlasmap.v2.Field;
 import io.atlasmap.v2.FieldGroup;
 import io.atlasmap.v2.InspectionType;
@@ -70,11 +83,32 @@ public class XmlModule extends BaseAtlasModule {
     private static final Logger LOG = LoggerFactory.getLogger(XmlModule.class);
 
     private XmlIOHelper ioHelper;
+    private XSSchemaSet schemaSet;
 
     @Override
     public void init() throws AtlasException {
         super.init();
-        this.ioHelper = new XmlIOHelper(this.getClassLoader());
+        this.ioHelper = acquireMetadata(XmlIOHelper.class.getName(), getClassLoader(),
+            () -> new XmlIOHelper(getClassLoader()));
+        this.schemaSet = null;
+        DataSourceMetadata meta = getDataSourceMetadata();
+        if (meta == null || meta.getInspectionType() != InspectionType.SCHEMA
+                || meta.getSpecification() == null || meta.getSpecification().length == 0) {
+            return;
+        }
+        byte[] bytes = meta.getSpecification();
+        try {
+            // the schema set is shared among the modules and only read once parsed, the parser
+            // resolves the imported schemas with the class loader so that it's a part of the key
+            this.schemaSet = acquireMetadata(XSSchemaSet.class.getName(),
+                Arrays.asList(getClassLoader(), ByteBuffer.wrap(bytes)),
+                () -> new AtlasXmlSchemaSetParser(getClassLoader()).parse(new ByteArrayInputStream(bytes)));
+        } catch (Exception e) {
+            LOG.warn("Failed to load XML schema for the document '{}': {} - ignoring", getDocId(), e.getMessage());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("", e);
+            }
+        }
     }
 
     @Override
@@ -110,14 +144,14 @@ public class XmlModule extends BaseAtlasModule {
     @Override
     public void processPreSourceExecution(AtlasInternalSession session) throws AtlasException {
         Object sourceDocument = session.getSourceDocument(getDocId());
-        String sourceDocumentString = null;
-        boolean enableNamespaces = false;
-        if (sourceDocument == null || !(sourceDocument instanceof String)) {
+        Document sourceXmlDocument = null;
+        if (sourceDocument == null || !isSupportedSourceDocument(sourceDocument)) {
             AtlasUtil.addAudit(session, getDocId(), String.format(
-                    "Null or non-String source document: docId='%s'", getDocId()),
+                    "Null or unsupported type of source document: docId='%s', type='%s'", getDocId(),
+                    sourceDocument != null ? sourceDocument.getClass().getName() : null),
                     AuditStatus.WARN, null);
         } else {
-            enableNamespaces = true;
+            boolean enableNamespaces = true;
             String param = this.getUriParameters().get("disableNamespaces");
             if (param != null && "true".equalsIgnoreCase(param)) {
                 if (LOG.isDebugEnabled()) {
@@ -125,9 +159,8 @@ public class XmlModule extends BaseAtlasModule {
                 }
                 enableNamespaces = false;
             }
-            sourceDocumentString = String.class.cast(sourceDocument);
+            sourceXmlDocument = toXmlDocument(sourceDocument, enableNamespaces);
         }
-        Document sourceXmlDocument = convertToXmlDocument(sourceDocumentString, enableNamespaces);
         XmlFieldReader reader = new XmlFieldReader(getClassLoader(), getConversionService());
         reader.setDocument(sourceXmlDocument);
         session.setFieldReader(getDocId(), reader);
@@ -137,6 +170,67 @@ public class XmlModule extends BaseAtlasModule {
         }
     }
 
+    /**
+     * Checks if the source document is one of the supported types, which are {@code String},
+     * {@code byte[]}, {@link InputStream}, {@link Reader}, {@link Source}, {@link Document}
+     * and {@link Element}.
+     * @param sourceDocument source document
+     * @return true if supported, or false
+     */
+    protected boolean isSupportedSourceDocument(Object sourceDocument) {
+        return sourceDocument instanceof String
+                || sourceDocument instanceof byte[]
+                || sourceDocument instanceof InputStream
+                || sourceDocument instanceof Reader
+                || sourceDocument instanceof Source
+                || sourceDocument instanceof Document
+                || sourceDocument instanceof Element;
+    }
+
+    /**
+     * Converts a source document object into XML Document. {@link Document} and {@link Element}
+     * are used as is without serialization, other types are delegated to the corresponding
+     * {@code convertToXmlDocument()}.
+     * @param source source document
+     * @param namespaced whether to be namespace aware or not
+     * @return converted
+     * @throws AtlasException unexpected error
+     */
+    protected Document toXmlDocument(Object source, boolean namespaced) throws AtlasException {
+        if (source instanceof Document) {
+            return (Document) source;
+        } else if (source instanceof Element) {
+            return toXmlDocument((Element) source);
+        } else if (source instanceof String) {
+            return convertToXmlDocument((String) source, namespaced);
+        } else if (source instanceof byte[]) {
+            return convertToXmlDocument(new ByteArrayInputStream((byte[]) source), namespaced);
+        } else if (source instanceof InputStream) {
+            return convertToXmlDocument((InputStream) source, namespaced);
+        } else if (source instanceof Reader) {
+            return convertToXmlDocument((Reader) source, namespaced);
+        } else if (source instanceof Source) {
+            return convertToXmlDocument((Source) source, namespaced);
+        }
+        return null;
+    }
+
+    private Document toXmlDocument(Element element) throws AtlasException {
+        Document owner = element.getOwnerDocument();
+        if (owner != null && owner.getDocumentElement() == element) {
+            return owner;
+        }
+        try {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setNamespaceAware(true);
+            Document doc = dbf.newDocumentBuilder().newDocument();
+            doc.appendChild(doc.importNode(element, true));
+            return doc;
+        } catch (Exception e) {
+            throw new AtlasException(e);
+        }
+    }
+
     /**
      * Convert a source document into XML. The modules extending this class can
      * override this to convert some format into XML so that XML field reader can read it.
@@ -149,17 +243,70 @@ public class XmlModule extends BaseAtlasModule {
         if (source == null || source.isEmpty()) {
             return null;
         }
+        return parseXmlDocument(new InputSource(new StringReader(source)), namespaced);
+    }
 
+    /**
+     * Convert a source byte stream into XML. The modules extending this class can
+     * override this to convert some format into XML so that XML field reader can read it.
+     * @param source some document which can be converted to XML
+     * @param namespaced whether to be namespace aware or not
+     * @return converted
+     * @throws AtlasException unexpected error
+     */
+    protected Document convertToXmlDocument(InputStream source, boolean namespaced) throws AtlasException {
+        return parseXmlDocument(new InputSource(source), namespaced);
+    }
+
+    /**
+     * Convert a source character stream into XML. The modules extending this class can
+     * override this to convert some format into XML so that XML field reader can read it.
+     * @param source some document which can be converted to XML
+     * @param namespaced whether to be namespace aware or not
+     * @return converted
+     * @throws AtlasException unexpected error
+     */
+    protected Document convertToXmlDocument(Reader source, boolean namespaced) throws AtlasException {
+        return parseXmlDocument(new InputSource(source), namespaced);
+    }
+
+    /**
+     * Convert a source {@link Source} into XML. A {@link DOMSource} is used as is, stream
+     * and SAX sources are parsed, and any other type of source is transformed into DOM.
+     * The modules extending this class can override this to convert some format into XML
+     * so that XML field reader can read it.
+     * @param source some document which can be converted to XML
+     * @param namespaced whether to be namespace aware or not
+     * @return converted
+     * @throws AtlasException unexpected error
+     */
+    protected Document convertToXmlDocument(Source source, boolean namespaced) throws AtlasException {
+        if (source instanceof DOMSource) {
+            Node node = ((DOMSource) source).getNode();
+            if (node instanceof Document || node instanceof Element) {
+                return toXmlDocument(node, namespaced);
+            }
+        }
+        InputSource inputSource = SAXSource.sourceToInputSource(source);
+        if (inputSource != null) {
+            return parseXmlDocument(inputSource, namespaced);
+        }
+        DOMResult result = new DOMResult();
+        getXmlIOHelper().transform(source, result);
+        return (Document) result.getNode();
+    }
+
+    private Document parseXmlDocument(InputSource source, boolean namespaced) {
         try {
             DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
             dbf.setNamespaceAware(namespaced); // this must be done to use namespaces
             DocumentBuilder b = dbf.newDocumentBuilder();
-            return b.parse(new ByteArrayInputStream(source.getBytes("UTF-8")));
+            return b.parse(source);
         } catch (Exception e) {
             LOG.warn("Failed to parse XML document", e);
             return null;
         }
-    };
+    }
 
     @Override
     public void processPreTargetExecution(AtlasInternalSession session) throws AtlasException {
@@ -318,8 +465,12 @@ public class XmlModule extends BaseAtlasModule {
         XmlFieldWriter writer = session.getFieldWriter(getDocId(), XmlFieldWriter.class);
         if (writer != null && writer.getDocument() != null) {
             Document doc = enforceSchema(writer.getDocument());
-            String targetDocumentString = convertFromXmlDocument(doc);
-            session.setTargetDocument(getDocId(), targetDocumentString);
+            Object targetDocument = session.hasTargetDocument(getDocId())
+                    ? session.getTargetDocument(getDocId()) : null;
+            if (!writeToTargetDocument(doc, targetDocument)) {
+                String targetDocumentString = convertFromXmlDocument(doc);
+                session.setTargetDocument(getDocId(), targetDocumentString);
+            }
         } else {
             AtlasUtil.addAudit(session, getDocId(), String
                     .format("No target document created for DataSource:[id=%s, uri=%s]", getDocId(), this.getUri()),
@@ -343,6 +494,37 @@ public class XmlModule extends BaseAtlasModule {
         return getXmlIOHelper().writeDocumentToString(false, xml);
     }
 
+    /**
+     * Writes a target XML document into the target document object supplied by the caller.
+     * A {@link Result} is supported here, and the modules extending this class can override this
+     * to support other types of target document. The supplied target document object is left as is
+     * in the session so that the caller can pick up the output from there.
+     * @param xml XML document written by XML field writer
+     * @param targetDocument target document object supplied by the caller, or null if not supplied
+     * @return true if it's written, or false if the target document object is not supported
+     * @throws AtlasException unexpected error
+     */
+    protected boolean writeToTargetDocument(Document xml, Object targetDocument) throws AtlasException {
+        if (targetDocument instanceof Result) {
+            convertFromXmlDocument(xml, (Result) targetDocument);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Convert a target XML document into some format and write it into the {@link Result}
+     * supplied as a target document. An empty {@link javax.xml.transform.dom.DOMResult}
+     * receives the XML document as is. The modules extending this class can override this
+     * to convert interim XML document written by XML field writer into final format.
+     * @param xml XML document written by XML field writer
+     * @param result the result to write into
+     * @throws AtlasException unexpected error
+     */
+    protected void convertFromXmlDocument(Document xml, Result result) throws AtlasException {
+        getXmlIOHelper().writeDocument(xml, result);
+    }
+
     @Override
     public Boolean isSupportedField(Field field) {
         if (super.isSupportedField(field)) {
@@ -370,14 +552,10 @@ public class XmlModule extends BaseAtlasModule {
     }
 
     private Document enforceSchema(Document doc) {
-        if (getDataSourceMetadata() == null || getDataSourceMetadata().getInspectionType() != InspectionType.SCHEMA
-            || getDataSourceMetadata().getSpecification() == null || getDataSourceMetadata().getSpecification().length == 0) {
+        if (schemaSet == null) {
             return doc;
         }
         try {
-            byte[] bytes = getDataSourceMetadata().getSpecification();
-            AtlasXmlSchemaSetParser schemaParser = new AtlasXmlSchemaSetParser(getClassLoader());
-            XSSchemaSet schemaSet = schemaParser.parse(new ByteArrayInputStream(bytes));
             Element sourceRoot = doc.getDocumentElement();
             String namespaceUri = sourceRoot.getNamespaceURI();
             if (namespaceUri == null) {
@@ -399,7 +577,7 @@ public class XmlModule extends BaseAtlasModule {
             rootDecl.visit(new AtlasRewritingXSVisitor(doc, targetDoc));
             return targetDoc;
         } catch (Exception e) {
-            LOG.warn("Failed to load XML schema for the document '{}': {} - ignoring", getDocId(), e.getMessage());
+            LOG.warn("Failed to enforce XML schema for the document '{}': {} - ignoring", getDocId(), e.getMessage());
             if (LOG.isDebugEnabled()) {
                 LOG.debug("", e);
             }